@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.Random;
+
+/**
+ * Benchmarks for {@link Hashing#consistentHash}, {@link ConsistentHashRing} and {@link
+ * RendezvousHasher}: the cost of a lookup, and the cost of a membership change (removing a node and
+ * adding it back), which for the latter two copies the node arrays.
+ *
+ * <p>The fraction of keys remapped by a membership change (the "churn") is not a timing, so it is
+ * checked by {@code ConsistentHashRingTest} and {@code RendezvousHasherTest} instead; for all three
+ * strategies it is about {@code 1 / nodes}.
+ */
+public class ConsistentHashingBenchmark {
+  private static final int KEYS = 1 << 12;
+
+  @Param({"10", "100", "1000"})
+  private int nodes;
+
+  @Param({"160"})
+  private int virtualNodesPerWeight;
+
+  private final long[] keys = new long[KEYS];
+  private ConsistentHashRing<Integer> ring;
+  private RendezvousHasher<Integer> rendezvous;
+  private RendezvousHasher<Integer> weightedRendezvous;
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = random.nextLong();
+    }
+    ring =
+        ConsistentHashRing.create(
+            Funnels.integerFunnel(), Hashing.murmur3_128(), virtualNodesPerWeight);
+    rendezvous = RendezvousHasher.create(Funnels.integerFunnel(), Hashing.murmur3_128());
+    weightedRendezvous = RendezvousHasher.create(Funnels.integerFunnel(), Hashing.murmur3_128());
+    for (int i = 0; i < nodes; i++) {
+      ring.add(i);
+      rendezvous.add(i);
+      weightedRendezvous.add(i, 1 + (i % 3));
+    }
+  }
+
+  @Benchmark
+  int jumpLookup(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += Hashing.consistentHash(keys[i & (KEYS - 1)], nodes);
+    }
+    return result;
+  }
+
+  @Benchmark
+  int ringLookup(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += ring.get(keys[i & (KEYS - 1)]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  int rendezvousLookup(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += rendezvous.get(keys[i & (KEYS - 1)]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  int weightedRendezvousLookup(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += weightedRendezvous.get(keys[i & (KEYS - 1)]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  int ringRemoveAndAdd(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      int node = i % nodes;
+      ring.remove(node);
+      ring.add(node);
+      result += ring.get(keys[i & (KEYS - 1)]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  int rendezvousRemoveAndAdd(int reps) {
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      int node = i % nodes;
+      rendezvous.remove(node);
+      rendezvous.add(node);
+      result += rendezvous.get(keys[i & (KEYS - 1)]);
+    }
+    return result;
+  }
+}
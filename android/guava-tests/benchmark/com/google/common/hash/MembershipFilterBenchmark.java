@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the query speed of {@link BloomFilter}, {@link XorFilter} and {@link CuckooFilter}.
+ *
+ * <p>Parameters for the benchmark are:
+ *
+ * <ul>
+ *   <li>filterType: The filter to query. The Bloom filters are created with a false positive
+ *       probability of 1/256, the same as an {@code XorFilter}; a {@code CuckooFilter} has a lower
+ *       one.
+ *   <li>size: The number of elements in the filter.
+ * </ul>
+ */
+public class MembershipFilterBenchmark {
+  private static final int SAMPLES = 1 << 16;
+  private static final int SAMPLE_MASK = SAMPLES - 1;
+  private static final double FPP = 1.0 / 256;
+
+  enum FilterType {
+    BLOOM {
+      @Override
+      Filter create(List<Long> elements) {
+        BloomFilter<Long> filter = BloomFilter.create(Funnels.longFunnel(), elements.size(), FPP);
+        for (Long element : elements) {
+          filter.put(element);
+        }
+        return filter::mightContain;
+      }
+    },
+    BLOCKED_BLOOM {
+      @Override
+      Filter create(List<Long> elements) {
+        BloomFilter<Long> filter =
+            BloomFilter.createBlocked(Funnels.longFunnel(), elements.size(), FPP);
+        for (Long element : elements) {
+          filter.put(element);
+        }
+        return filter::mightContain;
+      }
+    },
+    XOR {
+      @Override
+      Filter create(List<Long> elements) {
+        return XorFilter.create(Funnels.longFunnel(), elements)::mightContain;
+      }
+    },
+    CUCKOO {
+      @Override
+      Filter create(List<Long> elements) {
+        CuckooFilter<Long> filter = CuckooFilter.create(Funnels.longFunnel(), elements.size());
+        for (Long element : elements) {
+          filter.put(element);
+        }
+        return filter::mightContain;
+      }
+    };
+
+    abstract Filter create(List<Long> elements);
+  }
+
+  interface Filter {
+    boolean mightContain(long value);
+  }
+
+  @Param FilterType filterType;
+
+  @Param({"100000", "10000000"})
+  int size;
+
+  private Filter filter;
+  private final long[] present = new long[SAMPLES];
+  private final long[] absent = new long[SAMPLES];
+
+  @BeforeExperiment
+  void setUp() {
+    // Even values are inserted, odd values are not.
+    List<Long> elements = new ArrayList<>(size);
+    for (long i = 0; i < size; i++) {
+      elements.add(2 * i);
+    }
+    filter = filterType.create(elements);
+    Random random = new Random(0);
+    for (int i = 0; i < SAMPLES; i++) {
+      long value = 2 * (long) random.nextInt(size);
+      present[i] = value;
+      absent[i] = value + 1;
+    }
+  }
+
+  @Benchmark
+  int mightContainPresent(int reps) {
+    int found = 0;
+    for (int i = 0; i < reps; i++) {
+      if (filter.mightContain(present[i & SAMPLE_MASK])) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  int mightContainAbsent(int reps) {
+    int falsePositives = 0;
+    for (int i = 0; i < reps; i++) {
+      if (filter.mightContain(absent[i & SAMPLE_MASK])) {
+        falsePositives++;
+      }
+    }
+    return falsePositives;
+  }
+}
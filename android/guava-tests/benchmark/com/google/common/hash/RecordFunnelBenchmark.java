@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import java.lang.reflect.Field;
+import java.util.Random;
+
+/**
+ * Benchmarks for {@link Funnels#forRecord}, compared to a hand-written funnel and to a funnel that
+ * reads the fields with reflection on every call. All three funnel the same values.
+ */
+public class RecordFunnelBenchmark {
+  private static final int SIZE = 1 << 10;
+
+  static final class Key {
+    final long id;
+    final int shard;
+    final String name;
+
+    Key(long id, int shard, String name) {
+      this.id = id;
+      this.shard = shard;
+      this.name = name;
+    }
+  }
+
+  private static final Funnel<Key> HAND_WRITTEN =
+      (key, into) -> {
+        into.putLong(key.id);
+        into.putBoolean(true).putInt(key.name.length()).putUnencodedChars(key.name);
+        into.putInt(key.shard);
+      };
+
+  private static final Field[] FIELDS = RecordFunnel.accessors(Key.class).toArray(new Field[0]);
+
+  private static final Funnel<Key> REFLECTIVE =
+      (key, into) -> {
+        try {
+          for (Field field : FIELDS) {
+            Object value = field.get(key);
+            if (value instanceof Long) {
+              into.putLong((Long) value);
+            } else if (value instanceof Integer) {
+              into.putInt((Integer) value);
+            } else {
+              String string = (String) value;
+              into.putBoolean(true).putInt(string.length()).putUnencodedChars(string);
+            }
+          }
+        } catch (IllegalAccessException e) {
+          throw new AssertionError(e);
+        }
+      };
+
+  private static final Funnel<Key> FOR_RECORD = Funnels.forRecord(Key.class);
+
+  private final Key[] keys = new Key[SIZE];
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < SIZE; i++) {
+      keys[i] = new Key(random.nextLong(), random.nextInt(64), "key-" + random.nextInt());
+    }
+  }
+
+  @Benchmark
+  int handWritten(int reps) {
+    return hash(reps, HAND_WRITTEN);
+  }
+
+  @Benchmark
+  int reflective(int reps) {
+    return hash(reps, REFLECTIVE);
+  }
+
+  @Benchmark
+  int forRecord(int reps) {
+    return hash(reps, FOR_RECORD);
+  }
+
+  private int hash(int reps, Funnel<Key> funnel) {
+    HashFunction hashFunction = Hashing.murmur3_128();
+    int result = 0;
+    for (int i = 0; i < reps; i++) {
+      result += hashFunction.hashObject(keys[i & (SIZE - 1)], funnel).asInt();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.io;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Benchmarks for copying one file to another with {@link ByteSource#copyTo(ByteSink)}, which copies
+ * file streams through their channels, compared to copying the streams through a byte array.
+ *
+ * <p>Parameters for the benchmark are:
+ *
+ * <ul>
+ *   <li>size: The size of the file to copy.
+ * </ul>
+ */
+public class ByteSourceCopyBenchmark {
+  @Param({"8192", "1048576", "67108864"})
+  private int size;
+
+  private File from;
+  private File to;
+
+  @BeforeExperiment
+  void setUp() throws IOException {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    from = File.createTempFile("ByteSourceCopyBenchmark", ".bin");
+    to = File.createTempFile("ByteSourceCopyBenchmark", ".bin");
+    Files.write(bytes, from);
+  }
+
+  @AfterExperiment
+  void tearDown() {
+    from.delete();
+    to.delete();
+  }
+
+  @Benchmark
+  long streamCopy(int reps) throws IOException {
+    long result = 0;
+    byte[] buf = new byte[8192];
+    for (int i = 0; i < reps; i++) {
+      try (InputStream in = new FileInputStream(from);
+          OutputStream out = new FileOutputStream(to)) {
+        int r;
+        while ((r = in.read(buf)) != -1) {
+          out.write(buf, 0, r);
+          result += r;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Benchmark
+  long copyTo(int reps) throws IOException {
+    long result = 0;
+    ByteSource source = Files.asByteSource(from);
+    ByteSink sink = Files.asByteSink(to);
+    for (int i = 0; i < reps; i++) {
+      result += source.copyTo(sink);
+    }
+    return result;
+  }
+
+  @Benchmark
+  long mappedCopyTo(int reps) throws IOException {
+    long result = 0;
+    ByteSource source = Files.asMappedByteSource(from);
+    ByteSink sink = Files.asByteSink(to);
+    for (int i = 0; i < reps; i++) {
+      result += source.copyTo(sink);
+    }
+    return result;
+  }
+}
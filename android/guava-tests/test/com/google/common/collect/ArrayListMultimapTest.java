@@ -135,6 +135,34 @@ public class ArrayListMultimapTest extends TestCase {
     assertEquals(multimap, copy);
   }
 
+  public void testCreateFromEntries() {
+    List<Entry<String, Integer>> entries =
+        asList(
+            Maps.immutableEntry("foo", 1),
+            Maps.immutableEntry("bar", 2),
+            Maps.immutableEntry("foo", 3),
+            Maps.immutableEntry("foo", 1));
+    ArrayListMultimap<String, Integer> multimap = ArrayListMultimap.create(entries);
+    assertThat(multimap.get("foo")).containsExactly(1, 3, 1).inOrder();
+    assertThat(multimap.get("bar")).containsExactly(2);
+    assertEquals(4, multimap.size());
+    assertEquals(3, multimap.expectedValuesPerKey);
+  }
+
+  public void testPutAllMultimapAppendsToExistingKeys() {
+    ArrayListMultimap<String, Integer> multimap = ArrayListMultimap.create();
+    multimap.put("foo", 1);
+    ListMultimap<String, Integer> other = LinkedListMultimap.create();
+    other.put("foo", 2);
+    other.put("bar", 3);
+    other.put("foo", 4);
+    assertTrue(multimap.putAll(other));
+    assertThat(multimap.get("foo")).containsExactly(1, 2, 4).inOrder();
+    assertThat(multimap.get("bar")).containsExactly(3);
+    assertEquals(4, multimap.size());
+    assertFalse(multimap.putAll(ArrayListMultimap.<String, Integer>create()));
+  }
+
   public void testCreate() {
     ArrayListMultimap<String, Integer> multimap = ArrayListMultimap.create();
     assertEquals(3, multimap.expectedValuesPerKey);
@@ -92,6 +92,34 @@ public class HashMultimapTest extends TestCase {
     assertEquals(2, copy.expectedValuesPerKey);
   }
 
+  public void testCreateFromEntries() {
+    HashMultimap<String, Integer> multimap =
+        HashMultimap.create(
+            ImmutableList.of(
+                Maps.immutableEntry("foo", 1),
+                Maps.immutableEntry("bar", 2),
+                Maps.immutableEntry("foo", 3),
+                Maps.immutableEntry("foo", 1)));
+    assertEquals(ImmutableSet.of(1, 3), multimap.get("foo"));
+    assertEquals(ImmutableSet.of(2), multimap.get("bar"));
+    assertEquals(3, multimap.size());
+    assertEquals(2, multimap.expectedValuesPerKey);
+  }
+
+  public void testPutAllMultimapSkipsDuplicates() {
+    HashMultimap<String, Integer> multimap = HashMultimap.create();
+    multimap.put("foo", 1);
+    Multimap<String, Integer> other = ArrayListMultimap.create();
+    other.put("foo", 1);
+    assertFalse(multimap.putAll(other));
+    other.put("foo", 2);
+    other.put("bar", 3);
+    assertTrue(multimap.putAll(other));
+    assertEquals(ImmutableSet.of(1, 2), multimap.get("foo"));
+    assertEquals(ImmutableSet.of(3), multimap.get("bar"));
+    assertEquals(3, multimap.size());
+  }
+
   public void testCreateFromSizes() {
     HashMultimap<String, Integer> multimap = HashMultimap.create(20, 15);
     multimap.put("foo", 1);
@@ -560,6 +560,65 @@ public class ImmutableListTest extends TestCase {
     assertEquals(asList("a", "b", "c", "d"), list);
   }
 
+  @GwtIncompatible // segmentedBuilder
+  public void testSegmentedBuilder_small() {
+    ImmutableList<String> list =
+        ImmutableList.<String>segmentedBuilder()
+            .add("a")
+            .add("b", "a")
+            .addAll(asList("c", "d"))
+            .addAll(asList("e").iterator())
+            .build();
+    assertEquals(asList("a", "b", "a", "c", "d", "e"), list);
+    assertEquals(ImmutableList.of(), ImmutableList.segmentedBuilder().build());
+  }
+
+  @GwtIncompatible // segmentedBuilder
+  public void testSegmentedBuilder_large() {
+    int size = 3 * SegmentedImmutableList.SEGMENT_SIZE + 7;
+    List<Integer> expected = ContiguousSet.closedOpen(0, size).asList();
+    ImmutableList<Integer> list =
+        ImmutableList.<Integer>segmentedBuilder().addAll(expected).build();
+    assertTrue(list instanceof SegmentedImmutableList);
+    assertEquals(expected, list);
+    assertEquals(expected.hashCode(), list.hashCode());
+    assertEquals(
+        SegmentedImmutableList.SEGMENT_SIZE, (int) list.get(SegmentedImmutableList.SEGMENT_SIZE));
+    assertEquals(size - 1, (int) list.get(size - 1));
+    assertTrue(Arrays.equals(expected.toArray(), list.toArray()));
+    assertEquals(expected.subList(100, size - 100), list.subList(100, size - 100));
+    assertSame(list, ImmutableList.copyOf(list));
+    long sum = 0;
+    for (int i : list) {
+      sum += i;
+    }
+    assertEquals((size - 1L) * size / 2, sum);
+    assertEquals(expected, SerializableTester.reserialize(list));
+  }
+
+  @GwtIncompatible // segmentedBuilder
+  public void testSegmentedBuilder_reuse() {
+    ImmutableList.SegmentedBuilder<Integer> builder = ImmutableList.segmentedBuilder();
+    List<ImmutableList<Integer>> lists = Lists.newArrayList();
+    int size = 0;
+    for (int target :
+        new int[] {
+          1,
+          SegmentedImmutableList.SEGMENT_SIZE,
+          SegmentedImmutableList.SEGMENT_SIZE + 1,
+          2 * SegmentedImmutableList.SEGMENT_SIZE,
+          2 * SegmentedImmutableList.SEGMENT_SIZE + 3
+        }) {
+      while (size < target) {
+        builder.add(size++);
+      }
+      lists.add(builder.build());
+    }
+    for (ImmutableList<Integer> list : lists) {
+      assertEquals(ContiguousSet.closedOpen(0, list.size()).asList(), list);
+    }
+  }
+
   public void testComplexBuilder() {
     List<Integer> colorElem = asList(0x00, 0x33, 0x66, 0x99, 0xCC, 0xFF);
     ImmutableList.Builder<Integer> webSafeColorsBuilder = ImmutableList.builder();
@@ -25,15 +25,26 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.hash.BloomFilterStrategies.LockFreeBitArray;
 import com.google.common.math.LongMath;
 import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 import com.google.common.testing.EqualsTester;
 import com.google.common.testing.NullPointerTester;
 import com.google.common.testing.SerializableTester;
 import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.math.RoundingMode;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
@@ -212,6 +223,42 @@ public class BloomFilterTest extends TestCase {
     assertThat(actualReportedFpp).isWithin(0.00033).of(expectedReportedFpp);
   }
 
+  public void testCreateAndCheckBlockedBloomFilterWithKnownFalsePositives() {
+    int numInsertions = 1000000;
+    BloomFilter<String> bf =
+        BloomFilter.createBlocked(Funnels.unencodedCharsFunnel(), numInsertions, 0.03);
+    assertEquals(0, bf.bitSize() % BloomFilterStrategies.BLOCK_BITS);
+
+    // Insert "numInsertions" even numbers into the BF.
+    for (int i = 0; i < numInsertions * 2; i += 2) {
+      bf.put(Integer.toString(i));
+    }
+    assertApproximateElementCountGuess(bf, numInsertions);
+
+    // Assert that the BF "might" have all of the even numbers.
+    for (int i = 0; i < numInsertions * 2; i += 2) {
+      assertTrue(bf.mightContain(Integer.toString(i)));
+    }
+
+    // Check the exact number of false positives, which changes if the strategy ever changes.
+    int knownNumberOfFalsePositives = 33309;
+    int numFpp = 0;
+    for (int i = 1; i < numInsertions * 2; i += 2) {
+      if (bf.mightContain(Integer.toString(i))) {
+        numFpp++;
+      }
+    }
+    assertEquals(knownNumberOfFalsePositives, numFpp);
+  }
+
+  public void testBasic_blocked() {
+    for (double fpr = 0.0000001; fpr < 0.1; fpr *= 10) {
+      for (int expectedInsertions = 1; expectedInsertions <= 10000; expectedInsertions *= 10) {
+        checkSanity(BloomFilter.createBlocked(HashTestUtils.BAD_FUNNEL, expectedInsertions, fpr));
+      }
+    }
+  }
+
   /** Sanity checking with many combinations of false positive rates and expected insertions */
   public void testBasic() {
     for (double fpr = 0.0000001; fpr < 0.1; fpr *= 10) {
@@ -506,14 +553,221 @@ public class BloomFilterTest extends TestCase {
     assertThat(read.expectedFpp()).isGreaterThan(0);
   }
 
+  public void testCustomSerialization_blocked() throws Exception {
+    Funnel<byte[]> funnel = Funnels.byteArrayFunnel();
+    BloomFilter<byte[]> bf = BloomFilter.createBlocked(funnel, 100, 0.01);
+    for (int i = 0; i < 100; i++) {
+      bf.put(Ints.toByteArray(i));
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    bf.writeTo(out);
+
+    BloomFilter<byte[]> read =
+        BloomFilter.readFrom(new ByteArrayInputStream(out.toByteArray()), funnel);
+    assertThat(read).isEqualTo(bf);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(read.mightContain(Ints.toByteArray(i)));
+    }
+  }
+
+  public void testMap() throws IOException {
+    BloomFilter<Integer> bf = BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      bf.put(i);
+    }
+    File file = writeToTempFile(bf);
+    try {
+      BloomFilter<Integer> mapped =
+          BloomFilter.map(file, MapMode.READ_ONLY, Funnels.integerFunnel());
+      assertEquals(bf, mapped);
+      assertEquals(bf.hashCode(), mapped.hashCode());
+      assertEquals(bf.approximateElementCount(), mapped.approximateElementCount());
+      for (int i = 0; i < 1000; i++) {
+        assertTrue(mapped.mightContain(i));
+        assertFalse(mapped.put(i));
+      }
+      int absent = firstAbsent(mapped);
+      assertThrows(ReadOnlyBufferException.class, () -> mapped.put(absent));
+      assertEquals(bf, mapped.copy());
+    } finally {
+      file.delete();
+    }
+  }
+
+  public void testMap_readWrite() throws IOException {
+    BloomFilter<Integer> bf = BloomFilter.createBlocked(Funnels.integerFunnel(), 2000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      bf.put(i);
+    }
+    File file = writeToTempFile(bf);
+    try {
+      BloomFilter<Integer> mapped =
+          BloomFilter.map(file, MapMode.READ_WRITE, Funnels.integerFunnel());
+      long count = mapped.approximateElementCount();
+      for (int i = 1000; i < 2000; i++) {
+        mapped.put(i);
+      }
+      assertThat(mapped.approximateElementCount()).isGreaterThan(count);
+      BloomFilter<Integer> read = readFromFile(file);
+      assertEquals(mapped, read);
+      assertEquals(read.approximateElementCount(), mapped.approximateElementCount());
+      for (int i = 0; i < 2000; i++) {
+        assertTrue(read.mightContain(i));
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  public void testMap_private() throws IOException {
+    BloomFilter<Integer> bf = BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01);
+    File file = writeToTempFile(bf);
+    try {
+      BloomFilter<Integer> mapped = BloomFilter.map(file, MapMode.PRIVATE, Funnels.integerFunnel());
+      BloomFilter<Integer> other = BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01);
+      other.put(1);
+      mapped.putAll(other);
+      assertTrue(mapped.mightContain(1));
+      assertEquals(bf, readFromFile(file));
+    } finally {
+      file.delete();
+    }
+  }
+
+  public void testMap_notABloomFilter() throws IOException {
+    File file = File.createTempFile("BloomFilterTest", ".bin");
+    try {
+      try (OutputStream out = new FileOutputStream(file)) {
+        out.write(new byte[] {1, 5, 0, 0, 0, 10, 0, 0, 0, 0});
+      }
+      assertThrows(
+          IOException.class,
+          () -> BloomFilter.map(file, MapMode.READ_ONLY, Funnels.integerFunnel()));
+    } finally {
+      file.delete();
+    }
+  }
+
+  private static File writeToTempFile(BloomFilter<?> bf) throws IOException {
+    File file = File.createTempFile("BloomFilterTest", ".bin");
+    try (OutputStream out = new FileOutputStream(file)) {
+      bf.writeTo(out);
+    }
+    return file;
+  }
+
+  private static BloomFilter<Integer> readFromFile(File file) throws IOException {
+    try (InputStream in = new FileInputStream(file)) {
+      return BloomFilter.readFrom(in, Funnels.integerFunnel());
+    }
+  }
+
+  private static int firstAbsent(BloomFilter<Integer> bf) {
+    int i = -1;
+    while (bf.mightContain(i)) {
+      i--;
+    }
+    return i;
+  }
+
+  public void testPutAll_blockedAndUnblocked() {
+    BloomFilter<Integer> blocked = BloomFilter.createBlocked(Funnels.integerFunnel(), 1000, 0.01);
+    BloomFilter<Integer> unblocked = BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01);
+    assertFalse(blocked.isCompatible(unblocked));
+    assertFalse(unblocked.isCompatible(blocked));
+  }
+
+  public void testStrategiesMatchBitIndex() {
+    // Sizes below, at and above one block of MURMUR128_BLOCKED_512, which takes a faster path for
+    // arrays of at least one block.
+    long[] bitSizes = {64, 128, 512, 1024, 1536, 1 << 20};
+    for (BloomFilterStrategies strategy : BloomFilterStrategies.values()) {
+      for (long bitSize : bitSizes) {
+        LockFreeBitArray bits = new LockFreeBitArray(bitSize);
+        for (int element = 0; element < 200; element++) {
+          byte[] hash =
+              Hashing.murmur3_128().hashObject(element, Funnels.integerFunnel()).asBytes();
+          long hash1 =
+              Longs.fromBytes(
+                  hash[7], hash[6], hash[5], hash[4], hash[3], hash[2], hash[1], hash[0]);
+          long hash2 =
+              Longs.fromBytes(
+                  hash[15], hash[14], hash[13], hash[12], hash[11], hash[10], hash[9], hash[8]);
+          long[] expected = new long[5];
+          for (int i = 0; i < 5; i++) {
+            expected[i] = strategy.bitIndex(hash1, hash2, bitSize, i);
+          }
+          long[] indexes = new long[6];
+          strategy.bitIndexes(element, Funnels.integerFunnel(), 5, bitSize, indexes, 1);
+          assertThat(Arrays.copyOfRange(indexes, 1, 6)).isEqualTo(expected);
+
+          strategy.put(element, Funnels.integerFunnel(), 5, bits);
+          for (long index : expected) {
+            assertTrue(bits.get(index));
+          }
+          assertTrue(strategy.mightContain(element, Funnels.integerFunnel(), 5, bits));
+        }
+        LockFreeBitArray reference = new LockFreeBitArray(bitSize);
+        for (int element = 0; element < 200; element++) {
+          long[] indexes = new long[5];
+          strategy.bitIndexes(element, Funnels.integerFunnel(), 5, bitSize, indexes, 0);
+          for (long index : indexes) {
+            reference.set(index);
+          }
+        }
+        assertEquals(reference, bits);
+      }
+    }
+  }
+
+  public void testPutAllElements() {
+    for (BloomFilterStrategies strategy : BloomFilterStrategies.values()) {
+      BloomFilter<Integer> batched =
+          BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01, strategy);
+      BloomFilter<Integer> single =
+          BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01, strategy);
+      List<Integer> elements = new ArrayList<>();
+      for (int i = 0; i < 1000; i += 3) {
+        elements.add(i);
+        single.put(i);
+      }
+      assertTrue(batched.putAllElements(elements));
+      assertEquals(single, batched);
+      assertFalse(batched.putAllElements(elements));
+      assertFalse(batched.putAllElements(ImmutableSet.<Integer>of()));
+    }
+  }
+
+  public void testMightContainAll() {
+    for (BloomFilterStrategies strategy : BloomFilterStrategies.values()) {
+      BloomFilter<Integer> bf = BloomFilter.create(Funnels.integerFunnel(), 1000, 0.01, strategy);
+      for (int i = 0; i < 1000; i += 3) {
+        bf.put(i);
+      }
+      // Not a multiple of the batch size, so that the last batch is partial.
+      List<Integer> queries = new ArrayList<>();
+      BitSet expected = new BitSet();
+      for (int i = 0; i < 2001; i++) {
+        queries.add(i);
+        if (bf.mightContain(i)) {
+          expected.set(i);
+        }
+      }
+      assertEquals(expected, bf.mightContainAll(queries));
+      assertEquals(new BitSet(), bf.mightContainAll(ImmutableSet.<Integer>of()));
+    }
+  }
+
   /**
    * This test will fail whenever someone updates/reorders the BloomFilterStrategies constants. Only
    * appending a new constant is allowed.
    */
   public void testBloomFilterStrategies() {
-    assertThat(BloomFilterStrategies.values()).hasLength(2);
+    assertThat(BloomFilterStrategies.values()).hasLength(3);
     assertEquals(BloomFilterStrategies.MURMUR128_MITZ_32, BloomFilterStrategies.values()[0]);
     assertEquals(BloomFilterStrategies.MURMUR128_MITZ_64, BloomFilterStrategies.values()[1]);
+    assertEquals(BloomFilterStrategies.MURMUR128_BLOCKED_512, BloomFilterStrategies.values()[2]);
   }
 
 
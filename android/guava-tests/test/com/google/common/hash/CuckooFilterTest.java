@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.testing.SerializableTester;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import junit.framework.TestCase;
+
+/** Tests for {@link CuckooFilter}. */
+public class CuckooFilterTest extends TestCase {
+
+  public void testPutAndRemove() {
+    CuckooFilter<Integer> filter = CuckooFilter.create(Funnels.integerFunnel(), 10_000);
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.put(i));
+    }
+    assertEquals(10_000, filter.approximateElementCount());
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain(i));
+    }
+
+    for (int i = 0; i < 10_000; i += 2) {
+      assertTrue(filter.remove(i));
+    }
+    // Removing elements never causes false negatives for the remaining ones.
+    for (int i = 1; i < 10_000; i += 2) {
+      assertTrue(filter.mightContain(i));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i += 2) {
+      if (filter.mightContain(i)) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(10);
+    assertEquals(5_000, filter.approximateElementCount());
+
+    for (int i = 1; i < 10_000; i += 2) {
+      assertTrue(filter.remove(i));
+    }
+    assertEquals(0, filter.approximateElementCount());
+    assertEquals(CuckooFilter.create(Funnels.integerFunnel(), 10_000), filter);
+  }
+
+  public void testFalsePositiveRate() {
+    CuckooFilter<Integer> filter = CuckooFilter.create(Funnels.integerFunnel(), 100_000);
+    for (int i = 0; i < 100_000; i++) {
+      assertTrue(filter.put(i * 2));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 1_000_000; i++) {
+      if (filter.mightContain(i * 2 + 1)) {
+        falsePositives++;
+      }
+    }
+    double expectedFpp = filter.expectedFpp();
+    assertThat(expectedFpp).isLessThan(0.0002);
+    assertThat(falsePositives / 1_000_000.0).isWithin(expectedFpp / 2).of(expectedFpp);
+  }
+
+  public void testPutTwice() {
+    CuckooFilter<String> filter = CuckooFilter.create(Funnels.unencodedCharsFunnel(), 100);
+    assertTrue(filter.put("a"));
+    assertTrue(filter.put("a"));
+    assertTrue(filter.remove("a"));
+    assertTrue(filter.mightContain("a"));
+    assertTrue(filter.remove("a"));
+    assertFalse(filter.mightContain("a"));
+    assertFalse(filter.remove("a"));
+  }
+
+  public void testFull() {
+    CuckooFilter<Integer> filter = CuckooFilter.create(Funnels.integerFunnel(), 100);
+    int put = 0;
+    while (filter.put(put)) {
+      put++;
+    }
+    // A failed put leaves the filter unchanged.
+    assertEquals(put, filter.approximateElementCount());
+    assertThat(put).isAtMost((int) filter.capacity());
+    assertThat((double) put / filter.capacity()).isGreaterThan(0.8);
+    for (int i = 0; i < put; i++) {
+      assertTrue(filter.mightContain(i));
+    }
+  }
+
+  public void testConcurrentQueriesDuringKicks() throws Exception {
+    CuckooFilter<Integer> filter = CuckooFilter.create(Funnels.integerFunnel(), 100_000);
+    int preloaded = 1_000;
+    for (int i = 0; i < preloaded; i++) {
+      filter.put(-i - 1);
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> falseNegatives =
+          executor.submit(
+              () -> {
+                int misses = 0;
+                while (!done.get()) {
+                  for (int i = 0; i < preloaded; i++) {
+                    if (!filter.mightContain(-i - 1)) {
+                      misses++;
+                    }
+                  }
+                }
+                return misses;
+              });
+      // Fill the filter, so that fingerprints of the preloaded elements get moved.
+      for (int i = 0; filter.put(i); i++) {}
+      done.set(true);
+      assertEquals(0, (int) falseNegatives.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void testCopy() {
+    CuckooFilter<Integer> original = CuckooFilter.create(Funnels.integerFunnel(), 100);
+    original.put(1);
+    CuckooFilter<Integer> copy = original.copy();
+    assertEquals(original, copy);
+    copy.remove(1);
+    assertTrue(original.mightContain(1));
+    assertFalse(copy.mightContain(1));
+  }
+
+  public void testEquals() {
+    CuckooFilter<Integer> filter1 = CuckooFilter.create(Funnels.integerFunnel(), 100);
+    filter1.put(1);
+    CuckooFilter<Integer> filter2 = CuckooFilter.create(Funnels.integerFunnel(), 100);
+    filter2.put(1);
+    CuckooFilter<Integer> filter3 = CuckooFilter.create(Funnels.integerFunnel(), 100);
+    filter3.put(1);
+    filter3.put(1);
+    new EqualsTester()
+        .addEqualityGroup(filter1, filter2)
+        .addEqualityGroup(filter3)
+        .addEqualityGroup(CuckooFilter.create(Funnels.integerFunnel(), 100))
+        .addEqualityGroup(CuckooFilter.create(Funnels.integerFunnel(), 1000))
+        .addEqualityGroup(CuckooFilter.create(Funnels.longFunnel(), 100))
+        .testEquals();
+  }
+
+  public void testPreconditions() {
+    assertThrows(
+        IllegalArgumentException.class, () -> CuckooFilter.create(Funnels.integerFunnel(), 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CuckooFilter.create(Funnels.integerFunnel(), Long.MAX_VALUE));
+  }
+
+  public void testNullPointers() {
+    NullPointerTester tester = new NullPointerTester();
+    tester.testAllPublicInstanceMethods(CuckooFilter.create(Funnels.unencodedCharsFunnel(), 100));
+    tester.testAllPublicStaticMethods(CuckooFilter.class);
+  }
+
+  public void testJavaSerialization() {
+    CuckooFilter<byte[]> filter = CuckooFilter.create(Funnels.byteArrayFunnel(), 100);
+    for (int i = 0; i < 10; i++) {
+      filter.put(new byte[] {(byte) i});
+    }
+    CuckooFilter<byte[]> copy = SerializableTester.reserialize(filter);
+    assertEquals(filter, copy);
+    assertEquals(filter.approximateElementCount(), copy.approximateElementCount());
+  }
+
+  public void testCustomSerialization() throws Exception {
+    CuckooFilter<Integer> filter = CuckooFilter.create(Funnels.integerFunnel(), 1000);
+    for (int i = 0; i < 1000; i++) {
+      filter.put(i);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    filter.writeTo(out);
+    CuckooFilter<Integer> read =
+        CuckooFilter.readFrom(new ByteArrayInputStream(out.toByteArray()), Funnels.integerFunnel());
+    assertEquals(filter, read);
+    assertEquals(1000, read.approximateElementCount());
+    assertTrue(read.remove(0));
+  }
+
+  public void testReadFrom_notACuckooFilter() {
+    assertThrows(
+        IOException.class,
+        () ->
+            CuckooFilter.readFrom(
+                new ByteArrayInputStream(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 3}),
+                Funnels.integerFunnel()));
+  }
+}
@@ -16,18 +16,34 @@
 
 package com.google.common.hash;
 
+import static com.google.common.base.Charsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.google.common.base.Charsets;
 import com.google.common.testing.EqualsTester;
 import com.google.common.testing.SerializableTester;
 import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
 import junit.framework.TestCase;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.mockito.InOrder;
 
 /**
@@ -153,6 +169,9 @@ public class FunnelsTest extends TestCase {
     assertEquals(
         Funnels.stringFunnel(Charsets.US_ASCII),
         SerializableTester.reserialize(Funnels.stringFunnel(Charsets.US_ASCII)));
+    assertEquals(
+        Funnels.forRecord(Point.class),
+        SerializableTester.reserialize(Funnels.forRecord(Point.class)));
   }
 
   public void testEquals() {
@@ -167,6 +186,223 @@ public class FunnelsTest extends TestCase {
             Funnels.sequentialFunnel(Funnels.integerFunnel()),
             SerializableTester.reserialize(Funnels.sequentialFunnel(Funnels.integerFunnel())))
         .addEqualityGroup(Funnels.sequentialFunnel(Funnels.longFunnel()))
+        .addEqualityGroup(Funnels.forRecord(Point.class), Funnels.forRecord(Point.class))
+        .addEqualityGroup(Funnels.forRecord(Pair.class))
         .testEquals();
   }
+
+  static class Base {
+    long id = 7;
+  }
+
+  static final class Point extends Base {
+    static final int IGNORED = 0;
+    transient int cachedHash = 99;
+    int y = 2;
+    int x = 1;
+    @Nullable String label = "hello";
+    @Nullable Integer boxed = 42;
+    byte @Nullable [] bytes = {4, 3};
+    @Nullable TimeUnit unit = TimeUnit.SECONDS;
+  }
+
+  static final class Pair {
+    final String first;
+    final String second;
+
+    Pair(String first, String second) {
+      this.first = first;
+      this.second = second;
+    }
+  }
+
+  static final class Unsupported {
+    @Nullable Object value;
+  }
+
+  public void testForRecord() {
+    PrimitiveSink primitiveSink = mock(PrimitiveSink.class);
+    Funnels.forRecord(Point.class).funnel(new Point(), primitiveSink);
+    InOrder inOrder = inOrder(primitiveSink);
+    inOrder.verify(primitiveSink).putLong(7);
+    inOrder.verify(primitiveSink).putBoolean(true);
+    inOrder.verify(primitiveSink).putInt(42);
+    inOrder.verify(primitiveSink).putBoolean(true);
+    inOrder.verify(primitiveSink).putInt(2);
+    inOrder.verify(primitiveSink).putBytes(new byte[] {4, 3});
+    inOrder.verify(primitiveSink).putBoolean(true);
+    inOrder.verify(primitiveSink).putInt(5);
+    inOrder.verify(primitiveSink).putUnencodedChars("hello");
+    inOrder.verify(primitiveSink).putBoolean(true);
+    inOrder.verify(primitiveSink).putInt(7);
+    inOrder.verify(primitiveSink).putUnencodedChars("SECONDS");
+    inOrder.verify(primitiveSink).putInt(1);
+    inOrder.verify(primitiveSink).putInt(2);
+    verifyNoMoreInteractions(primitiveSink);
+  }
+
+  public void testForRecord_nullComponents() {
+    Point point = new Point();
+    point.label = null;
+    point.boxed = null;
+    point.bytes = null;
+    point.unit = null;
+    PrimitiveSink primitiveSink = mock(PrimitiveSink.class);
+    Funnels.forRecord(Point.class).funnel(point, primitiveSink);
+    InOrder inOrder = inOrder(primitiveSink);
+    inOrder.verify(primitiveSink).putLong(7);
+    inOrder.verify(primitiveSink, times(4)).putBoolean(false);
+    inOrder.verify(primitiveSink).putInt(1);
+    inOrder.verify(primitiveSink).putInt(2);
+    verifyNoMoreInteractions(primitiveSink);
+  }
+
+  public void testForRecord_matchesHandWrittenFunnel() {
+    Funnel<Pair> handWritten =
+        (pair, into) -> {
+          into.putBoolean(true).putInt(pair.first.length()).putUnencodedChars(pair.first);
+          into.putBoolean(true).putInt(pair.second.length()).putUnencodedChars(pair.second);
+        };
+    HashFunction hashFunction = Hashing.murmur3_128();
+    Pair pair = new Pair("foo", "bar");
+    assertEquals(
+        hashFunction.hashObject(pair, handWritten),
+        hashFunction.hashObject(pair, Funnels.forRecord(Pair.class)));
+  }
+
+  public void testForRecord_distinguishesComponentBoundaries() {
+    HashFunction hashFunction = Hashing.murmur3_128();
+    Funnel<Pair> funnel = Funnels.forRecord(Pair.class);
+    assertFalse(
+        hashFunction
+            .hashObject(new Pair("ab", "c"), funnel)
+            .equals(hashFunction.hashObject(new Pair("a", "bc"), funnel)));
+  }
+
+  public void testForRecord_unsupported() {
+    assertThrows(IllegalArgumentException.class, () -> Funnels.forRecord(Unsupported.class));
+    assertThrows(IllegalArgumentException.class, () -> Funnels.forRecord(Runnable.class));
+    assertThrows(IllegalArgumentException.class, () -> Funnels.forRecord(int[].class));
+  }
+
+  /*
+   * Guava's tests are compiled for Java 8, so the records below are compiled when the tests run, and
+   * the tests that use them do nothing on a JDK without records or without a compiler.
+   */
+  private static final String RECORDS_SOURCE =
+      "package recordfixtures;\n"
+          + "public class Records {\n"
+          + "  public record Ordered(int z, long a, String m) {}\n"
+          + "  public record Inner(String s, long n) {}\n"
+          + "  public record Outer(int a, Inner inner) {}\n"
+          + "  public record Node(int value, Node next) {}\n"
+          + "  public record Wrapper(Node node) {}\n"
+          + "}\n";
+
+  private static @Nullable Map<String, Class<?>> records;
+
+  /**
+   * Returns the record classes of {@link #RECORDS_SOURCE} by simple name, or null if they can't be
+   * compiled here.
+   */
+  private static synchronized @Nullable Map<String, Class<?>> records() throws Exception {
+    if (records != null) {
+      return records;
+    }
+    try {
+      Class.class.getMethod("getRecordComponents");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      return null;
+    }
+    Path dir = java.nio.file.Files.createTempDirectory("records");
+    try {
+      Path source = dir.resolve("Records.java");
+      java.nio.file.Files.write(source, RECORDS_SOURCE.getBytes(UTF_8));
+      assertEquals(0, compiler.run(null, null, null, "-d", dir.toString(), source.toString()));
+      Map<String, Class<?>> classes = new HashMap<>();
+      try (URLClassLoader loader =
+          new URLClassLoader(new URL[] {dir.toUri().toURL()}, FunnelsTest.class.getClassLoader())) {
+        for (Class<?> c : loader.loadClass("recordfixtures.Records").getClasses()) {
+          classes.put(c.getSimpleName(), c);
+        }
+      }
+      records = classes;
+      return records;
+    } finally {
+      try (Stream<Path> paths = java.nio.file.Files.walk(dir)) {
+        for (Path path : paths.sorted(Comparator.reverseOrder()).collect(toList())) {
+          java.nio.file.Files.delete(path);
+        }
+      }
+    }
+  }
+
+  private static Object newRecord(Class<?> type, @Nullable Object... components) throws Exception {
+    return type.getConstructors()[0].newInstance(components);
+  }
+
+  private static <T> void funnelRecord(Class<T> type, Object record, PrimitiveSink into) {
+    Funnels.forRecord(type).funnel(type.cast(record), into);
+  }
+
+  public void testForRecord_recordComponentsInDeclarationOrder() throws Exception {
+    Map<String, Class<?>> records = records();
+    if (records == null) {
+      return;
+    }
+    Class<?> ordered = records.get("Ordered");
+    PrimitiveSink primitiveSink = mock(PrimitiveSink.class);
+    funnelRecord(ordered, newRecord(ordered, 3, 4L, "mm"), primitiveSink);
+    InOrder inOrder = inOrder(primitiveSink);
+    inOrder.verify(primitiveSink).putInt(3);
+    inOrder.verify(primitiveSink).putLong(4);
+    inOrder.verify(primitiveSink).putBoolean(true);
+    inOrder.verify(primitiveSink).putInt(2);
+    inOrder.verify(primitiveSink).putUnencodedChars("mm");
+    verifyNoMoreInteractions(primitiveSink);
+  }
+
+  public void testForRecord_nestedRecords() throws Exception {
+    Map<String, Class<?>> records = records();
+    if (records == null) {
+      return;
+    }
+    Class<?> inner = records.get("Inner");
+    Class<?> outer = records.get("Outer");
+    PrimitiveSink primitiveSink = mock(PrimitiveSink.class);
+    funnelRecord(outer, newRecord(outer, 1, newRecord(inner, "s", 2L)), primitiveSink);
+    InOrder inOrder = inOrder(primitiveSink);
+    inOrder.verify(primitiveSink).putInt(1);
+    inOrder.verify(primitiveSink, times(2)).putBoolean(true);
+    inOrder.verify(primitiveSink).putInt(1);
+    inOrder.verify(primitiveSink).putUnencodedChars("s");
+    inOrder.verify(primitiveSink).putLong(2);
+    verifyNoMoreInteractions(primitiveSink);
+
+    primitiveSink = mock(PrimitiveSink.class);
+    funnelRecord(outer, newRecord(outer, 1, null), primitiveSink);
+    inOrder = inOrder(primitiveSink);
+    inOrder.verify(primitiveSink).putInt(1);
+    inOrder.verify(primitiveSink).putBoolean(false);
+    verifyNoMoreInteractions(primitiveSink);
+  }
+
+  public void testForRecord_recordContainingItself() throws Exception {
+    Map<String, Class<?>> records = records();
+    if (records == null) {
+      return;
+    }
+    assertThrows(IllegalArgumentException.class, () -> Funnels.forRecord(records.get("Node")));
+    assertThrows(IllegalArgumentException.class, () -> Funnels.forRecord(records.get("Wrapper")));
+  }
+
+  public void testForRecord_toString() {
+    assertEquals(
+        "Funnels.forRecord(com.google.common.hash.FunnelsTest$Pair.class)",
+        Funnels.forRecord(Pair.class).toString());
+  }
 }
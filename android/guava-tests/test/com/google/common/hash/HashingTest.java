@@ -32,6 +32,7 @@ import com.google.common.util.concurrent.AtomicLongMap;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -342,6 +343,69 @@ public class HashingTest extends TestCase {
     assertEquals(hashCode1, hashCode2);
   }
 
+  public void testCombineChecksums() {
+    Random random = new Random(RANDOM_SEED);
+    for (HashFunction checksumFunction :
+        ImmutableList.of(Hashing.crc32(), Hashing.crc32c(), Hashing.adler32())) {
+      for (int trial = 0; trial < 100; trial++) {
+        byte[] input = new byte[random.nextInt(10_000)];
+        random.nextBytes(input);
+        if (trial % 10 == 0) {
+          // Long runs of 0xff exercise the Adler-32 sums near the modulus.
+          Arrays.fill(input, (byte) 0xff);
+        }
+        int split = input.length == 0 ? 0 : random.nextInt(input.length + 1);
+        HashCode first = checksumFunction.hashBytes(input, 0, split);
+        HashCode second = checksumFunction.hashBytes(input, split, input.length - split);
+        assertEquals(
+            checksumFunction.toString(),
+            checksumFunction.hashBytes(input),
+            Hashing.combineChecksums(checksumFunction, first, second, input.length - split));
+      }
+    }
+  }
+
+  public void testCombineChecksums_emptyInputs() {
+    for (HashFunction checksumFunction :
+        ImmutableList.of(Hashing.crc32(), Hashing.crc32c(), Hashing.adler32())) {
+      HashCode empty = checksumFunction.hashBytes(new byte[0]);
+      HashCode foo = checksumFunction.hashString("foo", UTF_8);
+      assertEquals(foo, Hashing.combineChecksums(checksumFunction, foo, empty, 0));
+      assertEquals(foo, Hashing.combineChecksums(checksumFunction, empty, foo, 3));
+    }
+  }
+
+  public void testCombineChecksums_longInputs() {
+    // Checksums 8 GiB of zeros by doubling, and compares that with appending 1 MiB at a time.
+    byte[] zeros = new byte[1 << 20];
+    for (HashFunction checksumFunction :
+        ImmutableList.of(Hashing.crc32(), Hashing.crc32c(), Hashing.adler32())) {
+      HashCode oneMebibyte = checksumFunction.hashBytes(zeros);
+      HashCode doubled = oneMebibyte;
+      for (long length = zeros.length; length < 8L << 30; length *= 2) {
+        doubled = Hashing.combineChecksums(checksumFunction, doubled, doubled, length);
+      }
+      HashCode appended = oneMebibyte;
+      for (int i = 1; i < 8 * 1024; i++) {
+        appended = Hashing.combineChecksums(checksumFunction, appended, oneMebibyte, zeros.length);
+      }
+      assertEquals(checksumFunction.toString(), appended, doubled);
+    }
+  }
+
+  public void testCombineChecksums_illegalArguments() {
+    HashCode checksum = HashCode.fromInt(1);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Hashing.combineChecksums(Hashing.murmur3_32_fixed(), checksum, checksum, 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Hashing.combineChecksums(Hashing.crc32c(), checksum, HashCode.fromLong(1), 1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> Hashing.combineChecksums(Hashing.crc32c(), checksum, checksum, -1));
+  }
+
   // This isn't specified by contract, but it'll still be nice to know if this behavior changes.
   public void testConcatenating_equals() {
     new EqualsTester()
@@ -499,8 +563,40 @@ public class HashingTest extends TestCase {
           .put(Hashing.fingerprint2011(), "", "e365a64a907cad23")
           .put(Hashing.fingerprint2011(), TQBFJOTLD, "c9688c84e813b089")
           .put(Hashing.fingerprint2011(), TQBFJOTLDP, "a714d70f1d569cd0")
+          .put(Hashing.xxHash64(), "", "99e9d85137db46ef")
+          .put(Hashing.xxHash64(), TQBFJOTLD, "bc71da1f362d240b")
+          .put(Hashing.xxHash64(), TQBFJOTLDP, "73ad51577033ad44")
+          .put(Hashing.xxh3_64(), "", "c294d3380580062d")
+          .put(Hashing.xxh3_64(), TQBFJOTLD, "65b38f41a5197dce")
+          .put(Hashing.xxh3_64(), TQBFJOTLDP, "19db515d22e014b6")
+          .put(Hashing.xxh3_128(), "", "7f498d4624c30160d8984701d306aa99")
+          .put(Hashing.xxh3_128(), TQBFJOTLD, "51768a3a2ecca124fae7a35c2050d6dd")
+          .put(Hashing.xxh3_128(), TQBFJOTLDP, "3cc729b82de0f83f156a3e3195826ad0")
           .build();
 
+  public void testHashBytes_directBuffer() {
+    Random random = new Random(0);
+    for (int len : new int[] {0, 1, 15, 16, 17, 100, 1000, 20_000}) {
+      byte[] bytes = new byte[len];
+      random.nextBytes(bytes);
+      for (HashFunctionEnum hashFunctionEnum : HashFunctionEnum.values()) {
+        HashFunction hashFunction = hashFunctionEnum.getHashFunction();
+        HashCode expected = hashFunction.hashBytes(bytes);
+        ByteBuffer direct = ByteBuffer.allocateDirect(len);
+        direct.put(bytes);
+        direct.flip();
+        assertEquals(hashFunction.toString(), expected, hashFunction.hashBytes(direct));
+        assertEquals(0, direct.remaining());
+        if (len > 0) {
+          direct.flip();
+          // Start off unaligned with the hasher's internal chunks.
+          Hasher hasher = hashFunction.newHasher().putByte(direct.get());
+          assertEquals(hashFunction.toString(), expected, hasher.putBytes(direct).hash());
+        }
+      }
+    }
+  }
+
   public void testAllHashFunctionsHaveKnownHashes() throws Exception {
     for (Method method : Hashing.class.getDeclaredMethods()) {
       if (shouldHaveKnownHashes(method)) {
@@ -604,6 +700,7 @@ public class HashingTest extends TestCase {
           && method.getParameterTypes().length != 0 // only the seeded hash functions
           && !method.getName().equals("concatenating") // don't test Hashing.concatenating()
           && !method.getName().equals("goodFastHash") // tested in testGoodFastHashEquals
+          && !method.getName().equals("treeHash") // tested in TreeHashFunctionTest
           && !method.getName().startsWith("hmac")) { // skip hmac functions
         Object[] params1 = new Object[method.getParameterTypes().length];
         Object[] params2 = new Object[method.getParameterTypes().length];
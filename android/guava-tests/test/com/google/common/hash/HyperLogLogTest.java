@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.testing.SerializableTester;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import junit.framework.TestCase;
+
+/** Tests for {@link HyperLogLog}. */
+public class HyperLogLogTest extends TestCase {
+
+  public void testEmpty() {
+    assertEquals(0, HyperLogLog.create(Funnels.integerFunnel()).approximateElementCount());
+  }
+
+  public void testAccuracy() {
+    for (int precision : new int[] {HyperLogLog.MIN_PRECISION, 10, 14, HyperLogLog.MAX_PRECISION}) {
+      HyperLogLog<Integer> sketch = HyperLogLog.create(Funnels.integerFunnel(), precision);
+      int n = 0;
+      for (int cardinality : new int[] {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000}) {
+        for (; n < cardinality; n++) {
+          sketch.put(n);
+        }
+        // Four standard errors, so that this fails only by a bug, and at least one element.
+        double tolerance = Math.max(1, 4 * sketch.standardError() * cardinality);
+        assertThat((double) sketch.approximateElementCount()).isWithin(tolerance).of(cardinality);
+      }
+    }
+  }
+
+  public void testDuplicates() {
+    HyperLogLog<String> sketch = HyperLogLog.create(Funnels.unencodedCharsFunnel());
+    assertTrue(sketch.put("a"));
+    assertFalse(sketch.put("a"));
+    for (int i = 0; i < 1000; i++) {
+      sketch.put("b");
+    }
+    assertEquals(2, sketch.approximateElementCount());
+  }
+
+  public void testPutAll() {
+    HyperLogLog<Integer> evens = HyperLogLog.create(Funnels.integerFunnel());
+    HyperLogLog<Integer> multiplesOfThree = HyperLogLog.create(Funnels.integerFunnel());
+    HyperLogLog<Integer> union = HyperLogLog.create(Funnels.integerFunnel());
+    for (int i = 0; i < 100_000; i++) {
+      if (i % 2 == 0) {
+        evens.put(i);
+        union.put(i);
+      }
+      if (i % 3 == 0) {
+        multiplesOfThree.put(i);
+        union.put(i);
+      }
+    }
+    assertTrue(evens.isCompatible(multiplesOfThree));
+    evens.putAll(multiplesOfThree);
+    assertEquals(union, evens);
+  }
+
+  public void testPutAll_incompatible() {
+    HyperLogLog<Integer> sketch = HyperLogLog.create(Funnels.integerFunnel());
+    assertFalse(sketch.isCompatible(sketch));
+    assertThrows(IllegalArgumentException.class, () -> sketch.putAll(sketch));
+    HyperLogLog<Integer> otherPrecision = HyperLogLog.create(Funnels.integerFunnel(), 10);
+    assertFalse(sketch.isCompatible(otherPrecision));
+    assertThrows(IllegalArgumentException.class, () -> sketch.putAll(otherPrecision));
+  }
+
+  public void testConcurrentPuts() throws Exception {
+    HyperLogLog<Integer> concurrent = HyperLogLog.create(Funnels.integerFunnel());
+    HyperLogLog<Integer> sequential = HyperLogLog.create(Funnels.integerFunnel());
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int start = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = start; i < 400_000; i += threads) {
+                    concurrent.put(i);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < 400_000; i++) {
+      sequential.put(i);
+    }
+    // No update is lost, so the registers are the same as if the puts were sequential.
+    assertEquals(sequential, concurrent);
+  }
+
+  public void testCopy() {
+    HyperLogLog<Integer> original = HyperLogLog.create(Funnels.integerFunnel());
+    original.put(1);
+    HyperLogLog<Integer> copy = original.copy();
+    assertEquals(original, copy);
+    copy.put(2);
+    assertEquals(1, original.approximateElementCount());
+    assertEquals(2, copy.approximateElementCount());
+  }
+
+  public void testEquals() {
+    HyperLogLog<Integer> sketch1 = HyperLogLog.create(Funnels.integerFunnel());
+    sketch1.put(1);
+    HyperLogLog<Integer> sketch2 = HyperLogLog.create(Funnels.integerFunnel());
+    sketch2.put(1);
+    sketch2.put(1);
+    HyperLogLog<Integer> sketch3 = HyperLogLog.create(Funnels.integerFunnel());
+    sketch3.put(2);
+    new EqualsTester()
+        .addEqualityGroup(sketch1, sketch2)
+        .addEqualityGroup(sketch3)
+        .addEqualityGroup(HyperLogLog.create(Funnels.integerFunnel()))
+        .addEqualityGroup(HyperLogLog.create(Funnels.integerFunnel(), 10))
+        .addEqualityGroup(HyperLogLog.create(Funnels.longFunnel()))
+        .testEquals();
+  }
+
+  public void testPreconditions() {
+    assertThrows(
+        IllegalArgumentException.class, () -> HyperLogLog.create(Funnels.integerFunnel(), 3));
+    assertThrows(
+        IllegalArgumentException.class, () -> HyperLogLog.create(Funnels.integerFunnel(), 19));
+  }
+
+  public void testNullPointers() {
+    NullPointerTester tester = new NullPointerTester();
+    tester.testAllPublicInstanceMethods(HyperLogLog.create(Funnels.unencodedCharsFunnel()));
+    tester.testAllPublicStaticMethods(HyperLogLog.class);
+  }
+
+  public void testJavaSerialization() {
+    HyperLogLog<byte[]> sketch = HyperLogLog.create(Funnels.byteArrayFunnel());
+    for (int i = 0; i < 10; i++) {
+      sketch.put(new byte[] {(byte) i});
+    }
+    HyperLogLog<byte[]> copy = SerializableTester.reserialize(sketch);
+    assertEquals(sketch, copy);
+    assertEquals(10, copy.approximateElementCount());
+  }
+
+  public void testCustomSerialization() throws Exception {
+    for (int precision = HyperLogLog.MIN_PRECISION;
+        precision <= HyperLogLog.MAX_PRECISION;
+        precision++) {
+      HyperLogLog<Integer> sketch = HyperLogLog.create(Funnels.integerFunnel(), precision);
+      for (int i = 0; i < 1000; i++) {
+        sketch.put(i);
+      }
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      sketch.writeTo(out);
+      assertEquals(2 + (1 << precision), out.size());
+      HyperLogLog<Integer> read =
+          HyperLogLog.readFrom(
+              new ByteArrayInputStream(out.toByteArray()), Funnels.integerFunnel());
+      assertEquals(sketch, read);
+    }
+  }
+
+  public void testReadFrom_notAHyperLogLog() {
+    assertThrows(
+        IOException.class,
+        () ->
+            HyperLogLog.readFrom(
+                new ByteArrayInputStream(new byte[] {0, 30}), Funnels.integerFunnel()));
+    byte[] badRegister = new byte[2 + 16];
+    badRegister[1] = 4;
+    badRegister[2] = 100;
+    assertThrows(
+        IOException.class,
+        () -> HyperLogLog.readFrom(new ByteArrayInputStream(badRegister), Funnels.integerFunnel()));
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Range;
+import com.google.common.testing.NullPointerTester;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import junit.framework.TestCase;
+
+/** Tests for {@link RendezvousHasher}. */
+public class RendezvousHasherTest extends TestCase {
+  private static final int KEYS = 100_000;
+
+  private static RendezvousHasher<String> newHasher(int nodes) {
+    RendezvousHasher<String> hasher =
+        RendezvousHasher.create(Funnels.unencodedCharsFunnel(), Hashing.murmur3_128());
+    for (int i = 0; i < nodes; i++) {
+      hasher.add("node" + i);
+    }
+    return hasher;
+  }
+
+  private static long[] keys() {
+    Random random = new Random(0);
+    long[] keys = new long[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = random.nextLong();
+    }
+    return keys;
+  }
+
+  public void testEmpty() {
+    RendezvousHasher<String> hasher = newHasher(0);
+    assertEquals(0, hasher.size());
+    assertThat(hasher.nodes()).isEmpty();
+    assertThrows(NoSuchElementException.class, () -> hasher.get(0L));
+  }
+
+  public void testSingleNode() {
+    RendezvousHasher<String> hasher = newHasher(1);
+    for (long key : keys()) {
+      assertEquals("node0", hasher.get(key));
+    }
+    assertEquals("node0", hasher.get(Long.MAX_VALUE));
+    assertEquals("node0", hasher.get(Long.MIN_VALUE));
+  }
+
+  public void testAddAndRemove() {
+    RendezvousHasher<String> hasher = newHasher(2);
+    assertFalse(hasher.add("node0"));
+    assertTrue(hasher.add("node2", 3.0));
+    assertThat(hasher.nodes()).containsExactly("node0", "node1", "node2").inOrder();
+    assertEquals(3.0, hasher.weight("node2"));
+    assertEquals(0.0, hasher.weight("node3"));
+    assertTrue(hasher.remove("node1"));
+    assertFalse(hasher.remove("node1"));
+    assertThat(hasher.nodes()).containsExactly("node0", "node2").inOrder();
+    assertEquals(2, hasher.size());
+    assertEquals("RendezvousHasher{node0=1.0, node2=3.0}", hasher.toString());
+  }
+
+  public void testNodesIsSnapshot() {
+    RendezvousHasher<String> hasher = newHasher(2);
+    Set<String> nodes = hasher.nodes();
+    assertThrows(UnsupportedOperationException.class, () -> nodes.add("node9"));
+    hasher.add("node2");
+    hasher.remove("node0");
+    assertThat(nodes).containsExactly("node0", "node1").inOrder();
+  }
+
+  public void testDistribution() {
+    RendezvousHasher<String> hasher = newHasher(10);
+    Multiset<String> counts = HashMultiset.create();
+    for (long key : keys()) {
+      counts.add(hasher.get(key));
+    }
+    assertThat(counts.elementSet()).hasSize(10);
+    for (String node : counts.elementSet()) {
+      assertThat(counts.count(node)).isIn(Range.closed(7_000, 13_000));
+    }
+  }
+
+  public void testWeights() {
+    RendezvousHasher<String> hasher = newHasher(3);
+    hasher.add("heavy", 3.0);
+    Multiset<String> counts = HashMultiset.create();
+    for (long key : keys()) {
+      counts.add(hasher.get(key));
+    }
+    // "heavy" should get about half the keys, and the others about a sixth each
+    assertThat(counts.count("heavy")).isIn(Range.closed(42_000, 58_000));
+  }
+
+  public void testIndependentOfInsertionOrder() {
+    RendezvousHasher<String> forward = newHasher(20);
+    RendezvousHasher<String> backward =
+        RendezvousHasher.create(Funnels.unencodedCharsFunnel(), Hashing.murmur3_128());
+    for (int i = 19; i >= 0; i--) {
+      backward.add("node" + i);
+    }
+    for (long key : keys()) {
+      assertEquals(forward.get(key), backward.get(key));
+    }
+  }
+
+  public void testWeights_removingHeavyNode() {
+    RendezvousHasher<String> hasher = newHasher(3);
+    hasher.add("heavy", 0.5);
+    long[] keys = keys();
+    String[] before = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      before[i] = hasher.get(keys[i]);
+    }
+    hasher.remove("heavy");
+    for (int i = 0; i < KEYS; i++) {
+      if (!before[i].equals("heavy")) {
+        assertEquals(before[i], hasher.get(keys[i]));
+      }
+    }
+  }
+
+  public void testAddingNodeOnlyMovesKeysToIt() {
+    RendezvousHasher<String> hasher = newHasher(10);
+    long[] keys = keys();
+    String[] before = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      before[i] = hasher.get(keys[i]);
+    }
+    hasher.add("node10");
+    int moved = 0;
+    for (int i = 0; i < KEYS; i++) {
+      String after = hasher.get(keys[i]);
+      if (!after.equals(before[i])) {
+        assertEquals("node10", after);
+        moved++;
+      }
+    }
+    // about 1/11 of the keys should move
+    assertThat(moved).isIn(Range.closed(6_000, 12_500));
+  }
+
+  public void testRemovingNodeOnlyMovesItsKeys() {
+    RendezvousHasher<String> hasher = newHasher(10);
+    long[] keys = keys();
+    String[] before = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      before[i] = hasher.get(keys[i]);
+    }
+    hasher.remove("node3");
+    for (int i = 0; i < KEYS; i++) {
+      String after = hasher.get(keys[i]);
+      if (before[i].equals("node3")) {
+        assertThat(after).isNotEqualTo("node3");
+      } else {
+        assertEquals(before[i], after);
+      }
+    }
+  }
+
+  public void testGetHashCode() {
+    RendezvousHasher<String> hasher = newHasher(10);
+    HashCode hashCode = Hashing.murmur3_128().hashInt(42);
+    assertEquals(hasher.get(hashCode.padToLong()), hasher.get(hashCode));
+  }
+
+  public void testBadArguments() {
+    RendezvousHasher<String> hasher = newHasher(0);
+    assertThrows(IllegalArgumentException.class, () -> hasher.add("node0", 0.0));
+    assertThrows(IllegalArgumentException.class, () -> hasher.add("node0", -1.0));
+    assertThrows(IllegalArgumentException.class, () -> hasher.add("node0", Double.NaN));
+    assertThrows(
+        IllegalArgumentException.class, () -> hasher.add("node0", Double.POSITIVE_INFINITY));
+  }
+
+  public void testNulls() {
+    new NullPointerTester().testAllPublicStaticMethods(RendezvousHasher.class);
+    new NullPointerTester().testAllPublicInstanceMethods(newHasher(1));
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.testing.NullPointerTester;
+import com.google.common.testing.SerializableTester;
+import junit.framework.TestCase;
+
+/** Tests for {@link ScalableBloomFilter}. */
+public class ScalableBloomFilterTest extends TestCase {
+
+  public void testGrowsWithinFpp() {
+    ScalableBloomFilter<Integer> bf =
+        ScalableBloomFilter.create(Funnels.integerFunnel(), 1000, 0.01);
+    assertEquals(1, bf.sliceCount());
+    int numInsertions = 100_000;
+    for (int i = 0; i < numInsertions; i++) {
+      bf.put(i);
+    }
+    // 1000 + 2000 + ... + 32000 < 100000 <= 1000 + 2000 + ... + 64000
+    assertEquals(7, bf.sliceCount());
+    for (int i = 0; i < numInsertions; i++) {
+      assertTrue(bf.mightContain(i));
+    }
+    int falsePositives = 0;
+    for (int i = numInsertions; i < 2 * numInsertions; i++) {
+      if (bf.mightContain(i)) {
+        falsePositives++;
+      }
+    }
+    assertThat((double) falsePositives / numInsertions).isLessThan(0.01);
+    assertThat(bf.expectedFpp()).isLessThan(0.01);
+    assertThat(bf.approximateElementCount()).isWithin(numInsertions / 50).of(numInsertions);
+  }
+
+  public void testPutReturnValue() {
+    ScalableBloomFilter<String> bf =
+        ScalableBloomFilter.create(Funnels.unencodedCharsFunnel(), 1, 0.01);
+    assertTrue(bf.put("a"));
+    assertFalse(bf.put("a"));
+    assertTrue(bf.put("b"));
+    assertEquals(2, bf.sliceCount());
+    assertFalse(bf.put("a"));
+    assertFalse(bf.put("b"));
+  }
+
+  public void testPreconditions() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ScalableBloomFilter.create(Funnels.integerFunnel(), 0, 0.01));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ScalableBloomFilter.create(Funnels.integerFunnel(), 1, 0.0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ScalableBloomFilter.create(Funnels.integerFunnel(), 1, 1.0));
+  }
+
+  public void testNullPointers() {
+    NullPointerTester tester = new NullPointerTester();
+    tester.testAllPublicInstanceMethods(
+        ScalableBloomFilter.create(Funnels.unencodedCharsFunnel(), 100, 0.01));
+    tester.testAllPublicStaticMethods(ScalableBloomFilter.class);
+  }
+
+  public void testJavaSerialization() {
+    ScalableBloomFilter<Integer> bf = ScalableBloomFilter.create(Funnels.integerFunnel(), 10, 0.01);
+    for (int i = 0; i < 100; i++) {
+      bf.put(i);
+    }
+    ScalableBloomFilter<Integer> copy = SerializableTester.reserializeAndAssert(bf);
+    assertEquals(bf.sliceCount(), copy.sliceCount());
+    for (int i = 100; i < 1000; i++) {
+      copy.put(i);
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(copy.mightContain(i));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.hash.Hashing.xxHash64;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.HashTestUtils.HashFn;
+import com.google.common.testing.EqualsTester;
+import junit.framework.TestCase;
+
+/** Tests for {@link XxHash64HashFunction}. */
+public class XxHash64HashFunctionTest extends TestCase {
+  public void testKnownValues() {
+    assertHash(0, 0xEF46DB3751D8E999L, "");
+    assertHash(0, 0x26C7827D889F6DA3L, "hello");
+    assertHash(1, 0x23DD71CB04D0A1B2L, "hello");
+    assertHash(0, 0x0B242D361FDA71BCL, "The quick brown fox jumps over the lazy dog");
+    assertHash(42, 0x31C4FE9B75551564L, Strings.repeat("x", 300));
+  }
+
+  private static void assertHash(long seed, long expected, String stringInput) {
+    HashCode expectedHash = HashCode.fromLong(expected);
+    byte[] input = HashTestUtils.ascii(stringInput);
+    assertEquals(expectedHash, xxHash64(seed).hashBytes(input));
+    assertEquals(expectedHash, xxHash64(seed).newHasher().putBytes(input).hash());
+  }
+
+  public void testParanoid() {
+    HashFn hf =
+        new HashFn() {
+          @Override
+          public byte[] hash(byte[] input, int seed) {
+            Hasher hasher = xxHash64(seed).newHasher();
+            Funnels.byteArrayFunnel().funnel(input, hasher);
+            return hasher.hash().asBytes();
+          }
+        };
+    HashTestUtils.verifyHashFunction(hf, 64, 0x024B7CF4);
+  }
+
+  public void testStreamingMatchesOneShot() {
+    byte[] input = new byte[1000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (byte) (i * 31 + 7);
+    }
+    for (int len = 0; len <= input.length; len += 13) {
+      HashCode expected = xxHash64(7).hashBytes(input, 0, len);
+      Hasher hasher = xxHash64(7).newHasher();
+      for (int off = 0; off < len; off += 5) {
+        hasher.putBytes(input, off, Math.min(5, len - off));
+      }
+      assertEquals(expected, hasher.hash());
+    }
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(xxHash64(), xxHash64(0))
+        .addEqualityGroup(xxHash64(1))
+        .addEqualityGroup(xxHash64(-1))
+        .testEquals();
+  }
+
+  public void testInvariants() {
+    HashTestUtils.assertInvariants(xxHash64());
+  }
+}
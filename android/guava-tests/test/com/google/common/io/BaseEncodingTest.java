@@ -35,6 +35,10 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Random;
 import junit.framework.TestCase;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -515,6 +519,25 @@ public class BaseEncodingTest extends TestCase {
         }
       }
     },
+    @GwtIncompatible // CharBuffer
+    DECODE_BUFFER {
+      @Override
+      void assertFailsToDecode(
+          BaseEncoding encoding, String cannotDecode, @Nullable String expectedMessage) {
+        CharBuffer chars = CharBuffer.wrap(cannotDecode);
+        ByteBuffer target = ByteBuffer.allocate(cannotDecode.length());
+        try {
+          encoding.decode(chars, target);
+          fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+          if (expectedMessage != null) {
+            assertThat(expected).hasCauseThat().hasMessageThat().isEqualTo(expectedMessage);
+          }
+        }
+        assertThat(chars.position()).isEqualTo(0);
+        assertThat(target.position()).isEqualTo(0);
+      }
+    },
     DECODE_CHECKED {
       @Override
       void assertFailsToDecode(
@@ -587,6 +610,129 @@ public class BaseEncodingTest extends TestCase {
     }
   }
 
+  private static final ImmutableList<BaseEncoding> ENCODINGS =
+      ImmutableList.of(
+          base64(),
+          base64Url(),
+          base64().omitPadding(),
+          base64().withPadChar('$'),
+          base64().withSeparator("\n", 7),
+          base32(),
+          base32Hex().omitPadding(),
+          base16(),
+          base16().lowerCase(),
+          base16().withSeparator(":", 2));
+
+  public void testWordAtATimeMatchesChunked() throws IOException {
+    Random random = new Random(42);
+    for (BaseEncoding encoding : ENCODINGS) {
+      for (int len = 0; len < 64; len++) {
+        byte[] bytes = new byte[len];
+        random.nextBytes(bytes);
+        StringBuilder chunked = new StringBuilder();
+        encoding.encodeTo(chunked, bytes, 0, len);
+        String encoded = encoding.encode(bytes);
+        assertThat(encoded).isEqualTo(chunked.toString());
+        assertThat(encoding.decode(encoded)).isEqualTo(bytes);
+      }
+    }
+  }
+
+  public void testWordAtATimeDecodingFailures() {
+    String encoded = base64().encode(new byte[24]);
+    for (int i = 0; i < encoded.length(); i++) {
+      StringBuilder invalid = new StringBuilder(encoded);
+      invalid.setCharAt(i, '!');
+      assertFailsToDecode(base64(), invalid.toString(), "Unrecognized character: !");
+      invalid.setCharAt(i, '\u0100');
+      assertFailsToDecode(base64(), invalid.toString(), "Unrecognized character: 0x100");
+    }
+    encoded = base16().encode(new byte[12]);
+    for (int i = 0; i < encoded.length(); i++) {
+      StringBuilder invalid = new StringBuilder(encoded);
+      invalid.setCharAt(i, 'g');
+      assertFailsToDecode(base16(), invalid.toString(), "Unrecognized character: g");
+      invalid.setCharAt(i, '\u0100');
+      assertFailsToDecode(base16(), invalid.toString(), "Unrecognized character: 0x100");
+    }
+  }
+
+  @GwtIncompatible // ByteBuffer, CharBuffer
+  public void testBuffers() {
+    Random random = new Random(42);
+    for (BaseEncoding encoding : ENCODINGS) {
+      for (int len = 0; len < 40; len++) {
+        byte[] bytes = new byte[len];
+        random.nextBytes(bytes);
+        String encoded = encoding.encode(bytes);
+        for (boolean direct : new boolean[] {false, true}) {
+          ByteBuffer source = allocate(len + 3, direct);
+          source.position(3);
+          source.put(bytes).flip().position(3);
+          for (CharBuffer target :
+              new CharBuffer[] {
+                CharBuffer.allocate(encoded.length() + 2),
+                // A view has no accessible array, so it is written through CharBuffer.append.
+                ByteBuffer.allocate(2 * encoded.length() + 4).asCharBuffer()
+              }) {
+            target.position(2);
+            encoding.encode(source.duplicate(), target);
+            assertThat(target.position()).isEqualTo(encoded.length() + 2);
+            target.flip().position(2);
+            assertThat(target.toString()).isEqualTo(encoded);
+
+            ByteBuffer decoded = allocate(len + 1, direct);
+            decoded.position(1);
+            encoding.decode(target, decoded);
+            assertThat(target.hasRemaining()).isFalse();
+            assertThat(decoded.position()).isEqualTo(len + 1);
+            decoded.flip().position(1);
+            assertThat(decoded).isEqualTo(ByteBuffer.wrap(bytes));
+          }
+          encoding.encode(source, CharBuffer.allocate(encoded.length()));
+          assertThat(source.hasRemaining()).isFalse();
+        }
+      }
+    }
+  }
+
+  @GwtIncompatible // ByteBuffer, CharBuffer
+  public void testEncodeBuffer_overflow() {
+    for (CharBuffer target :
+        new CharBuffer[] {CharBuffer.allocate(10), ByteBuffer.allocate(20).asCharBuffer()}) {
+      ByteBuffer source = ByteBuffer.wrap("foobar".getBytes(UTF_8));
+      target.position(3);
+      try {
+        base64().encode(source, target);
+        fail("Expected BufferOverflowException");
+      } catch (BufferOverflowException expected) {
+      }
+      assertThat(source.position()).isEqualTo(0);
+      assertThat(target.position()).isEqualTo(3);
+    }
+  }
+
+  @GwtIncompatible // ByteBuffer, CharBuffer
+  public void testDecodeBuffer_overflow() {
+    for (boolean direct : new boolean[] {false, true}) {
+      CharBuffer source = CharBuffer.wrap("Zm9vYmFy");
+      ByteBuffer target = allocate(6, direct);
+      target.position(1);
+      try {
+        base64().decode(source, target);
+        fail("Expected BufferOverflowException");
+      } catch (BufferOverflowException expected) {
+      }
+      assertThat(source.position()).isEqualTo(0);
+      assertThat(target.position()).isEqualTo(1);
+    }
+  }
+
+  @GwtIncompatible // ByteBuffer
+  private static ByteBuffer allocate(int capacity, boolean direct) {
+    return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
   public void testToString() {
     assertThat(base64().toString()).isEqualTo("BaseEncoding.base64().withPadChar('=')");
     assertThat(base32Hex().omitPadding().toString())
@@ -21,8 +21,11 @@ import static org.junit.Assert.assertThrows;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.common.primitives.Bytes;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
@@ -61,6 +64,16 @@ public class FilesTest extends IoTestCase {
     suite.addTest(
         ByteSourceTester.tests(
             "Files.asByteSource[File]", SourceSinkFactories.fileByteSourceFactory(), true));
+    suite.addTest(
+        ByteSourceTester.tests(
+            "Files.asMappedByteSource[File]",
+            SourceSinkFactories.mappedFileByteSourceFactory(Files.MAX_MAPPED_REGION),
+            true));
+    suite.addTest(
+        ByteSourceTester.tests(
+            "Files.asMappedByteSource[File, 7-byte regions]",
+            SourceSinkFactories.mappedFileByteSourceFactory(7),
+            true));
     suite.addTest(
         ByteSinkTester.tests("Files.asByteSink[File]", SourceSinkFactories.fileByteSinkFactory()));
     suite.addTest(
@@ -487,6 +500,82 @@ public class FilesTest extends IoTestCase {
     assertEquals(i18nHash, Files.hash(i18nFile, Hashing.md5()).toString());
   }
 
+  public void testHashMapped() throws IOException {
+    File asciiFile = getTestFile("ascii.txt");
+    assertEquals(
+        "e5df5a39f2b8cb71b24e1d8038f93131", Files.hashMapped(asciiFile, Hashing.md5()).toString());
+
+    File file = createTempFile();
+    Files.write(newPreFilledByteArray(10_000), file);
+    for (HashFunction hashFunction :
+        ImmutableList.of(Hashing.murmur3_128(), Hashing.crc32c(), Hashing.sha256())) {
+      HashCode expected = Files.asByteSource(file).hash(hashFunction);
+      assertEquals(expected, Files.hashMapped(file, hashFunction));
+      assertEquals(expected, new MappedFileByteSource(file, 10_000).hash(hashFunction));
+      assertEquals(expected, new MappedFileByteSource(file, 1000).hash(hashFunction));
+      assertEquals(expected, new MappedFileByteSource(file, 999).hash(hashFunction));
+      assertEquals(
+          Files.asByteSource(file).slice(10, 5000).hash(hashFunction),
+          new MappedFileByteSource(file, 999).slice(10, 5000).hash(hashFunction));
+    }
+  }
+
+  public void testHashMapped_emptyFile() throws IOException {
+    File file = createTempFile();
+    assertEquals(
+        Hashing.murmur3_128().hashBytes(new byte[0]),
+        Files.hashMapped(file, Hashing.murmur3_128()));
+  }
+
+  public void testAsMappedByteSource() throws IOException {
+    File file = createTempFile();
+    byte[] bytes = newPreFilledByteArray(10_000);
+    Files.write(bytes, file);
+    for (long maxRegionSize : new long[] {Files.MAX_MAPPED_REGION, 1000, 999}) {
+      ByteSource source = new MappedFileByteSource(file, maxRegionSize);
+      assertThat(source.read()).isEqualTo(bytes);
+      assertEquals(Hashing.murmur3_128().hashBytes(bytes), source.hash(Hashing.murmur3_128()));
+      assertTrue(source.contentEquals(Files.asMappedByteSource(file)));
+      assertTrue(source.contentEquals(Files.asByteSource(file)));
+      assertFalse(source.contentEquals(Files.asMappedByteSource(file).slice(1, 20_000)));
+      assertTrue(
+          source.slice(1000, 3000).contentEquals(Files.asMappedByteSource(file).slice(1000, 3000)));
+      assertEquals(
+          Hashing.crc32c().hashBytes(bytes),
+          source.checksumParallel(Hashing.crc32c(), 1001, MoreExecutors.directExecutor()));
+
+      File copy = createTempFile();
+      assertEquals(3000, source.slice(1000, 3000).copyTo(Files.asByteSink(copy)));
+      assertThat(Files.toByteArray(copy)).isEqualTo(Arrays.copyOfRange(bytes, 1000, 4000));
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(10_000, source.copyTo(out));
+      assertThat(out.toByteArray()).isEqualTo(bytes);
+    }
+  }
+
+  public void testAsMappedByteSource_differentFiles() throws IOException {
+    File file = createTempFile();
+    File other = createTempFile();
+    byte[] bytes = newPreFilledByteArray(10_000);
+    Files.write(bytes, file);
+    bytes[9_999]++;
+    Files.write(bytes, other);
+    assertFalse(Files.asMappedByteSource(file).contentEquals(Files.asMappedByteSource(other)));
+    assertTrue(
+        Files.asMappedByteSource(file)
+            .slice(0, 9_999)
+            .contentEquals(Files.asMappedByteSource(other).slice(0, 9_999)));
+  }
+
+  public void testAsMappedByteSource_toString() throws IOException {
+    File file = createTempFile();
+    assertEquals(
+        "Files.asMappedByteSource(" + file + ")", Files.asMappedByteSource(file).toString());
+    assertEquals(
+        "Files.asMappedByteSource(" + file + ").slice(1, 2)",
+        Files.asMappedByteSource(file).slice(1, 2).toString());
+  }
+
   public void testMap() throws IOException {
     // Test data
     int size = 1024;
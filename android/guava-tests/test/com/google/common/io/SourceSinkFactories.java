@@ -68,6 +68,10 @@ public class SourceSinkFactories {
     return new FileByteSourceFactory();
   }
 
+  public static ByteSourceFactory mappedFileByteSourceFactory(long maxRegionSize) {
+    return new MappedFileByteSourceFactory(maxRegionSize);
+  }
+
   public static ByteSinkFactory fileByteSinkFactory() {
     return new FileByteSinkFactory(null);
   }
@@ -301,6 +305,21 @@ public class SourceSinkFactories {
     }
   }
 
+  private static class MappedFileByteSourceFactory extends FileByteSourceFactory {
+
+    private final long maxRegionSize;
+
+    private MappedFileByteSourceFactory(long maxRegionSize) {
+      this.maxRegionSize = maxRegionSize;
+    }
+
+    @Override
+    public ByteSource createSource(byte[] bytes) throws IOException {
+      super.createSource(bytes);
+      return new MappedFileByteSource(getFile(), maxRegionSize);
+    }
+  }
+
   private static class FileByteSinkFactory extends FileFactory implements ByteSinkFactory {
 
     private final byte[] initialBytes;
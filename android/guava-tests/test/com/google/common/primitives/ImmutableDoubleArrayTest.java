@@ -331,6 +331,59 @@ public class ImmutableDoubleArrayTest extends TestCase {
     assertThat(iia.subArray(1, 5).contains(1)).isTrue();
   }
 
+  public void testSum() {
+    assertThat(ImmutableDoubleArray.of().sum()).isEqualTo(0.0);
+    assertThat(ImmutableDoubleArray.of(1, 2, 3, 4).sum()).isEqualTo(10.0);
+    assertThat(ImmutableDoubleArray.of(1, 2, 3, 4).subArray(1, 3).sum()).isEqualTo(5.0);
+    assertThat(ImmutableDoubleArray.of(1, Double.NaN).sum()).isNaN();
+  }
+
+  public void testMinAndMax() {
+    ImmutableDoubleArray iia = ImmutableDoubleArray.of(3, -1, 4, 1, 5, -9, 2);
+    assertThat(iia.min()).isEqualTo(-9.0);
+    assertThat(iia.max()).isEqualTo(5.0);
+    assertThat(iia.subArray(0, 3).min()).isEqualTo(-1.0);
+    assertThat(iia.subArray(0, 3).max()).isEqualTo(4.0);
+    assertThat(ImmutableDoubleArray.of(7).min()).isEqualTo(7.0);
+    assertThat(ImmutableDoubleArray.of(1, Double.NaN, 3).min()).isNaN();
+    assertThat(ImmutableDoubleArray.of(1, Double.NaN, 3).max()).isNaN();
+  }
+
+  public void testMinAndMax_empty() {
+    try {
+      ImmutableDoubleArray.of().min();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      ImmutableDoubleArray.of(0, 1).subArray(1, 1).max();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testSorted() {
+    assertThat(ImmutableDoubleArray.of().sorted()).isEqualTo(ImmutableDoubleArray.of());
+    ImmutableDoubleArray iia = ImmutableDoubleArray.of(3, -1, 4, 1, 5, -9, 2);
+    assertThat(iia.sorted()).isEqualTo(ImmutableDoubleArray.of(-9, -1, 1, 2, 3, 4, 5));
+    assertThat(iia.subArray(2, 5).sorted()).isEqualTo(ImmutableDoubleArray.of(1, 4, 5));
+    assertThat(iia).isEqualTo(ImmutableDoubleArray.of(3, -1, 4, 1, 5, -9, 2));
+  }
+
+  public void testBinarySearch() {
+    ImmutableDoubleArray iia = ImmutableDoubleArray.of(-9, -1, 1, 2, 3, 4, 5);
+    assertThat(iia.binarySearch(-9)).isEqualTo(0);
+    assertThat(iia.binarySearch(3)).isEqualTo(4);
+    assertThat(iia.binarySearch(0)).isEqualTo(-3);
+    assertThat(iia.binarySearch(6)).isEqualTo(-8);
+    ImmutableDoubleArray sub = iia.subArray(2, 5);
+    assertThat(sub.binarySearch(2)).isEqualTo(1);
+    assertThat(sub.binarySearch(-9)).isEqualTo(-1);
+    assertThat(sub.binarySearch(0)).isEqualTo(-1);
+    assertThat(sub.binarySearch(5)).isEqualTo(-4);
+    assertThat(ImmutableDoubleArray.of().binarySearch(1)).isEqualTo(-1);
+  }
+
   public void testSubArray() {
     ImmutableDoubleArray iia0 = ImmutableDoubleArray.of();
     ImmutableDoubleArray iia1 = ImmutableDoubleArray.of(5);
@@ -22,6 +22,7 @@ import com.google.common.annotations.GwtCompatible;
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.annotations.J2ktIncompatible;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -30,6 +31,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -109,6 +111,26 @@ public final class ArrayListMultimap<K extends @Nullable Object, V extends @Null
     return new ArrayListMultimap<>(multimap);
   }
 
+  /**
+   * Constructs an {@code ArrayListMultimap} containing the given entries.
+   *
+   * <p>Unlike adding the entries one at a time, this first counts the values for each key, so that
+   * the backing map and the {@code ArrayList} for each key are created at their final sizes and
+   * never need to grow.
+   *
+   * @param entries the entries to copy into the new multimap; iterated twice
+   * @since NEXT
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      ArrayListMultimap<K, V> create(
+          Collection<? extends Entry<? extends K, ? extends V>> entries) {
+    Map<K, Count> counts = countValuesPerKey(entries);
+    ArrayListMultimap<K, V> multimap =
+        new ArrayListMultimap<>(counts.size(), DEFAULT_VALUES_PER_KEY);
+    multimap.putAllPresized(entries, counts);
+    return multimap;
+  }
+
   private ArrayListMultimap() {
     this(12, DEFAULT_VALUES_PER_KEY);
   }
@@ -136,6 +158,25 @@ public final class ArrayListMultimap<K extends @Nullable Object, V extends @Null
     return new ArrayList<>(expectedValuesPerKey);
   }
 
+  /** Creates a new, empty {@code ArrayList} with room for {@code expectedSize} values. */
+  @Override
+  List<V> createCollection(@ParametricNullness K key, int expectedSize) {
+    return new ArrayList<>(expectedSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Since this multimap's iteration order does not depend on the order in which keys were first
+   * added, the values of each key in {@code multimap} are added together, with a single lookup of
+   * the key.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(Multimap<? extends K, ? extends V> multimap) {
+    return putAllGroupedByKey(multimap);
+  }
+
   /**
    * Reduces the memory used by this {@code ArrayListMultimap}, if feasible.
    *
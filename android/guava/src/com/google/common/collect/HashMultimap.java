@@ -21,11 +21,13 @@ import com.google.common.annotations.GwtIncompatible;
 import com.google.common.annotations.J2ktIncompatible;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -100,6 +102,25 @@ public final class HashMultimap<K extends @Nullable Object, V extends @Nullable
     return new HashMultimap<>(multimap);
   }
 
+  /**
+   * Constructs a {@code HashMultimap} containing the given entries. If a key-value pair appears
+   * multiple times in {@code entries}, it only appears once in the constructed multimap.
+   *
+   * <p>Unlike adding the entries one at a time, this first counts the values for each key, so that
+   * the backing map and the {@code HashSet} for each key are created at their final sizes and never
+   * need to grow.
+   *
+   * @param entries the entries to copy into the new multimap; iterated twice
+   * @since NEXT
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object> HashMultimap<K, V> create(
+      Collection<? extends Entry<? extends K, ? extends V>> entries) {
+    Map<K, Count> counts = countValuesPerKey(entries);
+    HashMultimap<K, V> multimap = new HashMultimap<>(counts.size(), DEFAULT_VALUES_PER_KEY);
+    multimap.putAllPresized(entries, counts);
+    return multimap;
+  }
+
   private HashMultimap() {
     this(12, DEFAULT_VALUES_PER_KEY);
   }
@@ -127,6 +148,25 @@ public final class HashMultimap<K extends @Nullable Object, V extends @Nullable
     return Platform.<V>newHashSetWithExpectedSize(expectedValuesPerKey);
   }
 
+  /** Creates a new, empty {@code HashSet} with room for {@code expectedSize} values. */
+  @Override
+  Set<V> createCollection(@ParametricNullness K key, int expectedSize) {
+    return Platform.<V>newHashSetWithExpectedSize(expectedSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Since this multimap's iteration order does not depend on the order in which keys were first
+   * added, the values of each key in {@code multimap} are added together, with a single lookup of
+   * the key.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(Multimap<? extends K, ? extends V> multimap) {
+    return putAllGroupedByKey(multimap);
+  }
+
   /**
    * @serialData expectedValuesPerKey, number of distinct keys, and then for each distinct key: the
    *     key, number of values for that key, and the key's values
@@ -147,7 +147,14 @@ final class RegularImmutableSortedSet<E> extends ImmutableSortedSet<E> {
   }
 
   private int unsafeBinarySearch(Object key) throws ClassCastException {
-    return Collections.binarySearch(elements, key, unsafeComparator());
+    return binarySearch(key, unsafeComparator());
+  }
+
+  private int binarySearch(Object key, Comparator<? super Object> comparator) {
+    if (elements instanceof SortedPrimitiveImmutableList && Ordering.natural().equals(comparator)) {
+      return ((SortedPrimitiveImmutableList<?>) elements).binarySearch(key);
+    }
+    return Collections.binarySearch(elements, key, comparator);
   }
 
   @Override
@@ -247,7 +254,7 @@ final class RegularImmutableSortedSet<E> extends ImmutableSortedSet<E> {
   }
 
   int headIndex(E toElement, boolean inclusive) {
-    int index = Collections.binarySearch(elements, checkNotNull(toElement), comparator());
+    int index = binarySearch(checkNotNull(toElement), unsafeComparator());
     if (index >= 0) {
       return inclusive ? index + 1 : index;
     } else {
@@ -267,7 +274,7 @@ final class RegularImmutableSortedSet<E> extends ImmutableSortedSet<E> {
   }
 
   int tailIndex(E fromElement, boolean inclusive) {
-    int index = Collections.binarySearch(elements, checkNotNull(fromElement), comparator());
+    int index = binarySearch(checkNotNull(fromElement), unsafeComparator());
     if (index >= 0) {
       return inclusive ? index : index + 1;
     } else {
@@ -301,7 +308,7 @@ final class RegularImmutableSortedSet<E> extends ImmutableSortedSet<E> {
     }
     int position;
     try {
-      position = Collections.binarySearch(elements, target, unsafeComparator());
+      position = unsafeBinarySearch(target);
     } catch (ClassCastException e) {
       return -1;
     }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.J2ktIncompatible;
+import java.util.Arrays;
+
+/**
+ * An {@link ImmutableList} of {@code Long} or {@code Integer} values, stored unboxed in a primitive
+ * array and sorted in ascending order. It backs the key sets of the maps returned by {@link
+ * ImmutableSortedMap#copyOfLongKeys} and {@link ImmutableSortedMap#copyOfIntKeys}, which {@link
+ * RegularImmutableSortedSet} searches with {@link #binarySearch} instead of comparing boxed keys.
+ *
+ * <p>Elements are boxed on demand by {@link #get}.
+ */
+@GwtIncompatible
+@SuppressWarnings("serial") // uses writeReplace(), not default serialization
+@ElementTypesAreNonnullByDefault
+abstract class SortedPrimitiveImmutableList<E extends Comparable<E>> extends ImmutableList<E> {
+  final transient int offset;
+  final transient int length;
+
+  SortedPrimitiveImmutableList(int offset, int length) {
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Searches for {@code key} as {@link java.util.Collections#binarySearch(java.util.List, Object)}
+   * would under the natural ordering, but without boxing the elements.
+   *
+   * @throws ClassCastException if {@code key} is not an instance of the element type
+   */
+  abstract int binarySearch(Object key);
+
+  @Override
+  public final int size() {
+    return length;
+  }
+
+  /**
+   * Converts the result of an {@code Arrays.binarySearch} over the backing range to our indexes.
+   */
+  final int relativeSearchResult(int result) {
+    return (result >= 0) ? result - offset : result + offset;
+  }
+
+  // redeclare to help optimizers with b/310253115
+  @SuppressWarnings("RedundantOverride")
+  @Override
+  @J2ktIncompatible // serialization
+  Object writeReplace() {
+    return super.writeReplace();
+  }
+
+  /** A {@link SortedPrimitiveImmutableList} backed by a {@code long[]}. */
+  static final class OfLong extends SortedPrimitiveImmutableList<Long> {
+    private final transient long[] array;
+
+    /** Creates a list over {@code array}, which must be sorted and must not be modified later. */
+    OfLong(long[] array) {
+      this(array, 0, array.length);
+    }
+
+    private OfLong(long[] array, int offset, int length) {
+      super(offset, length);
+      this.array = array;
+    }
+
+    @Override
+    public Long get(int index) {
+      checkElementIndex(index, length);
+      return array[offset + index];
+    }
+
+    @Override
+    int binarySearch(Object key) {
+      return relativeSearchResult(Arrays.binarySearch(array, offset, offset + length, (Long) key));
+    }
+
+    @Override
+    ImmutableList<Long> subListUnchecked(int fromIndex, int toIndex) {
+      return new OfLong(array, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return offset > 0 || length < array.length;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    @J2ktIncompatible // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /** A {@link SortedPrimitiveImmutableList} backed by an {@code int[]}. */
+  static final class OfInt extends SortedPrimitiveImmutableList<Integer> {
+    private final transient int[] array;
+
+    /** Creates a list over {@code array}, which must be sorted and must not be modified later. */
+    OfInt(int[] array) {
+      this(array, 0, array.length);
+    }
+
+    private OfInt(int[] array, int offset, int length) {
+      super(offset, length);
+      this.array = array;
+    }
+
+    @Override
+    public Integer get(int index) {
+      checkElementIndex(index, length);
+      return array[offset + index];
+    }
+
+    @Override
+    int binarySearch(Object key) {
+      return relativeSearchResult(
+          Arrays.binarySearch(array, offset, offset + length, (Integer) key));
+    }
+
+    @Override
+    ImmutableList<Integer> subListUnchecked(int fromIndex, int toIndex) {
+      return new OfInt(array, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return offset > 0 || length < array.length;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    @J2ktIncompatible // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+}
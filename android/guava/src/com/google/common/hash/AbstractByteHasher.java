@@ -33,6 +33,9 @@ import java.nio.ByteOrder;
  */
 @ElementTypesAreNonnullByDefault
 abstract class AbstractByteHasher extends AbstractHasher {
+  /** The size of the chunks in which {@link #update(ByteBuffer)} copies a non-array buffer. */
+  private static final int DIRECT_CHUNK_SIZE = 8192;
+
   private final ByteBuffer scratch = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
 
   /** Updates this hasher with the given byte. */
@@ -56,8 +59,13 @@ abstract class AbstractByteHasher extends AbstractHasher {
       update(b.array(), b.arrayOffset() + b.position(), b.remaining());
       Java8Compatibility.position(b, b.limit());
     } else {
-      for (int remaining = b.remaining(); remaining > 0; remaining--) {
-        update(b.get());
+      // A direct or mapped buffer: copy it out in bulk, a bounded chunk at a time, rather than
+      // making a virtual call per byte.
+      byte[] chunk = new byte[Math.min(b.remaining(), DIRECT_CHUNK_SIZE)];
+      while (b.hasRemaining()) {
+        int len = Math.min(b.remaining(), chunk.length);
+        b.get(chunk, 0, len);
+        update(chunk, 0, len);
       }
     }
   }
@@ -0,0 +1,522 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.common.math.LongMath;
+import com.google.common.primitives.Ints;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A Count-Min sketch, which estimates how many times each element was added to it using a fixed
+ * amount of memory. See "An Improved Data Stream Summary: The Count-Min Sketch and its
+ * Applications" by Graham Cormode and S. Muthukrishnan.
+ *
+ * <p>A Count-Min sketch has one-sided error: {@link #estimateCount} never returns less than the
+ * number of times an element was added, and with probability at least {@code 1 - delta} it
+ * overestimates by at most {@code epsilon} times the {@linkplain #totalCount total count} of the
+ * sketch. The sketch takes {@code ceil(e / epsilon) * ceil(ln(1 / delta))} counters of eight bytes.
+ *
+ * <p>{@link #addConservatively} implements the conservative update of Estan and Varghese, which
+ * only raises the counters that need to be raised, and so overestimates less than {@link #add}.
+ *
+ * <p>Sketches of the same dimensions, hash function and funnel can be merged with {@link #putAll};
+ * the result estimates the counts of the elements added to either of them.
+ *
+ * <p>This class is thread-safe. Calls to {@link #add} and {@link #estimateCount} are lock-free;
+ * calls to {@link #addConservatively} lock the stripe they update. Sketches created by {@link
+ * #createStriped} keep several independent copies of the counters, and each thread adds to one of
+ * them; this avoids contention on the counters of hot elements, at the cost of memory and of
+ * queries, which read every stripe.
+ *
+ * <p>Sketches support a more compact serial representation via the {@link #writeTo} and {@link
+ * #readFrom} methods, as well as Java serialization.
+ *
+ * @param <T> the type of instances that the {@code CountMinSketch} accepts
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class CountMinSketch<T extends @Nullable Object> implements Serializable {
+  /** The version of the format written by {@link #writeTo}. */
+  private static final byte FORMAT = 0;
+
+  /**
+   * The counters of each stripe, row by row. The counter in column {@code c} of row {@code r} of
+   * stripe {@code s} is at index {@code (s * depth + r) * width + c}.
+   */
+  private final AtomicLongArray counters;
+
+  private final int width;
+  private final int depth;
+  private final int stripes;
+  private final Funnel<? super T> funnel;
+  private final HashFunction hashFunction;
+  private final LongAddable totalCount;
+
+  /** The locks that serialize conservative updates to each stripe. */
+  private final Object[] stripeLocks;
+
+  private CountMinSketch(
+      AtomicLongArray counters,
+      int width,
+      int depth,
+      int stripes,
+      long totalCount,
+      Funnel<? super T> funnel,
+      HashFunction hashFunction) {
+    checkArgument(
+        counters.length() == (long) width * depth * stripes,
+        "number of counters (%s) must be width (%s) * depth (%s) * stripes (%s)",
+        counters.length(),
+        width,
+        depth,
+        stripes);
+    this.counters = counters;
+    this.width = width;
+    this.depth = depth;
+    this.stripes = stripes;
+    this.funnel = checkNotNull(funnel);
+    this.hashFunction = checkNotNull(hashFunction);
+    this.totalCount = LongAddables.create();
+    this.totalCount.add(totalCount);
+    this.stripeLocks = new Object[stripes];
+    for (int i = 0; i < stripes; i++) {
+      stripeLocks[i] = new Object();
+    }
+  }
+
+  /**
+   * Creates a {@link CountMinSketch} that hashes elements with {@link Hashing#murmur3_128()}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountMinSketch} will use
+   * @param epsilon the maximum overestimate, as a fraction of the total count (must be positive and
+   *     less than 1.0)
+   * @param delta the probability that an estimate exceeds that maximum (must be positive and less
+   *     than 1.0)
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> create(
+      Funnel<? super T> funnel, double epsilon, double delta) {
+    return create(funnel, Hashing.murmur3_128(), epsilon, delta);
+  }
+
+  /**
+   * Creates a {@link CountMinSketch} that hashes elements with the given hash function.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountMinSketch} will use
+   * @param hashFunction the hash function to use; must produce at least 64 bits
+   * @param epsilon the maximum overestimate, as a fraction of the total count (must be positive and
+   *     less than 1.0)
+   * @param delta the probability that an estimate exceeds that maximum (must be positive and less
+   *     than 1.0)
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> create(
+      Funnel<? super T> funnel, HashFunction hashFunction, double epsilon, double delta) {
+    return createStriped(funnel, hashFunction, epsilon, delta, 1);
+  }
+
+  /**
+   * Creates a {@link CountMinSketch} with {@code stripes} independent copies of its counters, for
+   * use by many threads at once. Each thread adds to one stripe, and estimates are the sum of the
+   * stripes' estimates. Estimates still never undercount, and each stripe's overestimate is bounded
+   * by {@code epsilon} times the count added to that stripe, with probability {@code 1 - delta}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CountMinSketch} will use
+   * @param hashFunction the hash function to use; must produce at least 64 bits
+   * @param epsilon the maximum overestimate, as a fraction of the total count (must be positive and
+   *     less than 1.0)
+   * @param delta the probability that an estimate exceeds that maximum (must be positive and less
+   *     than 1.0)
+   * @param stripes the number of copies of the counters; must be positive
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> createStriped(
+      Funnel<? super T> funnel,
+      HashFunction hashFunction,
+      double epsilon,
+      double delta,
+      int stripes) {
+    checkNotNull(funnel);
+    checkNotNull(hashFunction);
+    checkArgument(
+        hashFunction.bits() >= Long.SIZE,
+        "hash function (%s) must produce at least 64 bits",
+        hashFunction);
+    checkArgument(epsilon > 0.0, "epsilon (%s) must be > 0.0", epsilon);
+    checkArgument(epsilon < 1.0, "epsilon (%s) must be < 1.0", epsilon);
+    checkArgument(delta > 0.0, "delta (%s) must be > 0.0", delta);
+    checkArgument(delta < 1.0, "delta (%s) must be < 1.0", delta);
+    checkArgument(stripes > 0, "stripes (%s) must be > 0", stripes);
+    long width = (long) Math.ceil(Math.E / epsilon);
+    long depth = Math.max(1, (long) Math.ceil(Math.log(1 / delta)));
+    // width saturates at Long.MAX_VALUE for tiny epsilons, so the product must not overflow.
+    long size = LongMath.saturatedMultiply(LongMath.saturatedMultiply(width, depth), stripes);
+    checkArgument(
+        size <= Integer.MAX_VALUE, "Count-Min sketch of %s counters would be too large", size);
+    return new CountMinSketch<>(
+        new AtomicLongArray((int) size),
+        (int) width,
+        (int) depth,
+        stripes,
+        0,
+        funnel,
+        hashFunction);
+  }
+
+  /**
+   * Creates a new {@code CountMinSketch} that's a copy of this instance. The new instance is equal
+   * to this instance but shares no mutable state.
+   */
+  public CountMinSketch<T> copy() {
+    return new CountMinSketch<>(
+        new AtomicLongArray(toLongArray()),
+        width,
+        depth,
+        stripes,
+        totalCount(),
+        funnel,
+        hashFunction);
+  }
+
+  /** Adds one occurrence of an element to this sketch. */
+  public void add(@ParametricNullness T object) {
+    add(object, 1);
+  }
+
+  /**
+   * Adds {@code count} occurrences of an element to this sketch, incrementing one counter in each
+   * row.
+   *
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  public void add(@ParametricNullness T object, long count) {
+    checkArgument(count >= 0, "count (%s) must be >= 0", count);
+    long hash = hash(object);
+    int offset = stripeOffset();
+    for (int row = 0; row < depth; row++) {
+      counters.getAndAdd(offset + index(hash, row), count);
+    }
+    totalCount.add(count);
+  }
+
+  /**
+   * Adds {@code count} occurrences of an element to this sketch with the conservative update: each
+   * of the element's counters is only raised as far as the element's new estimated count. This
+   * keeps the counters of other elements that share them from growing, so estimates are lower than
+   * with {@link #add}, while still never being lower than the actual counts.
+   *
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  public void addConservatively(@ParametricNullness T object, long count) {
+    checkArgument(count >= 0, "count (%s) must be >= 0", count);
+    long hash = hash(object);
+    int stripe = stripe();
+    int offset = stripe * depth * width;
+    synchronized (stripeLocks[stripe]) {
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        estimate = Math.min(estimate, counters.get(offset + index(hash, row)));
+      }
+      long target = LongMath.saturatedAdd(estimate, count);
+      for (int row = 0; row < depth; row++) {
+        // Concurrent calls to add() may raise the counter, but never lower it.
+        int i = offset + index(hash, row);
+        long value;
+        do {
+          value = counters.get(i);
+        } while (value < target && !counters.compareAndSet(i, value, target));
+      }
+    }
+    totalCount.add(count);
+  }
+
+  /**
+   * Returns an estimate of the number of times an element was added to this sketch. The estimate is
+   * never less than the actual number.
+   */
+  public long estimateCount(@ParametricNullness T object) {
+    long hash = hash(object);
+    long sum = 0;
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      int offset = stripe * depth * width;
+      long estimate = Long.MAX_VALUE;
+      for (int row = 0; row < depth; row++) {
+        estimate = Math.min(estimate, counters.get(offset + index(hash, row)));
+      }
+      sum = LongMath.saturatedAdd(sum, estimate);
+    }
+    return sum;
+  }
+
+  /** Returns the total number of occurrences added to this sketch. */
+  public long totalCount() {
+    return totalCount.sum();
+  }
+
+  private long hash(@ParametricNullness T object) {
+    return hashFunction.hashObject(object, funnel).asLong();
+  }
+
+  /** Returns the column of a hash in the given row, as in {@code MURMUR128_MITZ_32}. */
+  private int index(long hash, int row) {
+    int combinedHash = (int) hash + (row + 1) * (int) (hash >>> 32);
+    return row * width + (combinedHash & Integer.MAX_VALUE) % width;
+  }
+
+  /** Returns the stripe that the current thread adds to. */
+  private int stripe() {
+    if (stripes == 1) {
+      return 0;
+    }
+    long mixed = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+    return (int) ((mixed >>> 33) % stripes);
+  }
+
+  private int stripeOffset() {
+    return stripe() * depth * width;
+  }
+
+  /**
+   * Determines whether a given sketch is compatible with this one: they must not be the same
+   * instance, and must have the same width, depth and number of stripes, equal hash functions and
+   * equal funnels.
+   *
+   * @param that The sketch to check for compatibility.
+   */
+  public boolean isCompatible(CountMinSketch<T> that) {
+    checkNotNull(that);
+    return this != that
+        && this.width == that.width
+        && this.depth == that.depth
+        && this.stripes == that.stripes
+        && this.hashFunction.equals(that.hashFunction)
+        && this.funnel.equals(that.funnel);
+  }
+
+  /**
+   * Adds the counts of another sketch to this one, so that this sketch estimates the counts of the
+   * elements added to either of them. The mutations happen to <b>this</b> instance.
+   *
+   * @param that The sketch to merge into this one. It is not mutated.
+   * @throws IllegalArgumentException if {@code isCompatible(that) == false}
+   */
+  public void putAll(CountMinSketch<T> that) {
+    checkNotNull(that);
+    checkArgument(this != that, "Cannot combine a CountMinSketch with itself.");
+    checkArgument(
+        this.width == that.width && this.depth == that.depth && this.stripes == that.stripes,
+        "CountMinSketches must have the same dimensions (%s != %s)",
+        this.dimensions(),
+        that.dimensions());
+    checkArgument(
+        this.hashFunction.equals(that.hashFunction),
+        "CountMinSketches must have equal hash functions (%s != %s)",
+        this.hashFunction,
+        that.hashFunction);
+    checkArgument(
+        this.funnel.equals(that.funnel),
+        "CountMinSketches must have equal funnels (%s != %s)",
+        this.funnel,
+        that.funnel);
+    for (int i = 0; i < counters.length(); i++) {
+      counters.getAndAdd(i, that.counters.get(i));
+    }
+    totalCount.add(that.totalCount());
+  }
+
+  private String dimensions() {
+    return width + "x" + depth + "x" + stripes;
+  }
+
+  private long[] toLongArray() {
+    long[] array = new long[counters.length()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = counters.get(i);
+    }
+    return array;
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof CountMinSketch) {
+      CountMinSketch<?> that = (CountMinSketch<?>) object;
+      return this.width == that.width
+          && this.depth == that.depth
+          && this.stripes == that.stripes
+          && this.totalCount() == that.totalCount()
+          && this.hashFunction.equals(that.hashFunction)
+          && this.funnel.equals(that.funnel)
+          && Arrays.equals(this.toLongArray(), that.toLongArray());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(width, depth, stripes, funnel, Arrays.hashCode(toLongArray()));
+  }
+
+  /**
+   * Writes this {@code CountMinSketch} to an output stream, with a custom format (not Java
+   * serialization).
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel, HashFunction)} to reconstruct the written
+   * CountMinSketch.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 signed byte for the format
+    // 3 big endian ints, the width, depth and number of stripes
+    // 1 big endian long, the total count
+    // N big endian longs, the counters
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeByte(FORMAT);
+    dout.writeInt(width);
+    dout.writeInt(depth);
+    dout.writeInt(stripes);
+    dout.writeLong(totalCount());
+    for (int i = 0; i < counters.length(); i++) {
+      dout.writeLong(counters.get(i));
+    }
+    dout.flush();
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)} from a sketch
+   * using {@link Hashing#murmur3_128()}, into a {@code CountMinSketch}.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the stream, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original sketch!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a CountMinSketch serialized using the {@linkplain #writeTo(OutputStream)}
+   *     method.
+   */
+  public static <T extends @Nullable Object> CountMinSketch<T> readFrom(
+      InputStream in, Funnel<? super T> funnel) throws IOException {
+    return readFrom(in, funnel, Hashing.murmur3_128());
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a {@code
+   * CountMinSketch}.
+   *
+   * <p>The {@code Funnel} and {@code HashFunction} to be used are not encoded in the stream, so
+   * they must be provided here. <b>Warning:</b> they <b>must</b> behave identically to the ones
+   * used to populate the original sketch!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a CountMinSketch serialized using the {@linkplain #writeTo(OutputStream)}
+   *     method.
+   */
+  @SuppressWarnings("CatchingUnchecked") // sneaky checked exception
+  public static <T extends @Nullable Object> CountMinSketch<T> readFrom(
+      InputStream in, Funnel<? super T> funnel, HashFunction hashFunction) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    checkNotNull(hashFunction, "HashFunction");
+    int format = -1;
+    int width = -1;
+    int depth = -1;
+    int stripes = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      format = din.readByte();
+      checkArgument(format == FORMAT, "unknown format");
+      width = din.readInt();
+      depth = din.readInt();
+      stripes = din.readInt();
+      checkArgument(width > 0 && depth > 0 && stripes > 0, "dimensions must be positive");
+      long totalCount = din.readLong();
+      AtomicLongArray counters =
+          new AtomicLongArray(
+              Ints.checkedCast(LongMath.checkedMultiply((long) width * depth, stripes)));
+      for (int i = 0; i < counters.length(); i++) {
+        counters.set(i, din.readLong());
+      }
+      return new CountMinSketch<>(
+          counters, width, depth, stripes, totalCount, funnel, hashFunction);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) { // sneaky checked exception
+      String message =
+          "Unable to deserialize CountMinSketch from InputStream."
+              + " format: "
+              + format
+              + " width: "
+              + width
+              + " depth: "
+              + depth
+              + " stripes: "
+              + stripes;
+      throw new IOException(message, e);
+    }
+  }
+
+  private Object writeReplace() {
+    return new SerialForm<T>(this);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static class SerialForm<T extends @Nullable Object> implements Serializable {
+    final long[] counters;
+    final int width;
+    final int depth;
+    final int stripes;
+    final long totalCount;
+    final Funnel<? super T> funnel;
+    final HashFunction hashFunction;
+
+    SerialForm(CountMinSketch<T> sketch) {
+      this.counters = sketch.toLongArray();
+      this.width = sketch.width;
+      this.depth = sketch.depth;
+      this.stripes = sketch.stripes;
+      this.totalCount = sketch.totalCount();
+      this.funnel = sketch.funnel;
+      this.hashFunction = sketch.hashFunction;
+    }
+
+    Object readResolve() {
+      return new CountMinSketch<T>(
+          new AtomicLongArray(counters), width, depth, stripes, totalCount, funnel, hashFunction);
+    }
+
+    private static final long serialVersionUID = 1;
+  }
+
+  private static final long serialVersionUID = 0xcafebabe;
+}
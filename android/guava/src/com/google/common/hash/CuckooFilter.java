@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.LongMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An approximate membership filter that, unlike a {@link BloomFilter}, supports removing elements.
+ * See "Cuckoo Filter: Practically Better Than Bloom" by Bin Fan, David G. Andersen, Michael
+ * Kaminsky and Michael D. Mitzenmacher.
+ *
+ * <p>A cuckoo filter stores a 16-bit fingerprint of each element in one of two buckets of four
+ * fingerprints, moving other fingerprints to their alternate bucket to make room when both are
+ * full. Its false positive probability is about 0.012% once it holds as many elements as it was
+ * sized for, and a query reads two buckets of eight bytes each. Unlike a {@code BloomFilter}, a
+ * cuckoo filter can become full: {@link #put} returns {@code false} when it can't make room for an
+ * element, and the filter should then be replaced by a larger one.
+ *
+ * <p>Queries are thread-safe and lock-free. Calls to {@link #put} and {@link #remove} lock the
+ * filter, and move fingerprints in an order that never hides an element from a concurrent query.
+ *
+ * <p>Cuckoo filters support a more compact serial representation via the {@link #writeTo} and
+ * {@link #readFrom} methods, as well as Java serialization.
+ *
+ * @param <T> the type of instances that the {@code CuckooFilter} accepts
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class CuckooFilter<T extends @Nullable Object> implements Serializable {
+  /** The version of the format written by {@link #writeTo}. */
+  private static final byte FORMAT = 0;
+
+  private static final int SLOTS_PER_BUCKET = 4;
+  private static final int FINGERPRINT_BITS = 16;
+  private static final int FINGERPRINT_MASK = (1 << FINGERPRINT_BITS) - 1;
+  private static final long LANE_ONES = 0x0001000100010001L;
+  private static final long LANE_HIGH_BITS = 0x8000800080008000L;
+
+  /** The fraction of slots that can usually be filled before insertions start to fail. */
+  private static final double MAX_LOAD_FACTOR = 0.95;
+
+  /** The maximum number of fingerprints moved to make room for a new one. */
+  private static final int MAX_KICKS = 500;
+
+  /** Each bucket is a long holding four fingerprints; zero marks an empty slot. */
+  private final AtomicLongArray buckets;
+
+  private final int bucketMask;
+  private final Funnel<? super T> funnel;
+
+  /** The number of fingerprints in the filter. Guarded by this. */
+  private long count;
+
+  private CuckooFilter(AtomicLongArray buckets, long count, Funnel<? super T> funnel) {
+    int numBuckets = buckets.length();
+    checkArgument(
+        numBuckets > 0 && (numBuckets & (numBuckets - 1)) == 0,
+        "number of buckets (%s) must be a power of two",
+        numBuckets);
+    this.buckets = buckets;
+    this.bucketMask = numBuckets - 1;
+    this.count = count;
+    this.funnel = checkNotNull(funnel);
+  }
+
+  /**
+   * Creates a {@link CuckooFilter} sized for the expected number of insertions.
+   *
+   * @param funnel the funnel of T's that the constructed {@code CuckooFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     CuckooFilter}; must be positive
+   */
+  public static <T extends @Nullable Object> CuckooFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions) {
+    checkNotNull(funnel);
+    checkArgument(
+        expectedInsertions > 0, "Expected insertions (%s) must be > 0", expectedInsertions);
+    long numBuckets =
+        LongMath.ceilingPowerOfTwo(
+            (long) Math.ceil(expectedInsertions / (SLOTS_PER_BUCKET * MAX_LOAD_FACTOR)));
+    checkArgument(
+        numBuckets <= 1 << 30, "Expected insertions (%s) are too large", expectedInsertions);
+    return new CuckooFilter<>(new AtomicLongArray((int) numBuckets), 0, funnel);
+  }
+
+  /**
+   * Creates a new {@code CuckooFilter} that's a copy of this instance. The new instance is equal to
+   * this instance but shares no mutable state.
+   */
+  public synchronized CuckooFilter<T> copy() {
+    return new CuckooFilter<>(new AtomicLongArray(toLongArray()), count, funnel);
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been put in this filter and not removed
+   * since, {@code false} if this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    long hash = hash(object);
+    int fingerprint = fingerprint(hash);
+    int index = index(hash);
+    return hasFingerprint(buckets.get(index), fingerprint)
+        || hasFingerprint(buckets.get(alternateIndex(index, fingerprint)), fingerprint);
+  }
+
+  /**
+   * Puts an element into this filter. Ensures that subsequent invocations of {@link #mightContain}
+   * with the same element will always return {@code true}, unless the element is removed.
+   *
+   * <p>Putting an element that is already in the filter stores it again, so that it can be removed
+   * as many times as it was put. At most eight copies of an element fit.
+   *
+   * @return true if the element was put; false if the filter is too full to make room for it, in
+   *     which case the filter is unchanged
+   */
+  @CanIgnoreReturnValue
+  public synchronized boolean put(@ParametricNullness T object) {
+    long hash = hash(object);
+    int fingerprint = fingerprint(hash);
+    int index = index(hash);
+    int alternateIndex = alternateIndex(index, fingerprint);
+    if (putInEmptySlot(index, fingerprint) || putInEmptySlot(alternateIndex, fingerprint)) {
+      count++;
+      return true;
+    }
+
+    // Both buckets are full. Look for a path of fingerprints that can each move to their alternate
+    // bucket, ending in a bucket with an empty slot, without moving anything yet.
+    int[] pathBuckets = new int[MAX_KICKS];
+    int[] pathSlots = new int[MAX_KICKS];
+    long random = hash;
+    int bucket = (random & 1) == 0 ? index : alternateIndex;
+    for (int length = 0; length < MAX_KICKS; length++) {
+      random = xorshift(random);
+      int slot = unvisitedSlot(bucket, (int) random, pathBuckets, pathSlots, length);
+      if (slot < 0) {
+        return false;
+      }
+      pathBuckets[length] = bucket;
+      pathSlots[length] = slot;
+      int victim = slot(buckets.get(bucket), slot);
+      bucket = alternateIndex(bucket, victim);
+      if (putInEmptySlot(bucket, victim)) {
+        // Move each fingerprint along the path, starting from the end, so that every fingerprint is
+        // copied to its new bucket before it is overwritten in its old one.
+        for (int i = length; i > 0; i--) {
+          setSlot(
+              pathBuckets[i],
+              pathSlots[i],
+              slot(buckets.get(pathBuckets[i - 1]), pathSlots[i - 1]));
+        }
+        setSlot(pathBuckets[0], pathSlots[0], fingerprint);
+        count++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes one copy of an element from this filter.
+   *
+   * <p><b>Warning:</b> only remove elements that were put in the filter. Removing any other element
+   * that happens to share a fingerprint with a present element removes that element instead, so
+   * that {@link #mightContain} may then return {@code false} for it.
+   *
+   * @return true if a fingerprint of the element was found and removed
+   */
+  @CanIgnoreReturnValue
+  public synchronized boolean remove(@ParametricNullness T object) {
+    long hash = hash(object);
+    int fingerprint = fingerprint(hash);
+    int index = index(hash);
+    if (removeFromBucket(index, fingerprint)
+        || removeFromBucket(alternateIndex(index, fingerprint), fingerprint)) {
+      count--;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the probability that {@link #mightContain} will erroneously return {@code true} for an
+   * object that is not in the filter, based on how full the filter is.
+   */
+  public double expectedFpp() {
+    // Each of the fingerprints in the two buckets matches with probability 1 / (2^16 - 1).
+    double fingerprintsPerBucket = (double) approximateElementCount() / buckets.length();
+    return Math.min(1.0, 2 * fingerprintsPerBucket / FINGERPRINT_MASK);
+  }
+
+  /**
+   * Returns the number of elements in this filter: the number of successful calls to {@link #put}
+   * minus the number of successful calls to {@link #remove}.
+   */
+  public synchronized long approximateElementCount() {
+    return count;
+  }
+
+  /** Returns the number of fingerprints that this filter has room for. */
+  @VisibleForTesting
+  long capacity() {
+    return (long) buckets.length() * SLOTS_PER_BUCKET;
+  }
+
+  private long hash(@ParametricNullness T object) {
+    return Hashing.murmur3_128().hashObject(object, funnel).asLong();
+  }
+
+  private int index(long hash) {
+    return (int) (hash >>> 32) & bucketMask;
+  }
+
+  /** Returns the other bucket of a fingerprint. Applying this twice returns the original index. */
+  private int alternateIndex(int index, int fingerprint) {
+    return (index ^ (int) ((fingerprint * 0xc4ceb9fe1a85ec53L) >>> 32)) & bucketMask;
+  }
+
+  private static int fingerprint(long hash) {
+    int fingerprint = (int) hash & FINGERPRINT_MASK;
+    return fingerprint == 0 ? 1 : fingerprint;
+  }
+
+  private static boolean hasFingerprint(long bucket, int fingerprint) {
+    // Finds whether any 16-bit lane of bucket ^ broadcast(fingerprint) is zero.
+    long x = bucket ^ (fingerprint * LANE_ONES);
+    return ((x - LANE_ONES) & ~x & LANE_HIGH_BITS) != 0;
+  }
+
+  private static int slot(long bucket, int slot) {
+    return (int) (bucket >>> (slot * FINGERPRINT_BITS)) & FINGERPRINT_MASK;
+  }
+
+  private void setSlot(int index, int slot, int fingerprint) {
+    int shift = slot * FINGERPRINT_BITS;
+    long bucket = buckets.get(index);
+    buckets.set(
+        index, (bucket & ~((long) FINGERPRINT_MASK << shift)) | ((long) fingerprint << shift));
+  }
+
+  private boolean putInEmptySlot(int index, int fingerprint) {
+    long bucket = buckets.get(index);
+    for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+      if (slot(bucket, slot) == 0) {
+        setSlot(index, slot, fingerprint);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean removeFromBucket(int index, int fingerprint) {
+    long bucket = buckets.get(index);
+    for (int slot = 0; slot < SLOTS_PER_BUCKET; slot++) {
+      if (slot(bucket, slot) == fingerprint) {
+        setSlot(index, slot, 0);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a slot of {@code bucket}, picked starting from {@code random}, that is not already on
+   * the path; or -1 if there is none.
+   */
+  private static int unvisitedSlot(
+      int bucket, int random, int[] pathBuckets, int[] pathSlots, int length) {
+    for (int i = 0; i < SLOTS_PER_BUCKET; i++) {
+      int slot = (random + i) & (SLOTS_PER_BUCKET - 1);
+      boolean visited = false;
+      for (int j = 0; j < length && !visited; j++) {
+        visited = pathBuckets[j] == bucket && pathSlots[j] == slot;
+      }
+      if (!visited) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  private static long xorshift(long x) {
+    x ^= x << 13;
+    x ^= x >>> 7;
+    x ^= x << 17;
+    return x;
+  }
+
+  private long[] toLongArray() {
+    long[] array = new long[buckets.length()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = buckets.get(i);
+    }
+    return array;
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof CuckooFilter) {
+      CuckooFilter<?> that = (CuckooFilter<?>) object;
+      return this.funnel.equals(that.funnel)
+          && Arrays.equals(this.toLongArray(), that.toLongArray());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(toLongArray());
+  }
+
+  /**
+   * Writes this {@code CuckooFilter} to an output stream, with a custom format (not Java
+   * serialization).
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel)} to reconstruct the written CuckooFilter.
+   */
+  public synchronized void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 signed byte for the format
+    // 1 big endian long, the number of fingerprints
+    // 1 big endian int, the number of buckets
+    // N big endian longs, the buckets
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeByte(FORMAT);
+    dout.writeLong(count);
+    dout.writeInt(buckets.length());
+    for (int i = 0; i < buckets.length(); i++) {
+      dout.writeLong(buckets.get(i));
+    }
+    dout.flush();
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a {@code
+   * CuckooFilter}.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the stream, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original filter!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a CuckooFilter serialized using the {@linkplain #writeTo(OutputStream)}
+   *     method.
+   */
+  @SuppressWarnings("CatchingUnchecked") // sneaky checked exception
+  public static <T extends @Nullable Object> CuckooFilter<T> readFrom(
+      InputStream in, Funnel<? super T> funnel) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    int format = -1;
+    int numBuckets = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      format = din.readByte();
+      checkArgument(format == FORMAT, "unknown format");
+      long count = din.readLong();
+      numBuckets = din.readInt();
+      AtomicLongArray buckets = new AtomicLongArray(numBuckets);
+      for (int i = 0; i < numBuckets; i++) {
+        buckets.set(i, din.readLong());
+      }
+      return new CuckooFilter<>(buckets, count, funnel);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) { // sneaky checked exception
+      String message =
+          "Unable to deserialize CuckooFilter from InputStream."
+              + " format: "
+              + format
+              + " numBuckets: "
+              + numBuckets;
+      throw new IOException(message, e);
+    }
+  }
+
+  private Object writeReplace() {
+    return new SerialForm<T>(this);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static class SerialForm<T extends @Nullable Object> implements Serializable {
+    final long[] buckets;
+    final long count;
+    final Funnel<? super T> funnel;
+
+    SerialForm(CuckooFilter<T> filter) {
+      synchronized (filter) {
+        this.buckets = filter.toLongArray();
+        this.count = filter.count;
+      }
+      this.funnel = filter.funnel;
+    }
+
+    Object readResolve() {
+      return new CuckooFilter<T>(new AtomicLongArray(buckets), count, funnel);
+    }
+
+    private static final long serialVersionUID = 1;
+  }
+
+  private static final long serialVersionUID = 0xcafebabe;
+}
@@ -16,6 +16,7 @@ package com.google.common.hash;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
+import com.google.j2objc.annotations.J2ObjCIncompatible;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.OutputStream;
@@ -235,6 +236,33 @@ public final class Funnels {
     }
   }
 
+  /**
+   * Returns a funnel that funnels the components of a record (or the fields of another class) in
+   * turn. The funnel looks up the component accessors once, when it is created, rather than on each
+   * call; create it once and reuse it.
+   *
+   * <p>For a record class, the components are funneled in declaration order. For any other class,
+   * the non-static, non-transient fields declared by the class and its superclasses are funneled,
+   * superclass fields first and ordered by name within each class.
+   *
+   * <p>Components may be primitives, boxed primitives, {@code CharSequence}s, {@code byte[]}s,
+   * enums (funneled by name), or other records (funneled recursively). Non-primitive components may
+   * be null. Each non-primitive component is preceded by a marker saying whether it is null, and
+   * each variable-length component by its length, so that distinct objects do not funnel the same
+   * sequence of values.
+   *
+   * <p>Access checks are suppressed to read the components, which may fail with an unchecked
+   * exception if {@code type} is in a module that is not open to Guava.
+   *
+   * @throws IllegalArgumentException if {@code type} is not a class, or has a component of an
+   *     unsupported type, or contains a component of its own type
+   * @since NEXT
+   */
+  @J2ObjCIncompatible
+  public static <T> Funnel<T> forRecord(Class<T> type) {
+    return RecordFunnel.create(type);
+  }
+
   /**
    * Wraps a {@code PrimitiveSink} as an {@link OutputStream}, so it is easy to {@link Funnel#funnel
    * funnel} an object to a {@code PrimitiveSink} if there is already a way to write the contents of
@@ -481,6 +481,83 @@ public final class Hashing {
     return FarmHashFingerprint64.FARMHASH_FINGERPRINT_64;
   }
 
+  /**
+   * Returns a hash function implementing <a href="https://github.com/Cyan4973/xxHash">xxHash</a>'s
+   * XXH64 algorithm (64 hash bits) with a seed of zero.
+   *
+   * <p>xxHash hash codes are encoded by {@link HashCode#asBytes} in little-endian order. This means
+   * {@link HashCode#asLong} is guaranteed to return the same value that XXH64() would for the same
+   * input (when compared using {@link com.google.common.primitives.UnsignedLongs}'s encoding of
+   * 64-bit unsigned numbers).
+   *
+   * <p>This is a fast, non-cryptographic hash function, and its output is stable across releases.
+   *
+   * @since NEXT
+   */
+  public static HashFunction xxHash64() {
+    return XxHash64HashFunction.XX_HASH_64;
+  }
+
+  /**
+   * Returns a hash function implementing <a href="https://github.com/Cyan4973/xxHash">xxHash</a>'s
+   * XXH64 algorithm (64 hash bits) using the given seed value.
+   *
+   * @since NEXT
+   */
+  public static HashFunction xxHash64(long seed) {
+    return new XxHash64HashFunction(seed);
+  }
+
+  /**
+   * Returns a hash function implementing <a href="https://github.com/Cyan4973/xxHash">xxHash</a>'s
+   * XXH3 algorithm (64 hash bits) with a seed of zero.
+   *
+   * <p>XXH3 is generally faster than {@link #xxHash64()}, especially for short and very long
+   * inputs. Its hash codes are encoded by {@link HashCode#asBytes} in little-endian order, so
+   * {@link HashCode#asLong} returns the same value that XXH3_64bits() would for the same input.
+   *
+   * <p>This is a fast, non-cryptographic hash function, and its output is stable across releases.
+   *
+   * @since NEXT
+   */
+  public static HashFunction xxh3_64() {
+    return Xxh3HashFunction.XXH3_64;
+  }
+
+  /**
+   * Returns a hash function implementing <a href="https://github.com/Cyan4973/xxHash">xxHash</a>'s
+   * XXH3 algorithm (64 hash bits) using the given seed value.
+   *
+   * @since NEXT
+   */
+  public static HashFunction xxh3_64(long seed) {
+    return new Xxh3HashFunction(64, seed);
+  }
+
+  /**
+   * Returns a hash function implementing <a href="https://github.com/Cyan4973/xxHash">xxHash</a>'s
+   * XXH3 algorithm (128 hash bits) with a seed of zero.
+   *
+   * <p>The hash codes are encoded by {@link HashCode#asBytes} as the low 64 bits of XXH3_128bits()
+   * followed by the high 64 bits, each in little-endian order. (Note that this differs from the
+   * big-endian "canonical" representation used by the reference implementation.)
+   *
+   * @since NEXT
+   */
+  public static HashFunction xxh3_128() {
+    return Xxh3HashFunction.XXH3_128;
+  }
+
+  /**
+   * Returns a hash function implementing <a href="https://github.com/Cyan4973/xxHash">xxHash</a>'s
+   * XXH3 algorithm (128 hash bits) using the given seed value.
+   *
+   * @since NEXT
+   */
+  public static HashFunction xxh3_128(long seed) {
+    return new Xxh3HashFunction(128, seed);
+  }
+
   /**
    * Returns a hash function implementing the Fingerprint2011 hashing function (64 hash bits).
    *
@@ -635,6 +712,43 @@ public final class Hashing {
     return HashCode.fromBytesNoCopy(resultBytes);
   }
 
+  /**
+   * Returns the checksum of the concatenation of two inputs, given the checksum of each and the
+   * length of the second, without reading either input. This takes {@code O(log(secondLength))}
+   * time, so the checksum of a large input can be computed by checksumming its chunks in parallel
+   * and combining the results, as {@link com.google.common.io.ByteSource#checksumParallel} does.
+   *
+   * <p>For example, if {@code crcA} and {@code crcB} are the {@link #crc32c} checksums of {@code a}
+   * and {@code b}, then {@code combineChecksums(crc32c(), crcA, crcB, b.length)} is equal to {@code
+   * crc32c().newHasher().putBytes(a).putBytes(b).hash()}.
+   *
+   * @param checksumFunction one of {@link #crc32}, {@link #crc32c} and {@link #adler32}
+   * @param first the checksum of the first input
+   * @param second the checksum of the second input
+   * @param secondLength the length of the second input, in bytes
+   * @throws IllegalArgumentException if {@code checksumFunction} is not one of the supported
+   *     checksums, either hash code is not 32 bits long, or {@code secondLength} is negative
+   * @since NEXT
+   */
+  public static HashCode combineChecksums(
+      HashFunction checksumFunction, HashCode first, HashCode second, long secondLength) {
+    checkNotNull(checksumFunction);
+    checkNotNull(second);
+    checkArgument(first.bits() == 32, "checksum must be 32 bits long: %s", first);
+    checkArgument(second.bits() == 32, "checksum must be 32 bits long: %s", second);
+    checkArgument(secondLength >= 0, "secondLength (%s) must be >= 0", secondLength);
+    int a = first.asInt();
+    int b = second.asInt();
+    if (checksumFunction.equals(crc32c())) {
+      return HashCode.fromInt(ChecksumCombiner.crc32c(a, b, secondLength));
+    } else if (checksumFunction.equals(crc32())) {
+      return HashCode.fromInt(ChecksumCombiner.crc32(a, b, secondLength));
+    } else if (checksumFunction.equals(adler32())) {
+      return HashCode.fromInt(ChecksumCombiner.adler32(a, b, secondLength));
+    }
+    throw new IllegalArgumentException(checksumFunction + " checksums can't be combined");
+  }
+
   /** Checks that the passed argument is positive, and ceils it to a multiple of 32. */
   static int checkPositiveAndMakeMultipleOf32(int bits) {
     checkArgument(bits > 0, "Number of bits must be positive");
@@ -682,6 +796,44 @@ public final class Hashing {
     return new ConcatenatedHashFunction(list.toArray(new HashFunction[0]));
   }
 
+  /**
+   * Returns a hash function which splits its input into chunks of {@code chunkSize} bytes (the last
+   * of which may be shorter), hashes each chunk with {@code leafFunction}, and combines the chunk
+   * hash codes with {@link #combineOrdered}. An empty input is hashed as a single empty chunk.
+   *
+   * <p>Because the chunks are hashed independently, they can be hashed in parallel: {@link
+   * com.google.common.io.ByteSource#hashParallel ByteSource.hashParallel(leafFunction, chunkSize,
+   * executor)} produces the same hash code as {@code byteSource.hash(treeHash(leafFunction,
+   * chunkSize))}, using multiple threads.
+   *
+   * <p>The hash codes of a tree hash function are unrelated to those of its leaf function, and the
+   * combining step is not cryptographically strong: a tree hash is not suitable for cryptographic
+   * purposes, even if {@code leafFunction} is.
+   *
+   * @throws IllegalArgumentException if {@code chunkSize} is not positive
+   * @since NEXT
+   */
+  public static HashFunction treeHash(HashFunction leafFunction, int chunkSize) {
+    return new TreeHashFunction(leafFunction, chunkSize);
+  }
+
+  /**
+   * Returns a new {@link ReusableHasher} for {@code hashFunction}, which can compute any number of
+   * hash codes, one after another, without allocating a new hasher for each. Its hash codes are the
+   * same as those of {@code hashFunction}.
+   *
+   * <p>The reusable hasher collects its input in an internal buffer and hashes the buffer when a
+   * hash method is called, so it is intended for many small inputs, such as keys, rather than large
+   * streams. The buffer grows to fit the largest input.
+   *
+   * @throws IllegalArgumentException if the number of bits of {@code hashFunction} is not a
+   *     multiple of 8
+   * @since NEXT
+   */
+  public static ReusableHasher newReusableHasher(HashFunction hashFunction) {
+    return new BufferingReusableHasher(hashFunction);
+  }
+
   private static final class ConcatenatedHashFunction extends AbstractCompositeHashFunction {
 
     private ConcatenatedHashFunction(HashFunction... functions) {
@@ -52,7 +52,8 @@ import javax.annotation.CheckForNull;
  */
 @Immutable
 @ElementTypesAreNonnullByDefault
-final class Murmur3_32HashFunction extends AbstractHashFunction implements Serializable {
+final class Murmur3_32HashFunction extends AbstractHashFunction
+    implements NonAllocatingHashFunction, Serializable {
   static final HashFunction MURMUR3_32 =
       new Murmur3_32HashFunction(0, /* supplementaryPlaneFix= */ false);
   static final HashFunction MURMUR3_32_FIXED =
@@ -223,6 +224,15 @@ final class Murmur3_32HashFunction extends AbstractHashFunction implements Seria
   @Override
   public HashCode hashBytes(byte[] input, int off, int len) {
     checkPositionIndexes(off, off + len, input.length);
+    return HashCode.fromInt(hash(input, off, len));
+  }
+
+  @Override
+  public void hashBytesTo(byte[] input, int off, int len, long[] dest, int destOffset) {
+    dest[destOffset] = hash(input, off, len) & 0xFFFFFFFFL;
+  }
+
+  private int hash(byte[] input, int off, int len) {
     int h1 = seed;
     int i;
     for (i = 0; i + CHUNK_SIZE <= len; i += CHUNK_SIZE) {
@@ -235,7 +245,7 @@ final class Murmur3_32HashFunction extends AbstractHashFunction implements Seria
       k1 ^= toInt(input[off + i]) << shift;
     }
     h1 ^= mixK1(k1);
-    return fmix(h1, len);
+    return finalMix(h1, len);
   }
 
   private static int getIntLittleEndian(byte[] input, int offset) {
@@ -258,13 +268,17 @@ final class Murmur3_32HashFunction extends AbstractHashFunction implements Seria
 
   // Finalization mix - force all bits of a hash block to avalanche
   private static HashCode fmix(int h1, int length) {
+    return HashCode.fromInt(finalMix(h1, length));
+  }
+
+  private static int finalMix(int h1, int length) {
     h1 ^= length;
     h1 ^= h1 >>> 16;
     h1 *= 0x85ebca6b;
     h1 ^= h1 >>> 13;
     h1 *= 0xc2b2ae35;
     h1 ^= h1 >>> 16;
-    return HashCode.fromInt(h1);
+    return h1;
   }
 
   private static final class Murmur3_32Hasher extends AbstractHasher {
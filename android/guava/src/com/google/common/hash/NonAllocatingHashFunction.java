@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+/**
+ * A hash function that can hash a byte array into a caller-provided {@code long[]}, usually without
+ * allocating, which {@link ReusableHasher} takes advantage of.
+ */
+@ElementTypesAreNonnullByDefault
+interface NonAllocatingHashFunction extends HashFunction {
+  /**
+   * Hashes {@code len} bytes of {@code input} starting at {@code off}, and writes the hash code to
+   * {@code dest} starting at {@code destOffset}, as {@code ceil(bits() / 64.0)} longs. Each long
+   * holds eight bytes of {@link HashCode#asBytes} in little-endian order, padded with zeros. The
+   * caller is responsible for checking the indexes.
+   */
+  void hashBytesTo(byte[] input, int off, int len, long[] dest, int destOffset);
+}
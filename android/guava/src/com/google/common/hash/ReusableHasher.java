@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import com.google.common.annotations.Beta;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link Hasher} that can be reused to compute any number of hash codes, one after another. Each
+ * of the hash methods ({@link #hash}, {@link #hashTo(byte[], int)}, {@link #hashTo(long[], int)}
+ * and {@link #hashToLong}) computes the hash code of the data provided since the hasher was created
+ * or last {@linkplain #reset reset}, and then resets it.
+ *
+ * <p>Once the hasher's internal buffer has grown to fit the largest input, the methods that write
+ * the hash code to a caller-provided array, or return it as a {@code long}, allocate nothing for
+ * most of the hash functions in {@link Hashing}, including {@link Hashing#murmur3_128()}, {@link
+ * Hashing#farmHashFingerprint64()} and {@link Hashing#xxh3_64()}. This makes a single reusable
+ * hasher cheaper than calling {@link HashFunction#newHasher} for each of many small inputs, such as
+ * composite keys.
+ *
+ * <p>A reusable hasher is not thread-safe. It is typically confined to a thread, for example with a
+ * {@link ThreadLocal}.
+ *
+ * <p>Create a reusable hasher with {@link Hashing#newReusableHasher}.
+ *
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public interface ReusableHasher extends Hasher {
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putByte(byte b);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putBytes(byte[] bytes);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putBytes(byte[] bytes, int off, int len);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putBytes(ByteBuffer bytes);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putShort(short s);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putInt(int i);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putLong(long l);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putFloat(float f);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putDouble(double d);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putBoolean(boolean b);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putChar(char c);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putUnencodedChars(CharSequence charSequence);
+
+  @CanIgnoreReturnValue
+  @Override
+  ReusableHasher putString(CharSequence charSequence, Charset charset);
+
+  @CanIgnoreReturnValue
+  @Override
+  <T extends @Nullable Object> ReusableHasher putObject(
+      @ParametricNullness T instance, Funnel<? super T> funnel);
+
+  /** Discards the data provided since this hasher was created or last reset. */
+  @CanIgnoreReturnValue
+  ReusableHasher reset();
+
+  /** Computes the hash code of the data provided since the last reset, and resets this hasher. */
+  @Override
+  HashCode hash();
+
+  /**
+   * Computes the hash code of the data provided since the last reset, writes the bytes of {@link
+   * HashCode#asBytes} to {@code dest} starting at {@code offset}, and resets this hasher.
+   *
+   * @return the number of bytes written, {@code bits() / 8} of the hash function
+   * @throws IndexOutOfBoundsException if there is not enough room in {@code dest}
+   */
+  @CanIgnoreReturnValue
+  int hashTo(byte[] dest, int offset);
+
+  /**
+   * Computes the hash code of the data provided since the last reset, writes it to {@code dest}
+   * starting at {@code offset}, and resets this hasher. Each {@code long} holds eight bytes of
+   * {@link HashCode#asBytes} in little-endian order, so that the first is {@link
+   * HashCode#padToLong}, and the last is padded with zeros if necessary.
+   *
+   * @return the number of longs written, {@code ceil(bits() / 64.0)} of the hash function
+   * @throws IndexOutOfBoundsException if there is not enough room in {@code dest}
+   */
+  @CanIgnoreReturnValue
+  int hashTo(long[] dest, int offset);
+
+  /**
+   * Computes the hash code of the data provided since the last reset, and resets this hasher.
+   * Returns the same value as {@code hash().padToLong()}.
+   */
+  long hashToLong();
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.math.LongMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A Bloom filter that grows as elements are put in it, so that it doesn't need to know the number
+ * of elements in advance. See "Scalable Bloom Filters" by Paulo Sérgio Almeida, Carlos Baquero,
+ * Nuno Preguiça and David Hutchison.
+ *
+ * <p>A scalable Bloom filter is a series of {@link BloomFilter} slices. Elements are put in the
+ * newest slice until it holds as many elements as it was sized for; then a new slice with twice the
+ * capacity and half the false positive probability is added. The false positive probabilities of
+ * the slices form a geometric series whose sum is the {@code fpp} requested at creation, so the
+ * false positive probability of the filter stays below it however many elements are put. In
+ * exchange, queries for absent elements check every slice, and the filter takes somewhat more
+ * memory than a {@code BloomFilter} sized for the same elements up front.
+ *
+ * <p>Queries are thread-safe and lock-free. Calls to {@link #put} for elements that the filter
+ * might not contain lock the filter.
+ *
+ * @param <T> the type of instances that the {@code ScalableBloomFilter} accepts
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class ScalableBloomFilter<T extends @Nullable Object> implements Serializable {
+  private static final int GROWTH_FACTOR = 2;
+  private static final double TIGHTENING_RATIO = 0.5;
+
+  private final Funnel<? super T> funnel;
+
+  /** The slices, oldest first. Only the newest one receives puts. */
+  private final CopyOnWriteArrayList<BloomFilter<T>> slices;
+
+  /** The false positive probability of the newest slice. Guarded by this. */
+  private double lastSliceFpp;
+
+  /** The number of elements that the newest slice was sized for. Guarded by this. */
+  private long lastSliceCapacity;
+
+  /** The number of elements put in the newest slice. Guarded by this. */
+  private long lastSliceInsertions;
+
+  private ScalableBloomFilter(
+      Funnel<? super T> funnel,
+      List<BloomFilter<T>> slices,
+      double lastSliceFpp,
+      long lastSliceCapacity,
+      long lastSliceInsertions) {
+    this.funnel = checkNotNull(funnel);
+    this.slices = new CopyOnWriteArrayList<>(slices);
+    this.lastSliceFpp = lastSliceFpp;
+    this.lastSliceCapacity = lastSliceCapacity;
+    this.lastSliceInsertions = lastSliceInsertions;
+  }
+
+  /**
+   * Creates a {@link ScalableBloomFilter} whose first slice is sized for {@code
+   * initialExpectedInsertions} elements, and whose false positive probability stays below {@code
+   * fpp}.
+   *
+   * @param funnel the funnel of T's that the constructed filter will use
+   * @param initialExpectedInsertions the number of elements that the first slice is sized for; must
+   *     be positive. The closer this is to the final number of elements, the fewer slices the
+   *     filter will need.
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   */
+  public static <T extends @Nullable Object> ScalableBloomFilter<T> create(
+      Funnel<? super T> funnel, long initialExpectedInsertions, double fpp) {
+    checkNotNull(funnel);
+    checkArgument(
+        initialExpectedInsertions > 0,
+        "Initial expected insertions (%s) must be > 0",
+        initialExpectedInsertions);
+    checkArgument(fpp > 0.0, "False positive probability (%s) must be > 0.0", fpp);
+    checkArgument(fpp < 1.0, "False positive probability (%s) must be < 1.0", fpp);
+    // The slices' probabilities are fpp * (1 - r) * r^i, which sum to fpp.
+    double firstSliceFpp = fpp * (1 - TIGHTENING_RATIO);
+    List<BloomFilter<T>> slices = new ArrayList<>();
+    slices.add(BloomFilter.create(funnel, initialExpectedInsertions, firstSliceFpp));
+    return new ScalableBloomFilter<>(funnel, slices, firstSliceFpp, initialExpectedInsertions, 0);
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been put in this filter, {@code false} if
+   * this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    // Slices only get added, so the size we read first remains valid. Newer slices hold more
+    // elements, so we check them first.
+    for (int i = slices.size() - 1; i >= 0; i--) {
+      if (slices.get(i).mightContain(object)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Puts an element into this filter, adding a slice first if the newest one is full. Ensures that
+   * subsequent invocations of {@link #mightContain} with the same element will always return {@code
+   * true}.
+   *
+   * @return true if the filter changed as a result of this operation. If so, this is
+   *     <i>definitely</i> the first time {@code object} has been added to the filter. If not, this
+   *     <i>might</i> be the first time {@code object} has been added to the filter.
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    if (mightContain(object)) {
+      return false;
+    }
+    synchronized (this) {
+      if (lastSliceInsertions >= lastSliceCapacity) {
+        lastSliceCapacity = LongMath.saturatedMultiply(lastSliceCapacity, GROWTH_FACTOR);
+        lastSliceFpp *= TIGHTENING_RATIO;
+        lastSliceInsertions = 0;
+        slices.add(BloomFilter.create(funnel, lastSliceCapacity, lastSliceFpp));
+      }
+      boolean changed = slices.get(slices.size() - 1).put(object);
+      if (changed) {
+        lastSliceInsertions++;
+      }
+      return changed;
+    }
+  }
+
+  /**
+   * Returns the probability that {@link #mightContain} will erroneously return {@code true} for an
+   * object that has not actually been put in the filter, based on how full each slice is.
+   */
+  public double expectedFpp() {
+    double probabilityOfNoFalsePositive = 1.0;
+    for (BloomFilter<T> slice : slices) {
+      probabilityOfNoFalsePositive *= 1.0 - slice.expectedFpp();
+    }
+    return 1.0 - probabilityOfNoFalsePositive;
+  }
+
+  /** Returns an estimate for the total number of distinct elements that have been put. */
+  public long approximateElementCount() {
+    long count = 0;
+    for (BloomFilter<T> slice : slices) {
+      count = LongMath.saturatedAdd(count, slice.approximateElementCount());
+    }
+    return count;
+  }
+
+  @VisibleForTesting
+  int sliceCount() {
+    return slices.size();
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof ScalableBloomFilter) {
+      ScalableBloomFilter<?> that = (ScalableBloomFilter<?>) object;
+      return this.funnel.equals(that.funnel) && this.slices.equals(that.slices);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(funnel, slices);
+  }
+
+  private Object writeReplace() {
+    return new SerialForm<T>(this);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static class SerialForm<T extends @Nullable Object> implements Serializable {
+    final Funnel<? super T> funnel;
+    final ArrayList<BloomFilter<T>> slices;
+    final double lastSliceFpp;
+    final long lastSliceCapacity;
+    final long lastSliceInsertions;
+
+    SerialForm(ScalableBloomFilter<T> bf) {
+      this.funnel = bf.funnel;
+      synchronized (bf) {
+        this.slices = new ArrayList<>(bf.slices);
+        this.lastSliceFpp = bf.lastSliceFpp;
+        this.lastSliceCapacity = bf.lastSliceCapacity;
+        this.lastSliceInsertions = bf.lastSliceInsertions;
+      }
+    }
+
+    Object readResolve() {
+      return new ScalableBloomFilter<T>(
+          funnel, slices, lastSliceFpp, lastSliceCapacity, lastSliceInsertions);
+    }
+
+    private static final long serialVersionUID = 1;
+  }
+
+  private static final long serialVersionUID = 0xcafebabe;
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import com.google.errorprone.annotations.Immutable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.CheckForNull;
+
+/**
+ * A hash function that splits its input into fixed-size chunks, hashes each chunk with a leaf hash
+ * function, and combines the chunk hashes with {@link Hashing#combineOrdered}. An empty input is a
+ * single empty chunk. Since the chunks are independent, they can be hashed in parallel; see {@link
+ * com.google.common.io.ByteSource#hashParallel}.
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+final class TreeHashFunction extends AbstractHashFunction {
+  private final HashFunction leafFunction;
+  private final int chunkSize;
+
+  TreeHashFunction(HashFunction leafFunction, int chunkSize) {
+    this.leafFunction = checkNotNull(leafFunction);
+    checkArgument(chunkSize > 0, "chunkSize (%s) must be > 0", chunkSize);
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public int bits() {
+    return leafFunction.bits();
+  }
+
+  @Override
+  public Hasher newHasher() {
+    return new TreeHasher();
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    List<HashCode> chunkHashes = new ArrayList<>(len / chunkSize + 1);
+    int end = off + len;
+    do {
+      int chunkLength = Math.min(chunkSize, end - off);
+      chunkHashes.add(leafFunction.hashBytes(input, off, chunkLength));
+      off += chunkLength;
+    } while (off < end);
+    return Hashing.combineOrdered(chunkHashes);
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.treeHash(" + leafFunction + ", " + chunkSize + ")";
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof TreeHashFunction) {
+      TreeHashFunction other = (TreeHashFunction) object;
+      return leafFunction.equals(other.leafFunction) && chunkSize == other.chunkSize;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return leafFunction.hashCode() * 31 + chunkSize;
+  }
+
+  private final class TreeHasher extends AbstractByteHasher {
+    private final List<HashCode> chunkHashes = new ArrayList<>();
+    private Hasher chunkHasher = leafFunction.newHasher();
+    private int chunkLength;
+
+    @Override
+    protected void update(byte b) {
+      chunkHasher.putByte(b);
+      chunkLength++;
+      endChunkIfFull();
+    }
+
+    @Override
+    protected void update(byte[] b, int off, int len) {
+      while (len > 0) {
+        int n = Math.min(len, chunkSize - chunkLength);
+        chunkHasher.putBytes(b, off, n);
+        chunkLength += n;
+        off += n;
+        len -= n;
+        endChunkIfFull();
+      }
+    }
+
+    @Override
+    protected void update(ByteBuffer b) {
+      int limit = b.limit();
+      while (b.hasRemaining()) {
+        int n = Math.min(b.remaining(), chunkSize - chunkLength);
+        Java8Compatibility.limit(b, b.position() + n);
+        chunkHasher.putBytes(b);
+        Java8Compatibility.limit(b, limit);
+        chunkLength += n;
+        endChunkIfFull();
+      }
+    }
+
+    private void endChunkIfFull() {
+      if (chunkLength == chunkSize) {
+        chunkHashes.add(chunkHasher.hash());
+        chunkHasher = leafFunction.newHasher();
+        chunkLength = 0;
+      }
+    }
+
+    @Override
+    public HashCode hash() {
+      if (chunkLength > 0 || chunkHashes.isEmpty()) {
+        chunkHashes.add(chunkHasher.hash());
+      }
+      return Hashing.combineOrdered(chunkHashes);
+    }
+  }
+}
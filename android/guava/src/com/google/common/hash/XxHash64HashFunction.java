@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.hash.LittleEndianByteArray.load32;
+import static com.google.common.hash.LittleEndianByteArray.load64;
+
+import com.google.errorprone.annotations.Immutable;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import javax.annotation.CheckForNull;
+
+/**
+ * See XXH64 in <a href="https://github.com/Cyan4973/xxHash">the reference implementation</a>.
+ *
+ * <p>Note to maintainers: like {@link FarmHashFingerprint64}, this implementation relies on signed
+ * arithmetic being bit-wise equivalent to unsigned arithmetic, except for right shifts, which must
+ * be unsigned.
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+final class XxHash64HashFunction extends AbstractHashFunction
+    implements NonAllocatingHashFunction, Serializable {
+  static final HashFunction XX_HASH_64 = new XxHash64HashFunction(0);
+
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+  private static final int STRIPE_LENGTH = 32;
+
+  private final long seed;
+
+  XxHash64HashFunction(long seed) {
+    this.seed = seed;
+  }
+
+  @Override
+  public int bits() {
+    return 64;
+  }
+
+  @Override
+  public Hasher newHasher() {
+    return new XxHash64Hasher(seed);
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    return HashCode.fromLong(hash(input, off, len, seed));
+  }
+
+  @Override
+  public void hashBytesTo(byte[] input, int off, int len, long[] dest, int destOffset) {
+    dest[destOffset] = hash(input, off, len, seed);
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.xxHash64(" + seed + ")";
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof XxHash64HashFunction) {
+      XxHash64HashFunction other = (XxHash64HashFunction) object;
+      return seed == other.seed;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode() ^ (int) (seed ^ (seed >>> 32));
+  }
+
+  static long hash(byte[] input, int offset, int length, long seed) {
+    int end = offset + length;
+    long hash;
+    if (length >= STRIPE_LENGTH) {
+      long v1 = seed + PRIME64_1 + PRIME64_2;
+      long v2 = seed + PRIME64_2;
+      long v3 = seed;
+      long v4 = seed - PRIME64_1;
+      int limit = end - STRIPE_LENGTH;
+      do {
+        v1 = round(v1, load64(input, offset));
+        v2 = round(v2, load64(input, offset + 8));
+        v3 = round(v3, load64(input, offset + 16));
+        v4 = round(v4, load64(input, offset + 24));
+        offset += STRIPE_LENGTH;
+      } while (offset <= limit);
+      hash = converge(v1, v2, v3, v4);
+    } else {
+      hash = seed + PRIME64_5;
+    }
+    hash += length;
+    return finish(hash, input, offset, end - offset);
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME64_2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME64_1;
+  }
+
+  private static long mergeRound(long acc, long value) {
+    acc ^= round(0, value);
+    return acc * PRIME64_1 + PRIME64_4;
+  }
+
+  private static long converge(long v1, long v2, long v3, long v4) {
+    long hash =
+        Long.rotateLeft(v1, 1)
+            + Long.rotateLeft(v2, 7)
+            + Long.rotateLeft(v3, 12)
+            + Long.rotateLeft(v4, 18);
+    hash = mergeRound(hash, v1);
+    hash = mergeRound(hash, v2);
+    hash = mergeRound(hash, v3);
+    return mergeRound(hash, v4);
+  }
+
+  /** Mixes in the final {@code length < 32} bytes of input, and avalanches the result. */
+  private static long finish(long hash, byte[] input, int offset, int length) {
+    int end = offset + length;
+    while (end - offset >= 8) {
+      hash ^= round(0, load64(input, offset));
+      hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+      offset += 8;
+    }
+    if (end - offset >= 4) {
+      hash ^= (load32(input, offset) & 0xFFFFFFFFL) * PRIME64_1;
+      hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+      offset += 4;
+    }
+    while (offset < end) {
+      hash ^= (input[offset] & 0xFFL) * PRIME64_5;
+      hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+      offset++;
+    }
+    return avalanche(hash);
+  }
+
+  static long avalanche(long hash) {
+    hash ^= hash >>> 33;
+    hash *= PRIME64_2;
+    hash ^= hash >>> 29;
+    hash *= PRIME64_3;
+    return hash ^ (hash >>> 32);
+  }
+
+  private static final class XxHash64Hasher extends AbstractStreamingHasher {
+    private final long seed;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long length;
+    private final byte[] tail = new byte[STRIPE_LENGTH];
+    private int tailLength;
+
+    XxHash64Hasher(long seed) {
+      super(STRIPE_LENGTH);
+      this.seed = seed;
+      this.v1 = seed + PRIME64_1 + PRIME64_2;
+      this.v2 = seed + PRIME64_2;
+      this.v3 = seed;
+      this.v4 = seed - PRIME64_1;
+    }
+
+    @Override
+    protected void process(ByteBuffer bb) {
+      v1 = round(v1, bb.getLong());
+      v2 = round(v2, bb.getLong());
+      v3 = round(v3, bb.getLong());
+      v4 = round(v4, bb.getLong());
+      length += STRIPE_LENGTH;
+    }
+
+    @Override
+    protected void processRemaining(ByteBuffer bb) {
+      tailLength = bb.remaining();
+      bb.get(tail, 0, tailLength);
+      length += tailLength;
+    }
+
+    @Override
+    protected HashCode makeHash() {
+      long hash = length >= STRIPE_LENGTH ? converge(v1, v2, v3, v4) : seed + PRIME64_5;
+      hash += length;
+      return HashCode.fromLong(finish(hash, tail, 0, tailLength));
+    }
+  }
+
+  private static final long serialVersionUID = 0L;
+}
@@ -34,6 +34,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
 import java.util.Objects;
 import javax.annotation.CheckForNull;
@@ -153,13 +157,54 @@ public abstract class BaseEncoding {
    */
   public final String encode(byte[] bytes, int off, int len) {
     checkPositionIndexes(off, off + len, bytes.length);
-    StringBuilder result = new StringBuilder(maxEncodedSize(len));
-    try {
-      encodeTo(result, bytes, off, len);
-    } catch (IOException impossible) {
-      throw new AssertionError(impossible);
+    char[] result = new char[maxEncodedSize(len)];
+    int length = encodeTo(result, 0, bytes, off, len);
+    return new String(result, 0, length);
+  }
+
+  /**
+   * Encodes the remaining bytes of {@code bytes} into {@code target}, without creating an
+   * intermediate {@code String}. On return, the position of {@code bytes} is its limit, and the
+   * position of {@code target} is just after the encoded chars.
+   *
+   * <p>If this method throws an exception, the positions of the buffers are unchanged, but the
+   * chars of {@code target} after its position may have been overwritten.
+   *
+   * @throws BufferOverflowException if {@code target} doesn't have room for the encoded chars
+   * @throws ReadOnlyBufferException if {@code target} is read-only
+   * @since NEXT
+   */
+  @J2ktIncompatible
+  @GwtIncompatible // ByteBuffer, CharBuffer
+  public final void encode(ByteBuffer bytes, CharBuffer target) {
+    checkNotNull(target);
+    int len = bytes.remaining();
+    byte[] array;
+    int off;
+    if (bytes.hasArray()) {
+      array = bytes.array();
+      off = bytes.arrayOffset() + bytes.position();
+    } else {
+      array = new byte[len];
+      bytes.duplicate().get(array);
+      off = 0;
+    }
+    int targetPosition = target.position();
+    if (target.hasArray() && target.remaining() >= maxEncodedSize(len)) {
+      int written =
+          encodeTo(target.array(), target.arrayOffset() + targetPosition, array, off, len);
+      Java8Compatibility.position(target, targetPosition + written);
+    } else {
+      try {
+        encodeTo(target, array, off, len);
+      } catch (BufferOverflowException e) {
+        Java8Compatibility.position(target, targetPosition);
+        throw e;
+      } catch (IOException impossible) {
+        throw new AssertionError(impossible);
+      }
     }
-    return result.toString();
+    Java8Compatibility.position(bytes, bytes.limit());
   }
 
   /**
@@ -231,10 +276,50 @@ public abstract class BaseEncoding {
       throws DecodingException {
     chars = trimTrailingPadding(chars);
     byte[] tmp = new byte[maxDecodedSize(chars.length())];
-    int len = decodeTo(tmp, chars);
+    int len = decodeTo(tmp, 0, chars);
     return extract(tmp, len);
   }
 
+  /**
+   * Decodes the remaining chars of {@code chars} into {@code target}, without creating an
+   * intermediate array if {@code target} is backed by one. This is the inverse operation to {@link
+   * #encode(ByteBuffer, CharBuffer)}. On return, the position of {@code chars} is its limit, and
+   * the position of {@code target} is just after the decoded bytes.
+   *
+   * <p>If this method throws an exception, the positions of the buffers are unchanged, but the
+   * bytes of {@code target} after its position may have been overwritten.
+   *
+   * @throws IllegalArgumentException if the input is not a valid encoded string according to this
+   *     encoding
+   * @throws BufferOverflowException if {@code target} doesn't have room for the decoded bytes
+   * @throws ReadOnlyBufferException if {@code target} is read-only
+   * @since NEXT
+   */
+  @J2ktIncompatible
+  @GwtIncompatible // ByteBuffer, CharBuffer
+  public final void decode(CharBuffer chars, ByteBuffer target) {
+    checkNotNull(target);
+    CharSequence trimmed = trimTrailingPadding(chars);
+    int maxLength = maxDecodedSize(trimmed.length());
+    try {
+      if (target.hasArray() && target.remaining() >= maxLength) {
+        int position = target.position();
+        int length = decodeTo(target.array(), target.arrayOffset() + position, trimmed);
+        Java8Compatibility.position(target, position + length);
+      } else {
+        byte[] tmp = new byte[maxLength];
+        int length = decodeTo(tmp, 0, trimmed);
+        if (length > target.remaining()) {
+          throw new BufferOverflowException();
+        }
+        target.put(tmp, 0, length);
+      }
+    } catch (DecodingException badInput) {
+      throw new IllegalArgumentException(badInput);
+    }
+    Java8Compatibility.position(chars, chars.limit());
+  }
+
   /**
    * Returns an {@code InputStream} that decodes base-encoded input from the specified {@code
    * Reader}. The returned stream throws a {@link DecodingException} upon decoding-specific errors.
@@ -265,9 +350,30 @@ public abstract class BaseEncoding {
 
   abstract void encodeTo(Appendable target, byte[] bytes, int off, int len) throws IOException;
 
+  /**
+   * Encodes {@code bytes[off, off + len)} into {@code target} starting at {@code targetOffset},
+   * which must have room for {@link #maxEncodedSize maxEncodedSize(len)} chars, and returns the
+   * number of chars written.
+   */
+  int encodeTo(char[] target, int targetOffset, byte[] bytes, int off, int len) {
+    CharArrayAppendable appendable = new CharArrayAppendable(target, targetOffset);
+    try {
+      encodeTo(appendable, bytes, off, len);
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return appendable.position - targetOffset;
+  }
+
   abstract int maxDecodedSize(int chars);
 
-  abstract int decodeTo(byte[] target, CharSequence chars) throws DecodingException;
+  /**
+   * Decodes {@code chars} into {@code target} starting at {@code targetOffset}, which must have
+   * room for {@link #maxDecodedSize maxDecodedSize(chars.length())} bytes, and returns the number
+   * of bytes written.
+   */
+  abstract int decodeTo(byte[] target, int targetOffset, CharSequence chars)
+      throws DecodingException;
 
   CharSequence trimTrailingPadding(CharSequence chars) {
     return checkNotNull(chars);
@@ -751,13 +857,13 @@ public abstract class BaseEncoding {
     }
 
     @Override
-    int decodeTo(byte[] target, CharSequence chars) throws DecodingException {
+    int decodeTo(byte[] target, int targetOffset, CharSequence chars) throws DecodingException {
       checkNotNull(target);
       chars = trimTrailingPadding(chars);
       if (!alphabet.isValidPaddingStartPosition(chars.length())) {
         throw new DecodingException("Invalid input length " + chars.length());
       }
-      int bytesWritten = 0;
+      int bytesWritten = targetOffset;
       for (int charIdx = 0; charIdx < chars.length(); charIdx += alphabet.charsPerChunk) {
         long chunk = 0;
         int charsProcessed = 0;
@@ -772,7 +878,7 @@ public abstract class BaseEncoding {
           target[bytesWritten++] = (byte) ((chunk >>> offset) & 0xFF);
         }
       }
-      return bytesWritten;
+      return bytesWritten - targetOffset;
     }
 
     @Override
@@ -976,17 +1082,52 @@ public abstract class BaseEncoding {
     }
 
     @Override
-    int decodeTo(byte[] target, CharSequence chars) throws DecodingException {
+    int encodeTo(char[] target, int targetOffset, byte[] bytes, int off, int len) {
+      checkPositionIndexes(off, off + len, bytes.length);
+      checkPositionIndexes(targetOffset, targetOffset + 2 * len, target.length);
+      int charsWritten = targetOffset;
+      for (int i = off; i < off + len; ++i) {
+        int b = bytes[i] & 0xFF;
+        target[charsWritten++] = encoding[b];
+        target[charsWritten++] = encoding[b | 0x100];
+      }
+      return charsWritten - targetOffset;
+    }
+
+    @Override
+    int decodeTo(byte[] target, int targetOffset, CharSequence chars) throws DecodingException {
       checkNotNull(target);
       if (chars.length() % 2 == 1) {
         throw new DecodingException("Invalid input length " + chars.length());
       }
-      int bytesWritten = 0;
-      for (int i = 0; i < chars.length(); i += 2) {
+      int bytesWritten = targetOffset;
+      int i = 0;
+      // Decode four chars at a time, checking them all at once; if any is invalid, fall through to
+      // the loop below, which reports which one.
+      for (; i + 4 <= chars.length(); i += 4) {
+        char c0 = chars.charAt(i);
+        char c1 = chars.charAt(i + 1);
+        char c2 = chars.charAt(i + 2);
+        char c3 = chars.charAt(i + 3);
+        if ((c0 | c1 | c2 | c3) > Ascii.MAX) {
+          break;
+        }
+        int decoded =
+            alphabet.decodabet[c0] << 12
+                | alphabet.decodabet[c1] << 8
+                | alphabet.decodabet[c2] << 4
+                | alphabet.decodabet[c3];
+        if (decoded < 0) {
+          break;
+        }
+        target[bytesWritten++] = (byte) (decoded >>> 8);
+        target[bytesWritten++] = (byte) decoded;
+      }
+      for (; i < chars.length(); i += 2) {
         int decoded = alphabet.decode(chars.charAt(i)) << 4 | alphabet.decode(chars.charAt(i + 1));
         target[bytesWritten++] = (byte) decoded;
       }
-      return bytesWritten;
+      return bytesWritten - targetOffset;
     }
 
     @Override
@@ -1023,14 +1164,95 @@ public abstract class BaseEncoding {
     }
 
     @Override
-    int decodeTo(byte[] target, CharSequence chars) throws DecodingException {
+    int encodeTo(char[] target, int targetOffset, byte[] bytes, int off, int len) {
+      checkPositionIndexes(off, off + len, bytes.length);
+      checkPositionIndexes(targetOffset, targetOffset + maxEncodedSize(len), target.length);
+      char[] chars = alphabet.chars;
+      int i = off;
+      int end = off + len;
+      int charsWritten = targetOffset;
+      // Encode six bytes, a 48-bit word, to eight chars at a time.
+      for (; end - i >= 6; i += 6) {
+        long word =
+            (bytes[i] & 0xFFL) << 40
+                | (bytes[i + 1] & 0xFFL) << 32
+                | (bytes[i + 2] & 0xFFL) << 24
+                | (bytes[i + 3] & 0xFF) << 16
+                | (bytes[i + 4] & 0xFF) << 8
+                | (bytes[i + 5] & 0xFF);
+        target[charsWritten] = chars[(int) (word >>> 42)];
+        target[charsWritten + 1] = chars[(int) (word >>> 36) & 0x3F];
+        target[charsWritten + 2] = chars[(int) (word >>> 30) & 0x3F];
+        target[charsWritten + 3] = chars[(int) (word >>> 24) & 0x3F];
+        target[charsWritten + 4] = chars[(int) (word >>> 18) & 0x3F];
+        target[charsWritten + 5] = chars[(int) (word >>> 12) & 0x3F];
+        target[charsWritten + 6] = chars[(int) (word >>> 6) & 0x3F];
+        target[charsWritten + 7] = chars[(int) word & 0x3F];
+        charsWritten += 8;
+      }
+      if (end - i >= 3) {
+        int chunk = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | bytes[i + 2] & 0xFF;
+        target[charsWritten++] = chars[chunk >>> 18];
+        target[charsWritten++] = chars[(chunk >>> 12) & 0x3F];
+        target[charsWritten++] = chars[(chunk >>> 6) & 0x3F];
+        target[charsWritten++] = chars[chunk & 0x3F];
+        i += 3;
+      }
+      if (i < end) {
+        int chunk = (bytes[i] & 0xFF) << 16 | (i + 1 < end ? (bytes[i + 1] & 0xFF) << 8 : 0);
+        target[charsWritten++] = chars[chunk >>> 18];
+        target[charsWritten++] = chars[(chunk >>> 12) & 0x3F];
+        if (i + 1 < end) {
+          target[charsWritten++] = chars[(chunk >>> 6) & 0x3F];
+        } else if (paddingChar != null) {
+          target[charsWritten++] = paddingChar.charValue();
+        }
+        if (paddingChar != null) {
+          target[charsWritten++] = paddingChar.charValue();
+        }
+      }
+      return charsWritten - targetOffset;
+    }
+
+    @Override
+    int decodeTo(byte[] target, int targetOffset, CharSequence chars) throws DecodingException {
       checkNotNull(target);
       chars = trimTrailingPadding(chars);
       if (!alphabet.isValidPaddingStartPosition(chars.length())) {
         throw new DecodingException("Invalid input length " + chars.length());
       }
-      int bytesWritten = 0;
-      for (int i = 0; i < chars.length(); ) {
+      byte[] decodabet = alphabet.decodabet;
+      int bytesWritten = targetOffset;
+      int i = 0;
+      // Decode eight chars to six bytes, a 48-bit word, at a time, checking them all at once. If
+      // any is invalid, fall through to the loop below, which reports which one.
+      for (; i + 8 <= chars.length(); i += 8) {
+        char c0 = chars.charAt(i);
+        char c1 = chars.charAt(i + 1);
+        char c2 = chars.charAt(i + 2);
+        char c3 = chars.charAt(i + 3);
+        char c4 = chars.charAt(i + 4);
+        char c5 = chars.charAt(i + 5);
+        char c6 = chars.charAt(i + 6);
+        char c7 = chars.charAt(i + 7);
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) > Ascii.MAX) {
+          break;
+        }
+        int high = decodabet[c0] << 18 | decodabet[c1] << 12 | decodabet[c2] << 6 | decodabet[c3];
+        int low = decodabet[c4] << 18 | decodabet[c5] << 12 | decodabet[c6] << 6 | decodabet[c7];
+        if ((high | low) < 0) {
+          break;
+        }
+        long word = (long) high << 24 | low;
+        target[bytesWritten] = (byte) (word >>> 40);
+        target[bytesWritten + 1] = (byte) (word >>> 32);
+        target[bytesWritten + 2] = (byte) (word >>> 24);
+        target[bytesWritten + 3] = (byte) (word >>> 16);
+        target[bytesWritten + 4] = (byte) (word >>> 8);
+        target[bytesWritten + 5] = (byte) word;
+        bytesWritten += 6;
+      }
+      while (i < chars.length()) {
         int chunk = alphabet.decode(chars.charAt(i++)) << 18;
         chunk |= alphabet.decode(chars.charAt(i++)) << 12;
         target[bytesWritten++] = (byte) (chunk >>> 16);
@@ -1043,7 +1265,7 @@ public abstract class BaseEncoding {
           }
         }
       }
-      return bytesWritten;
+      return bytesWritten - targetOffset;
     }
 
     @Override
@@ -1079,6 +1301,38 @@ public abstract class BaseEncoding {
     };
   }
 
+  /** An {@link Appendable} that writes into a char array, which must be large enough. */
+  private static final class CharArrayAppendable implements Appendable {
+    final char[] target;
+    int position;
+
+    CharArrayAppendable(char[] target, int position) {
+      this.target = checkNotNull(target);
+      this.position = position;
+    }
+
+    @Override
+    public Appendable append(char c) {
+      target[position++] = c;
+      return this;
+    }
+
+    @Override
+    public Appendable append(@CheckForNull CharSequence chars, int start, int end) {
+      checkNotNull(chars);
+      for (int i = start; i < end; i++) {
+        target[position++] = chars.charAt(i);
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(@CheckForNull CharSequence chars) {
+      checkNotNull(chars);
+      return append(chars, 0, chars.length());
+    }
+  }
+
   static Appendable separatingAppendable(
       Appendable delegate, String separator, int afterEveryChars) {
     checkNotNull(delegate);
@@ -1192,7 +1446,7 @@ public abstract class BaseEncoding {
     }
 
     @Override
-    int decodeTo(byte[] target, CharSequence chars) throws DecodingException {
+    int decodeTo(byte[] target, int targetOffset, CharSequence chars) throws DecodingException {
       StringBuilder stripped = new StringBuilder(chars.length());
       for (int i = 0; i < chars.length(); i++) {
         char c = chars.charAt(i);
@@ -1200,7 +1454,7 @@ public abstract class BaseEncoding {
           stripped.append(c);
         }
       }
-      return delegate.decodeTo(target, stripped);
+      return delegate.decodeTo(target, targetOffset, stripped);
     }
 
     @Override
@@ -16,6 +16,8 @@ package com.google.common.io;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.io.ByteStreams.createBuffer;
 import static com.google.common.io.ByteStreams.skipUpTo;
 
@@ -28,18 +30,25 @@ import com.google.common.hash.Funnels;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -265,6 +274,10 @@ public abstract class ByteSource {
   /**
    * Copies the contents of this byte source to the given {@code ByteSink}.
    *
+   * <p>If this source and {@code sink} are backed by files (see {@link Files#asByteSource} and
+   * {@link Files#asByteSink}), the bytes are copied with {@link
+   * java.nio.channels.FileChannel#transferTo}, which lets the operating system copy them directly.
+   *
    * @return the number of bytes copied
    * @throws IOException if an I/O error occurs while reading from this source or writing to {@code
    *     sink}
@@ -330,6 +343,33 @@ public abstract class ByteSource {
     }
   }
 
+  /**
+   * Reads the contents of this byte source one line at a time, passing the bytes of each line to
+   * {@code processor} without decoding them. Stops when all lines have been read or the processor
+   * returns {@code false}. Returns the result produced by the processor.
+   *
+   * <p>Lines are terminated by {@code \n}, {@code \r} or {@code \r\n}, like those of {@link
+   * CharSource#readLines(LineProcessor)}, so this is only meaningful for content in a charset that
+   * encodes those characters as single bytes that occur nowhere else, such as {@code UTF-8}, {@code
+   * US-ASCII} and {@code ISO-8859-1}. No {@code String} is created for each line: each line is
+   * passed as a slice of the buffer into which it was read, or of a reused array if it spans two
+   * buffers. This makes this method cheaper than {@code asCharSource(charset).readLines(...)} for
+   * processors that only need to scan the bytes, such as to parse ASCII numbers.
+   *
+   * @throws IOException if an I/O error occurs while reading from this source or if {@code
+   *     processor} throws an {@code IOException}
+   * @since NEXT
+   */
+  @CanIgnoreReturnValue // some processors won't return a useful result
+  @ParametricNullness
+  public <T extends @Nullable Object> T readLines(LineBytesProcessor<T> processor)
+      throws IOException {
+    LineBytesSplitter splitter = new LineBytesSplitter(processor);
+    read(splitter);
+    splitter.finish();
+    return processor.getResult();
+  }
+
   /**
    * Hashes the contents of this byte source using the given hash function.
    *
@@ -341,6 +381,121 @@ public abstract class ByteSource {
     return hasher.hash();
   }
 
+  /**
+   * Hashes the contents of this byte source using {@link Hashing#treeHash Hashing.treeHash(
+   * leafFunction, chunkSize)}, hashing the chunks in parallel on {@code executor}. The result is
+   * the same as that of {@code hash(Hashing.treeHash(leafFunction, chunkSize))}.
+   *
+   * <p>Each chunk is read through its own {@link #slice}, so this is only faster than {@link #hash}
+   * for sources whose slices can be read independently and cheaply, such as files and byte arrays.
+   * If the size of this source can't be determined up front (see {@link #sizeIfKnown}), or it fits
+   * in a single chunk, it is hashed on the calling thread instead. The contents of this source must
+   * not change while it is being hashed.
+   *
+   * @param leafFunction the hash function with which to hash each chunk
+   * @param chunkSize the number of bytes in each chunk but the last
+   * @param executor the executor on which to hash the chunks
+   * @throws IllegalArgumentException if {@code chunkSize} is not positive
+   * @throws IOException if an I/O error occurs while reading from this source
+   * @throws InterruptedIOException if the calling thread is interrupted while waiting for the chunk
+   *     hashes
+   * @since NEXT
+   */
+  public HashCode hashParallel(HashFunction leafFunction, int chunkSize, Executor executor)
+      throws IOException {
+    HashFunction treeHash = Hashing.treeHash(leafFunction, chunkSize);
+    checkNotNull(executor);
+    Optional<Long> size = sizeIfKnown();
+    if (!size.isPresent() || size.get() <= chunkSize) {
+      return hash(treeHash);
+    }
+
+    return Hashing.combineOrdered(hashChunks(leafFunction, chunkSize, size.get(), executor));
+  }
+
+  /**
+   * Computes the checksum of the contents of this byte source, checksumming chunks of {@code
+   * chunkSize} bytes in parallel on {@code executor} and combining the results with {@link
+   * Hashing#combineChecksums}. The result is the same as that of {@code hash(checksumFunction)}.
+   *
+   * <p>Each chunk is read through its own {@link #slice}, so this is only faster than {@link #hash}
+   * for sources whose slices can be read independently and cheaply, such as files and byte arrays.
+   * If the size of this source can't be determined up front (see {@link #sizeIfKnown}), or it fits
+   * in a single chunk, it is checksummed on the calling thread instead. The contents of this source
+   * must not change while it is being checksummed.
+   *
+   * @param checksumFunction one of {@link Hashing#crc32}, {@link Hashing#crc32c} and {@link
+   *     Hashing#adler32}
+   * @param chunkSize the number of bytes in each chunk but the last
+   * @param executor the executor on which to checksum the chunks
+   * @throws IllegalArgumentException if {@code checksumFunction} is not one of the supported
+   *     checksums, or {@code chunkSize} is not positive
+   * @throws IOException if an I/O error occurs while reading from this source
+   * @throws InterruptedIOException if the calling thread is interrupted while waiting for the chunk
+   *     checksums
+   * @since NEXT
+   */
+  public HashCode checksumParallel(HashFunction checksumFunction, int chunkSize, Executor executor)
+      throws IOException {
+    checkArgument(
+        checksumFunction.equals(Hashing.crc32c())
+            || checksumFunction.equals(Hashing.crc32())
+            || checksumFunction.equals(Hashing.adler32()),
+        "%s checksums can't be combined",
+        checksumFunction);
+    checkArgument(chunkSize > 0, "chunkSize (%s) must be positive", chunkSize);
+    checkNotNull(executor);
+    Optional<Long> size = sizeIfKnown();
+    if (!size.isPresent() || size.get() <= chunkSize) {
+      return hash(checksumFunction);
+    }
+
+    long length = size.get();
+    List<HashCode> chunkChecksums = hashChunks(checksumFunction, chunkSize, length, executor);
+    HashCode checksum = chunkChecksums.get(0);
+    for (int i = 1; i < chunkChecksums.size(); i++) {
+      long chunkLength = Math.min(chunkSize, length - (long) i * chunkSize);
+      checksum =
+          Hashing.combineChecksums(checksumFunction, checksum, chunkChecksums.get(i), chunkLength);
+    }
+    return checksum;
+  }
+
+  /**
+   * Hashes each chunk of {@code chunkSize} bytes of the first {@code length} bytes of this source
+   * on {@code executor}, and returns the hash codes in order.
+   */
+  private List<HashCode> hashChunks(
+      HashFunction hashFunction, int chunkSize, long length, Executor executor) throws IOException {
+    List<FutureTask<HashCode>> tasks = new ArrayList<>();
+    try {
+      for (long offset = 0; offset < length; offset += chunkSize) {
+        ByteSource chunk = slice(offset, chunkSize);
+        FutureTask<HashCode> task = new FutureTask<>(() -> chunk.hash(hashFunction));
+        tasks.add(task);
+        executor.execute(task);
+      }
+      List<HashCode> chunkHashes = new ArrayList<>(tasks.size());
+      for (FutureTask<HashCode> task : tasks) {
+        chunkHashes.add(task.get());
+      }
+      return chunkHashes;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throwIfInstanceOf(cause, IOException.class);
+      throwIfUnchecked(cause);
+      throw new AssertionError(cause); // the tasks throw no other checked exceptions
+    } finally {
+      // Stops the remaining chunks early if one failed; a no-op otherwise.
+      for (FutureTask<HashCode> task : tasks) {
+        task.cancel(true);
+      }
+    }
+  }
+
   /**
    * Checks that the contents of this byte source are equal to the contents of the given byte
    * source.
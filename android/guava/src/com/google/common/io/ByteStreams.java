@@ -32,6 +32,8 @@ import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -100,6 +102,11 @@ public final class ByteStreams {
    * Copies all bytes from the input stream to the output stream. Does not close or flush either
    * stream.
    *
+   * <p>If the streams are a {@link FileInputStream} of a non-empty file and a {@link
+   * FileOutputStream} (not subclasses of them), their bytes are copied through their channels with
+   * {@link FileChannel#transferTo}, which lets the operating system copy them without passing them
+   * through the Java heap.
+   *
    * <p><b>Java 9 users and later:</b> this method should be treated as deprecated; use the
    * equivalent {@link InputStream#transferTo} method instead.
    *
@@ -112,8 +119,18 @@ public final class ByteStreams {
   public static long copy(InputStream from, OutputStream to) throws IOException {
     checkNotNull(from);
     checkNotNull(to);
-    byte[] buf = createBuffer();
     long total = 0;
+    // Subclasses may override read and write, so only plain file streams are copied as channels.
+    // Pipes, devices and files such as those in procfs report a size of 0, and transferTo would
+    // copy nothing from them, so they (and empty files) are copied by the loop below.
+    if (from.getClass() == FileInputStream.class && to.getClass() == FileOutputStream.class) {
+      FileChannel fromChannel = ((FileInputStream) from).getChannel();
+      if (fromChannel.size() > 0) {
+        total = copy(fromChannel, ((FileOutputStream) to).getChannel());
+        // Fall through, in case the file grew or transferTo stopped early.
+      }
+    }
+    byte[] buf = createBuffer();
     while (true) {
       int r = from.read(buf);
       if (r == -1) {
@@ -129,6 +146,10 @@ public final class ByteStreams {
    * Copies all bytes from the readable channel to the writable channel. Does not close or flush
    * either channel.
    *
+   * <p>If either channel is a {@link FileChannel}, the bytes are copied with {@link
+   * FileChannel#transferTo} or {@link FileChannel#transferFrom}, which lets the operating system
+   * copy them directly where it can; otherwise they are copied through a buffer.
+   *
    * @param from the readable channel to read from
    * @param to the writable channel to write to
    * @return the number of bytes copied
@@ -151,8 +172,24 @@ public final class ByteStreams {
       return position - oldPosition;
     }
 
-    ByteBuffer buf = ByteBuffer.wrap(createBuffer());
     long total = 0;
+    if (to instanceof FileChannel && isSeekable((FileChannel) to)) {
+      FileChannel targetChannel = (FileChannel) to;
+      long position = targetChannel.position();
+      long copied;
+      // transferFrom returns 0 both at the end of the input and when a non-blocking input has no
+      // bytes ready, so the loop below copies whatever is left (if anything) and detects the end.
+      while ((copied = targetChannel.transferFrom(from, position, ZERO_COPY_CHUNK_SIZE)) > 0) {
+        position += copied;
+        total += copied;
+        targetChannel.position(position);
+      }
+    }
+
+    // A heap buffer, not a direct one: allocating a direct buffer is slow and its memory is freed
+    // only by the GC, while the JDK's channels copy heap buffers through a temporary direct buffer
+    // that they cache and reuse for each thread.
+    ByteBuffer buf = ByteBuffer.wrap(createBuffer());
     while (from.read(buf) != -1) {
       Java8Compatibility.flip(buf);
       while (buf.hasRemaining()) {
@@ -163,8 +200,21 @@ public final class ByteStreams {
     return total;
   }
 
+  /**
+   * Returns whether {@code channel} supports positioning, which {@link FileChannel#transferFrom}
+   * needs. A channel of a pipe, for example, does not.
+   */
+  private static boolean isSeekable(FileChannel channel) {
+    try {
+      channel.position();
+      return true;
+    } catch (IOException e) {
+      return false; // "Illegal seek"
+    }
+  }
+
   /** Max array length on JVM. */
-  private static final int MAX_ARRAY_LEN = Integer.MAX_VALUE - 8;
+  static final int MAX_ARRAY_LEN = Integer.MAX_VALUE - 8;
 
   /** Large enough to never need to expand, given the geometric progression of buffer sizes. */
   private static final int TO_BYTE_ARRAY_DEQUE_SIZE = 20;
@@ -15,22 +15,34 @@
 package com.google.common.io;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.annotations.J2ktIncompatible;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.math.IntMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.concurrent.GuardedBy;
 import com.google.j2objc.annotations.J2ObjCIncompatible;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.CheckForNull;
 
 /**
@@ -56,6 +68,12 @@ import javax.annotation.CheckForNull;
  *       second parameter.
  * </ul>
  *
+ * <p>By default, the data is buffered in a byte array on the heap, which grows as needed, and is
+ * copied to the file when the threshold is reached. A stream created with {@link #builder} can
+ * instead buffer the data in fixed-size chunks of direct memory, which don't need to be copied to
+ * grow, and which are written to the file directly when the threshold is reached; it can also read
+ * the file by mapping it into memory.
+ *
  * <p>This class is thread-safe.
  *
  * @author Chris Nokleberg
@@ -69,6 +87,9 @@ import javax.annotation.CheckForNull;
 public final class FileBackedOutputStream extends OutputStream {
   private final int fileThreshold;
   private final boolean resetOnFinalize;
+  private final int directChunkSize;
+  private final ChunkPool chunkPool;
+  private final boolean mapFile;
   private final ByteSource source;
 
   @GuardedBy("this")
@@ -82,15 +103,334 @@ public final class FileBackedOutputStream extends OutputStream {
   @CheckForNull
   private File file;
 
-  /** ByteArrayOutputStream that exposes its internals. */
-  private static class MemoryOutput extends ByteArrayOutputStream {
-    byte[] getBuffer() {
-      return buf;
+  /** The in-memory buffer of a stream that has not yet switched to file buffering. */
+  private abstract static class MemoryOutput extends OutputStream {
+    /** Returns the number of bytes written. */
+    abstract int getCount();
+
+    /**
+     * Returns a stream that reads the bytes written so far. The stream reads the memory of this
+     * output in place, so that memory is not reused until the stream no longer needs it.
+     */
+    abstract InputStream openStream();
+
+    /** Writes the bytes written so far to {@code file}. */
+    abstract void writeTo(FileOutputStream file) throws IOException;
+
+    /**
+     * Discards the bytes written so far, and releases the memory that holds them. A stream returned
+     * by {@link #openStream} keeps reading the bytes that were written when it was opened.
+     */
+    abstract void reset();
+  }
+
+  /** A {@link MemoryOutput} that writes to a byte array, growing it as needed. */
+  private static final class ArrayMemoryOutput extends MemoryOutput {
+    private byte[] buf = new byte[32];
+    private int count;
+    private boolean shared;
+
+    @Override
+    public void write(int b) {
+      ensureCapacity(1);
+      buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      checkPositionIndexes(off, off + len, b.length);
+      ensureCapacity(len);
+      System.arraycopy(b, off, buf, count, len);
+      count += len;
     }
 
+    private void ensureCapacity(int len) {
+      int needed = IntMath.checkedAdd(count, len);
+      if (needed > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(needed, IntMath.saturatedMultiply(buf.length, 2)));
+      }
+    }
+
+    @Override
     int getCount() {
       return count;
     }
+
+    @Override
+    InputStream openStream() {
+      shared = true;
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    @Override
+    void writeTo(FileOutputStream file) throws IOException {
+      file.write(buf, 0, count);
+    }
+
+    @Override
+    void reset() {
+      if (shared) {
+        buf = new byte[32];
+        shared = false;
+      }
+      count = 0;
+    }
+  }
+
+  /**
+   * A pool of direct buffers, shared by the streams that {@link Builder#useDirectBuffers} creates,
+   * so that a new stream usually doesn't need to allocate direct memory, which is slow and is freed
+   * only when the garbage collector runs the buffer's cleaner. The pool keeps at most a fixed
+   * number of bytes of buffers; it leaves any more that are returned to it to the garbage
+   * collector.
+   */
+  @VisibleForTesting
+  static final class ChunkPool {
+    private final long maxPooledBytes;
+
+    @GuardedBy("this")
+    private final Map<Integer, ArrayDeque<ByteBuffer>> pooled = new HashMap<>();
+
+    @GuardedBy("this")
+    private long pooledBytes;
+
+    ChunkPool(long maxPooledBytes) {
+      this.maxPooledBytes = maxPooledBytes;
+    }
+
+    /** Returns a cleared buffer of {@code size} bytes, taking it from the pool if it has one. */
+    ByteBuffer take(int size) {
+      synchronized (this) {
+        ArrayDeque<ByteBuffer> buffers = pooled.get(size);
+        ByteBuffer buffer = (buffers == null) ? null : buffers.poll();
+        if (buffer != null) {
+          pooledBytes -= size;
+          return buffer;
+        }
+      }
+      return ByteBuffer.allocateDirect(size);
+    }
+
+    /** Returns {@code buffer}, which must no longer be in use, to the pool unless it is full. */
+    synchronized void give(ByteBuffer buffer) {
+      int size = buffer.capacity();
+      if (pooledBytes + size > maxPooledBytes) {
+        return;
+      }
+      ArrayDeque<ByteBuffer> buffers = pooled.get(size);
+      if (buffers == null) {
+        buffers = new ArrayDeque<>();
+        pooled.put(size, buffers);
+      }
+      Java8Compatibility.clear(buffer);
+      buffers.add(buffer);
+      pooledBytes += size;
+    }
+
+    /** Returns the total size of the buffers in the pool. */
+    synchronized long pooledBytes() {
+      return pooledBytes;
+    }
+  }
+
+  /** The most direct memory, in bytes, that {@link #SHARED_CHUNK_POOL} keeps for reuse. */
+  private static final long MAX_POOLED_BYTES = 16 << 20;
+
+  private static final ChunkPool SHARED_CHUNK_POOL = new ChunkPool(MAX_POOLED_BYTES);
+
+  /**
+   * The chunks of a {@link DirectMemoryOutput}, with a count of their users: the output, until it
+   * is reset, and each {@link ChunksInputStream} over them, until it is closed. The last user to
+   * release them returns them to the pool.
+   */
+  private static final class Chunks {
+    private final ChunkPool pool;
+
+    /** The chunks. Only the output adds to this list, and only while it is a user. */
+    final List<ByteBuffer> buffers = new ArrayList<>();
+
+    @GuardedBy("this")
+    private int users = 1;
+
+    Chunks(ChunkPool pool) {
+      this.pool = pool;
+    }
+
+    synchronized void retain() {
+      users++;
+    }
+
+    void release() {
+      synchronized (this) {
+        if (--users > 0) {
+          return;
+        }
+      }
+      for (ByteBuffer buffer : buffers) {
+        pool.give(buffer);
+      }
+    }
+  }
+
+  /**
+   * A {@link MemoryOutput} that writes to a list of direct buffers of a fixed size, taken from a
+   * pool, and returned to it once neither this output nor any stream opened over them uses them.
+   * Filled buffers are never copied: they are read in place, and written to the file with a single
+   * gathering write.
+   */
+  private static final class DirectMemoryOutput extends MemoryOutput {
+    private final int chunkSize;
+    private final ChunkPool pool;
+    private Chunks chunks;
+    private int count;
+
+    DirectMemoryOutput(int chunkSize, ChunkPool pool) {
+      this.chunkSize = chunkSize;
+      this.pool = pool;
+      this.chunks = new Chunks(pool);
+    }
+
+    /** Returns the chunk to write to next, adding one if the last is full. */
+    private ByteBuffer lastChunk() {
+      List<ByteBuffer> buffers = chunks.buffers;
+      if (buffers.isEmpty() || !buffers.get(buffers.size() - 1).hasRemaining()) {
+        buffers.add(pool.take(chunkSize));
+      }
+      return buffers.get(buffers.size() - 1);
+    }
+
+    @Override
+    public void write(int b) {
+      lastChunk().put((byte) b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      checkPositionIndexes(off, off + len, b.length);
+      while (len > 0) {
+        ByteBuffer chunk = lastChunk();
+        int n = Math.min(len, chunk.remaining());
+        chunk.put(b, off, n);
+        off += n;
+        len -= n;
+        count += n;
+      }
+    }
+
+    @Override
+    int getCount() {
+      return count;
+    }
+
+    /** Returns read-only views of the bytes written so far to each chunk. */
+    private ByteBuffer[] written() {
+      List<ByteBuffer> buffers = chunks.buffers;
+      ByteBuffer[] written = new ByteBuffer[buffers.size()];
+      for (int i = 0; i < written.length; i++) {
+        written[i] = buffers.get(i).asReadOnlyBuffer();
+        Java8Compatibility.flip(written[i]);
+      }
+      return written;
+    }
+
+    @Override
+    InputStream openStream() {
+      chunks.retain();
+      return new ChunksInputStream(written(), chunks);
+    }
+
+    @Override
+    void writeTo(FileOutputStream file) throws IOException {
+      FileChannel channel = file.getChannel();
+      ByteBuffer[] written = written();
+      for (long remaining = count; remaining > 0; ) {
+        remaining -= channel.write(written);
+      }
+    }
+
+    @Override
+    void reset() {
+      chunks.release();
+      chunks = new Chunks(pool);
+      count = 0;
+    }
+  }
+
+  /**
+   * An input stream that reads the remaining bytes of each of a sequence of buffers in turn, and
+   * releases the {@link Chunks} they view when it is closed.
+   */
+  private static final class ChunksInputStream extends InputStream {
+    private final Chunks owner;
+    private Iterator<ByteBuffer> chunks;
+    private ByteBuffer chunk = ByteBuffer.allocate(0);
+    private boolean closed;
+
+    ChunksInputStream(ByteBuffer[] chunks, Chunks owner) {
+      this.chunks = Arrays.asList(chunks).iterator();
+      this.owner = owner;
+    }
+
+    /** Advances to the next chunk if the current one is used up, and returns whether any remain. */
+    private boolean nextChunk() throws IOException {
+      if (closed) {
+        // The chunks may already hold other data.
+        throw new IOException("Stream closed");
+      }
+      while (!chunk.hasRemaining()) {
+        if (!chunks.hasNext()) {
+          return false;
+        }
+        chunk = chunks.next();
+      }
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return nextChunk() ? chunk.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      checkPositionIndexes(off, off + len, b.length);
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextChunk()) {
+        return -1;
+      }
+      int count = Math.min(len, chunk.remaining());
+      chunk.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = 0;
+      while (skipped < n && nextChunk()) {
+        int count = (int) Math.min(n - skipped, chunk.remaining());
+        Java8Compatibility.position(chunk, chunk.position() + count);
+        skipped += count;
+      }
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return chunk.remaining();
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!closed) {
+        closed = true;
+        chunk = ByteBuffer.allocate(0);
+        chunks = Collections.emptyIterator();
+        owner.release();
+      }
+    }
   }
 
   /** Returns the file holding the data (possibly null). */
@@ -121,11 +461,23 @@ public final class FileBackedOutputStream extends OutputStream {
    * @throws IllegalArgumentException if {@code fileThreshold} is negative
    */
   public FileBackedOutputStream(int fileThreshold, boolean resetOnFinalize) {
+    this(fileThreshold, resetOnFinalize, 0, SHARED_CHUNK_POOL, false);
+  }
+
+  private FileBackedOutputStream(
+      int fileThreshold,
+      boolean resetOnFinalize,
+      int directChunkSize,
+      ChunkPool chunkPool,
+      boolean mapFile) {
     checkArgument(
         fileThreshold >= 0, "fileThreshold must be non-negative, but was %s", fileThreshold);
     this.fileThreshold = fileThreshold;
     this.resetOnFinalize = resetOnFinalize;
-    memory = new MemoryOutput();
+    this.directChunkSize = directChunkSize;
+    this.chunkPool = chunkPool;
+    this.mapFile = mapFile;
+    memory = newMemoryOutput();
     out = memory;
 
     if (resetOnFinalize) {
@@ -157,6 +509,100 @@ public final class FileBackedOutputStream extends OutputStream {
     }
   }
 
+  /**
+   * Returns a new builder for a {@code FileBackedOutputStream} that switches to file buffering once
+   * the data reaches {@code fileThreshold} bytes.
+   *
+   * @param fileThreshold the number of bytes before the stream should switch to buffering to a file
+   * @throws IllegalArgumentException if {@code fileThreshold} is negative
+   * @since NEXT
+   */
+  public static Builder builder(int fileThreshold) {
+    checkArgument(
+        fileThreshold >= 0, "fileThreshold must be non-negative, but was %s", fileThreshold);
+    return new Builder(fileThreshold);
+  }
+
+  /**
+   * A builder of {@link FileBackedOutputStream} instances, created with {@link
+   * FileBackedOutputStream#builder}.
+   *
+   * @since NEXT
+   */
+  public static final class Builder {
+    private final int fileThreshold;
+    private boolean resetOnFinalize;
+    private int directChunkSize;
+    private ChunkPool chunkPool = SHARED_CHUNK_POOL;
+    private boolean mapFile;
+
+    private Builder(int fileThreshold) {
+      this.fileThreshold = fileThreshold;
+    }
+
+    /**
+     * Sets whether the {@link #reset} method will be called when the {@link ByteSource} returned by
+     * {@link #asByteSource} is finalized. The default is {@code false}.
+     */
+    @CanIgnoreReturnValue
+    public Builder resetOnFinalize(boolean resetOnFinalize) {
+      this.resetOnFinalize = resetOnFinalize;
+      return this;
+    }
+
+    /**
+     * Instructs the stream to buffer data in memory in direct {@link ByteBuffer} chunks of {@code
+     * chunkSize} bytes, rather than in a byte array on the heap. Unlike an array, the chunks never
+     * need to be copied as the data grows, and they are written to the file directly when the
+     * threshold is reached.
+     *
+     * <p>The chunks come from a pool that all such streams share, which keeps up to 16 MiB of
+     * chunks for reuse. A stream gives its chunks back to the pool when it is reset or switches to
+     * file buffering. If a stream opened from {@link #asByteSource} is reading the chunks, they go
+     * back to the pool only once every such stream is closed; if one is never closed, they are
+     * freed when it is garbage collected.
+     *
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    @CanIgnoreReturnValue
+    public Builder useDirectBuffers(int chunkSize) {
+      checkArgument(chunkSize > 0, "chunkSize must be positive, but was %s", chunkSize);
+      this.directChunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Instructs the stream to read the file, once it has switched to file buffering, by mapping it
+     * into memory (as {@link Files#asMappedByteSource} does) rather than with a {@link
+     * FileInputStream}.
+     *
+     * <p><b>Warning:</b> a mapping is released only when its buffer is garbage-collected, and on
+     * some platforms (notably Windows) the file can't be deleted until then, so {@link #reset} may
+     * fail to delete the file while a stream opened from {@link #asByteSource} is still reachable.
+     */
+    @CanIgnoreReturnValue
+    public Builder mapFileForReading() {
+      this.mapFile = true;
+      return this;
+    }
+
+    /**
+     * Makes the stream take its direct buffers from {@code chunkPool} instead of the shared pool.
+     */
+    @VisibleForTesting
+    @CanIgnoreReturnValue
+    Builder chunkPool(ChunkPool chunkPool) {
+      this.chunkPool = requireNonNull(chunkPool);
+      return this;
+    }
+
+    /** Returns a new {@code FileBackedOutputStream} with the settings of this builder. */
+    public FileBackedOutputStream build() {
+      return new FileBackedOutputStream(
+          fileThreshold, resetOnFinalize, directChunkSize, chunkPool, mapFile);
+    }
+  }
+
   /**
    * Returns a readable {@link ByteSource} view of the data that has been written to this stream.
    *
@@ -166,13 +612,21 @@ public final class FileBackedOutputStream extends OutputStream {
     return source;
   }
 
+  private MemoryOutput newMemoryOutput() {
+    return directChunkSize > 0
+        ? new DirectMemoryOutput(directChunkSize, chunkPool)
+        : new ArrayMemoryOutput();
+  }
+
   private synchronized InputStream openInputStream() throws IOException {
     if (file != null) {
-      return new FileInputStream(file);
+      return mapFile
+          ? new MappedFileByteSource(file, Files.MAX_MAPPED_REGION).openStream()
+          : new FileInputStream(file);
     } else {
       // requireNonNull is safe because we always have either `file` or `memory`.
       requireNonNull(memory);
-      return new ByteArrayInputStream(memory.getBuffer(), 0, memory.getCount());
+      return memory.openStream();
     }
   }
 
@@ -187,7 +641,7 @@ public final class FileBackedOutputStream extends OutputStream {
       close();
     } finally {
       if (memory == null) {
-        memory = new MemoryOutput();
+        memory = newMemoryOutput();
       } else {
         memory.reset();
       }
@@ -244,7 +698,7 @@ public final class FileBackedOutputStream extends OutputStream {
       }
       try {
         FileOutputStream transfer = new FileOutputStream(temp);
-        transfer.write(memory.getBuffer(), 0, memory.getCount());
+        memory.writeTo(transfer);
         transfer.flush();
         // We've successfully transferred the data; switch to writing to file
         out = transfer;
@@ -254,6 +708,7 @@ public final class FileBackedOutputStream extends OutputStream {
       }
 
       file = temp;
+      memory.reset(); // releases any direct buffers
       memory = null;
     }
   }
@@ -170,6 +170,31 @@ public final class Files {
     }
   }
 
+  /**
+   * Returns a new {@link ByteSource} for reading bytes from the given file by mapping it into
+   * memory, rather than reading it through a {@link FileInputStream} as {@link #asByteSource} does.
+   *
+   * <p>Files larger than {@link Integer#MAX_VALUE} bytes are supported, and are mapped a region at
+   * a time. {@link ByteSource#slice Slices} of the source are views of the same file, which map
+   * only the region they cover, so they can be read independently, for example by {@link
+   * ByteSource#hashParallel}. {@link ByteSource#hash} and {@link ByteSource#contentEquals} (with
+   * another mapped source) read the mapped contents in place, and {@link ByteSource#copyTo(
+   * OutputStream)} uses {@link FileChannel#transferTo}, which avoids copying the contents through
+   * the Java heap when the output is a {@link FileOutputStream}.
+   *
+   * <p>Mapping pays off for large files that are read sequentially or in parallel; for small files,
+   * {@link #asByteSource} is usually faster.
+   *
+   * <p><b>Warning:</b> a mapping is released only when its buffer is garbage-collected, and on some
+   * platforms (notably Windows) the file can't be deleted until then. The behavior is undefined if
+   * the file is truncated while it is being read.
+   *
+   * @since NEXT
+   */
+  public static ByteSource asMappedByteSource(File file) {
+    return new MappedFileByteSource(file, MAX_MAPPED_REGION);
+  }
+
   /**
    * Returns a new {@link ByteSink} for writing bytes to the given file. The given {@code modes}
    * control how the file is opened for writing. When no mode is provided, the file will be
@@ -632,6 +657,38 @@ public final class Files {
     return asByteSource(file).hash(hashFunction);
   }
 
+  /**
+   * Computes the hash code of the {@code file} using {@code hashFunction}, reading the file by
+   * memory-mapping it rather than streaming it through a heap buffer as {@code
+   * asByteSource(file).hash(hashFunction)} does. The hash functions in {@link
+   * com.google.common.hash.Hashing} read the mapped contents in place wherever they can, so this
+   * avoids copying the contents of large files. This is equivalent to {@code
+   * asMappedByteSource(file).hash(hashFunction)}.
+   *
+   * <p>Files larger than {@link Integer#MAX_VALUE} bytes are supported, and are mapped a region at
+   * a time.
+   *
+   * <p><b>Warning:</b> a mapping is released only when its buffer is garbage-collected, and on some
+   * platforms (notably Windows) the file can't be deleted until then. The behavior is undefined if
+   * the file is truncated while it is being hashed.
+   *
+   * @param file the file to read
+   * @param hashFunction the hash function to use to hash the data
+   * @return the {@link HashCode} of all of the bytes in the file
+   * @throws IOException if an I/O error occurs
+   * @since NEXT
+   */
+  public static HashCode hashMapped(File file, HashFunction hashFunction) throws IOException {
+    checkNotNull(hashFunction);
+    return new MappedFileByteSource(file, MAX_MAPPED_REGION).hash(hashFunction);
+  }
+
+  /**
+   * The size of the largest region that {@link #hashMapped(File, HashFunction)} and {@link
+   * #asMappedByteSource} map at once.
+   */
+  static final long MAX_MAPPED_REGION = 1 << 30;
+
   /**
    * Fully maps a file read-only in to memory as per {@link
    * FileChannel#map(java.nio.channels.FileChannel.MapMode, long, long)}.
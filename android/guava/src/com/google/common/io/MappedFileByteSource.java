@@ -0,0 +1,401 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.io.ByteStreams.createBuffer;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.J2ktIncompatible;
+import com.google.common.base.Optional;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ByteSource} that reads a region of a file by mapping it into memory, a window of at most
+ * {@code maxRegionSize} bytes at a time, so that files larger than 2 GB are supported. Each
+ * operation opens the file, and closes it when done; slices are views of the same file.
+ */
+@J2ktIncompatible
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class MappedFileByteSource extends ByteSource {
+  private final File file;
+  private final long offset;
+  private final long length;
+  private final long maxRegionSize;
+
+  MappedFileByteSource(File file, long maxRegionSize) {
+    this(file, 0, Long.MAX_VALUE, maxRegionSize);
+  }
+
+  private MappedFileByteSource(File file, long offset, long length, long maxRegionSize) {
+    checkArgument(maxRegionSize > 0, "maxRegionSize (%s) must be positive", maxRegionSize);
+    this.file = checkNotNull(file);
+    this.offset = offset;
+    this.length = length;
+    this.maxRegionSize = maxRegionSize;
+  }
+
+  /** Returns the position at which this source starts in a file of the given size. */
+  private long start(long fileSize) {
+    return Math.min(offset, fileSize);
+  }
+
+  /** Returns the position at which this source ends in a file of the given size. */
+  private long end(long fileSize) {
+    long start = start(fileSize);
+    return start + Math.min(length, fileSize - start);
+  }
+
+  private static FileChannel openChannel(File file) throws FileNotFoundException {
+    // Closing the channel closes the file too.
+    return new RandomAccessFile(file, "r").getChannel();
+  }
+
+  @Override
+  public InputStream openStream() throws IOException {
+    FileChannel channel = openChannel(file);
+    try {
+      long size = channel.size();
+      return new MappedInputStream(channel, start(size), end(size));
+    } catch (Throwable e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public InputStream openBufferedStream() throws IOException {
+    // The stream reads from memory, so buffering it would only add a copy.
+    return openStream();
+  }
+
+  @Override
+  public ByteSource slice(long offset, long length) {
+    checkArgument(offset >= 0, "offset (%s) may not be negative", offset);
+    checkArgument(length >= 0, "length (%s) may not be negative", length);
+    long maxLength = this.length - offset;
+    return maxLength <= 0
+        ? ByteSource.empty()
+        : new MappedFileByteSource(
+            file, this.offset + offset, Math.min(length, maxLength), maxRegionSize);
+  }
+
+  @Override
+  public boolean isEmpty() throws IOException {
+    return length == 0 || size() == 0;
+  }
+
+  @Override
+  public Optional<Long> sizeIfKnown() {
+    if (file.isFile()) {
+      long fileSize = file.length();
+      return Optional.of(end(fileSize) - start(fileSize));
+    } else {
+      return Optional.absent();
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    if (!file.isFile()) {
+      throw new FileNotFoundException(file.toString());
+    }
+    long fileSize = file.length();
+    return end(fileSize) - start(fileSize);
+  }
+
+  /**
+   * Copies the contents of this source to {@code output} with {@link FileChannel#transferTo}, which
+   * lets the operating system copy the bytes directly when {@code output} is a file.
+   */
+  @Override
+  @CanIgnoreReturnValue
+  public long copyTo(OutputStream output) throws IOException {
+    checkNotNull(output);
+    Closer closer = Closer.create();
+    try {
+      return transferTo(closer.register(openChannel(file)), output);
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  /** Copies the contents of this source to {@code sink} with {@link FileChannel#transferTo}. */
+  @Override
+  @CanIgnoreReturnValue
+  public long copyTo(ByteSink sink) throws IOException {
+    checkNotNull(sink);
+    Closer closer = Closer.create();
+    try {
+      FileChannel channel = closer.register(openChannel(file));
+      return transferTo(channel, closer.register(sink.openStream()));
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  private long transferTo(FileChannel channel, OutputStream output) throws IOException {
+    WritableByteChannel target =
+        output.getClass() == FileOutputStream.class
+            ? ((FileOutputStream) output).getChannel()
+            : Channels.newChannel(output);
+    long size = channel.size();
+    long start = start(size);
+    long end = end(size);
+    long position = start;
+    while (position < end) {
+      long transferred = channel.transferTo(position, end - position, target);
+      if (transferred <= 0) {
+        break; // the file was truncated
+      }
+      position += transferred;
+    }
+    return position - start;
+  }
+
+  @Override
+  public byte[] read() throws IOException {
+    Closer closer = Closer.create();
+    try {
+      FileChannel channel = closer.register(openChannel(file));
+      long size = channel.size();
+      long start = start(size);
+      long end = end(size);
+      if (end - start > ByteStreams.MAX_ARRAY_LEN) {
+        throw new OutOfMemoryError(end - start + " bytes is too large to fit in a byte array");
+      }
+      byte[] bytes = new byte[(int) (end - start)];
+      for (long position = start; position < end; position += maxRegionSize) {
+        ByteBuffer window = map(channel, position, end);
+        window.get(bytes, (int) (position - start), window.remaining());
+      }
+      return bytes;
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  /**
+   * Passes the mapped contents of this source to {@code processor}, a buffer at a time. Each buffer
+   * is copied out of the mapping, since {@link ByteProcessor} takes arrays, but no system call is
+   * needed to read it.
+   */
+  @Override
+  @CanIgnoreReturnValue // some processors won't return a useful result
+  @ParametricNullness
+  public <T extends @Nullable Object> T read(ByteProcessor<T> processor) throws IOException {
+    checkNotNull(processor);
+    Closer closer = Closer.create();
+    try {
+      FileChannel channel = closer.register(openChannel(file));
+      long size = channel.size();
+      long end = end(size);
+      byte[] buffer = createBuffer();
+      for (long position = start(size); position < end; position += maxRegionSize) {
+        ByteBuffer window = map(channel, position, end);
+        while (window.hasRemaining()) {
+          int count = Math.min(buffer.length, window.remaining());
+          window.get(buffer, 0, count);
+          if (!processor.processBytes(buffer, 0, count)) {
+            return processor.getResult();
+          }
+        }
+      }
+      return processor.getResult();
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  /**
+   * Hashes the mapped contents of this source in place: with a single call to {@link
+   * HashFunction#hashBytes(ByteBuffer)} if they fit in one window, or else a window at a time.
+   */
+  @Override
+  public HashCode hash(HashFunction hashFunction) throws IOException {
+    checkNotNull(hashFunction);
+    Closer closer = Closer.create();
+    try {
+      FileChannel channel = closer.register(openChannel(file));
+      long size = channel.size();
+      long start = start(size);
+      long end = end(size);
+      if (end - start <= maxRegionSize) {
+        return hashFunction.hashBytes(map(channel, start, end));
+      }
+      Hasher hasher = hashFunction.newHasher();
+      for (long position = start; position < end; position += maxRegionSize) {
+        hasher.putBytes(map(channel, position, end));
+      }
+      return hasher.hash();
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  /**
+   * Compares the mapped contents of this source and {@code other} in place, if {@code other} is
+   * also a mapped file source; otherwise, compares them as streams.
+   */
+  @Override
+  public boolean contentEquals(ByteSource other) throws IOException {
+    checkNotNull(other);
+    if (!(other instanceof MappedFileByteSource)) {
+      return super.contentEquals(other);
+    }
+    MappedFileByteSource that = (MappedFileByteSource) other;
+    Closer closer = Closer.create();
+    try {
+      FileChannel channel = closer.register(openChannel(file));
+      FileChannel thatChannel = closer.register(openChannel(that.file));
+      long size = channel.size();
+      long start = start(size);
+      long end = end(size);
+      long thatSize = thatChannel.size();
+      long thatStart = that.start(thatSize);
+      if (end - start != that.end(thatSize) - thatStart) {
+        return false;
+      }
+      long step = Math.min(maxRegionSize, that.maxRegionSize);
+      for (long position = 0; position < end - start; position += step) {
+        long count = Math.min(step, end - start - position);
+        ByteBuffer window = channel.map(MapMode.READ_ONLY, start + position, count);
+        ByteBuffer thatWindow = thatChannel.map(MapMode.READ_ONLY, thatStart + position, count);
+        if (!window.equals(thatWindow)) {
+          return false;
+        }
+      }
+      return true;
+    } catch (Throwable e) {
+      throw closer.rethrow(e);
+    } finally {
+      closer.close();
+    }
+  }
+
+  /** Maps the window of up to {@link #maxRegionSize} bytes that starts at {@code position}. */
+  private ByteBuffer map(FileChannel channel, long position, long end) throws IOException {
+    return channel.map(MapMode.READ_ONLY, position, Math.min(maxRegionSize, end - position));
+  }
+
+  @Override
+  public String toString() {
+    String source = "Files.asMappedByteSource(" + file + ")";
+    return offset == 0 && length == Long.MAX_VALUE
+        ? source
+        : source + ".slice(" + offset + ", " + length + ")";
+  }
+
+  /** An input stream that reads the mapped windows of a region of a file, mapping each in turn. */
+  private final class MappedInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+    private ByteBuffer window = ByteBuffer.allocate(0);
+
+    MappedInputStream(FileChannel channel, long start, long end) {
+      this.channel = channel;
+      this.position = start;
+      this.end = end;
+    }
+
+    /** Maps the next window if the current one is used up, and returns whether any bytes remain. */
+    private boolean nextWindow() throws IOException {
+      if (window.hasRemaining()) {
+        return true;
+      }
+      if (position >= end) {
+        return false;
+      }
+      window = map(channel, position, end);
+      position += window.remaining();
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return nextWindow() ? window.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      checkPositionIndexes(off, off + len, b.length);
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextWindow()) {
+        return -1;
+      }
+      int count = Math.min(len, window.remaining());
+      window.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      if (n <= 0) {
+        return 0;
+      }
+      int remaining = window.remaining();
+      if (n <= remaining) {
+        Java8Compatibility.position(window, window.position() + (int) n);
+        return n;
+      }
+      long skipped = remaining + Math.min(n - remaining, end - position);
+      position += skipped - remaining;
+      window = ByteBuffer.allocate(0);
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return window.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -15,6 +15,7 @@
 package com.google.common.primitives;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.annotations.GwtCompatible;
 import com.google.common.base.Preconditions;
@@ -380,6 +381,80 @@ public final class ImmutableLongArray implements Serializable {
     return indexOf(target) >= 0;
   }
 
+  /**
+   * Returns the sum of the values in this array, or {@code 0} if it is empty. As with {@code long}
+   * addition, overflow wraps silently.
+   *
+   * @since NEXT
+   */
+  public long sum() {
+    long sum = 0;
+    for (int i = start; i < end; i++) {
+      sum += array[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the least value in this array.
+   *
+   * @throws IllegalStateException if this array is empty
+   * @since NEXT
+   */
+  public long min() {
+    checkState(!isEmpty(), "empty array");
+    long min = array[start];
+    for (int i = start + 1; i < end; i++) {
+      min = Math.min(min, array[i]);
+    }
+    return min;
+  }
+
+  /**
+   * Returns the greatest value in this array.
+   *
+   * @throws IllegalStateException if this array is empty
+   * @since NEXT
+   */
+  public long max() {
+    checkState(!isEmpty(), "empty array");
+    long max = array[start];
+    for (int i = start + 1; i < end; i++) {
+      max = Math.max(max, array[i]);
+    }
+    return max;
+  }
+
+  /**
+   * Returns an immutable array containing the values of this array in ascending order, as sorted by
+   * {@link Arrays#sort(long[])}.
+   *
+   * @since NEXT
+   */
+  public ImmutableLongArray sorted() {
+    if (isEmpty()) {
+      return EMPTY;
+    }
+    long[] sorted = toArray();
+    Arrays.sort(sorted);
+    return new ImmutableLongArray(sorted);
+  }
+
+  /**
+   * Searches this array for {@code target} using the binary search algorithm of {@link
+   * Arrays#binarySearch(long[], long)}. This array must be sorted in ascending order, such as by
+   * {@link #sorted}; otherwise the result is undefined.
+   *
+   * @return the index of {@code target}, if it is present; otherwise {@code (-(insertion point) -
+   *     1)}, where the insertion point is the index of the first value greater than {@code target},
+   *     or {@link #length} if all values are less than it
+   * @since NEXT
+   */
+  public int binarySearch(long target) {
+    int result = Arrays.binarySearch(array, start, end, target);
+    return (result >= 0) ? result - start : result + start;
+  }
+
   /** Returns a new, mutable copy of this array's values, as a primitive {@code long[]}. */
   public long[] toArray() {
     return Arrays.copyOfRange(array, start, end);
@@ -177,4 +177,53 @@ public class IteratorBenchmark {
     }
     return sum;
   }
+
+  @Benchmark
+  int fluentIterableChainFor(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      for (Object value : fluentIterableChain()) {
+        sum += value.hashCode();
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int fluentIterableChainForEach(int reps) {
+    int[] sumHolder = {0};
+    for (int i = 0; i < reps; i++) {
+      fluentIterableChain().forEach(value -> sumHolder[0] += value.hashCode());
+    }
+    return sumHolder[0];
+  }
+
+  @Benchmark
+  int fluentIterableChainSize(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += fluentIterableChain().size();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  int fluentIterableChainToList(int reps) {
+    int sum = 0;
+    for (int i = 0; i < reps; i++) {
+      sum += fluentIterableChain().toList().size();
+    }
+    return sum;
+  }
+
+  /**
+   * A filter, transform and limit over {@link #arrayList} that keeps every element, so that the
+   * benchmarks above measure only the overhead of the stages.
+   */
+  private FluentIterable<Object> fluentIterableChain() {
+    return FluentIterable.from(arrayList)
+        .filter(value -> value != null)
+        .transform(value -> value)
+        .limit(size);
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks for {@link BloomFilter} with the different {@link BloomFilterStrategies}.
+ *
+ * <p>Parameters for the benchmark are:
+ *
+ * <ul>
+ *   <li>strategy: The strategy that maps elements to bits.
+ *   <li>expectedInsertions: The size of the filter. The blocked strategy pays off once the filter
+ *       is much larger than the CPU caches.
+ *   <li>fpp: The requested false positive probability.
+ * </ul>
+ *
+ * <p>{@code mightContainOneByOne} and {@code mightContainAll} each query a batch of 1024 elements
+ * per rep, half of them present, to compare single and batched queries.
+ *
+ * <p>{@code BloomFilterTest} pins down the false positive counts of each strategy, which show the
+ * accuracy that the blocked strategy gives up in exchange for speed.
+ */
+public class BloomFilterBenchmark {
+  private static final int SAMPLES = 1 << 16;
+  private static final int SAMPLE_MASK = SAMPLES - 1;
+  private static final int BATCH_SIZE = 1024;
+
+  @Param({"MURMUR128_MITZ_64", "MURMUR128_BLOCKED_512"})
+  private BloomFilterStrategies strategy;
+
+  @Param({"100000", "100000000"})
+  private long expectedInsertions;
+
+  @Param({"0.03", "0.001"})
+  private double fpp;
+
+  private BloomFilter<Long> filter;
+  private final long[] present = new long[SAMPLES];
+  private final long[] absent = new long[SAMPLES];
+  private final List<Long> batch = new ArrayList<>();
+
+  @BeforeExperiment
+  void setUp() {
+    filter = BloomFilter.create(Funnels.longFunnel(), expectedInsertions, fpp, strategy);
+    // Even values are inserted, odd values are not.
+    for (long i = 0; i < expectedInsertions; i++) {
+      filter.put(2 * i);
+    }
+    Random random = new Random(0);
+    for (int i = 0; i < SAMPLES; i++) {
+      long value = 2 * (long) (random.nextDouble() * expectedInsertions);
+      present[i] = value;
+      absent[i] = value + 1;
+    }
+    // Half present, half absent.
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(i % 2 == 0 ? present[i] : absent[i]);
+    }
+  }
+
+  @Benchmark
+  int put(int reps) {
+    int changed = 0;
+    for (int i = 0; i < reps; i++) {
+      if (filter.put(present[i & SAMPLE_MASK])) {
+        changed++;
+      }
+    }
+    return changed;
+  }
+
+  @Benchmark
+  int mightContainPresent(int reps) {
+    int found = 0;
+    for (int i = 0; i < reps; i++) {
+      if (filter.mightContain(present[i & SAMPLE_MASK])) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  int mightContainAbsent(int reps) {
+    int falsePositives = 0;
+    for (int i = 0; i < reps; i++) {
+      if (filter.mightContain(absent[i & SAMPLE_MASK])) {
+        falsePositives++;
+      }
+    }
+    return falsePositives;
+  }
+
+  @Benchmark
+  int mightContainOneByOne(int reps) {
+    int found = 0;
+    for (int i = 0; i < reps; i++) {
+      for (Long value : batch) {
+        if (filter.mightContain(value)) {
+          found++;
+        }
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  int mightContainAll(int reps) {
+    int found = 0;
+    for (int i = 0; i < reps; i++) {
+      found += filter.mightContainAll(batch).cardinality();
+    }
+    return found;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import java.util.Random;
+
+/**
+ * Benchmarks for hashing small composite keys (a {@code long}, an {@code int} and a short string)
+ * with a new {@link Hasher} per key, compared to a single {@link ReusableHasher}.
+ */
+public class ReusableHasherBenchmark {
+  private static final int SIZE = 1 << 10;
+
+  @Param({"MURMUR3_128", "FARMHASH_FINGERPRINT_64", "XXH3_64", "SIP_HASH24"})
+  HashFunctionEnum hashFunctionEnum;
+
+  private final long[] ids = new long[SIZE];
+  private final int[] shards = new int[SIZE];
+  private final String[] names = new String[SIZE];
+  private ReusableHasher reusableHasher;
+  private final long[] dest = new long[2];
+
+  @BeforeExperiment
+  void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < SIZE; i++) {
+      ids[i] = random.nextLong();
+      shards[i] = random.nextInt(64);
+      names[i] = "user-" + random.nextInt(1_000_000);
+    }
+    reusableHasher = Hashing.newReusableHasher(hashFunctionEnum.getHashFunction());
+  }
+
+  @Benchmark
+  long newHasher(int reps) {
+    HashFunction hashFunction = hashFunctionEnum.getHashFunction();
+    long result = 0;
+    for (int i = 0; i < reps; i++) {
+      int j = i & (SIZE - 1);
+      result +=
+          hashFunction
+              .newHasher()
+              .putLong(ids[j])
+              .putInt(shards[j])
+              .putUnencodedChars(names[j])
+              .hash()
+              .padToLong();
+    }
+    return result;
+  }
+
+  @Benchmark
+  long reusableHashToLong(int reps) {
+    long result = 0;
+    for (int i = 0; i < reps; i++) {
+      int j = i & (SIZE - 1);
+      result +=
+          reusableHasher.putLong(ids[j]).putInt(shards[j]).putUnencodedChars(names[j]).hashToLong();
+    }
+    return result;
+  }
+
+  @Benchmark
+  long reusableHashToArray(int reps) {
+    long result = 0;
+    for (int i = 0; i < reps; i++) {
+      int j = i & (SIZE - 1);
+      reusableHasher.putLong(ids[j]).putInt(shards[j]).putUnencodedChars(names[j]).hashTo(dest, 0);
+      result += dest[0];
+    }
+    return result;
+  }
+}
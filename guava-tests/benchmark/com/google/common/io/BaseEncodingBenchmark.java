@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.Random;
 
 /** Benchmark for {@code BaseEncoding} performance. */
@@ -50,6 +52,8 @@ public class BaseEncodingBenchmark {
 
   private final byte[][] encodingInputs = new byte[INPUTS_COUNT][];
   private final String[] decodingInputs = new String[INPUTS_COUNT];
+  private CharBuffer charBuffer;
+  private ByteBuffer byteBuffer;
 
   @BeforeExperiment
   public void setUp() {
@@ -59,6 +63,8 @@ public class BaseEncodingBenchmark {
       rng.nextBytes(encodingInputs[i]);
       decodingInputs[i] = encoding.encoding.encode(encodingInputs[i]);
     }
+    charBuffer = CharBuffer.allocate(decodingInputs[0].length());
+    byteBuffer = ByteBuffer.allocateDirect(n);
   }
 
   @Benchmark
@@ -105,4 +111,26 @@ public class BaseEncodingBenchmark {
     }
     return tmp;
   }
+
+  @Benchmark
+  public int encodeBuffer(int reps) {
+    int tmp = 0;
+    for (int i = 0; i < reps; i++) {
+      charBuffer.clear();
+      encoding.encoding.encode(ByteBuffer.wrap(encodingInputs[i & INPUTS_MASK]), charBuffer);
+      tmp += charBuffer.get(0);
+    }
+    return tmp;
+  }
+
+  @Benchmark
+  public int decodeBuffer(int reps) {
+    int tmp = 0;
+    for (int i = 0; i < reps; i++) {
+      byteBuffer.clear();
+      encoding.encoding.decode(CharBuffer.wrap(decodingInputs[i & INPUTS_MASK]), byteBuffer);
+      tmp += byteBuffer.get(0);
+    }
+    return tmp;
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.io;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Benchmark;
+import com.google.caliper.Param;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Benchmarks for hashing a file with {@link ByteSource#hash} and with {@link
+ * ByteSource#hashParallel}.
+ *
+ * <p>Parameters for the benchmark are:
+ *
+ * <ul>
+ *   <li>size: The size of the file to hash.
+ *   <li>chunkSize: The size of the chunks hashed in parallel by the tree hash.
+ *   <li>threads: The number of threads on which to hash the chunks.
+ * </ul>
+ */
+public class ByteSourceHashBenchmark {
+  private static final HashFunction LEAF = Hashing.murmur3_128();
+
+  @Param({"1048576", "67108864"})
+  private int size;
+
+  @Param({"65536", "1048576"})
+  private int chunkSize;
+
+  @Param({"1", "4", "16"})
+  private int threads;
+
+  private File file;
+  private ByteSource source;
+  private ExecutorService executor;
+
+  @BeforeExperiment
+  void setUp() throws IOException {
+    byte[] bytes = new byte[size];
+    new Random(42).nextBytes(bytes);
+    file = File.createTempFile("ByteSourceHashBenchmark", ".bin");
+    Files.write(bytes, file);
+    source = Files.asByteSource(file);
+    executor = Executors.newFixedThreadPool(threads);
+  }
+
+  @AfterExperiment
+  void tearDown() {
+    executor.shutdown();
+    file.delete();
+  }
+
+  @Benchmark
+  int hash(int reps) throws IOException {
+    int result = 37;
+    for (int i = 0; i < reps; i++) {
+      result ^= source.hash(LEAF).asInt();
+    }
+    return result;
+  }
+
+  @Benchmark
+  int hashTreeSequential(int reps) throws IOException {
+    HashFunction treeHash = Hashing.treeHash(LEAF, chunkSize);
+    int result = 37;
+    for (int i = 0; i < reps; i++) {
+      result ^= source.hash(treeHash).asInt();
+    }
+    return result;
+  }
+
+  @Benchmark
+  int hashParallel(int reps) throws IOException {
+    int result = 37;
+    for (int i = 0; i < reps; i++) {
+      result ^= source.hashParallel(LEAF, chunkSize, executor).asInt();
+    }
+    return result;
+  }
+}
@@ -686,6 +686,77 @@ public class FluentIterableTest extends TestCase {
     }
   }
 
+  public void testTerminalOperations_chainDoesntUseIterators() {
+    List<Integer> source =
+        new ArrayList<Integer>(asList(1, 2, 3, 4, 5, 6, 7, 8)) {
+          @Override
+          public Iterator<Integer> iterator() {
+            throw new AssertionFailedError("Don't iterate me!");
+          }
+        };
+    FluentIterable<String> chain =
+        FluentIterable.from(source)
+            .filter(i -> i % 2 == 0)
+            .transform(i -> "x" + i)
+            .skip(1)
+            .limit(2);
+
+    assertEquals(2, chain.size());
+    assertEquals(ImmutableList.of("x4", "x6"), chain.toList());
+    assertThat(chain.copyInto(new ArrayList<String>())).containsExactly("x4", "x6").inOrder();
+    List<String> visited = new ArrayList<>();
+    chain.forEach(visited::add);
+    assertThat(visited).containsExactly("x4", "x6").inOrder();
+  }
+
+  public void testForEach_limitStopsChainEarly() {
+    int[] reads = {0};
+    FluentIterable<Integer> infinite =
+        new FluentIterable<Integer>() {
+          @Override
+          public Iterator<Integer> iterator() {
+            throw new AssertionFailedError("Don't iterate me!");
+          }
+
+          @Override
+          void forEachWhile(Predicate<? super Integer> action) {
+            for (int i = 0; ; i++) {
+              reads[0]++;
+              if (!action.apply(i)) {
+                return;
+              }
+            }
+          }
+        };
+    FluentIterable<String> chain =
+        infinite.filter(i -> i % 2 == 0).transform(i -> "x" + i).skip(1).limit(3);
+
+    List<String> visited = new ArrayList<>();
+    chain.forEach(visited::add);
+    assertThat(visited).containsExactly("x2", "x4", "x6").inOrder();
+    assertEquals(7, reads[0]);
+    assertEquals(ImmutableList.of("x2", "x4", "x6"), chain.toList());
+    assertEquals(3, chain.size());
+  }
+
+  public void testForEach_limitOfSkipReadsOnlyWhatItNeeds() {
+    int[] reads = {0};
+    Iterable<Integer> source =
+        () ->
+            new AbstractIterator<Integer>() {
+              @Override
+              protected Integer computeNext() {
+                return reads[0]++;
+              }
+            };
+    FluentIterable<Integer> chain = FluentIterable.from(source).skip(2).limit(3);
+
+    List<Integer> visited = new ArrayList<>();
+    chain.forEach(visited::add);
+    assertThat(visited).containsExactly(2, 3, 4).inOrder();
+    assertEquals(5, reads[0]);
+  }
+
   public void testIsEmpty() {
     assertTrue(FluentIterable.<String>from(Collections.<String>emptyList()).isEmpty());
     assertFalse(FluentIterable.<String>from(Lists.newArrayList("foo")).isEmpty());
@@ -24,9 +24,12 @@ import com.google.common.annotations.GwtIncompatible;
 import com.google.common.annotations.J2ktIncompatible;
 import com.google.common.base.Equivalence;
 import com.google.common.collect.ImmutableSortedMap.Builder;
+import com.google.common.collect.testing.Helpers;
 import com.google.common.collect.testing.ListTestSuiteBuilder;
 import com.google.common.collect.testing.MapTestSuiteBuilder;
 import com.google.common.collect.testing.NavigableMapTestSuiteBuilder;
+import com.google.common.collect.testing.SampleElements;
+import com.google.common.collect.testing.TestSortedMapGenerator;
 import com.google.common.collect.testing.features.CollectionFeature;
 import com.google.common.collect.testing.features.CollectionSize;
 import com.google.common.collect.testing.features.MapFeature;
@@ -42,6 +45,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -125,9 +129,163 @@ public class ImmutableSortedMapTest extends TestCase {
                 CollectionFeature.ALLOWS_NULL_QUERIES)
             .createTestSuite());
 
+    suite.addTest(
+        NavigableMapTestSuiteBuilder.using(new ImmutableSortedMapLongKeysGenerator())
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE_INCLUDING_VIEWS,
+                CollectionFeature.KNOWN_ORDER,
+                MapFeature.ALLOWS_ANY_NULL_QUERIES)
+            .named("ImmutableSortedMap.copyOfLongKeys")
+            .createTestSuite());
+
+    suite.addTest(
+        NavigableMapTestSuiteBuilder.using(new ImmutableSortedMapIntKeysGenerator())
+            .withFeatures(
+                CollectionSize.ANY,
+                CollectionFeature.SERIALIZABLE_INCLUDING_VIEWS,
+                CollectionFeature.KNOWN_ORDER,
+                MapFeature.ALLOWS_ANY_NULL_QUERIES)
+            .named("ImmutableSortedMap.copyOfIntKeys")
+            .createTestSuite());
+
     return suite;
   }
 
+  @J2ktIncompatible
+  @GwtIncompatible // copyOfLongKeys
+  private static final class ImmutableSortedMapLongKeysGenerator
+      implements TestSortedMapGenerator<Long, String> {
+    @Override
+    public SampleElements<Entry<Long, String>> samples() {
+      return new SampleElements<>(
+          mapEntry(30L, "thirty"),
+          mapEntry(-10L, "minus ten"),
+          mapEntry(40L, "forty"),
+          mapEntry(0L, "zero"),
+          mapEntry(20L, "twenty"));
+    }
+
+    @Override
+    public SortedMap<Long, String> create(Object... elements) {
+      Map<Long, String> map = new LinkedHashMap<>();
+      for (Object o : elements) {
+        @SuppressWarnings("unchecked")
+        Entry<Long, String> entry = (Entry<Long, String>) o;
+        map.put(entry.getKey(), entry.getValue());
+      }
+      return ImmutableSortedMap.copyOfLongKeys(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Entry<Long, String>[] createArray(int length) {
+      return (Entry<Long, String>[]) new Entry<?, ?>[length];
+    }
+
+    @Override
+    public Iterable<Entry<Long, String>> order(List<Entry<Long, String>> insertionOrder) {
+      return Helpers.orderEntriesByKey(insertionOrder);
+    }
+
+    @Override
+    public Long[] createKeyArray(int length) {
+      return new Long[length];
+    }
+
+    @Override
+    public String[] createValueArray(int length) {
+      return new String[length];
+    }
+
+    @Override
+    public Entry<Long, String> belowSamplesLesser() {
+      return mapEntry(Long.MIN_VALUE, "below view");
+    }
+
+    @Override
+    public Entry<Long, String> belowSamplesGreater() {
+      return mapEntry(-11L, "below view");
+    }
+
+    @Override
+    public Entry<Long, String> aboveSamplesLesser() {
+      return mapEntry(41L, "above view");
+    }
+
+    @Override
+    public Entry<Long, String> aboveSamplesGreater() {
+      return mapEntry(Long.MAX_VALUE, "above view");
+    }
+  }
+
+  @J2ktIncompatible
+  @GwtIncompatible // copyOfIntKeys
+  private static final class ImmutableSortedMapIntKeysGenerator
+      implements TestSortedMapGenerator<Integer, String> {
+    @Override
+    public SampleElements<Entry<Integer, String>> samples() {
+      return new SampleElements<>(
+          mapEntry(30, "thirty"),
+          mapEntry(-10, "minus ten"),
+          mapEntry(50, "fifty"),
+          mapEntry(0, "zero"),
+          mapEntry(20, "twenty"));
+    }
+
+    @Override
+    public SortedMap<Integer, String> create(Object... elements) {
+      Map<Integer, String> map = new LinkedHashMap<>();
+      for (Object o : elements) {
+        @SuppressWarnings("unchecked")
+        Entry<Integer, String> entry = (Entry<Integer, String>) o;
+        map.put(entry.getKey(), entry.getValue());
+      }
+      return ImmutableSortedMap.copyOfIntKeys(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Entry<Integer, String>[] createArray(int length) {
+      return (Entry<Integer, String>[]) new Entry<?, ?>[length];
+    }
+
+    @Override
+    public Iterable<Entry<Integer, String>> order(List<Entry<Integer, String>> insertionOrder) {
+      return Helpers.orderEntriesByKey(insertionOrder);
+    }
+
+    @Override
+    public Integer[] createKeyArray(int length) {
+      return new Integer[length];
+    }
+
+    @Override
+    public String[] createValueArray(int length) {
+      return new String[length];
+    }
+
+    @Override
+    public Entry<Integer, String> belowSamplesLesser() {
+      return mapEntry(Integer.MIN_VALUE, "below view");
+    }
+
+    @Override
+    public Entry<Integer, String> belowSamplesGreater() {
+      return mapEntry(-11, "below view");
+    }
+
+    @Override
+    public Entry<Integer, String> aboveSamplesLesser() {
+      return mapEntry(51, "above view");
+    }
+
+    @Override
+    public Entry<Integer, String> aboveSamplesGreater() {
+      return mapEntry(Integer.MAX_VALUE, "above view");
+    }
+  }
+
   // Creation tests
 
   public void testEmptyBuilder() {
@@ -844,6 +1002,45 @@ public class ImmutableSortedMapTest extends TestCase {
         .inOrder();
   }
 
+  @J2ktIncompatible
+  @GwtIncompatible // copyOfLongKeys
+  public void testCopyOfLongKeys() {
+    TreeMap<Long, String> source = new TreeMap<>();
+    for (long key = -50; key <= 50; key += 5) {
+      source.put(key, "v" + key);
+    }
+    ImmutableSortedMap<Long, String> map = ImmutableSortedMap.copyOfLongKeys(source);
+    assertEquals(source, map);
+    assertEquals("v-5", map.get(-5L));
+    assertNull(map.get(-4L));
+    assertNull(map.get(-5));
+    assertEquals(Long.valueOf(0), map.floorKey(4L));
+    assertEquals(Long.valueOf(5), map.ceilingKey(1L));
+    assertNull(map.lowerKey(-50L));
+    assertNull(map.higherKey(50L));
+    assertEquals(source.headMap(12L), map.headMap(12L));
+    assertEquals(source.tailMap(-12L), map.tailMap(-12L));
+    ImmutableSortedMap<Long, String> subMap = map.subMap(-20L, 20L);
+    assertEquals(source.subMap(-20L, 20L), subMap);
+    assertEquals("v15", subMap.get(15L));
+    assertEquals(Long.valueOf(-15), subMap.floorKey(-14L));
+    assertEquals(source.descendingMap(), map.descendingMap());
+    assertEquals(map, SerializableTester.reserialize(map));
+  }
+
+  @J2ktIncompatible
+  @GwtIncompatible // copyOfIntKeys
+  public void testCopyOfIntKeys() {
+    ImmutableSortedMap<Integer, String> map =
+        ImmutableSortedMap.copyOfIntKeys(ImmutableMap.of(3, "c", 1, "a", 2, "b"));
+    assertThat(map.keySet()).containsExactly(1, 2, 3).inOrder();
+    assertThat(map.values()).containsExactly("a", "b", "c").inOrder();
+    assertEquals("b", map.get(2));
+    assertNull(map.get(2L));
+    assertEquals(Integer.valueOf(3), map.ceilingKey(3));
+    assertTrue(ImmutableSortedMap.copyOfIntKeys(ImmutableMap.<Integer, String>of()).isEmpty());
+  }
+
   private static class SelfComparableExample implements Comparable<SelfComparableExample> {
     @Override
     public int compareTo(SelfComparableExample o) {
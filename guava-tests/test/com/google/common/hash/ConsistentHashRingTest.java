@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Range;
+import com.google.common.testing.NullPointerTester;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import junit.framework.TestCase;
+
+/** Tests for {@link ConsistentHashRing}. */
+public class ConsistentHashRingTest extends TestCase {
+  private static final int KEYS = 100_000;
+
+  private static ConsistentHashRing<String> newRing(int nodes) {
+    ConsistentHashRing<String> ring =
+        ConsistentHashRing.create(Funnels.unencodedCharsFunnel(), Hashing.murmur3_128(), 160);
+    for (int i = 0; i < nodes; i++) {
+      ring.add("node" + i);
+    }
+    return ring;
+  }
+
+  private static long[] keys() {
+    Random random = new Random(0);
+    long[] keys = new long[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      keys[i] = random.nextLong();
+    }
+    return keys;
+  }
+
+  public void testEmpty() {
+    ConsistentHashRing<String> ring = newRing(0);
+    assertEquals(0, ring.size());
+    assertThat(ring.nodes()).isEmpty();
+    assertThrows(NoSuchElementException.class, () -> ring.get(0L));
+  }
+
+  public void testSingleNode() {
+    ConsistentHashRing<String> ring = newRing(1);
+    for (long key : keys()) {
+      assertEquals("node0", ring.get(key));
+    }
+    assertEquals("node0", ring.get(Long.MAX_VALUE));
+    assertEquals("node0", ring.get(Long.MIN_VALUE));
+  }
+
+  public void testAddAndRemove() {
+    ConsistentHashRing<String> ring = newRing(2);
+    assertFalse(ring.add("node0"));
+    assertTrue(ring.add("node2", 3));
+    assertThat(ring.nodes()).containsExactly("node0", "node1", "node2").inOrder();
+    assertEquals(3, ring.weight("node2"));
+    assertEquals(0, ring.weight("node3"));
+    assertTrue(ring.remove("node1"));
+    assertFalse(ring.remove("node1"));
+    assertThat(ring.nodes()).containsExactly("node0", "node2").inOrder();
+    assertEquals(2, ring.size());
+    assertEquals("ConsistentHashRing{node0=1, node2=3}", ring.toString());
+  }
+
+  public void testNodesIsSnapshot() {
+    ConsistentHashRing<String> ring = newRing(2);
+    Set<String> nodes = ring.nodes();
+    assertThrows(UnsupportedOperationException.class, () -> nodes.add("node9"));
+    ring.add("node2");
+    ring.remove("node0");
+    assertThat(nodes).containsExactly("node0", "node1").inOrder();
+  }
+
+  public void testDistribution() {
+    ConsistentHashRing<String> ring = newRing(10);
+    Multiset<String> counts = HashMultiset.create();
+    for (long key : keys()) {
+      counts.add(ring.get(key));
+    }
+    assertThat(counts.elementSet()).hasSize(10);
+    for (String node : counts.elementSet()) {
+      assertThat(counts.count(node)).isIn(Range.closed(7_000, 13_000));
+    }
+  }
+
+  public void testWeights() {
+    ConsistentHashRing<String> ring = newRing(3);
+    ring.add("heavy", 3);
+    Multiset<String> counts = HashMultiset.create();
+    for (long key : keys()) {
+      counts.add(ring.get(key));
+    }
+    // "heavy" should get about half the keys, and the others about a sixth each
+    assertThat(counts.count("heavy")).isIn(Range.closed(42_000, 58_000));
+  }
+
+  public void testIndependentOfInsertionOrder() {
+    ConsistentHashRing<String> forward = newRing(20);
+    ConsistentHashRing<String> backward =
+        ConsistentHashRing.create(Funnels.unencodedCharsFunnel(), Hashing.murmur3_128(), 160);
+    for (int i = 19; i >= 0; i--) {
+      backward.add("node" + i);
+    }
+    for (long key : keys()) {
+      assertEquals(forward.get(key), backward.get(key));
+    }
+  }
+
+  public void testAddingNodeOnlyMovesKeysToIt() {
+    ConsistentHashRing<String> ring = newRing(10);
+    long[] keys = keys();
+    String[] before = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      before[i] = ring.get(keys[i]);
+    }
+    ring.add("node10");
+    int moved = 0;
+    for (int i = 0; i < KEYS; i++) {
+      String after = ring.get(keys[i]);
+      if (!after.equals(before[i])) {
+        assertEquals("node10", after);
+        moved++;
+      }
+    }
+    // about 1/11 of the keys should move
+    assertThat(moved).isIn(Range.closed(6_000, 12_500));
+  }
+
+  public void testRemovingNodeOnlyMovesItsKeys() {
+    ConsistentHashRing<String> ring = newRing(10);
+    long[] keys = keys();
+    String[] before = new String[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      before[i] = ring.get(keys[i]);
+    }
+    ring.remove("node3");
+    for (int i = 0; i < KEYS; i++) {
+      String after = ring.get(keys[i]);
+      if (before[i].equals("node3")) {
+        assertThat(after).isNotEqualTo("node3");
+      } else {
+        assertEquals(before[i], after);
+      }
+    }
+  }
+
+  public void testGetHashCode() {
+    ConsistentHashRing<String> ring = newRing(10);
+    HashCode hashCode = Hashing.murmur3_128().hashInt(42);
+    assertEquals(ring.get(hashCode.padToLong()), ring.get(hashCode));
+  }
+
+  public void testBadArguments() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ConsistentHashRing.create(Funnels.integerFunnel(), Hashing.murmur3_128(), 0));
+    ConsistentHashRing<String> ring = newRing(0);
+    assertThrows(IllegalArgumentException.class, () -> ring.add("node0", 0));
+    assertThrows(ArithmeticException.class, () -> ring.add("node0", Integer.MAX_VALUE));
+  }
+
+  public void testNulls() {
+    new NullPointerTester().testAllPublicStaticMethods(ConsistentHashRing.class);
+    new NullPointerTester().testAllPublicInstanceMethods(newRing(1));
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.testing.SerializableTester;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import junit.framework.TestCase;
+
+/** Tests for {@link CountMinSketch}. */
+public class CountMinSketchTest extends TestCase {
+
+  public void testEstimates() {
+    CountMinSketch<Integer> sketch = CountMinSketch.create(Funnels.integerFunnel(), 0.001, 0.01);
+    // Element i is added i times, for a total count of about 50 million.
+    for (int i = 0; i < 10_000; i++) {
+      sketch.add(i, i);
+    }
+    assertEquals(49_995_000, sketch.totalCount());
+    long maxError = (long) (0.001 * sketch.totalCount());
+    int tooHigh = 0;
+    for (int i = 0; i < 10_000; i++) {
+      long estimate = sketch.estimateCount(i);
+      assertThat(estimate).isAtLeast(i);
+      if (estimate > i + maxError) {
+        tooHigh++;
+      }
+    }
+    assertThat(tooHigh).isLessThan(100);
+  }
+
+  public void testConservativeUpdate() {
+    CountMinSketch<Integer> plain = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    CountMinSketch<Integer> conservative =
+        CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      plain.add(i % 1000, 1);
+      conservative.addConservatively(i % 1000, 1);
+    }
+    assertEquals(plain.totalCount(), conservative.totalCount());
+    long plainError = 0;
+    long conservativeError = 0;
+    for (int i = 0; i < 1000; i++) {
+      long estimate = conservative.estimateCount(i);
+      assertThat(estimate).isAtLeast(10);
+      assertThat(estimate).isAtMost(plain.estimateCount(i));
+      plainError += plain.estimateCount(i) - 10;
+      conservativeError += estimate - 10;
+    }
+    assertThat(conservativeError).isLessThan(plainError);
+  }
+
+  public void testAddZero() {
+    CountMinSketch<String> sketch = CountMinSketch.create(Funnels.unencodedCharsFunnel(), 0.1, 0.1);
+    sketch.add("a", 0);
+    sketch.addConservatively("a", 0);
+    assertEquals(0, sketch.estimateCount("a"));
+    assertEquals(CountMinSketch.create(Funnels.unencodedCharsFunnel(), 0.1, 0.1), sketch);
+  }
+
+  public void testPutAll() {
+    CountMinSketch<Integer> sketch1 = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    CountMinSketch<Integer> sketch2 = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    CountMinSketch<Integer> both = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      sketch1.add(i);
+      sketch2.add(i % 10);
+      both.add(i);
+      both.add(i % 10);
+    }
+    assertTrue(sketch1.isCompatible(sketch2));
+    sketch1.putAll(sketch2);
+    assertEquals(both, sketch1);
+    assertEquals(2000, sketch1.totalCount());
+  }
+
+  public void testPutAll_incompatible() {
+    CountMinSketch<Integer> sketch = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    assertFalse(sketch.isCompatible(sketch));
+    assertThrows(IllegalArgumentException.class, () -> sketch.putAll(sketch));
+    CountMinSketch<Integer> otherWidth = CountMinSketch.create(Funnels.integerFunnel(), 0.1, 0.01);
+    assertFalse(sketch.isCompatible(otherWidth));
+    assertThrows(IllegalArgumentException.class, () -> sketch.putAll(otherWidth));
+    CountMinSketch<Integer> otherHash =
+        CountMinSketch.create(Funnels.integerFunnel(), Hashing.sipHash24(), 0.01, 0.01);
+    assertFalse(sketch.isCompatible(otherHash));
+    assertThrows(IllegalArgumentException.class, () -> sketch.putAll(otherHash));
+  }
+
+  public void testStriped() throws Exception {
+    CountMinSketch<Integer> sketch =
+        CountMinSketch.createStriped(
+            Funnels.integerFunnel(), Hashing.murmur3_128(), 0.001, 0.01, 8);
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 100_000; i++) {
+                    sketch.add(i % 100);
+                    sketch.addConservatively(-1, 1);
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(2 * threads * 100_000, sketch.totalCount());
+    // No update is lost.
+    assertThat(sketch.estimateCount(-1)).isAtLeast(threads * 100_000);
+    for (int i = 0; i < 100; i++) {
+      assertThat(sketch.estimateCount(i)).isAtLeast(threads * 1000);
+    }
+  }
+
+  public void testCopy() {
+    CountMinSketch<Integer> original = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    original.add(1);
+    CountMinSketch<Integer> copy = original.copy();
+    assertEquals(original, copy);
+    copy.add(1);
+    assertEquals(1, original.estimateCount(1));
+    assertEquals(2, copy.estimateCount(1));
+  }
+
+  public void testEquals() {
+    CountMinSketch<Integer> sketch1 = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    sketch1.add(1, 2);
+    CountMinSketch<Integer> sketch2 = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    sketch2.add(1);
+    sketch2.add(1);
+    CountMinSketch<Integer> sketch3 = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    sketch3.add(2, 2);
+    new EqualsTester()
+        .addEqualityGroup(sketch1, sketch2)
+        .addEqualityGroup(sketch3)
+        .addEqualityGroup(CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01))
+        .addEqualityGroup(CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.1))
+        .addEqualityGroup(CountMinSketch.create(Funnels.longFunnel(), 0.01, 0.01))
+        .addEqualityGroup(
+            CountMinSketch.create(Funnels.integerFunnel(), Hashing.sipHash24(), 0.01, 0.01))
+        .addEqualityGroup(
+            CountMinSketch.createStriped(
+                Funnels.integerFunnel(), Hashing.murmur3_128(), 0.01, 0.01, 2))
+        .testEquals();
+  }
+
+  public void testPreconditions() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountMinSketch.create(Funnels.integerFunnel(), 0.0, 0.01));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountMinSketch.create(Funnels.integerFunnel(), 0.01, 1.0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            CountMinSketch.create(Funnels.integerFunnel(), Hashing.murmur3_32_fixed(), 0.01, 0.01));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            CountMinSketch.createStriped(
+                Funnels.integerFunnel(), Hashing.murmur3_128(), 0.01, 0.01, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountMinSketch.create(Funnels.integerFunnel(), 1e-9, 1e-9));
+    // The width saturates at Long.MAX_VALUE, which must not overflow the size computation.
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountMinSketch.create(Funnels.integerFunnel(), 1e-300, 0.01));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            CountMinSketch.createStriped(
+                Funnels.integerFunnel(), Hashing.murmur3_128(), 1e-300, Double.MIN_VALUE, 16));
+    CountMinSketch<Integer> sketch = CountMinSketch.create(Funnels.integerFunnel(), 0.01, 0.01);
+    assertThrows(IllegalArgumentException.class, () -> sketch.add(1, -1));
+    assertThrows(IllegalArgumentException.class, () -> sketch.addConservatively(1, -1));
+  }
+
+  public void testNullPointers() {
+    NullPointerTester tester = new NullPointerTester();
+    tester.testAllPublicInstanceMethods(
+        CountMinSketch.create(Funnels.unencodedCharsFunnel(), 0.01, 0.01));
+    tester.testAllPublicStaticMethods(CountMinSketch.class);
+  }
+
+  public void testJavaSerialization() {
+    CountMinSketch<byte[]> sketch = CountMinSketch.create(Funnels.byteArrayFunnel(), 0.01, 0.01);
+    for (int i = 0; i < 10; i++) {
+      sketch.add(new byte[] {(byte) i}, i);
+    }
+    CountMinSketch<byte[]> copy = SerializableTester.reserialize(sketch);
+    assertEquals(sketch, copy);
+    assertEquals(45, copy.totalCount());
+  }
+
+  public void testCustomSerialization() throws Exception {
+    CountMinSketch<Integer> sketch =
+        CountMinSketch.create(Funnels.integerFunnel(), Hashing.sipHash24(), 0.01, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      sketch.add(i, i);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    sketch.writeTo(out);
+    CountMinSketch<Integer> read =
+        CountMinSketch.readFrom(
+            new ByteArrayInputStream(out.toByteArray()),
+            Funnels.integerFunnel(),
+            Hashing.sipHash24());
+    assertEquals(sketch, read);
+    assertThat(read.estimateCount(999)).isAtLeast(999);
+  }
+
+  public void testReadFrom_notACountMinSketch() {
+    assertThrows(
+        IOException.class,
+        () ->
+            CountMinSketch.readFrom(
+                new ByteArrayInputStream(new byte[] {1, 2, 3}), Funnels.integerFunnel()));
+    assertThrows(
+        IOException.class,
+        () ->
+            CountMinSketch.readFrom(
+                new ByteArrayInputStream(new byte[13]), Funnels.integerFunnel()));
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.hash.CountingBloomFilter.CounterArray;
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.testing.SerializableTester;
+import junit.framework.TestCase;
+
+/** Tests for {@link CountingBloomFilter}. */
+public class CountingBloomFilterTest extends TestCase {
+
+  public void testPutAndRemove() {
+    CountingBloomFilter<Integer> bf =
+        CountingBloomFilter.create(Funnels.integerFunnel(), 1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      bf.put(i);
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(bf.mightContain(i));
+    }
+    assertThat(bf.approximateElementCount()).isWithin(50).of(1000);
+
+    for (int i = 0; i < 1000; i += 2) {
+      assertTrue(bf.remove(i));
+    }
+    // Removing elements never causes false negatives for the remaining ones.
+    for (int i = 1; i < 1000; i += 2) {
+      assertTrue(bf.mightContain(i));
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 1000; i += 2) {
+      if (bf.mightContain(i)) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives).isLessThan(10);
+    assertThat(bf.approximateElementCount()).isWithin(25).of(500);
+
+    for (int i = 1; i < 1000; i += 2) {
+      assertTrue(bf.remove(i));
+    }
+    assertEquals(0, bf.approximateElementCount());
+    assertEquals(CountingBloomFilter.create(Funnels.integerFunnel(), 1000, 0.01), bf);
+  }
+
+  public void testPutTwice() {
+    CountingBloomFilter<String> bf =
+        CountingBloomFilter.create(Funnels.unencodedCharsFunnel(), 100, 0.01);
+    assertTrue(bf.put("a"));
+    assertFalse(bf.put("a"));
+    assertTrue(bf.remove("a"));
+    assertTrue(bf.mightContain("a"));
+    assertTrue(bf.remove("a"));
+    assertFalse(bf.mightContain("a"));
+    assertFalse(bf.remove("a"));
+  }
+
+  public void testCounterSaturation() {
+    CounterArray counters = new CounterArray(32);
+    assertEquals(32, counters.size());
+    for (int i = 0; i < 20; i++) {
+      counters.increment(17);
+    }
+    assertTrue(counters.isNonzero(17));
+    assertFalse(counters.isNonzero(16));
+    assertFalse(counters.isNonzero(18));
+    for (int i = 0; i < 20; i++) {
+      assertFalse(counters.decrement(17));
+    }
+    // A saturated counter stays saturated.
+    assertTrue(counters.isNonzero(17));
+    assertEquals(1, counters.nonzeroCount());
+
+    assertTrue(counters.increment(31));
+    assertFalse(counters.increment(31));
+    assertFalse(counters.decrement(31));
+    assertTrue(counters.decrement(31));
+    assertFalse(counters.isNonzero(31));
+    assertFalse(counters.decrement(31));
+    assertFalse(counters.isNonzero(31));
+    assertEquals(1, counters.nonzeroCount());
+
+    counters.increment(3);
+    counters.increment(3);
+    CounterArray copy = new CounterArray(counters.toLongArray());
+    assertEquals(counters, copy);
+    assertEquals(2, copy.nonzeroCount());
+  }
+
+  public void testCopy() {
+    CountingBloomFilter<Integer> original =
+        CountingBloomFilter.create(Funnels.integerFunnel(), 100, 0.01);
+    original.put(1);
+    CountingBloomFilter<Integer> copy = original.copy();
+    assertEquals(original, copy);
+    copy.remove(1);
+    assertTrue(original.mightContain(1));
+    assertFalse(copy.mightContain(1));
+  }
+
+  public void testEquals() {
+    CountingBloomFilter<Integer> bf1 =
+        CountingBloomFilter.create(Funnels.integerFunnel(), 100, 0.01);
+    bf1.put(1);
+    CountingBloomFilter<Integer> bf2 =
+        CountingBloomFilter.create(Funnels.integerFunnel(), 100, 0.01);
+    bf2.put(1);
+    CountingBloomFilter<Integer> bf3 =
+        CountingBloomFilter.create(Funnels.integerFunnel(), 100, 0.01);
+    bf3.put(1);
+    bf3.put(1);
+    new EqualsTester()
+        .addEqualityGroup(bf1, bf2)
+        .addEqualityGroup(bf3)
+        .addEqualityGroup(CountingBloomFilter.create(Funnels.integerFunnel(), 100, 0.01))
+        .addEqualityGroup(CountingBloomFilter.create(Funnels.integerFunnel(), 100, 0.02))
+        .addEqualityGroup(CountingBloomFilter.create(Funnels.longFunnel(), 100, 0.01))
+        .testEquals();
+  }
+
+  public void testPreconditions() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountingBloomFilter.create(Funnels.integerFunnel(), -1, 0.01));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountingBloomFilter.create(Funnels.integerFunnel(), 1, 0.0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CountingBloomFilter.create(Funnels.integerFunnel(), 1, 1.0));
+  }
+
+  public void testNullPointers() {
+    NullPointerTester tester = new NullPointerTester();
+    tester.testAllPublicInstanceMethods(
+        CountingBloomFilter.create(Funnels.unencodedCharsFunnel(), 100, 0.01));
+    tester.testAllPublicStaticMethods(CountingBloomFilter.class);
+  }
+
+  public void testJavaSerialization() {
+    CountingBloomFilter<byte[]> bf =
+        CountingBloomFilter.create(Funnels.byteArrayFunnel(), 100, 0.01);
+    for (int i = 0; i < 10; i++) {
+      bf.put(new byte[] {(byte) i});
+      bf.put(new byte[] {(byte) i});
+    }
+    CountingBloomFilter<byte[]> copy = SerializableTester.reserialize(bf);
+    assertEquals(bf, copy);
+    assertEquals(bf.approximateElementCount(), copy.approximateElementCount());
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link ReusableHasher}. */
+public class ReusableHasherTest extends TestCase {
+  private static final ImmutableList<HashFunction> HASH_FUNCTIONS =
+      ImmutableList.of(
+          Hashing.murmur3_32_fixed(),
+          Hashing.murmur3_32_fixed(42),
+          Hashing.murmur3_128(),
+          Hashing.murmur3_128(42),
+          Hashing.farmHashFingerprint64(),
+          Hashing.xxHash64(),
+          Hashing.xxh3_64(),
+          Hashing.xxh3_64(42),
+          Hashing.xxh3_128(),
+          Hashing.sipHash24(),
+          Hashing.crc32c(),
+          Hashing.sha1(),
+          Hashing.sha256());
+
+  public void testMatchesNewHasher() {
+    Random random = new Random(0);
+    for (HashFunction hashFunction : HASH_FUNCTIONS) {
+      ReusableHasher reusable = Hashing.newReusableHasher(hashFunction);
+      for (int trial = 0; trial < 200; trial++) {
+        long seed = random.nextLong();
+        HashCode expected = putRandomly(hashFunction.newHasher(), new Random(seed)).hash();
+
+        assertEquals(
+            hashFunction.toString(), expected, putRandomly(reusable, new Random(seed)).hash());
+
+        putRandomly(reusable, new Random(seed));
+        assertEquals(expected.padToLong(), reusable.hashToLong());
+
+        byte[] bytes = new byte[expected.bits() / 8 + 2];
+        putRandomly(reusable, new Random(seed));
+        assertEquals(expected.bits() / 8, reusable.hashTo(bytes, 1));
+        assertEquals(
+            HashCode.fromBytes(expected.asBytes()),
+            HashCode.fromBytes(Arrays.copyOfRange(bytes, 1, bytes.length - 1)));
+
+        long[] longs = new long[(expected.bits() + 63) / 64 + 1];
+        putRandomly(reusable, new Random(seed));
+        assertEquals(longs.length - 1, reusable.hashTo(longs, 1));
+        byte[] expectedBytes = Arrays.copyOf(expected.asBytes(), 8 * (longs.length - 1));
+        for (int i = 1; i < longs.length; i++) {
+          assertEquals(LittleEndianByteArray.load64(expectedBytes, 8 * (i - 1)), longs[i]);
+        }
+      }
+    }
+  }
+
+  /** Puts a random sequence of values, totalling up to about 600 bytes. */
+  private static Hasher putRandomly(Hasher hasher, Random random) {
+    int puts = random.nextInt(40);
+    for (int i = 0; i < puts; i++) {
+      switch (random.nextInt(12)) {
+        case 0:
+          hasher.putByte((byte) random.nextInt());
+          break;
+        case 1:
+          byte[] bytes = new byte[random.nextInt(64)];
+          random.nextBytes(bytes);
+          hasher.putBytes(bytes);
+          break;
+        case 2:
+          byte[] direct = new byte[random.nextInt(64)];
+          random.nextBytes(direct);
+          ByteBuffer buffer = ByteBuffer.allocateDirect(direct.length);
+          buffer.put(direct).flip();
+          hasher.putBytes(buffer);
+          break;
+        case 3:
+          hasher.putShort((short) random.nextInt());
+          break;
+        case 4:
+          hasher.putInt(random.nextInt());
+          break;
+        case 5:
+          hasher.putLong(random.nextLong());
+          break;
+        case 6:
+          hasher.putFloat(random.nextFloat());
+          break;
+        case 7:
+          hasher.putDouble(random.nextDouble());
+          break;
+        case 8:
+          hasher.putBoolean(random.nextBoolean());
+          break;
+        case 9:
+          hasher.putChar((char) random.nextInt());
+          break;
+        case 10:
+          hasher.putUnencodedChars("key-" + random.nextInt());
+          break;
+        default:
+          hasher.putString("kéy-" + random.nextInt(), UTF_8);
+          break;
+      }
+    }
+    return hasher;
+  }
+
+  public void testReset() {
+    ReusableHasher reusable = Hashing.newReusableHasher(Hashing.murmur3_128());
+    reusable.putUnencodedChars("discarded").reset();
+    assertEquals(Hashing.murmur3_128().hashInt(42), reusable.putInt(42).hash());
+    assertEquals(Hashing.murmur3_128().hashInt(42), reusable.putInt(42).hash());
+    assertEquals(Hashing.murmur3_128().hashBytes(new byte[0]), reusable.hash());
+  }
+
+  public void testPutObject() {
+    ReusableHasher reusable = Hashing.newReusableHasher(Hashing.xxh3_64());
+    assertEquals(
+        Hashing.xxh3_64().hashObject("foo", Funnels.unencodedCharsFunnel()).padToLong(),
+        reusable.putObject("foo", Funnels.unencodedCharsFunnel()).hashToLong());
+  }
+
+  public void testLargeInput() {
+    byte[] input = new byte[100_000];
+    new Random(0).nextBytes(input);
+    ReusableHasher reusable = Hashing.newReusableHasher(Hashing.murmur3_128());
+    assertEquals(Hashing.murmur3_128().hashBytes(input), reusable.putBytes(input).hash());
+    assertEquals(
+        Hashing.murmur3_128().hashBytes(input, 1, 1000), reusable.putBytes(input, 1, 1000).hash());
+  }
+
+  public void testHashTo_tooSmall() {
+    ReusableHasher reusable = Hashing.newReusableHasher(Hashing.murmur3_128());
+    assertThrows(IndexOutOfBoundsException.class, () -> reusable.hashTo(new byte[16], 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> reusable.hashTo(new long[2], 1));
+  }
+
+  public void testToString() {
+    assertThat(Hashing.newReusableHasher(Hashing.murmur3_128()).toString())
+        .isEqualTo("Hashing.newReusableHasher(Hashing.murmur3_128(0))");
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.EqualsTester;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests for {@link TreeHashFunction}. */
+public class TreeHashFunctionTest extends TestCase {
+  private static final HashFunction LEAF = Hashing.murmur3_128();
+
+  public void testHashBytes_matchesCombinedChunkHashes() {
+    byte[] input = randomBytes(1000);
+    for (int chunkSize : new int[] {1, 7, 100, 999, 1000, 1001}) {
+      List<HashCode> chunkHashes = new ArrayList<>();
+      for (int off = 0; off < input.length; off += chunkSize) {
+        chunkHashes.add(
+            LEAF.hashBytes(
+                Arrays.copyOfRange(input, off, Math.min(off + chunkSize, input.length))));
+      }
+      HashCode expected = Hashing.combineOrdered(chunkHashes);
+      HashFunction treeHash = Hashing.treeHash(LEAF, chunkSize);
+      assertEquals(expected, treeHash.hashBytes(input));
+      assertEquals(expected, treeHash.newHasher().putBytes(input).hash());
+    }
+  }
+
+  public void testEmptyInput() {
+    HashCode expected = Hashing.combineOrdered(ImmutableList.of(LEAF.hashBytes(new byte[0])));
+    assertEquals(expected, Hashing.treeHash(LEAF, 16).hashBytes(new byte[0]));
+    assertEquals(expected, Hashing.treeHash(LEAF, 16).newHasher().hash());
+  }
+
+  public void testStreamingMatchesOneShot() {
+    byte[] input = randomBytes(500);
+    HashFunction treeHash = Hashing.treeHash(LEAF, 64);
+    for (int len = 0; len <= input.length; len += 7) {
+      HashCode expected = treeHash.hashBytes(input, 0, len);
+
+      Hasher byteByByte = treeHash.newHasher();
+      for (int i = 0; i < len; i++) {
+        byteByByte.putByte(input[i]);
+      }
+      assertEquals(expected, byteByByte.hash());
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(len);
+      direct.put(input, 0, len).flip();
+      assertEquals(expected, treeHash.newHasher().putBytes(direct).hash());
+    }
+  }
+
+  public void testBits() {
+    assertEquals(128, Hashing.treeHash(LEAF, 16).bits());
+    assertEquals(32, Hashing.treeHash(Hashing.crc32c(), 16).bits());
+  }
+
+  public void testInvalidChunkSize() {
+    assertThrows(IllegalArgumentException.class, () -> Hashing.treeHash(LEAF, 0));
+    assertThrows(IllegalArgumentException.class, () -> Hashing.treeHash(LEAF, -1));
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(Hashing.treeHash(LEAF, 16), Hashing.treeHash(Hashing.murmur3_128(), 16))
+        .addEqualityGroup(Hashing.treeHash(LEAF, 17))
+        .addEqualityGroup(Hashing.treeHash(Hashing.sha256(), 16))
+        .testEquals();
+  }
+
+  public void testToString() {
+    assertThat(Hashing.treeHash(LEAF, 16).toString())
+        .isEqualTo("Hashing.treeHash(Hashing.murmur3_128(0), 16)");
+  }
+
+  public void testInvariants() {
+    HashTestUtils.assertInvariants(Hashing.treeHash(LEAF, 5));
+  }
+
+  private static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    new Random(0).nextBytes(bytes);
+    return bytes;
+  }
+}
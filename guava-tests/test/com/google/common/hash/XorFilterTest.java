@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.common.testing.EqualsTester;
+import com.google.common.testing.NullPointerTester;
+import com.google.common.testing.SerializableTester;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+
+/** Tests for {@link XorFilter}. */
+public class XorFilterTest extends TestCase {
+
+  public void testNoFalseNegatives() {
+    for (int size : new int[] {0, 1, 2, 10, 1000, 100_000}) {
+      List<Integer> elements = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        elements.add(i * 2);
+      }
+      XorFilter<Integer> filter = XorFilter.create(Funnels.integerFunnel(), elements);
+      for (int i = 0; i < size; i++) {
+        assertTrue(filter.mightContain(i * 2));
+      }
+    }
+  }
+
+  public void testFalsePositiveRate() {
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      elements.add(i * 2);
+    }
+    XorFilter<Integer> filter = XorFilter.create(Funnels.integerFunnel(), elements);
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain(i * 2 + 1)) {
+        falsePositives++;
+      }
+    }
+    // The expected false positive probability is 1/256, so about 390 false positives.
+    assertThat(falsePositives).isIn(Range.closed(300, 500));
+    assertThat(filter.bitSize() / 100_000.0).isWithin(0.1).of(9.84);
+  }
+
+  public void testDuplicates() {
+    XorFilter<String> filter =
+        XorFilter.create(Funnels.unencodedCharsFunnel(), ImmutableList.of("a", "b", "a", "a"));
+    assertTrue(filter.mightContain("a"));
+    assertTrue(filter.mightContain("b"));
+    assertEquals(
+        XorFilter.create(Funnels.unencodedCharsFunnel(), ImmutableList.of("b", "a")), filter);
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(
+            XorFilter.create(Funnels.integerFunnel(), ImmutableList.of(1, 2, 3)),
+            XorFilter.create(Funnels.integerFunnel(), ImmutableList.of(3, 2, 1)))
+        .addEqualityGroup(XorFilter.create(Funnels.integerFunnel(), ImmutableList.of(1, 2, 4)))
+        .addEqualityGroup(XorFilter.create(Funnels.longFunnel(), ImmutableList.of(1L, 2L, 3L)))
+        .testEquals();
+  }
+
+  public void testNullPointers() {
+    NullPointerTester tester = new NullPointerTester();
+    tester.testAllPublicInstanceMethods(
+        XorFilter.create(Funnels.unencodedCharsFunnel(), ImmutableList.of("a")));
+    tester.testAllPublicStaticMethods(XorFilter.class);
+  }
+
+  public void testJavaSerialization() {
+    XorFilter<Integer> filter =
+        XorFilter.create(Funnels.integerFunnel(), ImmutableList.of(1, 2, 3));
+    SerializableTester.reserializeAndAssert(filter);
+  }
+
+  public void testCustomSerialization() throws Exception {
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      elements.add(i);
+    }
+    XorFilter<Integer> filter = XorFilter.create(Funnels.integerFunnel(), elements);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    filter.writeTo(out);
+    XorFilter<Integer> read =
+        XorFilter.readFrom(new ByteArrayInputStream(out.toByteArray()), Funnels.integerFunnel());
+    assertEquals(filter, read);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(read.mightContain(i));
+    }
+  }
+
+  public void testReadFrom_notAnXorFilter() {
+    assertThrows(
+        IOException.class,
+        () ->
+            XorFilter.readFrom(
+                new ByteArrayInputStream(new byte[] {1, 2, 3}), Funnels.integerFunnel()));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.hash.Hashing.xxh3_128;
+import static com.google.common.hash.Hashing.xxh3_64;
+
+import com.google.common.base.Strings;
+import com.google.common.hash.HashTestUtils.HashFn;
+import com.google.common.testing.EqualsTester;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import junit.framework.TestCase;
+
+/** Tests for {@link Xxh3HashFunction}. */
+public class Xxh3HashFunctionTest extends TestCase {
+  public void testKnownValues64() {
+    assertHash64(0, 0x2D06800538D394C2L, "");
+    assertHash64(0, 0x9555E8555C62DCFDL, "hello");
+    assertHash64(1, 0x74B07ED397A89E92L, "hello");
+    assertHash64(0, 0xCE7D19A5418FB365L, "The quick brown fox jumps over the lazy dog");
+    assertHash64(42, 0x3D7BD01799F47492L, Strings.repeat("x", 300));
+  }
+
+  public void testKnownValues128() {
+    assertHash128(0, 0x6001C324468D497FL, 0x99AA06D3014798D8L, "");
+    assertHash128(0, 0xC779CFAA5E523818L, 0xB5E9C1AD071B3E7FL, "hello");
+    assertHash128(1, 0xDE5ED0A4C781F906L, 0x2158E4CE83D1E1E0L, "hello");
+    assertHash128(
+        0, 0x24A1CC2E3A8A7651L, 0xDDD650205CA3E7FAL, "The quick brown fox jumps over the lazy dog");
+    assertHash128(42, 0x3D7BD01799F47492L, 0x6B7B644DA8381594L, Strings.repeat("x", 300));
+  }
+
+  private static void assertHash64(long seed, long expected, String stringInput) {
+    HashCode expectedHash = HashCode.fromLong(expected);
+    byte[] input = HashTestUtils.ascii(stringInput);
+    assertEquals(expectedHash, xxh3_64(seed).hashBytes(input));
+    assertEquals(expectedHash, xxh3_64(seed).newHasher().putBytes(input).hash());
+  }
+
+  private static void assertHash128(long seed, long low, long high, String stringInput) {
+    HashCode expectedHash =
+        HashCode.fromBytes(
+            ByteBuffer.allocate(16)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .putLong(low)
+                .putLong(high)
+                .array());
+    byte[] input = HashTestUtils.ascii(stringInput);
+    assertEquals(expectedHash, xxh3_128(seed).hashBytes(input));
+    assertEquals(expectedHash, xxh3_128(seed).newHasher().putBytes(input).hash());
+  }
+
+  public void testParanoid64() {
+    HashTestUtils.verifyHashFunction(hashFn(64), 64, 0x9A636405);
+  }
+
+  public void testParanoid128() {
+    HashTestUtils.verifyHashFunction(hashFn(128), 128, 0x5AE48E84);
+  }
+
+  private static HashFn hashFn(int bits) {
+    return new HashFn() {
+      @Override
+      public byte[] hash(byte[] input, int seed) {
+        Hasher hasher = (bits == 64 ? xxh3_64(seed) : xxh3_128(seed)).newHasher();
+        Funnels.byteArrayFunnel().funnel(input, hasher);
+        return hasher.hash().asBytes();
+      }
+    };
+  }
+
+  /**
+   * Inputs longer than 240 bytes are processed in 64-byte stripes and 1024-byte blocks, with the
+   * final stripe handled specially; check that every chunking of the input agrees.
+   */
+  public void testStreamingMatchesOneShot() {
+    byte[] input = new byte[3000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (byte) (i * 31 + 7);
+    }
+    for (HashFunction hashFunction : new HashFunction[] {xxh3_64(7), xxh3_128(7)}) {
+      for (int len = 0; len <= input.length; len += 17) {
+        HashCode expected = hashFunction.hashBytes(input, 0, len);
+        for (int chunk : new int[] {1, 63, 64, 256, 257, 1024}) {
+          Hasher hasher = hashFunction.newHasher();
+          for (int off = 0; off < len; off += chunk) {
+            hasher.putBytes(input, off, Math.min(chunk, len - off));
+          }
+          assertEquals(expected, hasher.hash());
+        }
+      }
+    }
+  }
+
+  public void testEquals() {
+    new EqualsTester()
+        .addEqualityGroup(xxh3_64(), xxh3_64(0))
+        .addEqualityGroup(xxh3_64(1))
+        .addEqualityGroup(xxh3_128(), xxh3_128(0))
+        .addEqualityGroup(xxh3_128(1))
+        .testEquals();
+  }
+
+  public void testInvariants() {
+    HashTestUtils.assertInvariants(xxh3_64());
+    HashTestUtils.assertInvariants(xxh3_128());
+  }
+}
@@ -28,17 +28,29 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertThrows;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import junit.framework.TestSuite;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -173,6 +185,65 @@ public class ByteSourceTest extends IoTestCase {
     assertTrue(source.wasStreamOpened() && source.wasStreamClosed());
   }
 
+  public void testReadLines_bytes() throws IOException {
+    Random random = new Random(0);
+    for (int trial = 0; trial < 200; trial++) {
+      StringBuilder text = new StringBuilder();
+      int lines = random.nextInt(20);
+      for (int i = 0; i < lines; i++) {
+        text.append("xxxxxxxxxxé".substring(random.nextInt(11)));
+        text.append(ImmutableList.of("\n", "\r\n", "\r", "\n\r", "").get(random.nextInt(5)));
+      }
+      byte[] bytes = text.toString().getBytes(Charsets.UTF_8);
+      ImmutableList<String> expected =
+          ByteSource.wrap(bytes).asCharSource(Charsets.UTF_8).readLines();
+
+      assertEquals(expected, ByteSource.wrap(bytes).readLines(new CollectingProcessor()));
+      // Reads at most a few bytes at a time, so that lines and "\r\n" span buffers.
+      ByteSource trickle =
+          new ByteSource() {
+            @Override
+            public InputStream openStream() {
+              return new FilterInputStream(new ByteArrayInputStream(bytes)) {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                  return super.read(b, off, Math.min(len, 1 + random.nextInt(3)));
+                }
+              };
+            }
+          };
+      assertEquals(expected, trickle.readLines(new CollectingProcessor()));
+    }
+  }
+
+  public void testReadLines_bytes_stopsOnFalse() throws IOException {
+    ByteSource byteSource = ByteSource.wrap("a\nb\nc".getBytes(Charsets.US_ASCII));
+    LineBytesProcessor<List<String>> processor =
+        new CollectingProcessor() {
+          @Override
+          public boolean processLine(byte[] buf, int off, int len) {
+            super.processLine(buf, off, len);
+            return false;
+          }
+        };
+    assertEquals(ImmutableList.of("a"), byteSource.readLines(processor));
+  }
+
+  private static class CollectingProcessor implements LineBytesProcessor<List<String>> {
+    final List<String> lines = new ArrayList<>();
+
+    @Override
+    public boolean processLine(byte[] buf, int off, int len) {
+      lines.add(new String(buf, off, len, Charsets.UTF_8));
+      return true;
+    }
+
+    @Override
+    public List<String> getResult() {
+      return lines;
+    }
+  }
+
   public void testHash() throws IOException {
     ByteSource byteSource = new TestByteSource("hamburger\n".getBytes(Charsets.US_ASCII));
 
@@ -180,6 +251,67 @@ public class ByteSourceTest extends IoTestCase {
     assertEquals("cfa0c5002275c90508338a5cdb2a9781", byteSource.hash(Hashing.md5()).toString());
   }
 
+  public void testHashParallel() throws IOException {
+    ByteSource byteSource = ByteSource.wrap(bytes);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int chunkSize : new int[] {1, 999, 1000, 9999, 10000, 20000}) {
+        HashCode expected = byteSource.hash(Hashing.treeHash(Hashing.murmur3_128(), chunkSize));
+        assertEquals(expected, byteSource.hashParallel(Hashing.murmur3_128(), chunkSize, executor));
+        // The size of a TestByteSource isn't known, so it's hashed on this thread.
+        assertEquals(expected, source.hashParallel(Hashing.murmur3_128(), chunkSize, executor));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void testHashParallel_readThrows() {
+    ByteSource failSource =
+        new ByteSource() {
+          @Override
+          public InputStream openStream() throws IOException {
+            throw new IOException();
+          }
+
+          @Override
+          public Optional<Long> sizeIfKnown() {
+            return Optional.of(10000L);
+          }
+        };
+    assertThrows(
+        IOException.class,
+        () -> failSource.hashParallel(Hashing.crc32c(), 1000, MoreExecutors.directExecutor()));
+  }
+
+  public void testChecksumParallel() throws IOException {
+    ByteSource byteSource = ByteSource.wrap(bytes);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (HashFunction checksumFunction :
+          ImmutableList.of(Hashing.crc32(), Hashing.crc32c(), Hashing.adler32())) {
+        HashCode expected = byteSource.hash(checksumFunction);
+        for (int chunkSize : new int[] {1, 999, 1000, 9999, 10000, 20000}) {
+          assertEquals(
+              expected, byteSource.checksumParallel(checksumFunction, chunkSize, executor));
+          assertEquals(expected, source.checksumParallel(checksumFunction, chunkSize, executor));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void testChecksumParallel_illegalArguments() {
+    Executor executor = MoreExecutors.directExecutor();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> source.checksumParallel(Hashing.murmur3_32_fixed(), 1000, executor));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> source.checksumParallel(Hashing.crc32c(), 0, executor));
+  }
+
   public void testContentEquals() throws IOException {
     assertTrue(source.contentEquals(source));
     assertTrue(source.wasStreamOpened() && source.wasStreamClosed());
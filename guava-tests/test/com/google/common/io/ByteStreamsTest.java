@@ -24,16 +24,22 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Unit test for {@link ByteStreams}.
@@ -74,6 +80,103 @@ public class ByteStreamsTest extends IoTestCase {
     }
   }
 
+  public void testCopyChannel_toFileChannel() throws IOException {
+    byte[] expected = newPreFilledByteArray(1_000_000);
+    File testFile = createTempFile();
+    try (FileChannel outChannel = new RandomAccessFile(testFile, "rw").getChannel()) {
+      outChannel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+      ReadableByteChannel inChannel = Channels.newChannel(new ByteArrayInputStream(expected));
+      assertEquals(expected.length, ByteStreams.copy(inChannel, outChannel));
+      assertEquals(3 + expected.length, outChannel.position());
+    }
+    byte[] actual = Files.toByteArray(testFile);
+    assertThat(Arrays.copyOfRange(actual, 0, 3)).isEqualTo(new byte[] {1, 2, 3});
+    assertThat(Arrays.copyOfRange(actual, 3, actual.length)).isEqualTo(expected);
+  }
+
+  public void testCopyFileStreams() throws IOException {
+    byte[] expected = newPreFilledByteArray(1_000_000);
+    File in = createTempFile();
+    File out = createTempFile();
+    Files.write(expected, in);
+    Files.write(new byte[] {1, 2, 3}, out);
+    try (FileInputStream inStream = new FileInputStream(in);
+        FileOutputStream outStream = new FileOutputStream(out, true)) {
+      assertEquals(10, ByteStreams.skipUpTo(inStream, 10));
+      assertEquals(expected.length - 10, ByteStreams.copy(inStream, outStream));
+      assertEquals(-1, inStream.read());
+      outStream.write(4);
+    }
+    byte[] actual = Files.toByteArray(out);
+    assertEquals(3 + expected.length - 10 + 1, actual.length);
+    assertThat(Arrays.copyOfRange(actual, 0, 3)).isEqualTo(new byte[] {1, 2, 3});
+    assertThat(Arrays.copyOfRange(actual, 3, actual.length - 1))
+        .isEqualTo(Arrays.copyOfRange(expected, 10, expected.length));
+    assertEquals(4, actual[actual.length - 1]);
+  }
+
+  public void testCopyFileStreams_fromFifo() throws Exception {
+    File fifo = createFifo();
+    if (fifo == null) {
+      return; // no named pipes on this platform
+    }
+    byte[] expected = newPreFilledByteArray(100_000);
+    FutureTask<Void> writer =
+        runInThread(
+            () -> {
+              try (FileOutputStream fifoOut = new FileOutputStream(fifo)) {
+                fifoOut.write(expected);
+              }
+              return null;
+            });
+    File out = createTempFile();
+    // A pipe has size 0, so transferTo would copy nothing from it.
+    try (FileInputStream inStream = new FileInputStream(fifo);
+        FileOutputStream outStream = new FileOutputStream(out)) {
+      assertEquals(expected.length, ByteStreams.copy(inStream, outStream));
+    }
+    writer.get();
+    assertThat(Files.toByteArray(out)).isEqualTo(expected);
+  }
+
+  public void testCopyChannel_toFifo() throws Exception {
+    File fifo = createFifo();
+    if (fifo == null) {
+      return; // no named pipes on this platform
+    }
+    byte[] expected = newPreFilledByteArray(100_000);
+    FutureTask<byte[]> reader =
+        runInThread(
+            () -> {
+              try (FileInputStream fifoIn = new FileInputStream(fifo)) {
+                return ByteStreams.toByteArray(fifoIn);
+              }
+            });
+    // The channel of a pipe can't be positioned, which transferFrom needs.
+    try (FileChannel outChannel = new FileOutputStream(fifo).getChannel()) {
+      ReadableByteChannel inChannel = Channels.newChannel(new ByteArrayInputStream(expected));
+      assertEquals(expected.length, ByteStreams.copy(inChannel, outChannel));
+    }
+    assertThat(reader.get()).isEqualTo(expected);
+  }
+
+  /** Creates a named pipe with {@code mkfifo}, or returns null if that isn't possible. */
+  private @Nullable File createFifo() throws IOException, InterruptedException {
+    File fifo = new File(getTempDir(), "fifo");
+    try {
+      Process process = new ProcessBuilder("mkfifo", fifo.getPath()).start();
+      return process.waitFor() == 0 ? fifo : null;
+    } catch (IOException e) {
+      return null; // no mkfifo
+    }
+  }
+
+  private static <T> FutureTask<T> runInThread(Callable<T> callable) {
+    FutureTask<T> task = new FutureTask<>(callable);
+    new Thread(task).start();
+    return task;
+  }
+
   public void testReadFully() throws IOException {
     byte[] b = new byte[10];
 
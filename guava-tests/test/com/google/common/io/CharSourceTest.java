@@ -22,19 +22,30 @@ import static com.google.common.io.TestOption.OPEN_THROWS;
 import static com.google.common.io.TestOption.READ_THROWS;
 import static com.google.common.io.TestOption.WRITE_THROWS;
 import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertThrows;
 
+import com.google.common.base.Optional;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import junit.framework.TestSuite;
 
@@ -107,6 +118,75 @@ public class CharSourceTest extends IoTestCase {
     assertEquals(SPLIT_LINES, lines);
   }
 
+  public void testLinesParallel() throws IOException {
+    source = new TestCharSource(LINES);
+    try (Stream<String> linesStream = source.linesParallel(10)) {
+      assertTrue(linesStream.isParallel());
+      assertEquals(SPLIT_LINES, linesStream.collect(toImmutableList()));
+    }
+    assertTrue(source.wasStreamClosed());
+  }
+
+  public void testLinesParallel_splitsByteSource() throws IOException {
+    Random random = new Random(0);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      text.append("line ").append(i).append(" é\u00ff".substring(0, random.nextInt(3)));
+      text.append(
+          random.nextInt(10) == 0 ? "" : "xxxxxxxxxxxxxxxxxxxx".substring(random.nextInt(20)));
+      text.append(ImmutableList.of("\n", "\r\n", "\r", "\n\n").get(random.nextInt(4)));
+    }
+    text.append("last line, with no terminator");
+    for (Charset charset : ImmutableList.of(UTF_8, US_ASCII, ISO_8859_1, UTF_16LE)) {
+      ByteSource bytes = ByteSource.wrap(text.toString().getBytes(charset));
+      CharSource chars = bytes.asCharSource(charset);
+      ImmutableList<String> expected;
+      try (Stream<String> lines = chars.lines()) {
+        expected = lines.collect(toImmutableList());
+      }
+      for (int chunkSize : new int[] {1, 2, 100, 1000, 1 << 20}) {
+        try (Stream<String> lines = chars.linesParallel(chunkSize)) {
+          assertEquals(charset + ", " + chunkSize, expected, lines.collect(toImmutableList()));
+        }
+        try (Stream<String> lines = chars.linesParallel(chunkSize)) {
+          assertThat(lines.unordered().collect(toImmutableList()))
+              .containsExactlyElementsIn(expected);
+        }
+      }
+    }
+  }
+
+  public void testLinesParallel_lazy() throws IOException {
+    byte[] bytes = Strings.repeat("a line\n", 1000).getBytes(UTF_8);
+    AtomicInteger opened = new AtomicInteger();
+    ByteSource counting =
+        new ByteSource() {
+          @Override
+          public InputStream openStream() {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream(bytes);
+          }
+
+          @Override
+          public Optional<Long> sizeIfKnown() {
+            return Optional.of((long) bytes.length);
+          }
+        };
+    try (Stream<String> lines = counting.asCharSource(UTF_8).linesParallel(100)) {
+      // The chunk boundaries are found in the terminal operation, not when the stream is created.
+      assertEquals(0, opened.get());
+      assertEquals(1000, lines.count());
+    }
+    assertThat(opened.get()).isGreaterThan(1);
+  }
+
+  public void testLinesParallel_illegalChunkSize() {
+    assertThrows(IllegalArgumentException.class, () -> source.linesParallel(0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> ByteSource.wrap(new byte[10]).asCharSource(UTF_8).linesParallel(0));
+  }
+
   public void testCopyTo_appendable() throws IOException {
     StringBuilder builder = new StringBuilder();
 
@@ -23,8 +23,10 @@ import static java.nio.file.attribute.PosixFilePermission.OWNER_READ;
 import static java.nio.file.attribute.PosixFilePermission.OWNER_WRITE;
 import static org.junit.Assert.assertThrows;
 
+import com.google.common.io.FileBackedOutputStream.ChunkPool;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.PosixFileAttributes;
@@ -54,8 +56,17 @@ public class FileBackedOutputStreamTest extends IoTestCase {
   private void testThreshold(
       int fileThreshold, int dataSize, boolean singleByte, boolean resetOnFinalize)
       throws IOException {
+    testThreshold(
+        new FileBackedOutputStream(fileThreshold, resetOnFinalize),
+        fileThreshold,
+        dataSize,
+        singleByte);
+  }
+
+  private void testThreshold(
+      FileBackedOutputStream out, int fileThreshold, int dataSize, boolean singleByte)
+      throws IOException {
     byte[] data = newPreFilledByteArray(dataSize);
-    FileBackedOutputStream out = new FileBackedOutputStream(fileThreshold, resetOnFinalize);
     ByteSource source = out.asByteSource();
     int chunk1 = Math.min(dataSize, fileThreshold);
     int chunk2 = dataSize - chunk1;
@@ -110,6 +121,174 @@ public class FileBackedOutputStreamTest extends IoTestCase {
     testThreshold(1000, 100, false, true);
   }
 
+  public void testThreshold_directBuffers() throws Exception {
+    for (int fileThreshold : new int[] {0, 10, 100, 1000}) {
+      for (boolean singleByte : new boolean[] {true, false}) {
+        FileBackedOutputStream out =
+            FileBackedOutputStream.builder(fileThreshold).useDirectBuffers(7).build();
+        testThreshold(out, fileThreshold, 100, singleByte);
+      }
+    }
+  }
+
+  public void testThreshold_mapFileForReading() throws Exception {
+    for (int fileThreshold : new int[] {0, 10, 100, 1000}) {
+      for (boolean singleByte : new boolean[] {true, false}) {
+        FileBackedOutputStream out =
+            FileBackedOutputStream.builder(fileThreshold)
+                .resetOnFinalize(true)
+                .useDirectBuffers(16)
+                .mapFileForReading()
+                .build();
+        testThreshold(out, fileThreshold, 100, singleByte);
+      }
+    }
+  }
+
+  public void testDirectBuffers_reset() throws Exception {
+    byte[] data = newPreFilledByteArray(100);
+    FileBackedOutputStream out = FileBackedOutputStream.builder(60).useDirectBuffers(8).build();
+    ByteSource source = out.asByteSource();
+
+    out.write(data, 0, 50);
+    assertTrue(Arrays.equals(Arrays.copyOf(data, 50), source.read()));
+    assertTrue(ByteSource.wrap(data).slice(13, 20).contentEquals(source.slice(13, 20)));
+
+    // The stream keeps working after reset, whether or not it switched to a file.
+    for (int i = 0; i < 3; i++) {
+      out.reset();
+      assertTrue(source.isEmpty());
+      if (JAVA_IO_TMPDIR.value().equals("/sdcard")) {
+        out.write(data, 0, 50);
+        assertTrue(Arrays.equals(Arrays.copyOf(data, 50), source.read()));
+        continue;
+      }
+      out.write(data);
+      assertNotNull(out.getFile());
+      assertTrue(Arrays.equals(data, source.read()));
+    }
+    out.reset();
+  }
+
+  public void testDirectBuffers_chunksReused() throws Exception {
+    byte[] data = newPreFilledByteArray(100);
+    ChunkPool pool = new ChunkPool(1000);
+    FileBackedOutputStream out =
+        FileBackedOutputStream.builder(1000).useDirectBuffers(8).chunkPool(pool).build();
+
+    out.write(data, 0, 20);
+    assertEquals(0, pool.pooledBytes());
+    out.reset();
+    assertEquals(24, pool.pooledBytes());
+    out.write(data, 0, 20);
+    assertEquals(0, pool.pooledBytes());
+    // A closed reader doesn't release the chunks the stream is still writing to.
+    assertTrue(Arrays.equals(Arrays.copyOf(data, 20), out.asByteSource().read()));
+    assertEquals(0, pool.pooledBytes());
+    out.reset();
+    assertEquals(24, pool.pooledBytes());
+
+    // Streams share the pool.
+    FileBackedOutputStream other =
+        FileBackedOutputStream.builder(1000).useDirectBuffers(8).chunkPool(pool).build();
+    other.write(data, 0, 12);
+    assertEquals(8, pool.pooledBytes());
+    other.reset();
+    assertEquals(24, pool.pooledBytes());
+  }
+
+  public void testDirectBuffers_chunksReleasedByLastReader() throws Exception {
+    byte[] data = newPreFilledByteArray(100);
+    ChunkPool pool = new ChunkPool(1000);
+    FileBackedOutputStream out =
+        FileBackedOutputStream.builder(1000).useDirectBuffers(8).chunkPool(pool).build();
+    out.write(data, 0, 20);
+    InputStream in1 = out.asByteSource().openStream();
+    InputStream in2 = out.asByteSource().openStream();
+    out.reset();
+    assertEquals(0, pool.pooledBytes());
+    in1.close();
+    assertEquals(0, pool.pooledBytes());
+    assertThrows(IOException.class, () -> in1.read());
+    assertTrue(Arrays.equals(Arrays.copyOf(data, 20), ByteStreams.toByteArray(in2)));
+    in2.close();
+    assertEquals(24, pool.pooledBytes());
+    in2.close();
+    assertEquals(24, pool.pooledBytes());
+  }
+
+  public void testDirectBuffers_chunksReleasedOnSwitchToFile() throws Exception {
+    if (JAVA_IO_TMPDIR.value().equals("/sdcard")) {
+      return;
+    }
+    byte[] data = newPreFilledByteArray(100);
+    ChunkPool pool = new ChunkPool(1000);
+    FileBackedOutputStream out =
+        FileBackedOutputStream.builder(50).useDirectBuffers(8).chunkPool(pool).build();
+    out.write(data, 0, 40);
+    out.write(data, 40, 60);
+    assertNotNull(out.getFile());
+    assertEquals(40, pool.pooledBytes());
+    assertTrue(Arrays.equals(data, out.asByteSource().read()));
+    out.reset();
+    assertEquals(40, pool.pooledBytes());
+  }
+
+  public void testDirectBuffers_poolIsBounded() throws Exception {
+    ChunkPool pool = new ChunkPool(16);
+    FileBackedOutputStream out =
+        FileBackedOutputStream.builder(1000).useDirectBuffers(8).chunkPool(pool).build();
+    out.write(newPreFilledByteArray(20));
+    out.reset();
+    assertEquals(16, pool.pooledBytes());
+  }
+
+  public void testReaderOpenAcrossReset() throws Exception {
+    byte[] data = newPreFilledByteArray(100);
+    byte[] other = newPreFilledByteArray(7, 100);
+    for (FileBackedOutputStream out :
+        new FileBackedOutputStream[] {
+          new FileBackedOutputStream(1000),
+          FileBackedOutputStream.builder(1000).useDirectBuffers(8).build()
+        }) {
+      out.write(data);
+      InputStream in = out.asByteSource().openStream();
+      assertEquals(0, in.read());
+      out.reset();
+      out.write(other);
+      // The reader still sees the data that was written when it was opened.
+      assertTrue(Arrays.equals(Arrays.copyOfRange(data, 1, 100), ByteStreams.toByteArray(in)));
+      assertTrue(Arrays.equals(other, out.asByteSource().read()));
+      out.reset();
+    }
+  }
+
+  public void testReaderOpenAcrossSwitchToFile() throws Exception {
+    if (JAVA_IO_TMPDIR.value().equals("/sdcard")) {
+      return;
+    }
+    byte[] data = newPreFilledByteArray(100);
+    byte[] other = newPreFilledByteArray(7, 40);
+    FileBackedOutputStream out = FileBackedOutputStream.builder(50).useDirectBuffers(8).build();
+    out.write(data, 0, 40);
+    InputStream in = out.asByteSource().openStream();
+    out.write(data, 40, 60);
+    assertNotNull(out.getFile());
+    out.reset();
+    out.write(other);
+    // The chunks the reader holds were not reused for the new data.
+    assertTrue(Arrays.equals(Arrays.copyOf(data, 40), ByteStreams.toByteArray(in)));
+    assertTrue(Arrays.equals(other, out.asByteSource().read()));
+    out.reset();
+  }
+
+  public void testBuilder_invalid() {
+    assertThrows(IllegalArgumentException.class, () -> FileBackedOutputStream.builder(-1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FileBackedOutputStream.builder(0).useDirectBuffers(0));
+  }
+
   static void write(OutputStream out, byte[] b, int off, int len, boolean singleByte)
       throws IOException {
     if (singleByte) {
@@ -349,6 +349,71 @@ public class ImmutableIntArrayTest extends TestCase {
     assertThat(ImmutableIntArray.of(0, 1, 3).stream().toArray()).isEqualTo(new int[] {0, 1, 3});
   }
 
+  public void testSum() {
+    assertThat(ImmutableIntArray.of().sum()).isEqualTo(0);
+    assertThat(ImmutableIntArray.of(1, 2, 3, 4).sum()).isEqualTo(10);
+    assertThat(ImmutableIntArray.of(1, 2, 3, 4).subArray(1, 3).sum()).isEqualTo(5);
+    assertThat(ImmutableIntArray.of(Integer.MAX_VALUE, Integer.MAX_VALUE).sum())
+        .isEqualTo(2L * Integer.MAX_VALUE);
+  }
+
+  public void testMinAndMax() {
+    ImmutableIntArray iia = ImmutableIntArray.of(3, -1, 4, 1, 5, -9, 2);
+    assertThat(iia.min()).isEqualTo(-9);
+    assertThat(iia.max()).isEqualTo(5);
+    assertThat(iia.subArray(0, 3).min()).isEqualTo(-1);
+    assertThat(iia.subArray(0, 3).max()).isEqualTo(4);
+    assertThat(ImmutableIntArray.of(7).min()).isEqualTo(7);
+  }
+
+  public void testMinAndMax_empty() {
+    try {
+      ImmutableIntArray.of().min();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      ImmutableIntArray.of(0, 1).subArray(1, 1).max();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testSorted() {
+    assertThat(ImmutableIntArray.of().sorted()).isEqualTo(ImmutableIntArray.of());
+    ImmutableIntArray iia = ImmutableIntArray.of(3, -1, 4, 1, 5, -9, 2);
+    assertThat(iia.sorted()).isEqualTo(ImmutableIntArray.of(-9, -1, 1, 2, 3, 4, 5));
+    assertThat(iia.subArray(2, 5).sorted()).isEqualTo(ImmutableIntArray.of(1, 4, 5));
+    assertThat(iia).isEqualTo(ImmutableIntArray.of(3, -1, 4, 1, 5, -9, 2));
+  }
+
+  public void testBinarySearch() {
+    ImmutableIntArray iia = ImmutableIntArray.of(-9, -1, 1, 2, 3, 4, 5);
+    assertThat(iia.binarySearch(-9)).isEqualTo(0);
+    assertThat(iia.binarySearch(3)).isEqualTo(4);
+    assertThat(iia.binarySearch(0)).isEqualTo(-3);
+    assertThat(iia.binarySearch(6)).isEqualTo(-8);
+    ImmutableIntArray sub = iia.subArray(2, 5);
+    assertThat(sub.binarySearch(2)).isEqualTo(1);
+    assertThat(sub.binarySearch(-9)).isEqualTo(-1);
+    assertThat(sub.binarySearch(0)).isEqualTo(-1);
+    assertThat(sub.binarySearch(5)).isEqualTo(-4);
+    assertThat(ImmutableIntArray.of().binarySearch(1)).isEqualTo(-1);
+  }
+
+  public void testMap() {
+    assertThat(ImmutableIntArray.of().map(i -> i + 1)).isEqualTo(ImmutableIntArray.of());
+    assertThat(ImmutableIntArray.of(0, 1, 2, 3).subArray(1, 3).map(i -> i * 10))
+        .isEqualTo(ImmutableIntArray.of(10, 20));
+  }
+
+  public void testReduce() {
+    assertThat(ImmutableIntArray.of().reduce(7, (a, b) -> a + b)).isEqualTo(7);
+    assertThat(ImmutableIntArray.of(1, 2, 3, 4).reduce(0, (a, b) -> a * 10 + b)).isEqualTo(1234);
+    assertThat(ImmutableIntArray.of(1, 2, 3, 4).subArray(1, 3).reduce(1, (a, b) -> a * b))
+        .isEqualTo(6);
+  }
+
   public void testSubArray() {
     ImmutableIntArray iia0 = ImmutableIntArray.of();
     ImmutableIntArray iia1 = ImmutableIntArray.of(5);
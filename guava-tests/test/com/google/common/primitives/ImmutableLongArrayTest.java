@@ -352,6 +352,69 @@ public class ImmutableLongArrayTest extends TestCase {
     assertThat(ImmutableLongArray.of(0, 1, 3).stream().toArray()).isEqualTo(new long[] {0, 1, 3});
   }
 
+  public void testSum() {
+    assertThat(ImmutableLongArray.of().sum()).isEqualTo(0L);
+    assertThat(ImmutableLongArray.of(1, 2, 3, 4).sum()).isEqualTo(10L);
+    assertThat(ImmutableLongArray.of(1, 2, 3, 4).subArray(1, 3).sum()).isEqualTo(5L);
+  }
+
+  public void testMinAndMax() {
+    ImmutableLongArray iia = ImmutableLongArray.of(3, -1, 4, 1, 5, -9, 2);
+    assertThat(iia.min()).isEqualTo(-9L);
+    assertThat(iia.max()).isEqualTo(5L);
+    assertThat(iia.subArray(0, 3).min()).isEqualTo(-1L);
+    assertThat(iia.subArray(0, 3).max()).isEqualTo(4L);
+    assertThat(ImmutableLongArray.of(7).min()).isEqualTo(7L);
+  }
+
+  public void testMinAndMax_empty() {
+    try {
+      ImmutableLongArray.of().min();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+    try {
+      ImmutableLongArray.of(0, 1).subArray(1, 1).max();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  public void testSorted() {
+    assertThat(ImmutableLongArray.of().sorted()).isEqualTo(ImmutableLongArray.of());
+    ImmutableLongArray iia = ImmutableLongArray.of(3, -1, 4, 1, 5, -9, 2);
+    assertThat(iia.sorted()).isEqualTo(ImmutableLongArray.of(-9, -1, 1, 2, 3, 4, 5));
+    assertThat(iia.subArray(2, 5).sorted()).isEqualTo(ImmutableLongArray.of(1, 4, 5));
+    assertThat(iia).isEqualTo(ImmutableLongArray.of(3, -1, 4, 1, 5, -9, 2));
+  }
+
+  public void testBinarySearch() {
+    ImmutableLongArray iia = ImmutableLongArray.of(-9, -1, 1, 2, 3, 4, 5);
+    assertThat(iia.binarySearch(-9)).isEqualTo(0);
+    assertThat(iia.binarySearch(3)).isEqualTo(4);
+    assertThat(iia.binarySearch(0)).isEqualTo(-3);
+    assertThat(iia.binarySearch(6)).isEqualTo(-8);
+    ImmutableLongArray sub = iia.subArray(2, 5);
+    assertThat(sub.binarySearch(2)).isEqualTo(1);
+    assertThat(sub.binarySearch(-9)).isEqualTo(-1);
+    assertThat(sub.binarySearch(0)).isEqualTo(-1);
+    assertThat(sub.binarySearch(5)).isEqualTo(-4);
+    assertThat(ImmutableLongArray.of().binarySearch(1)).isEqualTo(-1);
+  }
+
+  public void testMap() {
+    assertThat(ImmutableLongArray.of().map(i -> i + 1)).isEqualTo(ImmutableLongArray.of());
+    assertThat(ImmutableLongArray.of(0, 1, 2, 3).subArray(1, 3).map(i -> i * 10))
+        .isEqualTo(ImmutableLongArray.of(10, 20));
+  }
+
+  public void testReduce() {
+    assertThat(ImmutableLongArray.of().reduce(7, (a, b) -> a + b)).isEqualTo(7L);
+    assertThat(ImmutableLongArray.of(1, 2, 3, 4).reduce(0, (a, b) -> a * 10 + b)).isEqualTo(1234L);
+    assertThat(ImmutableLongArray.of(1, 2, 3, 4).subArray(1, 3).reduce(1, (a, b) -> a * b))
+        .isEqualTo(6L);
+  }
+
   public void testSubArray() {
     ImmutableLongArray iia0 = ImmutableLongArray.of();
     ImmutableLongArray iia1 = ImmutableLongArray.of(5);
@@ -165,6 +165,19 @@ abstract class AbstractMapBasedMultimap<K extends @Nullable Object, V extends @N
     return createCollection();
   }
 
+  /**
+   * Creates the collection of values for a key that is about to receive {@code expectedSize} values
+   * in a single bulk operation. By default, it ignores the size hint and calls {@link
+   * #createCollection(Object)}; subclasses whose collections can be presized should override it.
+   *
+   * @param key key to associate with values in the collection
+   * @param expectedSize the number of values that will be added to the collection
+   * @return an empty collection of values
+   */
+  Collection<V> createCollection(@ParametricNullness K key, int expectedSize) {
+    return createCollection(key);
+  }
+
   Map<K, Collection<V>> backingMap() {
     return map;
   }
@@ -214,6 +227,84 @@ abstract class AbstractMapBasedMultimap<K extends @Nullable Object, V extends @N
 
   // Bulk Operations
 
+  /**
+   * Adds all entries of {@code multimap} one key at a time: each key is looked up once, a missing
+   * collection is created at its final size, and the values are added with a single {@code addAll}.
+   *
+   * <p>This changes the order in which entries with different keys are inserted, so it is only
+   * appropriate for subclasses whose iteration order is not the global insertion order.
+   */
+  final boolean putAllGroupedByKey(Multimap<? extends K, ? extends V> multimap) {
+    boolean changed = false;
+    for (Entry<? extends K, ? extends Collection<? extends V>> entry :
+        multimap.asMap().entrySet()) {
+      K key = entry.getKey();
+      Collection<? extends V> values = entry.getValue();
+      Collection<V> collection = map.get(key);
+      if (collection == null) {
+        collection = createCollection(key, values.size());
+        if (collection.addAll(values)) {
+          totalSize += collection.size();
+          map.put(key, collection);
+          changed = true;
+        }
+      } else {
+        int oldSize = collection.size();
+        if (collection.addAll(values)) {
+          totalSize += collection.size() - oldSize;
+          changed = true;
+        }
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Returns the number of entries for each distinct key in {@code entries}. Callers use the result
+   * to size a new multimap's backing map and then pass it to {@link #putAllPresized}.
+   */
+  static <K extends @Nullable Object> Map<K, Count> countValuesPerKey(
+      Collection<? extends Entry<? extends K, ?>> entries) {
+    Map<K, Count> counts = Maps.newHashMap();
+    for (Entry<? extends K, ?> entry : entries) {
+      K key = entry.getKey();
+      Count count = counts.get(key);
+      if (count == null) {
+        counts.put(key, new Count(1));
+      } else {
+        count.add(1);
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Adds all of the given entries, creating the collection for each new key at the size recorded in
+   * {@code counts} (as computed by {@link #countValuesPerKey}) instead of growing it one value at a
+   * time.
+   *
+   * <p>Like {@link #putAllGroupedByKey}, this is only appropriate for subclasses whose iteration
+   * order is not the global insertion order.
+   */
+  final boolean putAllPresized(
+      Collection<? extends Entry<? extends K, ? extends V>> entries, Map<K, Count> counts) {
+    boolean changed = false;
+    for (Entry<? extends K, ? extends V> entry : entries) {
+      K key = entry.getKey();
+      Collection<V> collection = map.get(key);
+      if (collection == null) {
+        Count count = counts.get(key);
+        collection = createCollection(key, (count == null) ? 1 : count.get());
+        map.put(key, collection);
+      }
+      if (collection.add(entry.getValue())) {
+        totalSize++;
+        changed = true;
+      }
+    }
+    return changed;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -22,6 +22,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.primitives.Ints;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.InlineMe;
 import java.util.Arrays;
@@ -31,6 +32,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.SortedSet;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -78,6 +80,13 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  *   <li>Streams are standard Java, not requiring a third-party dependency.
  * </ul>
  *
+ * <p>The views returned by {@link #filter}, {@link #transform}, {@link #skip} and {@link #limit}
+ * implement {@link Iterable#forEach} by pushing each element of the source through all of their
+ * stages in a single loop, instead of pulling it through one wrapping iterator per stage. A {@link
+ * #limit} stops that loop as soon as it has seen enough elements. The terminal operations {@link
+ * #size}, {@link #toList} and {@link #copyInto} take advantage of this when the source is not
+ * already a {@link Collection}.
+ *
  * <h3>Example</h3>
  *
  * <p>Here is an example that accepts a list from a database call, filters it based on a predicate,
@@ -146,6 +155,16 @@ public abstract class FluentIterable<E extends @Nullable Object> implements Iter
           public Iterator<E> iterator() {
             return iterable.iterator();
           }
+
+          @Override
+          public void forEach(Consumer<? super E> action) {
+            iterable.forEach(action);
+          }
+
+          @Override
+          void forEachWhile(Predicate<? super E> action) {
+            Iterables.forEachWhile(iterable, action);
+          }
         };
   }
 
@@ -339,13 +358,32 @@ public abstract class FluentIterable<E extends @Nullable Object> implements Iter
     return Iterables.toString(getDelegate());
   }
 
+  /**
+   * Calls {@code action} on each element in turn, until it returns {@code false} or there are no
+   * more elements. Views that can push their elements through a loop of their own override this;
+   * see {@link Iterables#forEachWhile}.
+   */
+  void forEachWhile(Predicate<? super E> action) {
+    for (E e : this) {
+      if (!action.apply(e)) {
+        return;
+      }
+    }
+  }
+
   /**
    * Returns the number of elements in this fluent iterable.
    *
    * <p><b>{@code Stream} equivalent:</b> {@link Stream#count}.
    */
   public final int size() {
-    return Iterables.size(getDelegate());
+    Iterable<E> iterable = getDelegate();
+    if (iterable instanceof Collection) {
+      return ((Collection<?>) iterable).size();
+    }
+    long[] count = {0};
+    iterable.forEach(e -> count[0]++);
+    return Ints.saturatedCast(count[0]);
   }
 
   /**
@@ -619,7 +657,13 @@ public abstract class FluentIterable<E extends @Nullable Object> implements Iter
    */
   @SuppressWarnings("nullness") // Unsafe, but we can't do much about it now.
   public final ImmutableList<@NonNull E> toList() {
-    return ImmutableList.copyOf((Iterable<@NonNull E>) getDelegate());
+    Iterable<@NonNull E> iterable = (Iterable<@NonNull E>) getDelegate();
+    if (iterable instanceof Collection) {
+      return ImmutableList.copyOf((Collection<@NonNull E>) iterable);
+    }
+    ImmutableList.Builder<@NonNull E> builder = ImmutableList.builder();
+    iterable.forEach(builder::add);
+    return builder.build();
   }
 
   /**
@@ -800,9 +844,7 @@ public abstract class FluentIterable<E extends @Nullable Object> implements Iter
     if (iterable instanceof Collection) {
       collection.addAll((Collection<E>) iterable);
     } else {
-      for (E item : iterable) {
-        collection.add(item);
-      }
+      iterable.forEach(collection::add);
     }
     return collection;
   }
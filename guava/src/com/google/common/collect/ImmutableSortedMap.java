@@ -450,6 +450,62 @@ public final class ImmutableSortedMap<K, V> extends ImmutableMap<K, V>
     return fromEntries(comparator, true, map.entrySet());
   }
 
+  /**
+   * Returns an immutable map containing the same entries as {@code map}, sorted by key, that stores
+   * its keys unboxed in a {@code long[]}.
+   *
+   * <p>Compared to {@link #copyOf(Map)}, this saves the {@code Long} object behind each key, and
+   * {@link #get}, {@link #floorKey} and the other navigation methods, as well as {@link #headMap}
+   * and {@link #tailMap}, binary-search the primitive array without comparing boxed keys. In
+   * exchange, each key read from the map, such as while iterating over its {@link #keySet}, is
+   * boxed on demand. The returned map supports the full {@link NavigableMap} API. Its serialized
+   * form is the same as that of any other {@code ImmutableSortedMap}, so deserialized copies store
+   * boxed keys.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   * @since NEXT
+   */
+  @GwtIncompatible // SortedPrimitiveImmutableList
+  public static <V> ImmutableSortedMap<Long, V> copyOfLongKeys(Map<Long, ? extends V> map) {
+    ImmutableSortedMap<Long, V> sorted = copyOf(map, Ordering.<Long>natural());
+    if (sorted.isEmpty()) {
+      return sorted;
+    }
+    long[] keys = new long[sorted.size()];
+    int i = 0;
+    for (long key : sorted.keySet) {
+      keys[i++] = key;
+    }
+    return new ImmutableSortedMap<>(
+        new RegularImmutableSortedSet<>(
+            new SortedPrimitiveImmutableList.OfLong(keys), Ordering.<Long>natural()),
+        sorted.valueList);
+  }
+
+  /**
+   * Returns an immutable map containing the same entries as {@code map}, sorted by key, that stores
+   * its keys unboxed in an {@code int[]}. See {@link #copyOfLongKeys} for the trade-offs involved.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   * @since NEXT
+   */
+  @GwtIncompatible // SortedPrimitiveImmutableList
+  public static <V> ImmutableSortedMap<Integer, V> copyOfIntKeys(Map<Integer, ? extends V> map) {
+    ImmutableSortedMap<Integer, V> sorted = copyOf(map, Ordering.<Integer>natural());
+    if (sorted.isEmpty()) {
+      return sorted;
+    }
+    int[] keys = new int[sorted.size()];
+    int i = 0;
+    for (int key : sorted.keySet) {
+      keys[i++] = key;
+    }
+    return new ImmutableSortedMap<>(
+        new RegularImmutableSortedSet<>(
+            new SortedPrimitiveImmutableList.OfInt(keys), Ordering.<Integer>natural()),
+        sorted.valueList);
+  }
+
   private static <K, V> ImmutableSortedMap<K, V> copyOfInternal(
       Map<? extends K, ? extends V> map, Comparator<? super K> comparator) {
     boolean sameComparator = false;
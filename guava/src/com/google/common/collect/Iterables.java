@@ -591,6 +591,11 @@ public final class Iterables {
             });
       }
 
+      @Override
+      void forEachWhile(Predicate<? super T> action) {
+        Iterables.forEachWhile(unfiltered, t -> !retainIfTrue.apply(t) || action.apply(t));
+      }
+
       @Override
       public Spliterator<T> spliterator() {
         return CollectSpliterators.filter(unfiltered.spliterator(), retainIfTrue);
@@ -748,6 +753,11 @@ public final class Iterables {
         fromIterable.forEach((F f) -> action.accept(function.apply(f)));
       }
 
+      @Override
+      void forEachWhile(Predicate<? super T> action) {
+        Iterables.forEachWhile(fromIterable, (F f) -> action.apply(function.apply(f)));
+      }
+
       @Override
       public Spliterator<T> spliterator() {
         return CollectSpliterators.map(fromIterable.spliterator(), function);
@@ -946,6 +956,46 @@ public final class Iterables {
         };
       }
 
+      @Override
+      public void forEach(Consumer<? super T> action) {
+        checkNotNull(action);
+        if (iterable instanceof List) {
+          final List<T> list = (List<T>) iterable;
+          int toSkip = Math.min(list.size(), numberToSkip);
+          list.subList(toSkip, list.size()).forEach(action);
+        } else {
+          int[] toSkip = {numberToSkip};
+          iterable.forEach(
+              t -> {
+                if (toSkip[0] > 0) {
+                  toSkip[0]--;
+                } else {
+                  action.accept(t);
+                }
+              });
+        }
+      }
+
+      @Override
+      void forEachWhile(Predicate<? super T> action) {
+        if (iterable instanceof List) {
+          final List<T> list = (List<T>) iterable;
+          int toSkip = Math.min(list.size(), numberToSkip);
+          Iterables.forEachWhile(list.subList(toSkip, list.size()), action);
+        } else {
+          int[] toSkip = {numberToSkip};
+          Iterables.forEachWhile(
+              iterable,
+              t -> {
+                if (toSkip[0] > 0) {
+                  toSkip[0]--;
+                  return true;
+                }
+                return action.apply(t);
+              });
+        }
+      }
+
       @Override
       public Spliterator<T> spliterator() {
         if (iterable instanceof List) {
@@ -959,6 +1009,32 @@ public final class Iterables {
     };
   }
 
+  /**
+   * Calls {@code action} on each element of {@code iterable} in turn, until it returns {@code
+   * false} or there are no more elements. The views returned by {@link FluentIterable}, {@link
+   * #filter}, {@link #transform}, {@link #skip} and {@link #limit} push their elements through a
+   * single loop over their source, as their {@code forEach} does, so that {@code limit} can stop a
+   * chain of them early without pulling each element through one wrapping iterator per stage.
+   */
+  static <T extends @Nullable Object> void forEachWhile(
+      Iterable<T> iterable, Predicate<? super T> action) {
+    if (iterable instanceof FluentIterable) {
+      ((FluentIterable<T>) iterable).forEachWhile(action);
+    } else if (iterable instanceof Collection) {
+      // A collection's spliterator reads straight from its source. Other iterables may return a
+      // stream pipeline's spliterator, whose tryAdvance buffers elements and is slow.
+      Spliterator<T> spliterator = iterable.spliterator();
+      boolean[] proceed = {true};
+      while (proceed[0] && spliterator.tryAdvance(t -> proceed[0] = action.apply(t))) {}
+    } else {
+      for (T t : iterable) {
+        if (!action.apply(t)) {
+          return;
+        }
+      }
+    }
+  }
+
   /**
    * Returns a view of {@code iterable} containing its first {@code limitSize} elements. If {@code
    * iterable} contains fewer than {@code limitSize} elements, the returned view contains all of its
@@ -982,6 +1058,28 @@ public final class Iterables {
         return Iterators.limit(iterable.iterator(), limitSize);
       }
 
+      @Override
+      public void forEach(Consumer<? super T> action) {
+        checkNotNull(action);
+        if (limitSize > 0) {
+          int[] remaining = {limitSize};
+          Iterables.forEachWhile(
+              iterable,
+              t -> {
+                action.accept(t);
+                return --remaining[0] > 0;
+              });
+        }
+      }
+
+      @Override
+      void forEachWhile(Predicate<? super T> action) {
+        if (limitSize > 0) {
+          int[] remaining = {limitSize};
+          Iterables.forEachWhile(iterable, t -> action.apply(t) && --remaining[0] > 0);
+        }
+      }
+
       @Override
       public Spliterator<T> spliterator() {
         return Streams.stream(iterable).limit(limitSize).spliterator();
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.collect;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.J2ktIncompatible;
+import java.util.function.Consumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An {@link ImmutableList} stored in fixed-size segments rather than in one contiguous array, as
+ * produced by {@link ImmutableList.SegmentedBuilder}. Every segment but the last holds exactly
+ * {@link #SEGMENT_SIZE} elements, so {@link #get} finds an element with a shift and a mask.
+ */
+@GwtIncompatible
+@SuppressWarnings("serial") // uses writeReplace(), not default serialization
+@ElementTypesAreNonnullByDefault
+final class SegmentedImmutableList<E> extends ImmutableList<E> {
+  /*
+   * 2^15 references is at most 256KB per segment, which keeps each segment below G1's
+   * humongous-object threshold even with uncompressed oops and the smallest region size.
+   */
+  static final int SEGMENT_SHIFT = 15;
+  static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+  private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private final transient Object[][] segments;
+  private final transient int size;
+
+  /**
+   * Creates a list over {@code segments}, none of which may be modified later. The first {@code
+   * size} slots across the segments must be non-null.
+   */
+  SegmentedImmutableList(Object[][] segments, int size) {
+    this.segments = segments;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // we put only E instances into the segments
+  public E get(int index) {
+    checkElementIndex(index, size);
+    return (E) segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+  }
+
+  @Override
+  int copyIntoArray(@Nullable Object[] dst, int offset) {
+    int remaining = size;
+    for (Object[] segment : segments) {
+      int n = Math.min(segment.length, remaining);
+      System.arraycopy(segment, 0, dst, offset, n);
+      offset += n;
+      remaining -= n;
+    }
+    return offset;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // we put only E instances into the segments
+  public void forEach(Consumer<? super E> consumer) {
+    checkNotNull(consumer);
+    int remaining = size;
+    for (Object[] segment : segments) {
+      int n = Math.min(segment.length, remaining);
+      for (int i = 0; i < n; i++) {
+        consumer.accept((E) segment[i]);
+      }
+      remaining -= n;
+    }
+  }
+
+  @Override
+  boolean isPartialView() {
+    return false;
+  }
+
+  // redeclare to help optimizers with b/310253115
+  @SuppressWarnings("RedundantOverride")
+  @Override
+  @J2ktIncompatible // serialization
+  Object writeReplace() {
+    return super.writeReplace();
+  }
+}
@@ -119,12 +119,14 @@ abstract class AbstractStreamingHasher extends AbstractHasher {
 
     // First add just enough to fill buffer size, and munch that
     int bytesToCopy = bufferSize - buffer.position();
-    for (int i = 0; i < bytesToCopy; i++) {
-      buffer.put(readBuffer.get());
-    }
+    int limit = readBuffer.limit();
+    Java8Compatibility.limit(readBuffer, readBuffer.position() + bytesToCopy);
+    buffer.put(readBuffer);
+    Java8Compatibility.limit(readBuffer, limit);
     munch(); // buffer becomes empty here, since chunkSize divides bufferSize
 
-    // Now process directly from the rest of the input buffer
+    // Now process directly from the rest of the input buffer, which for a direct or mapped buffer
+    // means reading it in place without copying it to the heap
     while (readBuffer.remaining() >= chunkSize) {
       process(readBuffer);
     }
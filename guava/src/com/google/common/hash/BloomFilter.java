@@ -21,21 +21,29 @@ import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
+import com.google.common.hash.BloomFilterStrategies.BitArray;
 import com.google.common.hash.BloomFilterStrategies.LockFreeBitArray;
+import com.google.common.hash.BloomFilterStrategies.MappedBitArray;
 import com.google.common.math.DoubleMath;
 import com.google.common.math.LongMath;
+import com.google.common.primitives.Longs;
 import com.google.common.primitives.SignedBytes;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.math.RoundingMode;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.stream.Collector;
 import javax.annotation.CheckForNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -60,7 +68,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * generated today may <i>not</i> be readable by a binary that was compiled 6 months ago).
  *
  * <p>As of Guava 23.0, this class is thread-safe and lock-free. It internally uses atomics and
- * compare-and-swap to ensure correctness when multiple threads are used to access it.
+ * compare-and-swap to ensure correctness when multiple threads are used to access it. (Filters
+ * opened with {@link #map} lock when they change bits, as explained there.)
  *
  * @param <T> the type of instances that the {@code BloomFilter} accepts
  * @author Dimitris Andreou
@@ -86,7 +95,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits);
+        BitArray bits);
 
     /**
      * Queries {@code numHashFunctions} bits of the given bit array, by hashing a user element;
@@ -96,7 +105,19 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits);
+        BitArray bits);
+
+    /**
+     * Stores the {@code numHashFunctions} bit indexes that {@link #put} would set for a user
+     * element in {@code indexes}, starting at {@code offset}.
+     */
+    <T extends @Nullable Object> void bitIndexes(
+        @ParametricNullness T object,
+        Funnel<? super T> funnel,
+        int numHashFunctions,
+        long bitSize,
+        long[] indexes,
+        int offset);
 
     /**
      * Identifier used to encode this strategy, when marshalled as part of a BloomFilter. Only
@@ -108,8 +129,11 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     int ordinal();
   }
 
+  /** The number of elements hashed at a time by the batch operations. */
+  private static final int BATCH_SIZE = Long.SIZE;
+
   /** The bit set of the BloomFilter (not necessarily power of 2!) */
-  private final LockFreeBitArray bits;
+  private final BitArray bits;
 
   /** Number of hashes per element */
   private final int numHashFunctions;
@@ -122,7 +146,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
 
   /** Creates a BloomFilter. */
   private BloomFilter(
-      LockFreeBitArray bits, int numHashFunctions, Funnel<? super T> funnel, Strategy strategy) {
+      BitArray bits, int numHashFunctions, Funnel<? super T> funnel, Strategy strategy) {
     checkArgument(numHashFunctions > 0, "numHashFunctions (%s) must be > 0", numHashFunctions);
     checkArgument(
         numHashFunctions <= 255, "numHashFunctions (%s) must be <= 255", numHashFunctions);
@@ -176,6 +200,81 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     return strategy.put(object, funnel, numHashFunctions, bits);
   }
 
+  /**
+   * Puts each of the given elements into this {@code BloomFilter}, as if by calling {@link #put} on
+   * each one. This is faster than individual calls for many elements, because the elements are
+   * hashed in batches before any bits are set.
+   *
+   * @return true if the Bloom filter's bits changed as a result of this operation
+   * @since NEXT
+   */
+  @CanIgnoreReturnValue
+  public boolean putAllElements(Iterable<? extends T> objects) {
+    checkNotNull(objects);
+    long[] indexes = new long[BATCH_SIZE * numHashFunctions];
+    boolean bitsChanged = false;
+    Iterator<? extends T> iterator = objects.iterator();
+    while (iterator.hasNext()) {
+      int count = hashBatch(iterator, indexes);
+      for (int i = 0; i < count * numHashFunctions; i++) {
+        bitsChanged |= bits.set(indexes[i]);
+      }
+    }
+    return bitsChanged;
+  }
+
+  /**
+   * Returns which of the given elements <i>might</i> have been put in this Bloom filter, as if by
+   * calling {@link #mightContain} on each one: bit {@code i} of the result is set if and only if
+   * {@code mightContain} returns {@code true} for the {@code i}th element.
+   *
+   * <p>This is faster than individual calls for many elements. The elements are hashed in batches,
+   * and each batch is then probed one hash function at a time across all of its elements, so that
+   * the memory accesses of different elements, which don't depend on each other, can overlap.
+   *
+   * @since NEXT
+   */
+  public BitSet mightContainAll(Iterable<? extends T> objects) {
+    checkNotNull(objects);
+    long[] indexes = new long[BATCH_SIZE * numHashFunctions];
+    BitSet result = new BitSet();
+    int batchStart = 0;
+    Iterator<? extends T> iterator = objects.iterator();
+    while (iterator.hasNext()) {
+      int count = hashBatch(iterator, indexes);
+      // Bit j is set while element j of the batch might be present.
+      long candidates = count == BATCH_SIZE ? -1L : (1L << count) - 1;
+      for (int i = 0; i < numHashFunctions && candidates != 0; i++) {
+        for (long remaining = candidates; remaining != 0; remaining &= remaining - 1) {
+          int j = Long.numberOfTrailingZeros(remaining);
+          if (!bits.get(indexes[j * numHashFunctions + i])) {
+            candidates &= ~(1L << j);
+          }
+        }
+      }
+      for (; candidates != 0; candidates &= candidates - 1) {
+        result.set(batchStart + Long.numberOfTrailingZeros(candidates));
+      }
+      batchStart += count;
+    }
+    return result;
+  }
+
+  /**
+   * Stores the bit indexes of up to {@link #BATCH_SIZE} elements from {@code iterator} in {@code
+   * indexes}, and returns the number of elements.
+   */
+  private int hashBatch(Iterator<? extends T> iterator, long[] indexes) {
+    long bitSize = bits.bitSize();
+    int count = 0;
+    while (count < BATCH_SIZE && iterator.hasNext()) {
+      strategy.bitIndexes(
+          iterator.next(), funnel, numHashFunctions, bitSize, indexes, count * numHashFunctions);
+      count++;
+    }
+    return count;
+  }
+
   /**
    * Returns the probability that {@linkplain #mightContain(Object)} will erroneously return {@code
    * true} for an object that has not actually been put in the {@code BloomFilter}.
@@ -415,6 +514,32 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     return create(funnel, expectedInsertions, fpp, BloomFilterStrategies.MURMUR128_MITZ_64);
   }
 
+  /**
+   * Creates a {@link BloomFilter} with the expected number of insertions and expected false
+   * positive probability, which keeps all the bits of each element within a single 512-bit block.
+   *
+   * <p>Compared to the filters returned by {@link #create(Funnel, long, double)}, {@link #put} and
+   * {@link #mightContain} access one or two cache lines instead of one per hash function, which
+   * makes them faster for filters much larger than the CPU caches. In exchange, the actual false
+   * positive probability is somewhat higher than {@code fpp}, increasingly so for small values of
+   * {@code fpp}; pass a smaller {@code fpp} to compensate. {@link #expectedFpp} does not take
+   * blocking into account.
+   *
+   * <p>The resulting filter can be combined with {@link #putAll} only with other filters created by
+   * this method, and it is preserved by {@link #writeTo} and {@link #readFrom}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code BloomFilter} will use
+   * @param expectedInsertions the number of expected insertions to the constructed {@code
+   *     BloomFilter}; must be positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   * @return a {@code BloomFilter}
+   * @since NEXT
+   */
+  public static <T extends @Nullable Object> BloomFilter<T> createBlocked(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+    return create(funnel, expectedInsertions, fpp, BloomFilterStrategies.MURMUR128_BLOCKED_512);
+  }
+
   @VisibleForTesting
   static <T extends @Nullable Object> BloomFilter<T> create(
       Funnel<? super T> funnel, long expectedInsertions, double fpp, Strategy strategy) {
@@ -435,6 +560,12 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
      */
     long numBits = optimalNumOfBits(expectedInsertions, fpp);
     int numHashFunctions = optimalNumOfHashFunctions(expectedInsertions, numBits);
+    if (strategy == BloomFilterStrategies.MURMUR128_BLOCKED_512) {
+      // Use whole blocks, so that every bit is reachable.
+      numBits =
+          LongMath.divide(numBits, BloomFilterStrategies.BLOCK_BITS, RoundingMode.CEILING)
+              * BloomFilterStrategies.BLOCK_BITS;
+    }
     try {
       return new BloomFilter<>(new LockFreeBitArray(numBits), numHashFunctions, funnel, strategy);
     } catch (IllegalArgumentException e) {
@@ -551,7 +682,7 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     final Strategy strategy;
 
     SerialForm(BloomFilter<T> bf) {
-      this.data = LockFreeBitArray.toPlainArray(bf.bits.data);
+      this.data = bf.bits.toLongArray();
       this.numHashFunctions = bf.numHashFunctions;
       this.funnel = bf.funnel;
       this.strategy = bf.strategy;
@@ -580,9 +711,9 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     DataOutputStream dout = new DataOutputStream(out);
     dout.writeByte(SignedBytes.checkedCast(strategy.ordinal()));
     dout.writeByte(UnsignedBytes.checkedCast(numHashFunctions)); // note: checked at the c'tor
-    dout.writeInt(bits.data.length());
-    for (int i = 0; i < bits.data.length(); i++) {
-      dout.writeLong(bits.data.get(i));
+    dout.writeInt(bits.dataLength());
+    for (int i = 0; i < bits.dataLength(); i++) {
+      dout.writeLong(bits.getData(i));
     }
   }
 
@@ -637,5 +768,67 @@ public final class BloomFilter<T extends @Nullable Object> implements Predicate<
     }
   }
 
+  /**
+   * Opens a file written by {@linkplain #writeTo(OutputStream)} as a {@code BloomFilter} whose bits
+   * stay in the file, accessed through memory mappings. Unlike {@link #readFrom}, this doesn't read
+   * the bits up front or copy them onto the heap, so it takes constant time regardless of the size
+   * of the filter. {@link #mightContain} then reads the bits it needs straight from the mappings.
+   *
+   * <p>With {@link MapMode#READ_WRITE}, {@link #put}, {@link #putAllElements} and {@link #putAll}
+   * write through to the file; with {@link MapMode#PRIVATE}, they modify only this filter; and with
+   * {@link MapMode#READ_ONLY}, they throw {@link java.nio.ReadOnlyBufferException} if they would
+   * change any bits. Since the bits can't be updated with compare-and-swap in place, concurrent
+   * calls that change bits are serialized with a lock, while queries remain lock-free. {@link
+   * #copy} returns a filter on the heap.
+   *
+   * <p>The first call to {@link #approximateElementCount} or {@link #expectedFpp} reads the whole
+   * file.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the file, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original Bloom filter!
+   *
+   * @param file a file written by {@link #writeTo}
+   * @param mode the mode to use when mapping {@code file}
+   * @param funnel the funnel of T's that the filter was populated with
+   * @throws IOException if an I/O error occurs, or if the file does not appear to contain a
+   *     BloomFilter written by {@linkplain #writeTo(OutputStream)}
+   * @since NEXT
+   */
+  public static <T extends @Nullable Object> BloomFilter<T> map(
+      File file, MapMode mode, Funnel<? super T> funnel) throws IOException {
+    checkNotNull(file, "File");
+    checkNotNull(mode, "MapMode");
+    checkNotNull(funnel, "Funnel");
+    // The mappings remain valid after the file is closed.
+    try (RandomAccessFile raf =
+        new RandomAccessFile(file, mode == MapMode.READ_ONLY ? "r" : "rw")) {
+      // See writeTo for the serial form.
+      int strategyOrdinal = raf.readByte();
+      int numHashFunctions = raf.readUnsignedByte();
+      int dataLength = raf.readInt();
+      if (strategyOrdinal < 0
+          || strategyOrdinal >= BloomFilterStrategies.values().length
+          || numHashFunctions == 0
+          || dataLength <= 0
+          || raf.length() < raf.getFilePointer() + (long) dataLength * Longs.BYTES) {
+        throw new IOException(
+            "Unable to map BloomFilter from "
+                + file
+                + ". strategyOrdinal: "
+                + strategyOrdinal
+                + " numHashFunctions: "
+                + numHashFunctions
+                + " dataLength: "
+                + dataLength
+                + " file length: "
+                + raf.length());
+      }
+      Strategy strategy = BloomFilterStrategies.values()[strategyOrdinal];
+      BitArray bits = new MappedBitArray(raf.getChannel(), mode, raf.getFilePointer(), dataLength);
+      return new BloomFilter<>(bits, numHashFunctions, funnel, strategy);
+    }
+  }
+
   private static final long serialVersionUID = 0xcafebabe;
 }
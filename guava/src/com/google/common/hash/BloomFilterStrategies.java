@@ -19,8 +19,11 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.math.LongMath;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
+import java.io.IOException;
 import java.math.RoundingMode;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.concurrent.atomic.AtomicLongArray;
 import javax.annotation.CheckForNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -46,76 +49,76 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
    */
   MURMUR128_MITZ_32() {
     @Override
-    public <T extends @Nullable Object> boolean put(
-        @ParametricNullness T object,
-        Funnel<? super T> funnel,
-        int numHashFunctions,
-        LockFreeBitArray bits) {
-      long bitSize = bits.bitSize();
-      long hash64 = Hashing.murmur3_128().hashObject(object, funnel).asLong();
-      int hash1 = (int) hash64;
-      int hash2 = (int) (hash64 >>> 32);
-
-      boolean bitsChanged = false;
-      for (int i = 1; i <= numHashFunctions; i++) {
-        int combinedHash = hash1 + (i * hash2);
-        // Flip all the bits if it's negative (guaranteed positive number)
-        if (combinedHash < 0) {
-          combinedHash = ~combinedHash;
-        }
-        bitsChanged |= bits.set(combinedHash % bitSize);
+    long bitIndex(long hash1, long hash2, long bitSize, int i) {
+      // This strategy uses only the lower 64 bits of the hash, as two 32-bit hashes.
+      int combinedHash = (int) hash1 + ((i + 1) * (int) (hash1 >>> 32));
+      // Flip all the bits if it's negative (guaranteed positive number)
+      if (combinedHash < 0) {
+        combinedHash = ~combinedHash;
       }
-      return bitsChanged;
-    }
-
-    @Override
-    public <T extends @Nullable Object> boolean mightContain(
-        @ParametricNullness T object,
-        Funnel<? super T> funnel,
-        int numHashFunctions,
-        LockFreeBitArray bits) {
-      long bitSize = bits.bitSize();
-      long hash64 = Hashing.murmur3_128().hashObject(object, funnel).asLong();
-      int hash1 = (int) hash64;
-      int hash2 = (int) (hash64 >>> 32);
-
-      for (int i = 1; i <= numHashFunctions; i++) {
-        int combinedHash = hash1 + (i * hash2);
-        // Flip all the bits if it's negative (guaranteed positive number)
-        if (combinedHash < 0) {
-          combinedHash = ~combinedHash;
-        }
-        if (!bits.get(combinedHash % bitSize)) {
-          return false;
-        }
-      }
-      return true;
+      return combinedHash % bitSize;
     }
   },
   /**
    * This strategy uses all 128 bits of {@link Hashing#murmur3_128} when hashing. It looks different
-   * from the implementation in MURMUR128_MITZ_32 because we're avoiding the multiplication in the
-   * loop and doing a (much simpler) += hash2. We're also changing the index to a positive number by
-   * AND'ing with Long.MAX_VALUE instead of flipping the bits.
+   * from the implementation in MURMUR128_MITZ_32 because we're avoiding the 32-bit arithmetic and
+   * the flipping of the bits: we change the index to a positive number by AND'ing with
+   * Long.MAX_VALUE instead.
    */
   MURMUR128_MITZ_64() {
+    @Override
+    long bitIndex(long hash1, long hash2, long bitSize, int i) {
+      // Make the combined hash positive and indexable
+      return ((hash1 + i * hash2) & Long.MAX_VALUE) % bitSize;
+    }
+  },
+  /**
+   * Confines all of an element's bits to a single block of 512 bits (eight longs, the size of a
+   * typical cache line), so that an operation touches one or two cache lines instead of up to
+   * {@code numHashFunctions} of them. See "Cache-, Hash- and Space-Efficient Bloom Filters" by
+   * Felix Putze, Peter Sanders and Johannes Singler. The lower 64 bits of {@link
+   * Hashing#murmur3_128} select the block, and the upper 64 bits are split into a 32-bit hash and a
+   * 32-bit step that select bits within the block. Because blocks fill unevenly, the false positive
+   * probability is somewhat higher than that of MURMUR128_MITZ_64 for the same number of bits.
+   */
+  MURMUR128_BLOCKED_512() {
+    @Override
+    long bitIndex(long hash1, long hash2, long bitSize, int i) {
+      // Bit arrays smaller than a block (possible only through readFrom) form a single block.
+      int blockBits = (int) Math.min(BLOCK_BITS, bitSize);
+      long blockStart = ((hash1 & Long.MAX_VALUE) % (bitSize / blockBits)) * blockBits;
+      // An odd step visits distinct bits of a power-of-two block.
+      int step = (int) (hash2 >>> 32) | 1;
+      int combinedHash = (int) hash2 + i * step;
+      return blockStart + (combinedHash & Integer.MAX_VALUE) % blockBits;
+    }
+
+    /*
+     * The methods below compute the same indexes as bitIndex, but select the block once per element
+     * rather than once per bit, and find the bit within a full block with a mask. This strategy
+     * exists to be fast, so that matters.
+     */
+
     @Override
     public <T extends @Nullable Object> boolean put(
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits) {
+        BitArray bits) {
       long bitSize = bits.bitSize();
+      if (bitSize < BLOCK_BITS) {
+        return super.put(object, funnel, numHashFunctions, bits);
+      }
       byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
-      long hash1 = lowerEight(bytes);
       long hash2 = upperEight(bytes);
+      long blockStart = blockStart(lowerEight(bytes), bitSize);
+      int step = (int) (hash2 >>> 32) | 1;
 
       boolean bitsChanged = false;
-      long combinedHash = hash1;
+      int combinedHash = (int) hash2;
       for (int i = 0; i < numHashFunctions; i++) {
-        // Make the combined hash positive and indexable
-        bitsChanged |= bits.set((combinedHash & Long.MAX_VALUE) % bitSize);
-        combinedHash += hash2;
+        bitsChanged |= bits.set(blockStart + (combinedHash & (BLOCK_BITS - 1)));
+        combinedHash += step;
       }
       return bitsChanged;
     }
@@ -125,42 +128,236 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
         @ParametricNullness T object,
         Funnel<? super T> funnel,
         int numHashFunctions,
-        LockFreeBitArray bits) {
+        BitArray bits) {
       long bitSize = bits.bitSize();
+      if (bitSize < BLOCK_BITS) {
+        return super.mightContain(object, funnel, numHashFunctions, bits);
+      }
       byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
-      long hash1 = lowerEight(bytes);
       long hash2 = upperEight(bytes);
+      long blockStart = blockStart(lowerEight(bytes), bitSize);
+      int step = (int) (hash2 >>> 32) | 1;
 
-      long combinedHash = hash1;
+      int combinedHash = (int) hash2;
       for (int i = 0; i < numHashFunctions; i++) {
-        // Make the combined hash positive and indexable
-        if (!bits.get((combinedHash & Long.MAX_VALUE) % bitSize)) {
+        if (!bits.get(blockStart + (combinedHash & (BLOCK_BITS - 1)))) {
           return false;
         }
-        combinedHash += hash2;
+        combinedHash += step;
       }
       return true;
     }
 
-    private /* static */ long lowerEight(byte[] bytes) {
-      return Longs.fromBytes(
-          bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+    @Override
+    public <T extends @Nullable Object> void bitIndexes(
+        @ParametricNullness T object,
+        Funnel<? super T> funnel,
+        int numHashFunctions,
+        long bitSize,
+        long[] indexes,
+        int offset) {
+      if (bitSize < BLOCK_BITS) {
+        super.bitIndexes(object, funnel, numHashFunctions, bitSize, indexes, offset);
+        return;
+      }
+      byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+      long hash2 = upperEight(bytes);
+      long blockStart = blockStart(lowerEight(bytes), bitSize);
+      int step = (int) (hash2 >>> 32) | 1;
+
+      int combinedHash = (int) hash2;
+      for (int i = 0; i < numHashFunctions; i++) {
+        indexes[offset + i] = blockStart + (combinedHash & (BLOCK_BITS - 1));
+        combinedHash += step;
+      }
     }
 
-    private /* static */ long upperEight(byte[] bytes) {
-      return Longs.fromBytes(
-          bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+    /** Returns the first index of the block for {@code hash1}, given at least one full block. */
+    private long blockStart(long hash1, long bitSize) {
+      return ((hash1 & Long.MAX_VALUE) % (bitSize / BLOCK_BITS)) * BLOCK_BITS;
     }
   };
 
+  /**
+   * Returns the index of the bit that the {@code i}th hash function (counting from 0) selects for
+   * an element in an array of {@code bitSize} bits, given the lower ({@code hash1}) and upper
+   * ({@code hash2}) 64 bits of the element's {@link Hashing#murmur3_128} hash. This defines the
+   * indexes of each strategy, and {@link #put}, {@link #mightContain} and {@link #bitIndexes} are
+   * implemented on top of it, except where a strategy overrides them to compute the same indexes
+   * faster.
+   */
+  abstract long bitIndex(long hash1, long hash2, long bitSize, int i);
+
+  @Override
+  public <T extends @Nullable Object> boolean put(
+      @ParametricNullness T object, Funnel<? super T> funnel, int numHashFunctions, BitArray bits) {
+    long bitSize = bits.bitSize();
+    byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+    long hash1 = lowerEight(bytes);
+    long hash2 = upperEight(bytes);
+
+    boolean bitsChanged = false;
+    for (int i = 0; i < numHashFunctions; i++) {
+      bitsChanged |= bits.set(bitIndex(hash1, hash2, bitSize, i));
+    }
+    return bitsChanged;
+  }
+
+  @Override
+  public <T extends @Nullable Object> boolean mightContain(
+      @ParametricNullness T object, Funnel<? super T> funnel, int numHashFunctions, BitArray bits) {
+    long bitSize = bits.bitSize();
+    byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+    long hash1 = lowerEight(bytes);
+    long hash2 = upperEight(bytes);
+
+    for (int i = 0; i < numHashFunctions; i++) {
+      if (!bits.get(bitIndex(hash1, hash2, bitSize, i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public <T extends @Nullable Object> void bitIndexes(
+      @ParametricNullness T object,
+      Funnel<? super T> funnel,
+      int numHashFunctions,
+      long bitSize,
+      long[] indexes,
+      int offset) {
+    byte[] bytes = Hashing.murmur3_128().hashObject(object, funnel).getBytesInternal();
+    long hash1 = lowerEight(bytes);
+    long hash2 = upperEight(bytes);
+
+    for (int i = 0; i < numHashFunctions; i++) {
+      indexes[offset + i] = bitIndex(hash1, hash2, bitSize, i);
+    }
+  }
+
+  /** The number of bits in each block of MURMUR128_BLOCKED_512. */
+  static final int BLOCK_BITS = 512;
+
+  private static long lowerEight(byte[] bytes) {
+    return Longs.fromBytes(
+        bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+  }
+
+  private static long upperEight(byte[] bytes) {
+    return Longs.fromBytes(
+        bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+  }
+
+  /**
+   * Models an array of bits whose bits can be set, but never cleared, by multiple threads at once.
+   */
+  abstract static class BitArray {
+    static final int LONG_ADDRESSABLE_BITS = 6;
+
+    /** Returns true if the bit changed value. */
+    abstract boolean set(long bitIndex);
+
+    abstract boolean get(long bitIndex);
+
+    /**
+     * Number of set bits (1s).
+     *
+     * <p>Note that because of concurrent set calls, this bitCount is a (very) close *estimate* of
+     * the actual number of bits set. It's not possible to do better than an estimate without
+     * locking. Note that the number, if not exactly accurate, is *always* underestimating, never
+     * overestimating.
+     */
+    abstract long bitCount();
+
+    /** Returns the number of {@code long}s backing this array. */
+    abstract int dataLength();
+
+    /** Returns the {@code i}th {@code long} backing this array. */
+    abstract long getData(int i);
+
+    /**
+     * ORs the bits encoded in the {@code i}th {@code long} backing this array with the given value.
+     */
+    abstract void putData(int i, long longValue);
+
+    /** Number of bits */
+    final long bitSize() {
+      return (long) dataLength() * Long.SIZE;
+    }
+
+    /**
+     * Careful here: if threads are mutating this array while this method is executing, the final
+     * long[] will be a "rolling snapshot" of the state of the bit array. This is usually good
+     * enough, but should be kept in mind.
+     */
+    final long[] toLongArray() {
+      long[] array = new long[dataLength()];
+      for (int i = 0; i < array.length; ++i) {
+        array[i] = getData(i);
+      }
+      return array;
+    }
+
+    /** Returns a copy of this array on the heap. */
+    final LockFreeBitArray copy() {
+      return new LockFreeBitArray(toLongArray());
+    }
+
+    /**
+     * Combines the two BitArrays using bitwise OR.
+     *
+     * <p>NOTE: Because of the use of atomics, if the other BitArray is being mutated while this
+     * operation is executing, not all of those new 1's may be set in the final state of this
+     * BitArray. The ONLY guarantee provided is that all the bits that were set in the other
+     * BitArray at the start of this method will be set in this BitArray at the end of this method.
+     */
+    final void putAll(BitArray other) {
+      checkArgument(
+          dataLength() == other.dataLength(),
+          "BitArrays must be of equal length (%s != %s)",
+          dataLength(),
+          other.dataLength());
+      for (int i = 0; i < dataLength(); i++) {
+        putData(i, other.getData(i));
+      }
+    }
+
+    @Override
+    public final boolean equals(@CheckForNull Object o) {
+      if (o instanceof BitArray) {
+        BitArray that = (BitArray) o;
+        if (dataLength() != that.dataLength()) {
+          return false;
+        }
+        for (int i = 0; i < dataLength(); i++) {
+          if (getData(i) != that.getData(i)) {
+            return false;
+          }
+        }
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public final int hashCode() {
+      // Same as Arrays.hashCode(toLongArray()), without the allocation
+      int result = 1;
+      for (int i = 0; i < dataLength(); i++) {
+        result = 31 * result + Longs.hashCode(getData(i));
+      }
+      return result;
+    }
+  }
+
   /**
    * Models a lock-free array of bits.
    *
    * <p>We use this instead of java.util.BitSet because we need access to the array of longs and we
    * need compare-and-swap.
    */
-  static final class LockFreeBitArray {
-    private static final int LONG_ADDRESSABLE_BITS = 6;
+  static final class LockFreeBitArray extends BitArray {
     final AtomicLongArray data;
     private final LongAddable bitCount;
 
@@ -185,7 +382,7 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
       this.bitCount.add(bitCount);
     }
 
-    /** Returns true if the bit changed value. */
+    @Override
     boolean set(long bitIndex) {
       if (get(bitIndex)) {
         return false;
@@ -209,68 +406,21 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
       return true;
     }
 
+    @Override
     boolean get(long bitIndex) {
       return (data.get((int) (bitIndex >>> LONG_ADDRESSABLE_BITS)) & (1L << bitIndex)) != 0;
     }
 
-    /**
-     * Careful here: if threads are mutating the atomicLongArray while this method is executing, the
-     * final long[] will be a "rolling snapshot" of the state of the bit array. This is usually good
-     * enough, but should be kept in mind.
-     */
-    public static long[] toPlainArray(AtomicLongArray atomicLongArray) {
-      long[] array = new long[atomicLongArray.length()];
-      for (int i = 0; i < array.length; ++i) {
-        array[i] = atomicLongArray.get(i);
-      }
-      return array;
-    }
-
-    /** Number of bits */
-    long bitSize() {
-      return (long) data.length() * Long.SIZE;
-    }
-
-    /**
-     * Number of set bits (1s).
-     *
-     * <p>Note that because of concurrent set calls and uses of atomics, this bitCount is a (very)
-     * close *estimate* of the actual number of bits set. It's not possible to do better than an
-     * estimate without locking. Note that the number, if not exactly accurate, is *always*
-     * underestimating, never overestimating.
-     */
+    @Override
     long bitCount() {
       return bitCount.sum();
     }
 
-    LockFreeBitArray copy() {
-      return new LockFreeBitArray(toPlainArray(data));
-    }
-
-    /**
-     * Combines the two BitArrays using bitwise OR.
-     *
-     * <p>NOTE: Because of the use of atomics, if the other LockFreeBitArray is being mutated while
-     * this operation is executing, not all of those new 1's may be set in the final state of this
-     * LockFreeBitArray. The ONLY guarantee provided is that all the bits that were set in the other
-     * LockFreeBitArray at the start of this method will be set in this LockFreeBitArray at the end
-     * of this method.
-     */
-    void putAll(LockFreeBitArray other) {
-      checkArgument(
-          data.length() == other.data.length(),
-          "BitArrays must be of equal length (%s != %s)",
-          data.length(),
-          other.data.length());
-      for (int i = 0; i < data.length(); i++) {
-        putData(i, other.data.get(i));
-      }
-    }
-
     /**
      * ORs the bits encoded in the {@code i}th {@code long} in the underlying {@link
      * AtomicLongArray} with the given value.
      */
+    @Override
     void putData(int i, long longValue) {
       long ourLongOld;
       long ourLongNew;
@@ -291,24 +441,119 @@ enum BloomFilterStrategies implements BloomFilter.Strategy {
     }
 
     /** Returns the number of {@code long}s in the underlying {@link AtomicLongArray}. */
+    @Override
     int dataLength() {
       return data.length();
     }
 
     @Override
-    public boolean equals(@CheckForNull Object o) {
-      if (o instanceof LockFreeBitArray) {
-        LockFreeBitArray lockFreeBitArray = (LockFreeBitArray) o;
-        // TODO(lowasser): avoid allocation here
-        return Arrays.equals(toPlainArray(data), toPlainArray(lockFreeBitArray.data));
+    long getData(int i) {
+      return data.get(i);
+    }
+  }
+
+  /**
+   * An array of bits stored in a file, in the format written by {@link BloomFilter#writeTo}, and
+   * accessed in place through memory mappings.
+   *
+   * <p>The {@code long}s of that format are not aligned, so they can't be updated with
+   * compare-and-swap. Instead, writers lock the array, and publish their writes through a volatile
+   * field that readers read before reading the mappings.
+   */
+  static final class MappedBitArray extends BitArray {
+    // A single mapping can't exceed 2GB, so we map at most 2^27 longs (1GB) at a time.
+    private static final int LONGS_PER_MAPPING_SHIFT = 27;
+    private static final int LONGS_PER_MAPPING_MASK = (1 << LONGS_PER_MAPPING_SHIFT) - 1;
+
+    private final ByteBuffer[] mappings;
+    private final int dataLength;
+    private volatile int writes;
+
+    /*
+     * Counting the set bits requires reading the whole file, so we do it only when asked. -1 until
+     * then. Guarded by this.
+     */
+    private long bitCount = -1;
+
+    /**
+     * Maps the {@code dataLength} big-endian {@code long}s that start at byte {@code position} of
+     * {@code channel}.
+     */
+    MappedBitArray(FileChannel channel, MapMode mode, long position, int dataLength)
+        throws IOException {
+      checkArgument(dataLength > 0, "data length is zero!");
+      this.dataLength = dataLength;
+      this.mappings = new ByteBuffer[((dataLength - 1) >>> LONGS_PER_MAPPING_SHIFT) + 1];
+      for (int i = 0; i < mappings.length; i++) {
+        long firstLong = (long) i << LONGS_PER_MAPPING_SHIFT;
+        long longs = Math.min(dataLength - firstLong, 1L << LONGS_PER_MAPPING_SHIFT);
+        mappings[i] = channel.map(mode, position + firstLong * Longs.BYTES, longs * Longs.BYTES);
+      }
+    }
+
+    @Override
+    boolean set(long bitIndex) {
+      if (get(bitIndex)) {
+        return false;
       }
-      return false;
+      return orData((int) (bitIndex >>> LONG_ADDRESSABLE_BITS), 1L << bitIndex) > 0;
+    }
+
+    @Override
+    boolean get(long bitIndex) {
+      return (getData((int) (bitIndex >>> LONG_ADDRESSABLE_BITS)) & (1L << bitIndex)) != 0;
+    }
+
+    @Override
+    synchronized long bitCount() {
+      if (bitCount < 0) {
+        long count = 0;
+        for (int i = 0; i < dataLength; i++) {
+          count += Long.bitCount(getLong(i));
+        }
+        bitCount = count;
+      }
+      return bitCount;
+    }
+
+    @Override
+    int dataLength() {
+      return dataLength;
     }
 
     @Override
-    public int hashCode() {
-      // TODO(lowasser): avoid allocation here
-      return Arrays.hashCode(toPlainArray(data));
+    long getData(int i) {
+      int unused = writes; // happens-after the writes published so far
+      return getLong(i);
+    }
+
+    @Override
+    void putData(int i, long longValue) {
+      int unused = orData(i, longValue);
+    }
+
+    /**
+     * ORs {@code longValue} into the {@code i}th {@code long}, returning the number of bits set.
+     */
+    private synchronized int orData(int i, long longValue) {
+      long oldValue = getLong(i);
+      long newValue = oldValue | longValue;
+      if (oldValue == newValue) {
+        return 0;
+      }
+      mappings[i >>> LONGS_PER_MAPPING_SHIFT].putLong(
+          (i & LONGS_PER_MAPPING_MASK) * Longs.BYTES, newValue);
+      writes++;
+      int bitsAdded = Long.bitCount(newValue) - Long.bitCount(oldValue);
+      if (bitCount >= 0) {
+        bitCount += bitsAdded;
+      }
+      return bitsAdded;
+    }
+
+    private long getLong(int i) {
+      return mappings[i >>> LONGS_PER_MAPPING_SHIFT].getLong(
+          (i & LONGS_PER_MAPPING_MASK) * Longs.BYTES);
     }
   }
 }
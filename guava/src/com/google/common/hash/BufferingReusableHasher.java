@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import com.google.common.math.IntMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ReusableHasher} that collects its input in a reusable byte array, and hashes it with
+ * {@link HashFunction#hashBytes(byte[], int, int)}, or without allocating if the hash function is a
+ * {@link NonAllocatingHashFunction}. The array grows to fit the largest input, and is kept for
+ * reuse.
+ */
+@ElementTypesAreNonnullByDefault
+final class BufferingReusableHasher implements ReusableHasher {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final HashFunction hashFunction;
+  private final int bytes;
+  private final long[] longs;
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int count;
+
+  BufferingReusableHasher(HashFunction hashFunction) {
+    this.hashFunction = checkNotNull(hashFunction);
+    int bits = hashFunction.bits();
+    checkArgument(bits % 8 == 0, "bits (%s) must be a multiple of 8", bits);
+    this.bytes = bits / 8;
+    this.longs = new long[(bytes + 7) / 8];
+  }
+
+  /**
+   * Makes room for {@code n} more bytes, and returns the offset at which to write them. Callers
+   * must read {@link #buffer} only after calling this, since it may replace the buffer.
+   */
+  private int reserve(int n) {
+    int offset = count;
+    int needed = IntMath.checkedAdd(offset, n);
+    if (needed > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(needed, IntMath.saturatedMultiply(buffer.length, 2)));
+    }
+    count = needed;
+    return offset;
+  }
+
+  @Override
+  public ReusableHasher putByte(byte b) {
+    int offset = reserve(1);
+    buffer[offset] = b;
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putBytes(byte[] bytes) {
+    return putBytes(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public ReusableHasher putBytes(byte[] bytes, int off, int len) {
+    checkPositionIndexes(off, off + len, bytes.length);
+    int offset = reserve(len);
+    System.arraycopy(bytes, off, buffer, offset, len);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putBytes(ByteBuffer bytes) {
+    int len = bytes.remaining();
+    int offset = reserve(len);
+    bytes.get(buffer, offset, len);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putShort(short s) {
+    int offset = reserve(2);
+    buffer[offset] = (byte) s;
+    buffer[offset + 1] = (byte) (s >>> 8);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putInt(int i) {
+    int offset = reserve(4);
+    buffer[offset] = (byte) i;
+    buffer[offset + 1] = (byte) (i >>> 8);
+    buffer[offset + 2] = (byte) (i >>> 16);
+    buffer[offset + 3] = (byte) (i >>> 24);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putLong(long l) {
+    int offset = reserve(8);
+    LittleEndianByteArray.store64(buffer, offset, l);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putFloat(float f) {
+    return putInt(Float.floatToRawIntBits(f));
+  }
+
+  @Override
+  public ReusableHasher putDouble(double d) {
+    return putLong(Double.doubleToRawLongBits(d));
+  }
+
+  @Override
+  public ReusableHasher putBoolean(boolean b) {
+    return putByte(b ? (byte) 1 : (byte) 0);
+  }
+
+  @Override
+  public ReusableHasher putChar(char c) {
+    int offset = reserve(2);
+    buffer[offset] = (byte) c;
+    buffer[offset + 1] = (byte) (c >>> 8);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putUnencodedChars(CharSequence charSequence) {
+    int len = charSequence.length();
+    int offset = reserve(IntMath.checkedMultiply(len, 2));
+    for (int i = 0; i < len; i++) {
+      char c = charSequence.charAt(i);
+      buffer[offset++] = (byte) c;
+      buffer[offset++] = (byte) (c >>> 8);
+    }
+    return this;
+  }
+
+  @Override
+  public ReusableHasher putString(CharSequence charSequence, Charset charset) {
+    return putBytes(charSequence.toString().getBytes(charset));
+  }
+
+  @Override
+  public <T extends @Nullable Object> ReusableHasher putObject(
+      @ParametricNullness T instance, Funnel<? super T> funnel) {
+    funnel.funnel(instance, this);
+    return this;
+  }
+
+  @Override
+  public ReusableHasher reset() {
+    count = 0;
+    return this;
+  }
+
+  @Override
+  public HashCode hash() {
+    try {
+      return hashFunction.hashBytes(buffer, 0, count);
+    } finally {
+      count = 0;
+    }
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public int hashTo(byte[] dest, int offset) {
+    checkPositionIndexes(offset, offset + bytes, dest.length);
+    hashToLongs();
+    for (int i = 0; i < bytes; i++) {
+      dest[offset + i] = (byte) (longs[i >> 3] >>> ((i & 7) << 3));
+    }
+    return bytes;
+  }
+
+  @Override
+  @CanIgnoreReturnValue
+  public int hashTo(long[] dest, int offset) {
+    checkPositionIndexes(offset, offset + longs.length, dest.length);
+    hashToLongs();
+    System.arraycopy(longs, 0, dest, offset, longs.length);
+    return longs.length;
+  }
+
+  @Override
+  public long hashToLong() {
+    hashToLongs();
+    return longs[0];
+  }
+
+  /** Hashes the buffered input into {@link #longs}, and resets this hasher. */
+  private void hashToLongs() {
+    try {
+      if (hashFunction instanceof NonAllocatingHashFunction) {
+        ((NonAllocatingHashFunction) hashFunction).hashBytesTo(buffer, 0, count, longs, 0);
+      } else {
+        byte[] hash = hashFunction.hashBytes(buffer, 0, count).asBytes();
+        for (int i = 0; i < longs.length; i++) {
+          longs[i] = LittleEndianByteArray.load64Safely(hash, 8 * i, Math.min(8, bytes - 8 * i));
+        }
+      }
+    } finally {
+      count = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.newReusableHasher(" + hashFunction + ")";
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+/**
+ * Computes the checksum of the concatenation of two inputs from the checksums of each, as zlib's
+ * {@code crc32_combine} and {@code adler32_combine} do.
+ *
+ * <p>A CRC is a polynomial remainder, so appending {@code n} bytes to an input multiplies its CRC
+ * by x<sup>8n</sup> modulo the generator polynomial. We compute that power by repeated squaring,
+ * from a table of x<sup>2<sup>k</sup></sup>, in {@code O(log n)} multiplications.
+ */
+@ElementTypesAreNonnullByDefault
+final class ChecksumCombiner {
+  /** The bit-reversed CRC-32 generator polynomial, as used by {@link java.util.zip.CRC32}. */
+  private static final int CRC32_POLYNOMIAL = 0xedb88320;
+
+  /** The bit-reversed CRC-32C generator polynomial (RFC 3720). */
+  private static final int CRC32C_POLYNOMIAL = 0x82f63b78;
+
+  private static final int[] CRC32_POWERS = powersOfX(CRC32_POLYNOMIAL);
+  private static final int[] CRC32C_POWERS = powersOfX(CRC32C_POLYNOMIAL);
+
+  /** The largest prime smaller than 2^16, the modulus of Adler-32. */
+  private static final int ADLER_BASE = 65521;
+
+  /**
+   * Returns the CRC-32 of {@code A + B}, given the CRC-32 of {@code A}, the CRC-32 of {@code B} and
+   * the length of {@code B}.
+   */
+  static int crc32(int crcA, int crcB, long lengthB) {
+    return crc(CRC32_POLYNOMIAL, CRC32_POWERS, crcA, crcB, lengthB);
+  }
+
+  /** Returns the CRC-32C of {@code A + B}, like {@link #crc32}. */
+  static int crc32c(int crcA, int crcB, long lengthB) {
+    return crc(CRC32C_POLYNOMIAL, CRC32C_POWERS, crcA, crcB, lengthB);
+  }
+
+  private static int crc(int polynomial, int[] powers, int crcA, int crcB, long lengthB) {
+    // The pre- and post-conditioning of the two CRCs cancel out, so this works on final values.
+    return multiply(polynomial, xToThe8n(polynomial, powers, lengthB), crcA) ^ crcB;
+  }
+
+  /**
+   * Returns the Adler-32 of {@code A + B}, given the Adler-32 of {@code A}, the Adler-32 of {@code
+   * B} and the length of {@code B}.
+   */
+  static int adler32(int adlerA, int adlerB, long lengthB) {
+    long remainder = lengthB % ADLER_BASE;
+    long a1 = adlerA & 0xffff;
+    long b1 = adlerA >>> 16;
+    long a2 = adlerB & 0xffff;
+    long b2 = adlerB >>> 16;
+    // B's sums started from a = 1 rather than from A's sum, so every one of its bytes contributed
+    // a1 - 1 too little to b, and A's a is counted once too often in the sum of the two a's.
+    long a = (a1 + a2 + ADLER_BASE - 1) % ADLER_BASE;
+    long b = (remainder * a1 % ADLER_BASE + b1 + b2 + ADLER_BASE - remainder) % ADLER_BASE;
+    return (int) (b << 16 | a);
+  }
+
+  /**
+   * Returns the product of {@code a} and {@code b} modulo the polynomial, where the coefficient of
+   * x<sup>i</sup> is bit {@code 31 - i}.
+   */
+  private static int multiply(int polynomial, int a, int b) {
+    int product = 0;
+    for (int mask = 1 << 31; mask != 0; mask >>>= 1) {
+      if ((a & mask) != 0) {
+        product ^= b;
+        if ((a & (mask - 1)) == 0) {
+          break;
+        }
+      }
+      b = (b & 1) != 0 ? (b >>> 1) ^ polynomial : b >>> 1;
+    }
+    return product;
+  }
+
+  /**
+   * Returns x<sup>2<sup>k</sup></sup> modulo the polynomial, for each {@code k} in [0, 67), enough
+   * for x<sup>8n</sup> with any non-negative {@code long n}.
+   */
+  private static int[] powersOfX(int polynomial) {
+    int[] powers = new int[3 + Long.SIZE];
+    int power = 1 << 30; // x^1
+    powers[0] = power;
+    for (int k = 1; k < powers.length; k++) {
+      power = multiply(polynomial, power, power);
+      powers[k] = power;
+    }
+    return powers;
+  }
+
+  /** Returns x<sup>8n</sup> modulo the polynomial. */
+  private static int xToThe8n(int polynomial, int[] powers, long n) {
+    int result = 1 << 31; // x^0
+    for (int k = 3; n != 0; n >>>= 1, k++) {
+      if ((n & 1) != 0) {
+        result = multiply(polynomial, powers[k], result);
+      }
+    }
+    return result;
+  }
+
+  private ChecksumCombiner() {}
+}
@@ -24,6 +24,8 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -83,7 +85,16 @@ final class ChecksumHashFunction extends AbstractHashFunction implements Seriali
     @Override
     @J2ObjCIncompatible
     protected void update(ByteBuffer b) {
-      if (!ChecksumMethodHandles.updateByteBuffer(checksum, b)) {
+      if (ChecksumMethodHandles.updateByteBuffer(checksum, b)) {
+        return;
+      }
+      // Before Java 9, Checksum has no update(ByteBuffer), but these implementations do, and they
+      // read direct buffers in place.
+      if (checksum instanceof CRC32) {
+        ((CRC32) checksum).update(b);
+      } else if (checksum instanceof Adler32) {
+        ((Adler32) checksum).update(b);
+      } else {
         super.update(b);
       }
     }
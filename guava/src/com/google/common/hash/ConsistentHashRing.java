@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.math.IntMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A consistent hash ring ("Karger hashing") that maps keys to a changing set of weighted nodes.
+ * Each node is placed at a number of pseudo-random points ("virtual nodes") on a ring of 64-bit
+ * values, proportional to its weight, and a key is assigned to the node owning the first point at
+ * or after the key's hash.
+ *
+ * <p>Unlike {@link Hashing#consistentHash(long, int)}, which only supports the buckets {@code 0} to
+ * {@code n - 1}, any node can be added or removed, and only the keys assigned to that node (or that
+ * become assigned to it) are remapped. The assignment depends only on the current set of nodes and
+ * their weights, not on the order in which they were added. See also {@link RendezvousHasher},
+ * which needs no virtual nodes but takes time linear in the number of nodes per lookup.
+ *
+ * <p>Lookups take {@code O(log(n))} time in the total number of virtual nodes, and never block.
+ * Membership updates take linear time: the ring is held in arrays that are copied on every update
+ * and swapped in atomically, so that concurrent lookups always see a consistent ring.
+ *
+ * @param <N> the type of the nodes
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class ConsistentHashRing<N> {
+  private final Funnel<? super N> nodeFunnel;
+  private final HashFunction hashFunction;
+  private final int virtualNodesPerWeight;
+  private final AtomicReference<Ring<N>> ring = new AtomicReference<>(Ring.<N>empty());
+
+  private ConsistentHashRing(
+      Funnel<? super N> nodeFunnel, HashFunction hashFunction, int virtualNodesPerWeight) {
+    this.nodeFunnel = checkNotNull(nodeFunnel);
+    this.hashFunction = checkNotNull(hashFunction);
+    checkArgument(
+        virtualNodesPerWeight > 0, "virtualNodesPerWeight (%s) must be > 0", virtualNodesPerWeight);
+    this.virtualNodesPerWeight = virtualNodesPerWeight;
+  }
+
+  /**
+   * Creates an empty ring.
+   *
+   * @param nodeFunnel the funnel with which to hash the nodes
+   * @param hashFunction the hash function with which to place the virtual nodes on the ring; should
+   *     produce at least 64 bits
+   * @param virtualNodesPerWeight the number of virtual nodes for each unit of a node's weight. More
+   *     virtual nodes spread keys more evenly, at the cost of memory and slower updates; 100 to 200
+   *     keeps each node's share of the keys within about 10% of its expected value.
+   */
+  public static <N> ConsistentHashRing<N> create(
+      Funnel<? super N> nodeFunnel, HashFunction hashFunction, int virtualNodesPerWeight) {
+    return new ConsistentHashRing<>(nodeFunnel, hashFunction, virtualNodesPerWeight);
+  }
+
+  /**
+   * Adds {@code node} to this ring with a weight of 1, if it is not already present.
+   *
+   * @return {@code true} if the ring changed
+   */
+  @CanIgnoreReturnValue
+  public boolean add(N node) {
+    return add(node, 1);
+  }
+
+  /**
+   * Adds {@code node} to this ring with the given weight, if it is not already present. The node's
+   * expected share of the keys is proportional to its weight.
+   *
+   * @return {@code true} if the ring changed
+   * @throws IllegalArgumentException if {@code weight} is not positive
+   */
+  @CanIgnoreReturnValue
+  public boolean add(N node, int weight) {
+    checkNotNull(node);
+    checkArgument(weight > 0, "weight (%s) must be > 0", weight);
+    long[] nodePoints = new long[IntMath.checkedMultiply(weight, virtualNodesPerWeight)];
+    for (int i = 0; i < nodePoints.length; i++) {
+      nodePoints[i] =
+          hashFunction.newHasher().putObject(node, nodeFunnel).putInt(i).hash().padToLong();
+    }
+    Arrays.sort(nodePoints);
+    while (true) {
+      Ring<N> current = ring.get();
+      if (current.weights.containsKey(node)) {
+        return false;
+      }
+      if (ring.compareAndSet(current, current.plus(node, weight, nodePoints))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Removes {@code node} from this ring, if it is present.
+   *
+   * @return {@code true} if the ring changed
+   */
+  @CanIgnoreReturnValue
+  public boolean remove(N node) {
+    checkNotNull(node);
+    while (true) {
+      Ring<N> current = ring.get();
+      if (!current.weights.containsKey(node)) {
+        return false;
+      }
+      if (ring.compareAndSet(current, current.minus(node))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns the node to which the key with the given hash code is assigned.
+   *
+   * @throws NoSuchElementException if this ring is empty
+   */
+  public N get(HashCode keyHash) {
+    return get(keyHash.padToLong());
+  }
+
+  /**
+   * Returns the node to which the key with the given hash is assigned.
+   *
+   * @throws NoSuchElementException if this ring is empty
+   */
+  public N get(long keyHash) {
+    Ring<N> current = ring.get();
+    long[] points = current.points;
+    if (points.length == 0) {
+      throw new NoSuchElementException("ring is empty");
+    }
+    int i = Arrays.binarySearch(points, keyHash);
+    if (i < 0) {
+      i = -i - 1;
+      if (i == points.length) {
+        i = 0; // wrap around the ring
+      }
+    }
+    return current.owner(i);
+  }
+
+  /** Returns an unmodifiable snapshot of the nodes in this ring. */
+  public Set<N> nodes() {
+    return ring.get().weights.keySet();
+  }
+
+  /** Returns the weight of {@code node}, or 0 if it is not in this ring. */
+  public int weight(N node) {
+    Integer weight = ring.get().weights.get(checkNotNull(node));
+    return (weight == null) ? 0 : weight;
+  }
+
+  /** Returns the number of nodes in this ring. */
+  public int size() {
+    return ring.get().weights.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ConsistentHashRing" + ring.get().weights;
+  }
+
+  /** An immutable snapshot of the ring. */
+  private static final class Ring<N> {
+    private static final Ring<Object> EMPTY =
+        new Ring<>(Collections.<Object, Integer>emptyMap(), new long[0], new Object[0]);
+
+    @SuppressWarnings("unchecked") // the empty ring has no nodes
+    static <N> Ring<N> empty() {
+      return (Ring<N>) EMPTY;
+    }
+
+    final Map<N, Integer> weights;
+
+    /** The points of all the virtual nodes, in ascending order. */
+    final long[] points;
+
+    /** The node owning each point. */
+    final Object[] owners;
+
+    Ring(Map<N, Integer> weights, long[] points, Object[] owners) {
+      this.weights = weights;
+      this.points = points;
+      this.owners = owners;
+    }
+
+    @SuppressWarnings("unchecked") // only N's are stored in owners
+    N owner(int i) {
+      return (N) owners[i];
+    }
+
+    /** Returns a ring that also has {@code node} at the given sorted points. */
+    Ring<N> plus(N node, int weight, long[] nodePoints) {
+      Map<N, Integer> newWeights = new LinkedHashMap<>(weights);
+      newWeights.put(node, weight);
+      int length = points.length + nodePoints.length;
+      long[] newPoints = new long[length];
+      Object[] newOwners = new Object[length];
+      int i = 0;
+      int j = 0;
+      for (int k = 0; k < length; k++) {
+        if (j == nodePoints.length || (i < points.length && points[i] <= nodePoints[j])) {
+          newPoints[k] = points[i];
+          newOwners[k] = owners[i++];
+        } else {
+          newPoints[k] = nodePoints[j++];
+          newOwners[k] = node;
+        }
+      }
+      return new Ring<>(Collections.unmodifiableMap(newWeights), newPoints, newOwners);
+    }
+
+    /** Returns a ring without {@code node}. */
+    Ring<N> minus(N node) {
+      Map<N, Integer> newWeights = new LinkedHashMap<>(weights);
+      newWeights.remove(node);
+      int length = 0;
+      for (Object owner : owners) {
+        if (!owner.equals(node)) {
+          length++;
+        }
+      }
+      long[] newPoints = new long[length];
+      Object[] newOwners = new Object[length];
+      int k = 0;
+      for (int i = 0; i < points.length; i++) {
+        if (!owners[i].equals(node)) {
+          newPoints[k] = points[i];
+          newOwners[k++] = owners[i];
+        }
+      }
+      return new Ring<>(Collections.unmodifiableMap(newWeights), newPoints, newOwners);
+    }
+  }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.hash.BloomFilter.Strategy;
+import com.google.common.math.DoubleMath;
+import com.google.common.math.LongMath;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A Bloom filter that supports {@linkplain #remove removing} elements. Where a {@link BloomFilter}
+ * has one bit per position, a counting Bloom filter has a 4-bit counter, which {@link #put}
+ * increments and {@link #remove} decrements. This takes four times the memory of a {@code
+ * BloomFilter} with the same false positive probability.
+ *
+ * <p>Only remove elements that were previously put in the filter. Removing any other element can
+ * make {@link #mightContain} return {@code false} for elements that are in the filter. A counter
+ * that reaches 15 stays at 15, so that removals can't cause such false negatives, at the cost of
+ * never clearing that position again.
+ *
+ * <p>This class is thread-safe and lock-free. Like {@code BloomFilter}, it uses atomics and
+ * compare-and-swap to ensure correctness when multiple threads are used to access it.
+ *
+ * @param <T> the type of instances that the {@code CountingBloomFilter} accepts
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class CountingBloomFilter<T extends @Nullable Object> implements Serializable {
+  private final CounterArray counters;
+  private final int numHashFunctions;
+  private final Funnel<? super T> funnel;
+  private final Strategy strategy;
+
+  private CountingBloomFilter(
+      CounterArray counters, int numHashFunctions, Funnel<? super T> funnel, Strategy strategy) {
+    checkArgument(numHashFunctions > 0, "numHashFunctions (%s) must be > 0", numHashFunctions);
+    checkArgument(
+        numHashFunctions <= 255, "numHashFunctions (%s) must be <= 255", numHashFunctions);
+    this.counters = checkNotNull(counters);
+    this.numHashFunctions = numHashFunctions;
+    this.funnel = checkNotNull(funnel);
+    this.strategy = checkNotNull(strategy);
+  }
+
+  /**
+   * Creates a {@link CountingBloomFilter} with the expected number of insertions and expected false
+   * positive probability.
+   *
+   * <p>Note that overflowing a {@code CountingBloomFilter} with significantly more elements than
+   * specified will result in its saturation, and a sharp deterioration of its false positive
+   * probability.
+   *
+   * @param funnel the funnel of T's that the constructed filter will use
+   * @param expectedInsertions the number of expected insertions to the constructed filter; must be
+   *     positive
+   * @param fpp the desired false positive probability (must be positive and less than 1.0)
+   */
+  public static <T extends @Nullable Object> CountingBloomFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp) {
+    return create(funnel, expectedInsertions, fpp, BloomFilterStrategies.MURMUR128_MITZ_64);
+  }
+
+  @VisibleForTesting
+  static <T extends @Nullable Object> CountingBloomFilter<T> create(
+      Funnel<? super T> funnel, long expectedInsertions, double fpp, Strategy strategy) {
+    checkNotNull(funnel);
+    checkArgument(
+        expectedInsertions >= 0, "Expected insertions (%s) must be >= 0", expectedInsertions);
+    checkArgument(fpp > 0.0, "False positive probability (%s) must be > 0.0", fpp);
+    checkArgument(fpp < 1.0, "False positive probability (%s) must be < 1.0", fpp);
+    checkNotNull(strategy);
+
+    if (expectedInsertions == 0) {
+      expectedInsertions = 1;
+    }
+    long numCounters = BloomFilter.optimalNumOfBits(expectedInsertions, fpp);
+    int numHashFunctions = BloomFilter.optimalNumOfHashFunctions(expectedInsertions, numCounters);
+    try {
+      return new CountingBloomFilter<>(
+          new CounterArray(numCounters), numHashFunctions, funnel, strategy);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Could not create CountingBloomFilter of " + numCounters + " counters", e);
+    }
+  }
+
+  /**
+   * Creates a new {@code CountingBloomFilter} that's a copy of this instance. The new instance is
+   * equal to this instance but shares no mutable state.
+   */
+  public CountingBloomFilter<T> copy() {
+    return new CountingBloomFilter<>(
+        new CounterArray(counters.toLongArray()), numHashFunctions, funnel, strategy);
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been put in this filter and not removed
+   * since, {@code false} if this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    return allNonzero(counterIndexes(object));
+  }
+
+  /** Returns the indexes of the counters of {@code object}, as the strategy places its bits. */
+  private long[] counterIndexes(@ParametricNullness T object) {
+    long[] indexes = new long[numHashFunctions];
+    strategy.bitIndexes(object, funnel, numHashFunctions, counters.size(), indexes, 0);
+    return indexes;
+  }
+
+  private boolean allNonzero(long[] indexes) {
+    for (long index : indexes) {
+      if (!counters.isNonzero(index)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Puts an element into this filter. Ensures that subsequent invocations of {@link #mightContain}
+   * with the same element will return {@code true}, until the element is removed as many times as
+   * it was put.
+   *
+   * @return true if any counter went from zero to one as a result of this operation. If so, this is
+   *     <i>definitely</i> the only occurrence of {@code object} in the filter.
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    boolean countersChanged = false;
+    for (long index : counterIndexes(object)) {
+      countersChanged |= counters.increment(index);
+    }
+    return countersChanged;
+  }
+
+  /**
+   * Removes one occurrence of an element that was previously put in this filter.
+   *
+   * <p>If {@link #mightContain} returns {@code false} for {@code object}, this method does nothing.
+   * Otherwise, it assumes {@code object} was put in the filter, even if {@code mightContain} was a
+   * false positive, and so may introduce false negatives for other elements if it was not.
+   *
+   * @return true if the filter was modified as a result of this operation
+   */
+  @CanIgnoreReturnValue
+  public boolean remove(@ParametricNullness T object) {
+    long[] indexes = counterIndexes(object);
+    if (!allNonzero(indexes)) {
+      return false;
+    }
+    for (long index : indexes) {
+      counters.decrement(index);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the probability that {@link #mightContain} will erroneously return {@code true} for an
+   * object that is not in this filter.
+   */
+  public double expectedFpp() {
+    return Math.pow((double) counters.nonzeroCount() / counters.size(), numHashFunctions);
+  }
+
+  /**
+   * Returns an estimate for the total number of distinct elements in this filter. This
+   * approximation is reasonably accurate if it does not exceed the value of {@code
+   * expectedInsertions} that was used when constructing the filter.
+   */
+  public long approximateElementCount() {
+    long numCounters = counters.size();
+    double fractionOfCountersSet = (double) counters.nonzeroCount() / numCounters;
+    return DoubleMath.roundToLong(
+        -Math.log1p(-fractionOfCountersSet) * numCounters / numHashFunctions, RoundingMode.HALF_UP);
+  }
+
+  /** Returns the number of counters in the underlying counter array. */
+  @VisibleForTesting
+  long counterCount() {
+    return counters.size();
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof CountingBloomFilter) {
+      CountingBloomFilter<?> that = (CountingBloomFilter<?>) object;
+      return this.numHashFunctions == that.numHashFunctions
+          && this.funnel.equals(that.funnel)
+          && this.counters.equals(that.counters)
+          && this.strategy.equals(that.strategy);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(numHashFunctions, funnel, strategy, counters);
+  }
+
+  private Object writeReplace() {
+    return new SerialForm<T>(this);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static class SerialForm<T extends @Nullable Object> implements Serializable {
+    final long[] data;
+    final int numHashFunctions;
+    final Funnel<? super T> funnel;
+    final Strategy strategy;
+
+    SerialForm(CountingBloomFilter<T> bf) {
+      this.data = bf.counters.toLongArray();
+      this.numHashFunctions = bf.numHashFunctions;
+      this.funnel = bf.funnel;
+      this.strategy = bf.strategy;
+    }
+
+    Object readResolve() {
+      return new CountingBloomFilter<T>(new CounterArray(data), numHashFunctions, funnel, strategy);
+    }
+
+    private static final long serialVersionUID = 1;
+  }
+
+  /** A lock-free array of 4-bit counters, sixteen to a {@code long}. */
+  static final class CounterArray {
+    private static final int COUNTERS_PER_LONG_SHIFT = 4;
+    private static final long MAX_COUNT = 0xF;
+
+    private final AtomicLongArray data;
+    private final LongAddable nonzeroCount;
+
+    CounterArray(long counters) {
+      checkArgument(counters > 0, "data length is zero!");
+      this.data =
+          new AtomicLongArray(
+              Ints.checkedCast(
+                  LongMath.divide(counters, 1 << COUNTERS_PER_LONG_SHIFT, RoundingMode.CEILING)));
+      this.nonzeroCount = LongAddables.create();
+    }
+
+    // Used by serialization and copy()
+    CounterArray(long[] data) {
+      checkArgument(data.length > 0, "data length is zero!");
+      this.data = new AtomicLongArray(data);
+      this.nonzeroCount = LongAddables.create();
+      long nonzeroCount = 0;
+      for (long i = 0; i < size(); i++) {
+        if (count(data[(int) (i >>> COUNTERS_PER_LONG_SHIFT)], i) != 0) {
+          nonzeroCount++;
+        }
+      }
+      this.nonzeroCount.add(nonzeroCount);
+    }
+
+    private static int shift(long counterIndex) {
+      return (int) (counterIndex & ((1 << COUNTERS_PER_LONG_SHIFT) - 1)) << 2;
+    }
+
+    private static long count(long word, long counterIndex) {
+      return (word >>> shift(counterIndex)) & MAX_COUNT;
+    }
+
+    /** Increments the counter, returning true if it was zero. */
+    boolean increment(long counterIndex) {
+      return add(counterIndex, 1);
+    }
+
+    /** Decrements the counter, returning true if it became zero. */
+    @CanIgnoreReturnValue
+    boolean decrement(long counterIndex) {
+      return add(counterIndex, -1);
+    }
+
+    /**
+     * Adds {@code delta} (1 or -1) to the counter unless it is saturated or would become negative,
+     * and returns true if the counter changed between zero and nonzero.
+     */
+    private boolean add(long counterIndex, int delta) {
+      int longIndex = (int) (counterIndex >>> COUNTERS_PER_LONG_SHIFT);
+      long oldValue;
+      long count;
+      do {
+        oldValue = data.get(longIndex);
+        count = count(oldValue, counterIndex);
+        if (count == MAX_COUNT || count + delta < 0) {
+          return false;
+        }
+      } while (!data.compareAndSet(
+          longIndex, oldValue, oldValue + ((long) delta << shift(counterIndex))));
+
+      if (count == 0) {
+        nonzeroCount.increment();
+        return true;
+      } else if (count + delta == 0) {
+        nonzeroCount.add(-1);
+        return true;
+      }
+      return false;
+    }
+
+    boolean isNonzero(long counterIndex) {
+      return count(data.get((int) (counterIndex >>> COUNTERS_PER_LONG_SHIFT)), counterIndex) != 0;
+    }
+
+    /** Number of counters */
+    long size() {
+      return (long) data.length() << COUNTERS_PER_LONG_SHIFT;
+    }
+
+    /**
+     * Number of nonzero counters. Like {@link BloomFilterStrategies.BitArray#bitCount}, this is an
+     * estimate while other threads are updating the counters.
+     */
+    long nonzeroCount() {
+      return nonzeroCount.sum();
+    }
+
+    /**
+     * Careful here: if threads are mutating this array while this method is executing, the final
+     * long[] will be a "rolling snapshot" of the state of the counters.
+     */
+    long[] toLongArray() {
+      long[] array = new long[data.length()];
+      for (int i = 0; i < array.length; ++i) {
+        array[i] = data.get(i);
+      }
+      return array;
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object o) {
+      if (o instanceof CounterArray) {
+        CounterArray that = (CounterArray) o;
+        if (data.length() != that.data.length()) {
+          return false;
+        }
+        for (int i = 0; i < data.length(); i++) {
+          if (data.get(i) != that.data.get(i)) {
+            return false;
+          }
+        }
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      // Same as Arrays.hashCode(toLongArray()), without the allocation
+      int result = 1;
+      for (int i = 0; i < data.length(); i++) {
+        result = 31 * result + Longs.hashCode(data.get(i));
+      }
+      return result;
+    }
+  }
+
+  private static final long serialVersionUID = 0xcafebabe;
+}
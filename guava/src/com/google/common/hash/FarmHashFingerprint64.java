@@ -39,7 +39,8 @@ import com.google.common.annotations.VisibleForTesting;
  * @author Geoff Pike
  */
 @ElementTypesAreNonnullByDefault
-final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction {
+final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction
+    implements NonAllocatingHashFunction {
   static final HashFunction FARMHASH_FINGERPRINT_64 = new FarmHashFingerprint64();
 
   // Some primes between 2^63 and 2^64 for various uses.
@@ -58,6 +59,11 @@ final class FarmHashFingerprint64 extends AbstractNonStreamingHashFunction {
     return 64;
   }
 
+  @Override
+  public void hashBytesTo(byte[] input, int off, int len, long[] dest, int destOffset) {
+    dest[destOffset] = fingerprint(input, off, len);
+  }
+
   @Override
   public String toString() {
     return "Hashing.farmHashFingerprint64()";
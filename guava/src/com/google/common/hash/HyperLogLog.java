@@ -0,0 +1,392 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.common.math.DoubleMath;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A HyperLogLog sketch, which estimates the number of distinct elements put in it using a small,
+ * fixed amount of memory. See "HyperLogLog: the analysis of a near-optimal cardinality estimation
+ * algorithm" by Philippe Flajolet, Éric Fusy, Olivier Gandouet and Frédéric Meunier.
+ *
+ * <p>A sketch of precision {@code p} has {@code 2^p} one-byte registers, and its estimates have a
+ * relative standard error of about {@code 1.04 / sqrt(2^p)}: 0.81% for the default precision of 14,
+ * which takes 16 KiB. Like HyperLogLog++, the sketch hashes elements to 64 bits with {@link
+ * Hashing#murmur3_128}, so estimates don't degrade for large cardinalities. Estimates use the
+ * improved estimator from "New cardinality estimation algorithms for HyperLogLog sketches" by Otmar
+ * Ertl, which is accurate for small cardinalities without HyperLogLog++'s empirical bias tables.
+ *
+ * <p>Sketches of the same precision and funnel can be merged with {@link #putAll}; the result
+ * estimates the number of distinct elements put in either of them.
+ *
+ * <p>This class is thread-safe and lock-free: registers are updated with compare-and-swap, so
+ * concurrent calls to {@link #put} never lose an update.
+ *
+ * <p>Sketches support a more compact serial representation via the {@link #writeTo} and {@link
+ * #readFrom} methods, as well as Java serialization.
+ *
+ * @param <T> the type of instances that the {@code HyperLogLog} accepts
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class HyperLogLog<T extends @Nullable Object> implements Serializable {
+  /** The version of the format written by {@link #writeTo}. */
+  private static final byte FORMAT = 0;
+
+  static final int MIN_PRECISION = 4;
+  static final int MAX_PRECISION = 18;
+  private static final int DEFAULT_PRECISION = 14;
+
+  private static final int REGISTERS_PER_LONG = Long.SIZE / Byte.SIZE;
+
+  /** The registers, eight to a long, each holding the largest rank seen for its bucket. */
+  private final AtomicLongArray registers;
+
+  private final int precision;
+  private final Funnel<? super T> funnel;
+
+  private HyperLogLog(AtomicLongArray registers, int precision, Funnel<? super T> funnel) {
+    this.registers = registers;
+    this.precision = precision;
+    this.funnel = checkNotNull(funnel);
+  }
+
+  /**
+   * Creates a {@link HyperLogLog} with the default precision of 14, whose estimates have a relative
+   * standard error of about 0.81%.
+   *
+   * @param funnel the funnel of T's that the constructed {@code HyperLogLog} will use
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> create(Funnel<? super T> funnel) {
+    return create(funnel, DEFAULT_PRECISION);
+  }
+
+  /**
+   * Creates a {@link HyperLogLog} with {@code 2^precision} registers, whose estimates have a
+   * relative standard error of about {@code 1.04 / sqrt(2^precision)}.
+   *
+   * @param funnel the funnel of T's that the constructed {@code HyperLogLog} will use
+   * @param precision the base-2 logarithm of the number of registers, from 4 to 18 inclusive
+   */
+  public static <T extends @Nullable Object> HyperLogLog<T> create(
+      Funnel<? super T> funnel, int precision) {
+    checkNotNull(funnel);
+    checkArgument(
+        precision >= MIN_PRECISION && precision <= MAX_PRECISION,
+        "precision (%s) must be between %s and %s",
+        precision,
+        MIN_PRECISION,
+        MAX_PRECISION);
+    return new HyperLogLog<>(
+        new AtomicLongArray((1 << precision) / REGISTERS_PER_LONG), precision, funnel);
+  }
+
+  /**
+   * Creates a new {@code HyperLogLog} that's a copy of this instance. The new instance is equal to
+   * this instance but shares no mutable state.
+   */
+  public HyperLogLog<T> copy() {
+    return new HyperLogLog<>(new AtomicLongArray(toLongArray()), precision, funnel);
+  }
+
+  /**
+   * Puts an element into this sketch.
+   *
+   * @return true if the sketch changed as a result of this operation. If so, this is
+   *     <i>definitely</i> the first time {@code object} has been added to the sketch.
+   */
+  @CanIgnoreReturnValue
+  public boolean put(@ParametricNullness T object) {
+    long hash = Hashing.murmur3_128().hashObject(object, funnel).asLong();
+    int index = (int) (hash >>> (Long.SIZE - precision));
+    // The rank is the position of the first 1 bit among the remaining bits, capped at their count.
+    int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), maxRank() - 1) + 1;
+    int longIndex = index / REGISTERS_PER_LONG;
+    int shift = (index % REGISTERS_PER_LONG) * Byte.SIZE;
+    long oldLong;
+    long newLong;
+    do {
+      oldLong = registers.get(longIndex);
+      if (((oldLong >>> shift) & 0xFF) >= rank) {
+        return false;
+      }
+      newLong = (oldLong & ~(0xFFL << shift)) | ((long) rank << shift);
+    } while (!registers.compareAndSet(longIndex, oldLong, newLong));
+    return true;
+  }
+
+  /** Returns an estimate of the number of distinct elements that have been put in this sketch. */
+  public long approximateElementCount() {
+    int m = 1 << precision;
+    int q = maxRank() - 1;
+    int[] histogram = new int[q + 2];
+    for (int i = 0; i < registers.length(); i++) {
+      long value = registers.get(i);
+      for (int j = 0; j < REGISTERS_PER_LONG; j++) {
+        histogram[(int) (value & 0xFF)]++;
+        value >>>= Byte.SIZE;
+      }
+    }
+    if (histogram[0] == m) {
+      return 0;
+    }
+    double z = m * tau(1 - (double) histogram[q + 1] / m);
+    for (int k = q; k >= 1; k--) {
+      z = 0.5 * (z + histogram[k]);
+    }
+    z += m * sigma((double) histogram[0] / m);
+    double estimate = m / (2 * Math.log(2)) * m / z;
+    return DoubleMath.roundToLong(estimate, RoundingMode.HALF_UP);
+  }
+
+  /** Returns the relative standard error of this sketch's estimates. */
+  public double standardError() {
+    return 1.04 / Math.sqrt(1 << precision);
+  }
+
+  /** Returns the largest rank a register can hold. */
+  private int maxRank() {
+    return Long.SIZE - precision + 1;
+  }
+
+  private static double sigma(double x) {
+    if (x == 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double y = 1;
+    double z = x;
+    double previous;
+    do {
+      x *= x;
+      previous = z;
+      z += x * y;
+      y += y;
+    } while (z != previous);
+    return z;
+  }
+
+  private static double tau(double x) {
+    if (x == 0 || x == 1) {
+      return 0;
+    }
+    double y = 1;
+    double z = 1 - x;
+    double previous;
+    do {
+      x = Math.sqrt(x);
+      previous = z;
+      y *= 0.5;
+      z -= (1 - x) * (1 - x) * y;
+    } while (z != previous);
+    return z / 3;
+  }
+
+  /**
+   * Determines whether a given sketch is compatible with this one: they must not be the same
+   * instance, and must have the same precision and equal funnels.
+   *
+   * @param that The sketch to check for compatibility.
+   */
+  public boolean isCompatible(HyperLogLog<T> that) {
+    checkNotNull(that);
+    return this != that && this.precision == that.precision && this.funnel.equals(that.funnel);
+  }
+
+  /**
+   * Merges another sketch into this one, so that this sketch estimates the number of distinct
+   * elements put in either of them. The mutations happen to <b>this</b> instance.
+   *
+   * @param that The sketch to merge into this one. It is not mutated.
+   * @throws IllegalArgumentException if {@code isCompatible(that) == false}
+   */
+  public void putAll(HyperLogLog<T> that) {
+    checkNotNull(that);
+    checkArgument(this != that, "Cannot combine a HyperLogLog with itself.");
+    checkArgument(
+        this.precision == that.precision,
+        "HyperLogLogs must have the same precision (%s != %s)",
+        this.precision,
+        that.precision);
+    checkArgument(
+        this.funnel.equals(that.funnel),
+        "HyperLogLogs must have equal funnels (%s != %s)",
+        this.funnel,
+        that.funnel);
+    for (int i = 0; i < registers.length(); i++) {
+      long thatLong = that.registers.get(i);
+      long oldLong;
+      long newLong;
+      do {
+        oldLong = registers.get(i);
+        newLong = bytewiseMax(oldLong, thatLong);
+      } while (newLong != oldLong && !registers.compareAndSet(i, oldLong, newLong));
+    }
+  }
+
+  private static long bytewiseMax(long a, long b) {
+    long max = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+      max |= Math.max((a >>> shift) & 0xFF, (b >>> shift) & 0xFF) << shift;
+    }
+    return max;
+  }
+
+  private long[] toLongArray() {
+    long[] array = new long[registers.length()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = registers.get(i);
+    }
+    return array;
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof HyperLogLog) {
+      HyperLogLog<?> that = (HyperLogLog<?>) object;
+      return this.precision == that.precision
+          && this.funnel.equals(that.funnel)
+          && Arrays.equals(this.toLongArray(), that.toLongArray());
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(precision, funnel, Arrays.hashCode(toLongArray()));
+  }
+
+  /**
+   * Writes this {@code HyperLogLog} to an output stream, with a custom format (not Java
+   * serialization).
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel)} to reconstruct the written HyperLogLog.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 signed byte for the format
+    // 1 unsigned byte for the precision
+    // 2^precision unsigned bytes, the registers
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeByte(FORMAT);
+    dout.writeByte(precision);
+    for (int i = 0; i < registers.length(); i++) {
+      long value = registers.get(i);
+      for (int j = 0; j < REGISTERS_PER_LONG; j++) {
+        dout.writeByte((int) value);
+        value >>>= Byte.SIZE;
+      }
+    }
+    dout.flush();
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into a {@code
+   * HyperLogLog}.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the stream, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to populate
+   * the original sketch!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be a HyperLogLog serialized using the {@linkplain #writeTo(OutputStream)} method.
+   */
+  @SuppressWarnings("CatchingUnchecked") // sneaky checked exception
+  public static <T extends @Nullable Object> HyperLogLog<T> readFrom(
+      InputStream in, Funnel<? super T> funnel) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    int format = -1;
+    int precision = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      format = din.readByte();
+      checkArgument(format == FORMAT, "unknown format");
+      precision = din.readUnsignedByte();
+      HyperLogLog<T> sketch = create(funnel, precision);
+      int maxRank = sketch.maxRank();
+      for (int i = 0; i < sketch.registers.length(); i++) {
+        long value = 0;
+        for (int j = 0; j < REGISTERS_PER_LONG; j++) {
+          int rank = din.readUnsignedByte();
+          checkArgument(rank <= maxRank, "register value (%s) is too large", rank);
+          value |= (long) rank << (j * Byte.SIZE);
+        }
+        sketch.registers.set(i, value);
+      }
+      return sketch;
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) { // sneaky checked exception
+      String message =
+          "Unable to deserialize HyperLogLog from InputStream."
+              + " format: "
+              + format
+              + " precision: "
+              + precision;
+      throw new IOException(message, e);
+    }
+  }
+
+  private Object writeReplace() {
+    return new SerialForm<T>(this);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static class SerialForm<T extends @Nullable Object> implements Serializable {
+    final long[] registers;
+    final int precision;
+    final Funnel<? super T> funnel;
+
+    SerialForm(HyperLogLog<T> sketch) {
+      this.registers = sketch.toLongArray();
+      this.precision = sketch.precision;
+      this.funnel = sketch.funnel;
+    }
+
+    Object readResolve() {
+      return new HyperLogLog<T>(new AtomicLongArray(registers), precision, funnel);
+    }
+
+    private static final long serialVersionUID = 1;
+  }
+
+  private static final long serialVersionUID = 0xcafebabe;
+}
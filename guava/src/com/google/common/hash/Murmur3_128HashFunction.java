@@ -25,6 +25,9 @@
 
 package com.google.common.hash;
 
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.hash.LittleEndianByteArray.load64;
+import static com.google.common.hash.LittleEndianByteArray.load64Safely;
 import static com.google.common.primitives.UnsignedBytes.toInt;
 
 import com.google.errorprone.annotations.Immutable;
@@ -42,7 +45,8 @@ import javax.annotation.CheckForNull;
  */
 @Immutable
 @ElementTypesAreNonnullByDefault
-final class Murmur3_128HashFunction extends AbstractHashFunction implements Serializable {
+final class Murmur3_128HashFunction extends AbstractHashFunction
+    implements NonAllocatingHashFunction, Serializable {
   static final HashFunction MURMUR3_128 = new Murmur3_128HashFunction(0);
 
   static final HashFunction GOOD_FAST_HASH_128 =
@@ -65,6 +69,62 @@ final class Murmur3_128HashFunction extends AbstractHashFunction implements Seri
     return new Murmur3_128Hasher(seed);
   }
 
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    long[] hash = new long[2];
+    hash(input, off, len, seed, hash, 0);
+    byte[] bytes = new byte[16];
+    LittleEndianByteArray.store64(bytes, 0, hash[0]);
+    LittleEndianByteArray.store64(bytes, 8, hash[1]);
+    return HashCode.fromBytesNoCopy(bytes);
+  }
+
+  @Override
+  public void hashBytesTo(byte[] input, int off, int len, long[] dest, int destOffset) {
+    hash(input, off, len, seed, dest, destOffset);
+  }
+
+  /** A one-shot version of {@link Murmur3_128Hasher}, over an array. */
+  private static void hash(byte[] input, int off, int len, int seed, long[] dest, int destOffset) {
+    long h1 = seed;
+    long h2 = seed;
+    int end = off + len;
+    for (; end - off >= 16; off += 16) {
+      h1 ^= Murmur3_128Hasher.mixK1(load64(input, off));
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      h2 ^= Murmur3_128Hasher.mixK2(load64(input, off + 8));
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    int remaining = end - off;
+    if (remaining > 8) {
+      h2 ^= Murmur3_128Hasher.mixK2(load64Safely(input, off + 8, remaining - 8));
+    }
+    if (remaining > 0) {
+      h1 ^= Murmur3_128Hasher.mixK1(load64Safely(input, off, remaining));
+    }
+
+    h1 ^= len;
+    h2 ^= len;
+
+    h1 += h2;
+    h2 += h1;
+
+    h1 = Murmur3_128Hasher.fmix64(h1);
+    h2 = Murmur3_128Hasher.fmix64(h2);
+
+    h1 += h2;
+    h2 += h1;
+
+    dest[destOffset] = h1;
+    dest[destOffset + 1] = h2;
+  }
+
   @Override
   public String toString() {
     return "Hashing.murmur3_128(" + seed + ")";
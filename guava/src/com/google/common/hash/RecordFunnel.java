@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Throwables;
+import com.google.j2objc.annotations.J2ObjCIncompatible;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A funnel that funnels each component of a record, or each field of a plain class, in turn. The
+ * accessors are looked up once, when the funnel is created, and compiled with method handle
+ * combinators into a single method handle, so funneling an object does no reflection.
+ *
+ * <p>Primitive components are funneled with the matching {@link PrimitiveSink} method. Reference
+ * components are preceded by a {@code boolean} saying whether they are non-null, and
+ * variable-length values ({@code CharSequence}, {@code byte[]} and enum names) by their length, so
+ * that different objects never funnel the same sequence of values.
+ */
+@J2ObjCIncompatible
+@ElementTypesAreNonnullByDefault
+final class RecordFunnel<T> implements Funnel<T>, Serializable {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodHandle FUNNEL_NOTHING;
+  private static final MethodHandle FUNNEL_REFERENCE;
+
+  static {
+    try {
+      FUNNEL_NOTHING =
+          LOOKUP.findStatic(
+              RecordFunnel.class,
+              "funnelNothing",
+              MethodType.methodType(void.class, PrimitiveSink.class, Object.class));
+      FUNNEL_REFERENCE =
+          LOOKUP.findStatic(
+              RecordFunnel.class,
+              "funnelReference",
+              MethodType.methodType(void.class, Funnel.class, PrimitiveSink.class, Object.class));
+    } catch (ReflectiveOperationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  static <T> RecordFunnel<T> create(Class<T> type) {
+    return new RecordFunnel<>(type, new HashSet<Class<?>>());
+  }
+
+  private final Class<T> type;
+
+  /** A handle of type {@code (PrimitiveSink, Object)void} that funnels all the components. */
+  private final MethodHandle funnel;
+
+  private RecordFunnel(Class<T> type, Set<Class<?>> enclosing) {
+    this.type = checkNotNull(type);
+    checkArgument(
+        !type.isPrimitive() && !type.isArray() && !type.isInterface(),
+        "%s is not a record or a class",
+        type.getName());
+    checkArgument(enclosing.add(type), "%s contains itself", type.getName());
+    MethodHandle funnel = FUNNEL_NOTHING;
+    List<AccessibleObject> accessors = accessors(type);
+    // Fold the components in reverse, so that the first component is funneled first.
+    for (int i = accessors.size() - 1; i >= 0; i--) {
+      funnel = MethodHandles.foldArguments(funnel, component(accessors.get(i), enclosing));
+    }
+    enclosing.remove(type);
+    this.funnel = funnel;
+  }
+
+  @Override
+  @IgnoreJRERequirement // https://github.com/mojohaus/animal-sniffer/issues/67
+  public void funnel(T from, PrimitiveSink into) {
+    try {
+      funnel.invokeExact(into, (Object) from);
+    } catch (Throwable t) {
+      Throwables.throwIfUnchecked(t);
+      throw new AssertionError(t);
+    }
+  }
+
+  /** Returns a handle of type {@code (PrimitiveSink, Object)void} funneling one component. */
+  private static MethodHandle component(AccessibleObject accessor, Set<Class<?>> enclosing) {
+    accessor.setAccessible(true);
+    MethodHandle getter;
+    Class<?> componentType;
+    try {
+      if (accessor instanceof Method) {
+        getter = LOOKUP.unreflect((Method) accessor);
+        componentType = ((Method) accessor).getReturnType();
+      } else {
+        getter = LOOKUP.unreflectGetter((Field) accessor);
+        componentType = ((Field) accessor).getType();
+      }
+    } catch (IllegalAccessException e) {
+      throw new AssertionError(e); // we called setAccessible
+    }
+    if (componentType.isPrimitive()) {
+      getter = getter.asType(MethodType.methodType(componentType, Object.class));
+      return MethodHandles.filterArguments(putPrimitive(componentType), 1, getter);
+    }
+    getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+    MethodHandle funnelValue = FUNNEL_REFERENCE.bindTo(valueFunnel(componentType, enclosing));
+    return MethodHandles.filterArguments(funnelValue, 1, getter);
+  }
+
+  /**
+   * Returns a handle of type {@code (PrimitiveSink, type)void} calling the {@link PrimitiveSink}
+   * method for the given primitive type.
+   */
+  private static MethodHandle putPrimitive(Class<?> type) {
+    String name =
+        "put" + Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+    try {
+      return LOOKUP
+          .findVirtual(PrimitiveSink.class, name, MethodType.methodType(PrimitiveSink.class, type))
+          .asType(MethodType.methodType(void.class, PrimitiveSink.class, type));
+    } catch (ReflectiveOperationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static Funnel<Object> valueFunnel(Class<?> type, Set<Class<?>> enclosing) {
+    if (CharSequence.class.isAssignableFrom(type)) {
+      return ValueFunnel.CHARS;
+    } else if (type == byte[].class) {
+      return ValueFunnel.BYTES;
+    } else if (type.isEnum()) {
+      return ValueFunnel.ENUM;
+    } else if (type == Boolean.class) {
+      return ValueFunnel.BOOLEAN;
+    } else if (type == Byte.class) {
+      return ValueFunnel.BYTE;
+    } else if (type == Short.class) {
+      return ValueFunnel.SHORT;
+    } else if (type == Character.class) {
+      return ValueFunnel.CHAR;
+    } else if (type == Integer.class) {
+      return ValueFunnel.INT;
+    } else if (type == Long.class) {
+      return ValueFunnel.LONG;
+    } else if (type == Float.class) {
+      return ValueFunnel.FLOAT;
+    } else if (type == Double.class) {
+      return ValueFunnel.DOUBLE;
+    } else if (isRecord(type)) {
+      @SuppressWarnings("unchecked") // a funnel of any type can funnel the values of that type
+      Funnel<Object> funnel = (Funnel<Object>) (Funnel<?>) new RecordFunnel<>(type, enclosing);
+      return funnel;
+    }
+    throw new IllegalArgumentException("Unsupported component type: " + type.getName());
+  }
+
+  @SuppressWarnings("unused") // called through FUNNEL_NOTHING
+  private static void funnelNothing(PrimitiveSink into, Object from) {}
+
+  @SuppressWarnings("unused") // called through FUNNEL_REFERENCE
+  private static void funnelReference(
+      Funnel<Object> funnel, PrimitiveSink into, @CheckForNull Object value) {
+    if (value == null) {
+      into.putBoolean(false);
+    } else {
+      into.putBoolean(true);
+      funnel.funnel(value, into);
+    }
+  }
+
+  /**
+   * Returns the accessors of the components of {@code type}: the accessor methods of a record, in
+   * declaration order, or else the non-static, non-transient fields of the class and its
+   * superclasses, superclass fields first and ordered by name within each class.
+   */
+  static List<AccessibleObject> accessors(Class<?> type) {
+    List<AccessibleObject> accessors = new ArrayList<>();
+    Object[] recordComponents = recordComponents(type);
+    if (recordComponents != null) {
+      try {
+        for (Object component : recordComponents) {
+          accessors.add((Method) component.getClass().getMethod("getAccessor").invoke(component));
+        }
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError(e);
+      }
+      return accessors;
+    }
+    List<Class<?>> classes = new ArrayList<>();
+    for (Class<?> c = type; c != Object.class && c != null; c = c.getSuperclass()) {
+      classes.add(0, c);
+    }
+    for (Class<?> c : classes) {
+      Field[] fields = c.getDeclaredFields();
+      Arrays.sort(fields, Comparator.comparing(Field::getName));
+      for (Field field : fields) {
+        if (!Modifier.isStatic(field.getModifiers())
+            && !Modifier.isTransient(field.getModifiers())) {
+          accessors.add(field);
+        }
+      }
+    }
+    return accessors;
+  }
+
+  private static boolean isRecord(Class<?> type) {
+    return recordComponents(type) != null;
+  }
+
+  /** Returns the {@code RecordComponent}s of {@code type}, or null if it is not a record. */
+  private static Object @Nullable [] recordComponents(Class<?> type) {
+    try {
+      return (Object[]) Class.class.getMethod("getRecordComponents").invoke(type);
+    } catch (NoSuchMethodException e) {
+      return null; // records were only introduced in Java 16
+    } catch (ReflectiveOperationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Funnels.forRecord(" + type.getName() + ".class)";
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object o) {
+    if (o instanceof RecordFunnel) {
+      RecordFunnel<?> funnel = (RecordFunnel<?>) o;
+      return type.equals(funnel.type);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return RecordFunnel.class.hashCode() ^ type.hashCode();
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(type);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static final class SerializedForm implements Serializable {
+    private final Class<?> type;
+
+    SerializedForm(Class<?> type) {
+      this.type = type;
+    }
+
+    private Object readResolve() {
+      return create(type);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  /** Funnels for the supported non-primitive component values. */
+  private enum ValueFunnel implements Funnel<Object> {
+    CHARS {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        CharSequence chars = (CharSequence) from;
+        into.putInt(chars.length());
+        into.putUnencodedChars(chars);
+      }
+    },
+    BYTES {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        byte[] bytes = (byte[]) from;
+        into.putInt(bytes.length);
+        into.putBytes(bytes);
+      }
+    },
+    ENUM {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        CHARS.funnel(((Enum<?>) from).name(), into);
+      }
+    },
+    BOOLEAN {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putBoolean((Boolean) from);
+      }
+    },
+    BYTE {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putByte((Byte) from);
+      }
+    },
+    SHORT {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putShort((Short) from);
+      }
+    },
+    CHAR {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putChar((Character) from);
+      }
+    },
+    INT {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putInt((Integer) from);
+      }
+    },
+    LONG {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putLong((Long) from);
+      }
+    },
+    FLOAT {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putFloat((Float) from);
+      }
+    },
+    DOUBLE {
+      @Override
+      public void funnel(Object from, PrimitiveSink into) {
+        into.putDouble((Double) from);
+      }
+    };
+  }
+
+  private static final long serialVersionUID = 0;
+}
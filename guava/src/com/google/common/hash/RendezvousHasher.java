@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Maps keys to a changing set of weighted nodes using rendezvous ("highest random weight") hashing.
+ * Each key is assigned to the node with the highest score, where the score is derived from the hash
+ * of the key and the hash of the node, and scaled so that each node's expected share of the keys is
+ * proportional to its weight.
+ *
+ * <p>When a node is added or removed, only the keys assigned to that node (or that become assigned
+ * to it) are remapped, and the assignment depends only on the current set of nodes and their
+ * weights, not on the order in which they were added. Compared to {@link ConsistentHashRing}, keys
+ * are spread more evenly and no memory is spent on virtual nodes, but each lookup scores every
+ * node, so lookups take time linear in the number of nodes. This is usually the better choice for
+ * up to a few dozen nodes.
+ *
+ * <p>Lookups never block. The node hashes and weights are held in flat arrays, which are copied on
+ * every membership update and swapped in atomically, so that concurrent lookups always see a
+ * consistent set of nodes.
+ *
+ * @param <N> the type of the nodes
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class RendezvousHasher<N> {
+  private final Funnel<? super N> nodeFunnel;
+  private final HashFunction hashFunction;
+  private final AtomicReference<Nodes<N>> nodes = new AtomicReference<>(Nodes.<N>empty());
+
+  private RendezvousHasher(Funnel<? super N> nodeFunnel, HashFunction hashFunction) {
+    this.nodeFunnel = checkNotNull(nodeFunnel);
+    this.hashFunction = checkNotNull(hashFunction);
+  }
+
+  /**
+   * Creates a hasher with no nodes.
+   *
+   * @param nodeFunnel the funnel with which to hash the nodes
+   * @param hashFunction the hash function with which to hash the nodes; should produce at least 64
+   *     bits
+   */
+  public static <N> RendezvousHasher<N> create(
+      Funnel<? super N> nodeFunnel, HashFunction hashFunction) {
+    return new RendezvousHasher<>(nodeFunnel, hashFunction);
+  }
+
+  /**
+   * Adds {@code node} with a weight of 1, if it is not already present.
+   *
+   * @return {@code true} if the set of nodes changed
+   */
+  @CanIgnoreReturnValue
+  public boolean add(N node) {
+    return add(node, 1.0);
+  }
+
+  /**
+   * Adds {@code node} with the given weight, if it is not already present. The node's expected
+   * share of the keys is proportional to its weight.
+   *
+   * @return {@code true} if the set of nodes changed
+   * @throws IllegalArgumentException if {@code weight} is not positive and finite
+   */
+  @CanIgnoreReturnValue
+  public boolean add(N node, double weight) {
+    checkNotNull(node);
+    checkArgument(
+        weight > 0 && !Double.isInfinite(weight),
+        "weight (%s) must be positive and finite",
+        weight);
+    long nodeHash = hashFunction.hashObject(node, nodeFunnel).padToLong();
+    while (true) {
+      Nodes<N> current = nodes.get();
+      if (current.indexOf(node) >= 0) {
+        return false;
+      }
+      if (nodes.compareAndSet(current, current.plus(node, nodeHash, weight))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Removes {@code node}, if it is present.
+   *
+   * @return {@code true} if the set of nodes changed
+   */
+  @CanIgnoreReturnValue
+  public boolean remove(N node) {
+    checkNotNull(node);
+    while (true) {
+      Nodes<N> current = nodes.get();
+      int index = current.indexOf(node);
+      if (index < 0) {
+        return false;
+      }
+      if (nodes.compareAndSet(current, current.minus(index))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns the node to which the key with the given hash code is assigned.
+   *
+   * @throws NoSuchElementException if there are no nodes
+   */
+  public N get(HashCode keyHash) {
+    return get(keyHash.padToLong());
+  }
+
+  /**
+   * Returns the node to which the key with the given hash is assigned.
+   *
+   * @throws NoSuchElementException if there are no nodes
+   */
+  public N get(long keyHash) {
+    Nodes<N> current = nodes.get();
+    long[] nodeHashes = current.nodeHashes;
+    if (nodeHashes.length == 0) {
+      throw new NoSuchElementException("no nodes");
+    }
+    int best = 0;
+    if (current.weights == null) {
+      // All weights are equal, so the scores can be compared without scaling them. They are
+      // compared in the same order as weightedScore, so that making the weights equal by adding or
+      // removing a node remaps no other keys.
+      long bestScore = score(keyHash, nodeHashes[0]) >>> 11;
+      for (int i = 1; i < nodeHashes.length; i++) {
+        long score = score(keyHash, nodeHashes[i]) >>> 11;
+        if (score > bestScore) {
+          bestScore = score;
+          best = i;
+        }
+      }
+    } else {
+      double[] weights = current.weights;
+      double bestScore = weightedScore(keyHash, nodeHashes[0], weights[0]);
+      for (int i = 1; i < nodeHashes.length; i++) {
+        double score = weightedScore(keyHash, nodeHashes[i], weights[i]);
+        if (score > bestScore) {
+          bestScore = score;
+          best = i;
+        }
+      }
+    }
+    return current.node(best);
+  }
+
+  /** Returns an unmodifiable snapshot of the nodes. */
+  public Set<N> nodes() {
+    return nodes.get().weightsByNode.keySet();
+  }
+
+  /** Returns the weight of {@code node}, or 0 if it is not present. */
+  public double weight(N node) {
+    Double weight = nodes.get().weightsByNode.get(checkNotNull(node));
+    return (weight == null) ? 0 : weight;
+  }
+
+  /** Returns the number of nodes. */
+  public int size() {
+    return nodes.get().nodeHashes.length;
+  }
+
+  @Override
+  public String toString() {
+    return "RendezvousHasher" + nodes.get().weightsByNode;
+  }
+
+  private static long score(long keyHash, long nodeHash) {
+    return XxHash64HashFunction.avalanche(keyHash ^ nodeHash);
+  }
+
+  /**
+   * Returns {@code -weight / ln(u)}, for {@code u} uniformly distributed in {@code [0, 1)}. The
+   * probability that this is the highest of a set of such scores is proportional to {@code weight}.
+   */
+  private static double weightedScore(long keyHash, long nodeHash, double weight) {
+    double u = (score(keyHash, nodeHash) >>> 11) * 0x1.0p-53;
+    return -weight / Math.log(u);
+  }
+
+  /** An immutable snapshot of the nodes. */
+  private static final class Nodes<N> {
+    private static final Nodes<Object> EMPTY =
+        new Nodes<>(Collections.<Object, Double>emptyMap(), new Object[0], new long[0], null);
+
+    @SuppressWarnings("unchecked") // the empty snapshot has no nodes
+    static <N> Nodes<N> empty() {
+      return (Nodes<N>) EMPTY;
+    }
+
+    final Map<N, Double> weightsByNode;
+    final Object[] nodes;
+    final long[] nodeHashes;
+
+    /** The weight of each node, or null if all the weights are equal. */
+    final double @Nullable [] weights;
+
+    Nodes(
+        Map<N, Double> weightsByNode,
+        Object[] nodes,
+        long[] nodeHashes,
+        double @Nullable [] weights) {
+      this.weightsByNode = weightsByNode;
+      this.nodes = nodes;
+      this.nodeHashes = nodeHashes;
+      this.weights = weights;
+    }
+
+    @SuppressWarnings("unchecked") // only N's are stored in nodes
+    N node(int i) {
+      return (N) nodes[i];
+    }
+
+    int indexOf(N node) {
+      if (weightsByNode.containsKey(node)) {
+        for (int i = 0; i < nodes.length; i++) {
+          if (nodes[i].equals(node)) {
+            return i;
+          }
+        }
+      }
+      return -1;
+    }
+
+    Nodes<N> plus(N node, long nodeHash, double weight) {
+      Map<N, Double> newWeightsByNode = new LinkedHashMap<>(weightsByNode);
+      newWeightsByNode.put(node, weight);
+      int length = nodes.length + 1;
+      Object[] newNodes = Arrays.copyOf(nodes, length);
+      newNodes[length - 1] = node;
+      long[] newNodeHashes = Arrays.copyOf(nodeHashes, length);
+      newNodeHashes[length - 1] = nodeHash;
+      return new Nodes<>(
+          Collections.unmodifiableMap(newWeightsByNode),
+          newNodes,
+          newNodeHashes,
+          weightsOf(newWeightsByNode));
+    }
+
+    Nodes<N> minus(int index) {
+      Map<N, Double> newWeightsByNode = new LinkedHashMap<>(weightsByNode);
+      newWeightsByNode.remove(nodes[index]);
+      int length = nodes.length - 1;
+      Object[] newNodes = new Object[length];
+      long[] newNodeHashes = new long[length];
+      System.arraycopy(nodes, 0, newNodes, 0, index);
+      System.arraycopy(nodes, index + 1, newNodes, index, length - index);
+      System.arraycopy(nodeHashes, 0, newNodeHashes, 0, index);
+      System.arraycopy(nodeHashes, index + 1, newNodeHashes, index, length - index);
+      return new Nodes<>(
+          Collections.unmodifiableMap(newWeightsByNode),
+          newNodes,
+          newNodeHashes,
+          weightsOf(newWeightsByNode));
+    }
+
+    /**
+     * Returns the weights in iteration order, or null if they are all equal. The map's iteration
+     * order matches the order of {@link #nodes}.
+     */
+    private static double @Nullable [] weightsOf(Map<?, Double> weightsByNode) {
+      double[] weights = new double[weightsByNode.size()];
+      boolean uniform = true;
+      int i = 0;
+      for (double weight : weightsByNode.values()) {
+        weights[i] = weight;
+        uniform &= weight == weights[0];
+        i++;
+      }
+      return uniform ? null : weights;
+    }
+  }
+}
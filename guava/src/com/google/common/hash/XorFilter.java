@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable approximate membership filter for a fixed set of elements: a smaller and faster
+ * alternative to a {@link BloomFilter} when all the elements are known up front. See "Xor Filters:
+ * Faster and Smaller Than Bloom and Cuckoo Filters" by Thomas Mueller Graf and Daniel Lemire.
+ *
+ * <p>Like a Bloom filter, an xor filter has one-sided error: {@link #mightContain} returns {@code
+ * true} for every element the filter was built from, and for any other element with a false
+ * positive probability of about 1/256 (0.4%). The filter takes about 9.84 bits per element, where a
+ * Bloom filter with the same false positive probability takes about 11.5, and a query reads exactly
+ * three bytes.
+ *
+ * <p>Xor filters support a more compact serial representation via the {@link #writeTo} and {@link
+ * #readFrom} methods, as well as Java serialization.
+ *
+ * @param <T> the type of instances that the {@code XorFilter} accepts
+ * @since NEXT
+ */
+@Beta
+@ElementTypesAreNonnullByDefault
+public final class XorFilter<T extends @Nullable Object> implements Serializable {
+  /** The version of the format written by {@link #writeTo}. */
+  private static final byte FORMAT = 0;
+
+  private static final int MAX_ATTEMPTS = 100;
+
+  private final byte[] fingerprints;
+  private final int blockLength;
+  private final long seed;
+  private final Funnel<? super T> funnel;
+
+  private XorFilter(byte[] fingerprints, long seed, Funnel<? super T> funnel) {
+    checkArgument(
+        fingerprints.length > 0 && fingerprints.length % 3 == 0,
+        "fingerprints length (%s) must be a positive multiple of 3",
+        fingerprints.length);
+    this.fingerprints = fingerprints;
+    this.blockLength = fingerprints.length / 3;
+    this.seed = seed;
+    this.funnel = checkNotNull(funnel);
+  }
+
+  /**
+   * Creates an {@link XorFilter} for the given elements. Duplicate elements are ignored.
+   *
+   * @param funnel the funnel of T's that the constructed {@code XorFilter} will use
+   * @param elements the elements for which {@link #mightContain} must return {@code true}
+   * @throws IllegalStateException in the extremely unlikely event that the filter can't be built
+   *     because of hash collisions
+   */
+  public static <T extends @Nullable Object> XorFilter<T> create(
+      Funnel<? super T> funnel, Collection<? extends T> elements) {
+    checkNotNull(funnel);
+    long[] hashes = new long[elements.size()];
+    int n = 0;
+    for (T element : elements) {
+      hashes[n++] = hash(element, funnel);
+    }
+    // Equal elements have equal hashes, which would make construction fail.
+    Arrays.sort(hashes, 0, n);
+    int distinct = 0;
+    for (int i = 0; i < n; i++) {
+      if (distinct == 0 || hashes[i] != hashes[distinct - 1]) {
+        hashes[distinct++] = hashes[i];
+      }
+    }
+
+    int blockLength = Ints.checkedCast((32 + (long) Math.ceil(1.23 * distinct)) / 3);
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      long seed = attempt * 0x9E3779B97F4A7C15L;
+      byte[] fingerprints = build(hashes, distinct, blockLength, seed);
+      if (fingerprints != null) {
+        return new XorFilter<>(fingerprints, seed, funnel);
+      }
+    }
+    throw new IllegalStateException("Could not build XorFilter of " + distinct + " elements");
+  }
+
+  /**
+   * Tries to assign fingerprints to the first {@code n} hashes, returning null if the resulting
+   * hypergraph can't be peeled.
+   */
+  @CheckForNull
+  private static byte[] build(long[] hashes, int n, int blockLength, long seed) {
+    int arrayLength = 3 * blockLength;
+    int[] counts = new int[arrayLength];
+    long[] xorOfHashes = new long[arrayLength];
+    for (int i = 0; i < n; i++) {
+      long h = mix(hashes[i], seed);
+      for (int j = 0; j < 3; j++) {
+        int index = index(h, j, blockLength);
+        counts[index]++;
+        xorOfHashes[index] ^= h;
+      }
+    }
+
+    // Repeatedly remove a hash that is alone in one of its slots, remembering that slot.
+    int[] queue = new int[arrayLength];
+    int queueSize = 0;
+    for (int index = 0; index < arrayLength; index++) {
+      if (counts[index] == 1) {
+        queue[queueSize++] = index;
+      }
+    }
+    long[] stackHashes = new long[n];
+    int[] stackIndexes = new int[n];
+    int stackSize = 0;
+    while (queueSize > 0) {
+      int index = queue[--queueSize];
+      if (counts[index] != 1) {
+        continue;
+      }
+      long h = xorOfHashes[index];
+      stackHashes[stackSize] = h;
+      stackIndexes[stackSize] = index;
+      stackSize++;
+      for (int j = 0; j < 3; j++) {
+        int other = index(h, j, blockLength);
+        counts[other]--;
+        xorOfHashes[other] ^= h;
+        if (counts[other] == 1) {
+          queue[queueSize++] = other;
+        }
+      }
+    }
+    if (stackSize != n) {
+      return null;
+    }
+
+    // Assign in reverse order, so that each hash's own slot is the last of its three to be set.
+    byte[] fingerprints = new byte[arrayLength];
+    for (int i = stackSize - 1; i >= 0; i--) {
+      long h = stackHashes[i];
+      fingerprints[stackIndexes[i]] =
+          (byte)
+              (fingerprint(h)
+                  ^ fingerprints[index(h, 0, blockLength)]
+                  ^ fingerprints[index(h, 1, blockLength)]
+                  ^ fingerprints[index(h, 2, blockLength)]);
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Returns {@code true} if the element <i>might</i> have been one of the elements this filter was
+   * built from, {@code false} if this is <i>definitely</i> not the case.
+   */
+  public boolean mightContain(@ParametricNullness T object) {
+    long h = mix(hash(object, funnel), seed);
+    return fingerprint(h)
+        == (byte)
+            (fingerprints[index(h, 0, blockLength)]
+                ^ fingerprints[index(h, 1, blockLength)]
+                ^ fingerprints[index(h, 2, blockLength)]);
+  }
+
+  /** Returns the number of bits in the underlying fingerprint array. */
+  @VisibleForTesting
+  long bitSize() {
+    return (long) fingerprints.length * Byte.SIZE;
+  }
+
+  private static <T extends @Nullable Object> long hash(
+      @ParametricNullness T object, Funnel<? super T> funnel) {
+    return Hashing.murmur3_128().hashObject(object, funnel).asLong();
+  }
+
+  /** The finalizer of MurmurHash3, applied to the element's hash and the seed. */
+  private static long mix(long hash, long seed) {
+    long h = hash + seed;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /** Returns the slot of {@code h} in the {@code j}th block. */
+  private static int index(long h, int j, int blockLength) {
+    long r = Long.rotateLeft(h, 21 * j) & 0xFFFFFFFFL;
+    return (int) ((r * blockLength) >>> 32) + j * blockLength;
+  }
+
+  private static byte fingerprint(long h) {
+    return (byte) (h ^ (h >>> 32));
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (object instanceof XorFilter) {
+      XorFilter<?> that = (XorFilter<?>) object;
+      return this.seed == that.seed
+          && this.funnel.equals(that.funnel)
+          && Arrays.equals(this.fingerprints, that.fingerprints);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(fingerprints);
+  }
+
+  /**
+   * Writes this {@code XorFilter} to an output stream, with a custom format (not Java
+   * serialization).
+   *
+   * <p>Use {@linkplain #readFrom(InputStream, Funnel)} to reconstruct the written XorFilter.
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    // Serial form:
+    // 1 signed byte for the format
+    // 1 big endian long, the seed
+    // 1 big endian int, the number of fingerprints
+    // N bytes of fingerprints
+    DataOutputStream dout = new DataOutputStream(out);
+    dout.writeByte(FORMAT);
+    dout.writeLong(seed);
+    dout.writeInt(fingerprints.length);
+    dout.write(fingerprints);
+    dout.flush();
+  }
+
+  /**
+   * Reads a byte stream, which was written by {@linkplain #writeTo(OutputStream)}, into an {@code
+   * XorFilter}.
+   *
+   * <p>The {@code Funnel} to be used is not encoded in the stream, so it must be provided here.
+   * <b>Warning:</b> the funnel provided <b>must</b> behave identically to the one used to build the
+   * original filter!
+   *
+   * @throws IOException if the InputStream throws an {@code IOException}, or if its data does not
+   *     appear to be an XorFilter serialized using the {@linkplain #writeTo(OutputStream)} method.
+   */
+  @SuppressWarnings("CatchingUnchecked") // sneaky checked exception
+  public static <T extends @Nullable Object> XorFilter<T> readFrom(
+      InputStream in, Funnel<? super T> funnel) throws IOException {
+    checkNotNull(in, "InputStream");
+    checkNotNull(funnel, "Funnel");
+    int format = -1;
+    int length = -1;
+    try {
+      DataInputStream din = new DataInputStream(in);
+      format = din.readByte();
+      checkArgument(format == FORMAT, "unknown format");
+      long seed = din.readLong();
+      length = din.readInt();
+      byte[] fingerprints = new byte[length];
+      din.readFully(fingerprints);
+      return new XorFilter<>(fingerprints, seed, funnel);
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) { // sneaky checked exception
+      String message =
+          "Unable to deserialize XorFilter from InputStream."
+              + " format: "
+              + format
+              + " length: "
+              + length;
+      throw new IOException(message, e);
+    }
+  }
+
+  private Object writeReplace() {
+    return new SerialForm<T>(this);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  private static class SerialForm<T extends @Nullable Object> implements Serializable {
+    final byte[] fingerprints;
+    final long seed;
+    final Funnel<? super T> funnel;
+
+    SerialForm(XorFilter<T> filter) {
+      this.fingerprints = filter.fingerprints;
+      this.seed = filter.seed;
+      this.funnel = filter.funnel;
+    }
+
+    Object readResolve() {
+      return new XorFilter<T>(fingerprints, seed, funnel);
+    }
+
+    private static final long serialVersionUID = 1;
+  }
+
+  private static final long serialVersionUID = 0xcafebabe;
+}
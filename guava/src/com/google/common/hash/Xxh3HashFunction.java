@@ -0,0 +1,621 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.hash;
+
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static com.google.common.hash.LittleEndianByteArray.load32;
+import static com.google.common.hash.LittleEndianByteArray.load64;
+import static com.google.common.hash.XxHash64HashFunction.avalanche;
+
+import com.google.errorprone.annotations.Immutable;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.annotation.CheckForNull;
+
+/**
+ * See XXH3_64bits and XXH3_128bits in <a href="https://github.com/Cyan4973/xxHash">the reference
+ * implementation</a>, version 0.8.
+ *
+ * <p>The 128-bit variant is encoded by {@link HashCode#asBytes} as the low 64 bits followed by the
+ * high 64 bits, each in little-endian order, so that {@link HashCode#asLong} returns the low half.
+ *
+ * <p>Note to maintainers: like {@link FarmHashFingerprint64}, this implementation relies on signed
+ * arithmetic being bit-wise equivalent to unsigned arithmetic, except for right shifts, which must
+ * be unsigned.
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+final class Xxh3HashFunction extends AbstractHashFunction
+    implements NonAllocatingHashFunction, Serializable {
+  static final HashFunction XXH3_64 = new Xxh3HashFunction(64, 0);
+  static final HashFunction XXH3_128 = new Xxh3HashFunction(128, 0);
+
+  private static final long PRIME32_1 = 0x9E3779B1L;
+  private static final long PRIME32_2 = 0x85EBCA77L;
+  private static final long PRIME32_3 = 0xC2B2AE3DL;
+  private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME64_3 = 0x165667B19E3779F9L;
+  private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+  private static final long PRIME_MX1 = 0x165667919E3779F9L;
+  private static final long PRIME_MX2 = 0x9FB21C651E98DF25L;
+
+  private static final int MIDSIZE_MAX = 240;
+  private static final int STRIPE_LENGTH = 64;
+  private static final int SECRET_LENGTH = 192;
+  private static final int STRIPES_PER_BLOCK = (SECRET_LENGTH - STRIPE_LENGTH) / 8;
+  private static final int BLOCK_LENGTH = STRIPE_LENGTH * STRIPES_PER_BLOCK;
+  private static final int SCRAMBLE_SECRET_OFFSET = SECRET_LENGTH - STRIPE_LENGTH;
+  private static final int LAST_STRIPE_SECRET_OFFSET = SECRET_LENGTH - STRIPE_LENGTH - 7;
+  private static final int MERGE_SECRET_OFFSET = 11;
+
+  /** The default secret, from which the secret for a nonzero seed is derived. */
+  private static final byte[] DEFAULT_SECRET =
+      littleEndianBytes(
+          new long[] {
+            0xBE4BA423396CFEB8L,
+            0x1CAD21F72C81017CL,
+            0xDB979083E96DD4DEL,
+            0x1F67B3B7A4A44072L,
+            0x78E5C0CC4EE679CBL,
+            0x2172FFCC7DD05A82L,
+            0x8E2443F7744608B8L,
+            0x4C263A81E69035E0L,
+            0xCB00C391BB52283CL,
+            0xA32E531B8B65D088L,
+            0x4EF90DA297486471L,
+            0xD8ACDEA946EF1938L,
+            0x3F349CE33F76FAA8L,
+            0x1D4F0BC7C7BBDCF9L,
+            0x3159B4CD4BE0518AL,
+            0x647378D9C97E9FC8L,
+            0xC3EBD33483ACC5EAL,
+            0xEB6313FAFFA081C5L,
+            0x49DAF0B751DD0D17L,
+            0x9E68D429265516D3L,
+            0xFCA1477D58BE162BL,
+            0xCE31D07AD1B8F88FL,
+            0x280416958F3ACB45L,
+            0x7E404BBBCAFBD7AFL
+          });
+
+  private final int bits;
+  private final long seed;
+
+  Xxh3HashFunction(int bits, long seed) {
+    this.bits = bits;
+    this.seed = seed;
+  }
+
+  @Override
+  public int bits() {
+    return bits;
+  }
+
+  @Override
+  public Hasher newHasher() {
+    return new Xxh3Hasher(bits, seed);
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    checkPositionIndexes(off, off + len, input.length);
+    return hash(bits, input, off, len, seed);
+  }
+
+  @Override
+  public void hashBytesTo(byte[] input, int off, int len, long[] dest, int destOffset) {
+    if (bits == 64) {
+      dest[destOffset] = hash64(input, off, len, seed);
+    } else {
+      byte[] hash = hash128(input, off, len, seed).getBytesInternal();
+      dest[destOffset] = load64(hash, 0);
+      dest[destOffset + 1] = load64(hash, 8);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.xxh3_" + bits + "(" + seed + ")";
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof Xxh3HashFunction) {
+      Xxh3HashFunction other = (Xxh3HashFunction) object;
+      return bits == other.bits && seed == other.seed;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode() ^ bits ^ (int) (seed ^ (seed >>> 32));
+  }
+
+  private static HashCode hash(int bits, byte[] input, int off, int len, long seed) {
+    return (bits == 64)
+        ? HashCode.fromLong(hash64(input, off, len, seed))
+        : hash128(input, off, len, seed);
+  }
+
+  static long hash64(byte[] input, int off, int len, long seed) {
+    if (len <= 16) {
+      return hash64UpTo16(input, off, len, seed);
+    } else if (len <= 128) {
+      return hash64UpTo128(input, off, len, seed);
+    } else if (len <= MIDSIZE_MAX) {
+      return hash64UpTo240(input, off, len, seed);
+    }
+    byte[] secret = secret(seed);
+    long[] acc = initialAccumulators();
+    accumulateLong(acc, input, off, len, secret);
+    return mergeAccumulators(acc, secret, MERGE_SECRET_OFFSET, len * PRIME64_1);
+  }
+
+  static HashCode hash128(byte[] input, int off, int len, long seed) {
+    if (len <= 16) {
+      return hash128UpTo16(input, off, len, seed);
+    } else if (len <= MIDSIZE_MAX) {
+      return hash128UpTo240(input, off, len, seed);
+    }
+    byte[] secret = secret(seed);
+    long[] acc = initialAccumulators();
+    accumulateLong(acc, input, off, len, secret);
+    return merge128(acc, secret, len);
+  }
+
+  private static long hash64UpTo16(byte[] input, int off, int len, long seed) {
+    byte[] s = DEFAULT_SECRET;
+    if (len > 8) {
+      long bitflip1 = (load64(s, 24) ^ load64(s, 32)) + seed;
+      long bitflip2 = (load64(s, 40) ^ load64(s, 48)) - seed;
+      long lo = load64(input, off) ^ bitflip1;
+      long hi = load64(input, off + len - 8) ^ bitflip2;
+      long acc = len + Long.reverseBytes(lo) + hi + multiplyFold(lo, hi);
+      return xxh3Avalanche(acc);
+    } else if (len >= 4) {
+      seed ^= (long) Integer.reverseBytes((int) seed) << 32;
+      long input1 = uint32(input, off);
+      long input2 = uint32(input, off + len - 4);
+      long bitflip = (load64(s, 8) ^ load64(s, 16)) - seed;
+      return rrmxmx((input2 + (input1 << 32)) ^ bitflip, len);
+    } else if (len > 0) {
+      long bitflip = (uint32(s, 0) ^ uint32(s, 4)) + seed;
+      return avalanche(combine1To3(input, off, len) ^ bitflip);
+    }
+    return avalanche(seed ^ load64(s, 56) ^ load64(s, 64));
+  }
+
+  private static long hash64UpTo128(byte[] input, int off, int len, long seed) {
+    byte[] s = DEFAULT_SECRET;
+    int end = off + len;
+    long acc = len * PRIME64_1;
+    if (len > 32) {
+      if (len > 64) {
+        if (len > 96) {
+          acc += mix16(input, off + 48, s, 96, seed);
+          acc += mix16(input, end - 64, s, 112, seed);
+        }
+        acc += mix16(input, off + 32, s, 64, seed);
+        acc += mix16(input, end - 48, s, 80, seed);
+      }
+      acc += mix16(input, off + 16, s, 32, seed);
+      acc += mix16(input, end - 32, s, 48, seed);
+    }
+    acc += mix16(input, off, s, 0, seed);
+    acc += mix16(input, end - 16, s, 16, seed);
+    return xxh3Avalanche(acc);
+  }
+
+  private static long hash64UpTo240(byte[] input, int off, int len, long seed) {
+    byte[] s = DEFAULT_SECRET;
+    long acc = len * PRIME64_1;
+    int rounds = len / 16;
+    for (int i = 0; i < 8; i++) {
+      acc += mix16(input, off + 16 * i, s, 16 * i, seed);
+    }
+    acc = xxh3Avalanche(acc);
+    for (int i = 8; i < rounds; i++) {
+      acc += mix16(input, off + 16 * i, s, 16 * (i - 8) + 3, seed);
+    }
+    acc += mix16(input, off + len - 16, s, 119, seed);
+    return xxh3Avalanche(acc);
+  }
+
+  private static HashCode hash128UpTo16(byte[] input, int off, int len, long seed) {
+    byte[] s = DEFAULT_SECRET;
+    if (len > 8) {
+      long bitflipLow = (load64(s, 32) ^ load64(s, 40)) - seed;
+      long bitflipHigh = (load64(s, 48) ^ load64(s, 56)) + seed;
+      long inputLow = load64(input, off);
+      long inputHigh = load64(input, off + len - 8);
+      long m = inputLow ^ inputHigh ^ bitflipLow;
+      long mLow = m * PRIME64_1 + ((long) (len - 1) << 54);
+      long mHigh = multiplyHigh(m, PRIME64_1);
+      inputHigh ^= bitflipHigh;
+      mHigh += inputHigh + (inputHigh & 0xFFFFFFFFL) * (PRIME32_2 - 1);
+      mLow ^= Long.reverseBytes(mHigh);
+      long low = mLow * PRIME64_2;
+      long high = multiplyHigh(mLow, PRIME64_2) + mHigh * PRIME64_2;
+      return hashCode128(xxh3Avalanche(low), xxh3Avalanche(high));
+    } else if (len >= 4) {
+      seed ^= (long) Integer.reverseBytes((int) seed) << 32;
+      long inputLow = uint32(input, off);
+      long inputHigh = uint32(input, off + len - 4);
+      long bitflip = (load64(s, 16) ^ load64(s, 24)) + seed;
+      long keyed = (inputLow + (inputHigh << 32)) ^ bitflip;
+      long multiplier = PRIME64_1 + ((long) len << 2);
+      long low = keyed * multiplier;
+      long high = multiplyHigh(keyed, multiplier);
+      high += low << 1;
+      low ^= high >>> 3;
+      low ^= low >>> 35;
+      low *= PRIME_MX2;
+      low ^= low >>> 28;
+      return hashCode128(low, xxh3Avalanche(high));
+    } else if (len > 0) {
+      long combinedLow = combine1To3(input, off, len);
+      long combinedHigh =
+          Integer.rotateLeft(Integer.reverseBytes((int) combinedLow), 13) & 0xFFFFFFFFL;
+      long bitflipLow = (uint32(s, 0) ^ uint32(s, 4)) + seed;
+      long bitflipHigh = (uint32(s, 8) ^ uint32(s, 12)) - seed;
+      return hashCode128(
+          avalanche(combinedLow ^ bitflipLow), avalanche(combinedHigh ^ bitflipHigh));
+    }
+    return hashCode128(
+        avalanche(seed ^ load64(s, 64) ^ load64(s, 72)),
+        avalanche(seed ^ load64(s, 80) ^ load64(s, 88)));
+  }
+
+  private static HashCode hash128UpTo240(byte[] input, int off, int len, long seed) {
+    byte[] s = DEFAULT_SECRET;
+    int end = off + len;
+    long low = len * PRIME64_1;
+    long high = 0;
+    if (len <= 128) {
+      if (len > 32) {
+        if (len > 64) {
+          if (len > 96) {
+            low = mix32Half(low, input, off + 48, end - 64, s, 96, seed);
+            high = mix32Half(high, input, end - 64, off + 48, s, 112, seed);
+          }
+          low = mix32Half(low, input, off + 32, end - 48, s, 64, seed);
+          high = mix32Half(high, input, end - 48, off + 32, s, 80, seed);
+        }
+        low = mix32Half(low, input, off + 16, end - 32, s, 32, seed);
+        high = mix32Half(high, input, end - 32, off + 16, s, 48, seed);
+      }
+      low = mix32Half(low, input, off, end - 16, s, 0, seed);
+      high = mix32Half(high, input, end - 16, off, s, 16, seed);
+    } else {
+      int rounds = len / 32;
+      for (int i = 0; i < 4; i++) {
+        int in = off + 32 * i;
+        low = mix32Half(low, input, in, in + 16, s, 32 * i, seed);
+        high = mix32Half(high, input, in + 16, in, s, 32 * i + 16, seed);
+      }
+      low = xxh3Avalanche(low);
+      high = xxh3Avalanche(high);
+      for (int i = 4; i < rounds; i++) {
+        int in = off + 32 * i;
+        int secretOffset = 32 * (i - 4) + 3;
+        low = mix32Half(low, input, in, in + 16, s, secretOffset, seed);
+        high = mix32Half(high, input, in + 16, in, s, secretOffset + 16, seed);
+      }
+      low = mix32Half(low, input, end - 16, end - 32, s, 103, -seed);
+      high = mix32Half(high, input, end - 32, end - 16, s, 119, -seed);
+    }
+    long h1 = low + high;
+    long h2 = low * PRIME64_1 + high * PRIME64_4 + (len - seed) * PRIME64_2;
+    return hashCode128(xxh3Avalanche(h1), -xxh3Avalanche(h2));
+  }
+
+  /** Combines 1 to 3 bytes of input into a 32-bit value, as an unsigned {@code long}. */
+  private static long combine1To3(byte[] input, int off, int len) {
+    long c1 = input[off] & 0xFFL;
+    long c2 = input[off + (len >> 1)] & 0xFFL;
+    long c3 = input[off + len - 1] & 0xFFL;
+    return (c1 << 16) | (c2 << 24) | c3 | ((long) len << 8);
+  }
+
+  private static long mix16(byte[] input, int off, byte[] secret, int secretOffset, long seed) {
+    long lo = load64(input, off) ^ (load64(secret, secretOffset) + seed);
+    long hi = load64(input, off + 8) ^ (load64(secret, secretOffset + 8) - seed);
+    return multiplyFold(lo, hi);
+  }
+
+  /**
+   * One half of XXH128_mix32B: mixes the 16 bytes at {@code in1} into {@code acc}, then xors in the
+   * sum of the 16 bytes at {@code in2}.
+   */
+  private static long mix32Half(
+      long acc, byte[] input, int in1, int in2, byte[] secret, int secretOffset, long seed) {
+    acc += mix16(input, in1, secret, secretOffset, seed);
+    return acc ^ (load64(input, in2) + load64(input, in2 + 8));
+  }
+
+  private static long[] initialAccumulators() {
+    return new long[] {
+      PRIME32_3, PRIME64_1, PRIME64_2, PRIME64_3, PRIME64_4, PRIME32_2, PRIME64_5, PRIME32_1
+    };
+  }
+
+  /** Consumes all of a {@code len > 240} input into {@code acc}, including the last stripe. */
+  private static void accumulateLong(long[] acc, byte[] input, int off, int len, byte[] secret) {
+    int blocks = (len - 1) / BLOCK_LENGTH;
+    for (int block = 0; block < blocks; block++) {
+      accumulate(acc, input, off + block * BLOCK_LENGTH, STRIPES_PER_BLOCK, secret, 0);
+      scramble(acc, secret);
+    }
+    int stripes = (len - 1 - blocks * BLOCK_LENGTH) / STRIPE_LENGTH;
+    accumulate(acc, input, off + blocks * BLOCK_LENGTH, stripes, secret, 0);
+    accumulate(acc, input, off + len - STRIPE_LENGTH, 1, secret, LAST_STRIPE_SECRET_OFFSET);
+  }
+
+  /**
+   * Accumulates {@code stripes} consecutive stripes of input, the secret offset advancing by 8
+   * bytes per stripe. The accumulators are kept in locals, which is much faster than updating the
+   * array in place.
+   */
+  private static void accumulate(
+      long[] acc, byte[] input, int off, int stripes, byte[] secret, int secretOffset) {
+    long acc0 = acc[0];
+    long acc1 = acc[1];
+    long acc2 = acc[2];
+    long acc3 = acc[3];
+    long acc4 = acc[4];
+    long acc5 = acc[5];
+    long acc6 = acc[6];
+    long acc7 = acc[7];
+    for (int stripe = 0; stripe < stripes; stripe++) {
+      int in = off + stripe * STRIPE_LENGTH;
+      int s = secretOffset + stripe * 8;
+      long data0 = load64(input, in);
+      long data1 = load64(input, in + 8);
+      long data2 = load64(input, in + 16);
+      long data3 = load64(input, in + 24);
+      long data4 = load64(input, in + 32);
+      long data5 = load64(input, in + 40);
+      long data6 = load64(input, in + 48);
+      long data7 = load64(input, in + 56);
+      long key0 = data0 ^ load64(secret, s);
+      long key1 = data1 ^ load64(secret, s + 8);
+      long key2 = data2 ^ load64(secret, s + 16);
+      long key3 = data3 ^ load64(secret, s + 24);
+      long key4 = data4 ^ load64(secret, s + 32);
+      long key5 = data5 ^ load64(secret, s + 40);
+      long key6 = data6 ^ load64(secret, s + 48);
+      long key7 = data7 ^ load64(secret, s + 56);
+      acc0 += data1 + (key0 & 0xFFFFFFFFL) * (key0 >>> 32);
+      acc1 += data0 + (key1 & 0xFFFFFFFFL) * (key1 >>> 32);
+      acc2 += data3 + (key2 & 0xFFFFFFFFL) * (key2 >>> 32);
+      acc3 += data2 + (key3 & 0xFFFFFFFFL) * (key3 >>> 32);
+      acc4 += data5 + (key4 & 0xFFFFFFFFL) * (key4 >>> 32);
+      acc5 += data4 + (key5 & 0xFFFFFFFFL) * (key5 >>> 32);
+      acc6 += data7 + (key6 & 0xFFFFFFFFL) * (key6 >>> 32);
+      acc7 += data6 + (key7 & 0xFFFFFFFFL) * (key7 >>> 32);
+    }
+    acc[0] = acc0;
+    acc[1] = acc1;
+    acc[2] = acc2;
+    acc[3] = acc3;
+    acc[4] = acc4;
+    acc[5] = acc5;
+    acc[6] = acc6;
+    acc[7] = acc7;
+  }
+
+  private static void scramble(long[] acc, byte[] secret) {
+    for (int i = 0; i < 8; i++) {
+      long a = acc[i];
+      a ^= a >>> 47;
+      a ^= load64(secret, SCRAMBLE_SECRET_OFFSET + 8 * i);
+      acc[i] = a * PRIME32_1;
+    }
+  }
+
+  private static long mergeAccumulators(long[] acc, byte[] secret, int secretOffset, long start) {
+    long result = start;
+    for (int i = 0; i < 4; i++) {
+      result +=
+          multiplyFold(
+              acc[2 * i] ^ load64(secret, secretOffset + 16 * i),
+              acc[2 * i + 1] ^ load64(secret, secretOffset + 16 * i + 8));
+    }
+    return xxh3Avalanche(result);
+  }
+
+  private static HashCode merge128(long[] acc, byte[] secret, long len) {
+    long low = mergeAccumulators(acc, secret, MERGE_SECRET_OFFSET, len * PRIME64_1);
+    long high =
+        mergeAccumulators(
+            acc, secret, SECRET_LENGTH - STRIPE_LENGTH - MERGE_SECRET_OFFSET, ~(len * PRIME64_2));
+    return hashCode128(low, high);
+  }
+
+  /**
+   * Returns the secret used for inputs longer than 240 bytes: the default secret if {@code seed} is
+   * 0, else one derived from it.
+   */
+  private static byte[] secret(long seed) {
+    if (seed == 0) {
+      return DEFAULT_SECRET;
+    }
+    byte[] secret = new byte[SECRET_LENGTH];
+    for (int i = 0; i < SECRET_LENGTH; i += 16) {
+      LittleEndianByteArray.store64(secret, i, load64(DEFAULT_SECRET, i) + seed);
+      LittleEndianByteArray.store64(secret, i + 8, load64(DEFAULT_SECRET, i + 8) - seed);
+    }
+    return secret;
+  }
+
+  private static long xxh3Avalanche(long h) {
+    h ^= h >>> 37;
+    h *= PRIME_MX1;
+    return h ^ (h >>> 32);
+  }
+
+  private static long rrmxmx(long h, int len) {
+    h ^= Long.rotateLeft(h, 49) ^ Long.rotateLeft(h, 24);
+    h *= PRIME_MX2;
+    h ^= (h >>> 35) + len;
+    h *= PRIME_MX2;
+    return h ^ (h >>> 28);
+  }
+
+  /** Returns the low 64 bits of the 128-bit product of {@code a} and {@code b} xor the high 64. */
+  private static long multiplyFold(long a, long b) {
+    return (a * b) ^ multiplyHigh(a, b);
+  }
+
+  /** Returns the high 64 bits of the unsigned 128-bit product of {@code a} and {@code b}. */
+  private static long multiplyHigh(long a, long b) {
+    long aLow = a & 0xFFFFFFFFL;
+    long aHigh = a >>> 32;
+    long bLow = b & 0xFFFFFFFFL;
+    long bHigh = b >>> 32;
+    long lowLow = aLow * bLow;
+    long highLow = aHigh * bLow;
+    long cross = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + aLow * bHigh;
+    return (highLow >>> 32) + (cross >>> 32) + aHigh * bHigh;
+  }
+
+  private static long uint32(byte[] input, int off) {
+    return load32(input, off) & 0xFFFFFFFFL;
+  }
+
+  private static byte[] littleEndianBytes(long[] longs) {
+    byte[] bytes = new byte[longs.length * 8];
+    for (int i = 0; i < longs.length; i++) {
+      LittleEndianByteArray.store64(bytes, i * 8, longs[i]);
+    }
+    return bytes;
+  }
+
+  private static HashCode hashCode128(long low, long high) {
+    return HashCode.fromBytesNoCopy(
+        ByteBuffer.wrap(new byte[16])
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .putLong(low)
+            .putLong(high)
+            .array());
+  }
+
+  /**
+   * Buffers up to 256 bytes (four stripes) of input, consuming the buffer only once more input
+   * arrives, since the last stripe of the input is processed differently.
+   */
+  private static final class Xxh3Hasher extends AbstractByteHasher {
+    private static final int BUFFER_LENGTH = 4 * STRIPE_LENGTH;
+
+    private final int bits;
+    private final long seed;
+    private final byte[] secret;
+    private final long[] acc = initialAccumulators();
+    private final byte[] buffer = new byte[BUFFER_LENGTH];
+    private int bufferedLength;
+    private int stripesInBlock;
+    private long totalLength;
+
+    Xxh3Hasher(int bits, long seed) {
+      this.bits = bits;
+      this.seed = seed;
+      this.secret = secret(seed);
+    }
+
+    @Override
+    protected void update(byte b) {
+      if (bufferedLength == BUFFER_LENGTH) {
+        consumeStripes(buffer, 0, BUFFER_LENGTH / STRIPE_LENGTH);
+        bufferedLength = 0;
+      }
+      buffer[bufferedLength++] = b;
+      totalLength++;
+    }
+
+    @Override
+    protected void update(byte[] b, int off, int len) {
+      totalLength += len;
+      if (len <= BUFFER_LENGTH - bufferedLength) {
+        System.arraycopy(b, off, buffer, bufferedLength, len);
+        bufferedLength += len;
+        return;
+      }
+      if (bufferedLength > 0) {
+        int fill = BUFFER_LENGTH - bufferedLength;
+        System.arraycopy(b, off, buffer, bufferedLength, fill);
+        off += fill;
+        len -= fill;
+        consumeStripes(buffer, 0, BUFFER_LENGTH / STRIPE_LENGTH);
+        bufferedLength = 0;
+      }
+      if (len > BUFFER_LENGTH) {
+        int stripes = (len - 1) / STRIPE_LENGTH;
+        consumeStripes(b, off, stripes);
+        off += stripes * STRIPE_LENGTH;
+        len -= stripes * STRIPE_LENGTH;
+        // Keep the last consumed stripe, in case the final stripe must overlap it.
+        System.arraycopy(
+            b, off - STRIPE_LENGTH, buffer, BUFFER_LENGTH - STRIPE_LENGTH, STRIPE_LENGTH);
+      }
+      System.arraycopy(b, off, buffer, 0, len);
+      bufferedLength = len;
+    }
+
+    private void consumeStripes(byte[] input, int off, int stripes) {
+      while (stripes > 0) {
+        int n = Math.min(stripes, STRIPES_PER_BLOCK - stripesInBlock);
+        accumulate(acc, input, off, n, secret, stripesInBlock * 8);
+        off += n * STRIPE_LENGTH;
+        stripes -= n;
+        stripesInBlock += n;
+        if (stripesInBlock == STRIPES_PER_BLOCK) {
+          scramble(acc, secret);
+          stripesInBlock = 0;
+        }
+      }
+    }
+
+    @Override
+    public HashCode hash() {
+      if (totalLength <= MIDSIZE_MAX) {
+        return Xxh3HashFunction.hash(bits, buffer, 0, bufferedLength, seed);
+      }
+      byte[] lastStripe;
+      int lastStripeOffset;
+      if (bufferedLength >= STRIPE_LENGTH) {
+        consumeStripes(buffer, 0, (bufferedLength - 1) / STRIPE_LENGTH);
+        lastStripe = buffer;
+        lastStripeOffset = bufferedLength - STRIPE_LENGTH;
+      } else {
+        int catchUp = STRIPE_LENGTH - bufferedLength;
+        lastStripe = new byte[STRIPE_LENGTH];
+        System.arraycopy(buffer, BUFFER_LENGTH - catchUp, lastStripe, 0, catchUp);
+        System.arraycopy(buffer, 0, lastStripe, catchUp, bufferedLength);
+        lastStripeOffset = 0;
+      }
+      accumulate(acc, lastStripe, lastStripeOffset, 1, secret, LAST_STRIPE_SECRET_OFFSET);
+      return (bits == 64)
+          ? HashCode.fromLong(
+              mergeAccumulators(acc, secret, MERGE_SECRET_OFFSET, totalLength * PRIME64_1))
+          : merge128(acc, secret, totalLength);
+    }
+  }
+
+  private static final long serialVersionUID = 0L;
+}
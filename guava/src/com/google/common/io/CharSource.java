@@ -14,6 +14,7 @@
 
 package com.google.common.io;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.GwtIncompatible;
@@ -170,6 +171,41 @@ public abstract class CharSource {
             });
   }
 
+  /**
+   * Opens a new parallel {@link Stream} for reading text one line at a time from this source, so
+   * that the lines can be processed on multiple threads. This method returns a new, independent
+   * stream each time it is called. Lines are split as by {@link #lines()}.
+   *
+   * <p>If this source was created by {@link ByteSource#asCharSource} (for example by {@link
+   * Files#asCharSource}) with a charset in which a {@code '\n'} byte is always a line feed ({@code
+   * UTF-8}, {@code US-ASCII} or {@code ISO-8859-1}), and the size of its byte source is known, the
+   * bytes are split at line feeds into chunks of at least about {@code chunkSize} bytes, and each
+   * chunk is read and decoded independently through its own {@link ByteSource#slice slice}. The
+   * boundaries between chunks are found only as the stream divides its work among threads, in the
+   * terminal operation. Otherwise, the source is read sequentially, and its lines are handed out to
+   * the threads in batches.
+   *
+   * <p>The stream is {@linkplain java.util.Spliterator#ORDERED ordered}: collecting its lines, or
+   * consuming them with {@link Stream#forEachOrdered}, preserves their order in the source. If the
+   * order doesn't matter, use {@link Stream#unordered} or {@link Stream#forEach}, which may be
+   * faster.
+   *
+   * <p>The returned stream is lazy and only reads from the source in the terminal operation. If an
+   * I/O error occurs while the stream is reading from the source or when the stream is closed, an
+   * {@link UncheckedIOException} is thrown. The caller is responsible for ensuring that the
+   * returned stream is closed.
+   *
+   * @param chunkSize the approximate number of bytes in each independently read chunk
+   * @throws IllegalArgumentException if {@code chunkSize} is not positive
+   * @throws IOException if an I/O error occurs while opening the stream
+   * @since NEXT
+   */
+  @MustBeClosed
+  public Stream<String> linesParallel(int chunkSize) throws IOException {
+    checkArgument(chunkSize > 0, "chunkSize (%s) must be positive", chunkSize);
+    return lines().parallel();
+  }
+
   /**
    * Returns the size of this source in chars, if the size can be easily determined without actually
    * opening the data stream.
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.io;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.J2ktIncompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A callback to be used with {@link ByteSource#readLines(LineBytesProcessor)}, which splits bytes
+ * into lines without decoding them.
+ *
+ * <p>{@link #processLine} will be called for each line that is read, and should return {@code
+ * false} when you want to stop processing.
+ *
+ * @since NEXT
+ */
+@J2ktIncompatible
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+public interface LineBytesProcessor<T extends @Nullable Object> {
+
+  /**
+   * This method will be called once for each line, with the bytes of the line, without delimiter,
+   * in {@code buf[off, off + len)}. The array is reused, and may be a buffer internal to the byte
+   * source, so its contents are only valid during the call, and must not be modified.
+   *
+   * @return true to continue processing, false to stop
+   */
+  @CanIgnoreReturnValue // some uses know that their processor never returns false
+  boolean processLine(byte[] buf, int off, int len) throws IOException;
+
+  /** Return the result of processing all the lines. */
+  @ParametricNullness
+  T getResult();
+}
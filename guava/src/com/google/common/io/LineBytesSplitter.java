@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2024 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.google.common.io;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.annotations.J2ktIncompatible;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.annotation.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link ByteProcessor} that splits the bytes it is given into lines, terminated by {@code \n},
+ * {@code \r} or {@code \r\n} like {@link LineReader}, and passes them to a {@link
+ * LineBytesProcessor}. Call {@link #finish} after the last buffer. Lines that lie within one buffer
+ * are passed as slices of that buffer; only a line that spans buffers is copied, into a reused
+ * array that grows to fit the longest such line.
+ */
+@J2ktIncompatible
+@GwtIncompatible
+@ElementTypesAreNonnullByDefault
+final class LineBytesSplitter implements ByteProcessor<@Nullable Void> {
+  private final LineBytesProcessor<?> processor;
+
+  /** The start of the current line, from earlier buffers. */
+  private byte[] partialLine = new byte[0];
+
+  private int partialLineLength;
+
+  /** Whether the last buffer ended in {@code \r}, so that a {@code \n} that follows is skipped. */
+  private boolean skipLineFeed;
+
+  /** Whether the processor has returned false. */
+  private boolean stopped;
+
+  LineBytesSplitter(LineBytesProcessor<?> processor) {
+    this.processor = checkNotNull(processor);
+  }
+
+  @Override
+  public boolean processBytes(byte[] buf, int off, int len) throws IOException {
+    int end = off + len;
+    int start = off;
+    if (skipLineFeed && start < end) {
+      skipLineFeed = false;
+      if (buf[start] == '\n') {
+        start++;
+      }
+    }
+    for (int i = start; i < end; i++) {
+      byte b = buf[i];
+      if (b != '\n' && b != '\r') {
+        continue;
+      }
+      if (!emit(buf, start, i - start)) {
+        stopped = true;
+        return false;
+      }
+      if (b == '\r') {
+        if (i + 1 < end) {
+          if (buf[i + 1] == '\n') {
+            i++;
+          }
+        } else {
+          skipLineFeed = true;
+        }
+      }
+      start = i + 1;
+    }
+    append(buf, start, end - start);
+    return true;
+  }
+
+  /** Passes the line made of {@link #partialLine} and {@code buf[off, off + len)}. */
+  private boolean emit(byte[] buf, int off, int len) throws IOException {
+    if (partialLineLength == 0) {
+      return processor.processLine(buf, off, len);
+    }
+    append(buf, off, len);
+    int length = partialLineLength;
+    partialLineLength = 0;
+    return processor.processLine(partialLine, 0, length);
+  }
+
+  private void append(byte[] buf, int off, int len) {
+    if (len == 0) {
+      return;
+    }
+    int needed = partialLineLength + len;
+    if (needed > partialLine.length) {
+      partialLine = Arrays.copyOf(partialLine, Math.max(needed, 2 * partialLine.length));
+    }
+    System.arraycopy(buf, off, partialLine, partialLineLength, len);
+    partialLineLength = needed;
+  }
+
+  /** Passes the last line, if it had no terminator. Call this after the last buffer. */
+  void finish() throws IOException {
+    if (!stopped && partialLineLength > 0) {
+      int length = partialLineLength;
+      partialLineLength = 0;
+      processor.processLine(partialLine, 0, length);
+    }
+  }
+
+  @Override
+  @CheckForNull
+  public Void getResult() {
+    return null;
+  }
+}